@@ -0,0 +1,71 @@
+package co.com.bancolombia.ecs.helpers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sanitizing a JSON body by streaming its tokens with parsing it into a tree, for bodies
+ * of about 1 KB, 100 KB and 5 MB with a few sensitive fields at every level.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DataSanitizerBenchmark {
+
+    private static final Set<String> SENSITIVE_FIELDS = Set.of("password", "cardnumber", "documentid");
+    private static final String REPLACEMENT = "****";
+    private static final SanitizationPlan PLAN = SanitizationPlan.compile(SENSITIVE_FIELDS, List.of(), REPLACEMENT);
+
+    @Param({"1024", "102400", "5242880"})
+    private int size;
+
+    private String body;
+
+    @Setup
+    public void setUp() {
+        var json = new StringBuilder(size + 256).append("{\"customers\":[");
+        for (var i = 0; json.length() < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Customer ").append(i).append('"')
+                    .append(",\"documentId\":\"").append(1_000_000_000L + i).append('"')
+                    .append(",\"account\":{\"type\":\"SAVINGS\",\"balance\":").append(i * 1_000.25)
+                    .append(",\"cardNumber\":\"4111111111111111\",\"tags\":[\"a\",\"b\"]}")
+                    .append(",\"password\":{\"hash\":\"9f86d081884c7d659a2feaa0c55ad015\"}}");
+        }
+        body = json.append("],\"channel\":\"APP\"}").toString();
+        System.out.printf("%nbody bytes: %d%n", body.length());
+    }
+
+    @Benchmark
+    public String stream() {
+        return DataSanitizer.sanitize(body, SENSITIVE_FIELDS, List.of(), REPLACEMENT);
+    }
+
+    @Benchmark
+    public Object streamToRaw() {
+        return DataSanitizer.sanitizeToRaw(body, null, SENSITIVE_FIELDS, List.of(), REPLACEMENT);
+    }
+
+    @Benchmark
+    public String tree() {
+        return DataSanitizer.sanitizeTree(body, body, PLAN);
+    }
+
+    @Benchmark
+    public Object streamToRawWithPlan() {
+        return DataSanitizer.sanitizeToRaw(body, null, PLAN, BodyLimits.NONE);
+    }
+}
@@ -0,0 +1,89 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of encoding a typical request record as JSON text and in each {@link BinaryEncoding}.
+ * The size of one record in each format is printed when the benchmark starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LogRecordEncodingBenchmark {
+
+    private static final LogRecordSerializer.SliceWriter<int[]> SIZE_WRITER =
+            (size, buffer, offset, length) -> size[0] = length;
+
+    private LogRecord<String, Object> logRecord;
+    private final int[] size = new int[1];
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> requestBody = new LinkedHashMap<>();
+        requestBody.put("customerId", "1234567890");
+        requestBody.put("amount", 150_000.75);
+        requestBody.put("currency", "COP");
+        requestBody.put("items", List.of(Map.of("sku", "A-1", "quantity", 2), Map.of("sku", "B-7", "quantity", 1)));
+        Map<String, Object> responseBody = new LinkedHashMap<>();
+        responseBody.put("status", "APPROVED");
+        responseBody.put("authorization", "9f86d081884c7d659a2feaa0c55ad015");
+
+        logRecord = new LogRecord<>();
+        logRecord.setService("payments-api");
+        logRecord.setConsumer("mobile-app");
+        logRecord.setLevel(LogRecord.Level.INFO);
+        logRecord.setMessageId("0190b1d2-7c3e-7a4b-9f12-3c4d5e6f7a8b");
+        logRecord.setAdditionalInfo(LogRecord.AdditionalInfo.<String, Object>builder()
+                .method("POST")
+                .uri("/api/v1/payments")
+                .headers(Map.of("Content-Type", "application/json", "x-channel", "APP"))
+                .requestBody(requestBody)
+                .responseBody(responseBody)
+                .responseCode("200")
+                .responseResult("OK")
+                .build());
+
+        System.out.printf("%nbytes/record: json=%d", LogRecordSerializer.toJson(logRecord)
+                .getBytes(StandardCharsets.UTF_8).length);
+        for (BinaryEncoding encoding : BinaryEncoding.values()) {
+            System.out.printf(" %s=%d", encoding.name().toLowerCase(), LogRecordSerializer.toBytes(logRecord, encoding).length);
+        }
+        System.out.println();
+    }
+
+    @Benchmark
+    public String toJson() {
+        return LogRecordSerializer.toJson(logRecord);
+    }
+
+    @Benchmark
+    public int writeJson() {
+        LogRecordSerializer.writeJson(logRecord, size, SIZE_WRITER);
+        return size[0];
+    }
+
+    @Benchmark
+    public int writeCbor() {
+        LogRecordSerializer.writeBinary(logRecord, BinaryEncoding.CBOR, size, SIZE_WRITER);
+        return size[0];
+    }
+
+    @Benchmark
+    public int writeSmile() {
+        LogRecordSerializer.writeBinary(logRecord, BinaryEncoding.SMILE, size, SIZE_WRITER);
+        return size[0];
+    }
+}
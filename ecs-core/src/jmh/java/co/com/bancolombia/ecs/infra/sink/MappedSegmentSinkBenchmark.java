@@ -0,0 +1,105 @@
+package co.com.bancolombia.ecs.infra.sink;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.infra.layout.EcsJsonLayout;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.appender.RollingRandomAccessFileAppender;
+import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.SizeBasedTriggeringPolicy;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares writing a typical request record through {@link MappedSegmentSink} against the Log4j2
+ * RollingRandomAccessFile appender with {@link EcsJsonLayout}, both rolling every 64 MB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappedSegmentSinkBenchmark {
+
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final long ROLL_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
+    private Path directory;
+    private LogRecord<String, Object> logRecord;
+    private MappedSegmentSink sink;
+    private RollingRandomAccessFileAppender appender;
+    private MutableLogEvent event;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("ecs-sink-benchmark");
+        logRecord = new LogRecord<>();
+        logRecord.setService("payments-api");
+        logRecord.setConsumer("mobile-app");
+        logRecord.setLevel(LogRecord.Level.INFO);
+        logRecord.setMessageId("0190b1d2-7c3e-7a4b-9f12-3c4d5e6f7a8b");
+        logRecord.setAdditionalInfo(LogRecord.AdditionalInfo.<String, Object>builder()
+                .method("POST")
+                .uri("/api/v1/payments")
+                .headers(Map.of("Content-Type", "application/json", "x-channel", "APP"))
+                .requestBody(Map.of("customerId", "1234567890", "amount", 150_000.75))
+                .responseBody(Map.of("status", "APPROVED"))
+                .responseCode("200")
+                .responseResult("OK")
+                .build());
+
+        sink = new MappedSegmentSink(directory.resolve("mapped"), "ecs", SEGMENT_SIZE, ROLL_INTERVAL_MS,
+                sealed -> { });
+
+        var configuration = new DefaultConfiguration();
+        appender = RollingRandomAccessFileAppender.newBuilder()
+                .setName("ROLLING")
+                .setConfiguration(configuration)
+                .setLayout(EcsJsonLayout.createLayout())
+                .withFileName(directory.resolve("rolling/ecs.ndjson").toString())
+                .withFilePattern(directory.resolve("rolling/ecs-%i.ndjson").toString())
+                .withPolicy(SizeBasedTriggeringPolicy.createPolicy(SEGMENT_SIZE + " B"))
+                .withStrategy(DefaultRolloverStrategy.newBuilder().withConfig(configuration).build())
+                .withImmediateFlush(false)
+                .build();
+        appender.start();
+        event = new MutableLogEvent();
+        event.setLevel(Level.INFO);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        sink.close();
+        appender.stop();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mappedSegmentSink() {
+        sink.write(EcsLogMessage.of(logRecord));
+    }
+
+    @Benchmark
+    public void rollingRandomAccessFile() {
+        event.setMessage(EcsLogMessage.of(logRecord));
+        appender.append(event);
+    }
+}
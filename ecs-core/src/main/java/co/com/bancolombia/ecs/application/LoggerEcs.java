@@ -3,35 +3,136 @@ package co.com.bancolombia.ecs.application;
 import co.com.bancolombia.ecs.domain.model.LogRecord;
 import co.com.bancolombia.ecs.helpers.SamplingHelper;
 import co.com.bancolombia.ecs.helpers.SensitiveHelper;
+import co.com.bancolombia.ecs.infra.async.AsyncLogDispatcher;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+import co.com.bancolombia.ecs.infra.overload.OverloadController;
+import co.com.bancolombia.ecs.infra.sink.EcsRecordSink;
 import lombok.extern.log4j.Log4j2;
+import org.apache.logging.log4j.Level;
 
 @Log4j2
 public class LoggerEcs {
 
+    private static volatile AsyncLogDispatcher dispatcher;
+    private static volatile EcsRecordSink recordSink;
+    private static volatile OverloadController overloadController;
+
     private LoggerEcs() {
     }
 
+    public static void setDispatcher(AsyncLogDispatcher asyncLogDispatcher) {
+        dispatcher = asyncLogDispatcher;
+    }
+
+    public static AsyncLogDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Writes the records to a sink instead of Log4j2. The Log4j2 level of this class still decides
+     * which records are written.
+     *
+     * @param ecsRecordSink The sink, or {@code null} to print through Log4j2 again.
+     */
+    public static synchronized void setSink(EcsRecordSink ecsRecordSink) {
+        recordSink = ecsRecordSink;
+    }
+
+    public static EcsRecordSink getSink() {
+        return recordSink;
+    }
+
+    /**
+     * Prints through Log4j2 again, unless another sink replaced this one in the meantime.
+     *
+     * @param ecsRecordSink The sink that is being closed.
+     */
+    public static synchronized void removeSink(EcsRecordSink ecsRecordSink) {
+        if (recordSink == ecsRecordSink) {
+            recordSink = null;
+        }
+    }
+
+    /**
+     * Sheds part of the output while writing records is slow or the asynchronous queue fills up.
+     *
+     * @param controller The controller, or {@code null} to print every record in full.
+     */
+    public static void setOverloadController(OverloadController controller) {
+        overloadController = controller;
+    }
+
     public static void print(LogRecord<String, String> ex) {
+        ex.resolveMessageId();
         if (!SamplingHelper.validatePrint(ex)) {
             return;
         }
 
-        String filteredJson = filterSensitiveDataIfNeeded(ex);
+        AsyncLogDispatcher asyncDispatcher = dispatcher;
+        OverloadController controller = overloadController;
+        if (controller != null && !controller.admit(ex, asyncDispatcher)) {
+            return;
+        }
+        if (asyncDispatcher != null) {
+            if (asyncDispatcher.dispatch(ex)) {
+                return;
+            }
+        }
+        write(ex);
+    }
 
-        switch (ex.getLevel()) {
-            case DEBUG -> log.debug(filteredJson);
-            case INFO -> log.info(filteredJson);
-            case WARNING -> log.warn(filteredJson);
-            case ERROR -> log.error(filteredJson);
-            case FATAL -> log.fatal(filteredJson);
+    /**
+     * Applies the sensitive data rules and prints the record, without sampling.
+     *
+     * @param ex The record to print.
+     */
+    public static void write(LogRecord<String, String> ex) {
+        OverloadController controller = overloadController;
+        long start = controller != null ? System.nanoTime() : 0;
+
+        output(ex);
+
+        if (controller != null) {
+            controller.recordLatency(System.nanoTime() - start);
         }
     }
 
-    private static String filterSensitiveDataIfNeeded(LogRecord<String, String> ex) {
-        String uri = ex.getAdditionalInfo() != null ? ex.getAdditionalInfo().getUri() : null;
-        if (uri != null) {
-            return SensitiveHelper.filterSensitiveData(ex.toJson(), uri);
+    private static void output(LogRecord<String, String> ex) {
+        EcsLogMessage message = buildMessage(ex);
+        try {
+            EcsRecordSink sink = recordSink;
+            if (sink != null) {
+                if (log.isEnabled(toLevel(ex.getLevel()))) {
+                    sink.write(message);
+                }
+                return;
+            }
+
+            switch (ex.getLevel()) {
+                case DEBUG -> log.debug(message);
+                case INFO -> log.info(message);
+                case WARNING -> log.warn(message);
+                case ERROR -> log.error(message);
+                case FATAL -> log.fatal(message);
+            }
+        } finally {
+            message.release();
         }
-        return ex.toJson();
+    }
+
+    private static Level toLevel(LogRecord.Level level) {
+        return switch (level) {
+            case DEBUG -> Level.DEBUG;
+            case INFO -> Level.INFO;
+            case WARNING -> Level.WARN;
+            case ERROR -> Level.ERROR;
+            case FATAL -> Level.FATAL;
+        };
+    }
+
+    private static EcsLogMessage buildMessage(LogRecord<String, String> ex) {
+        String uri = ex.getAdditionalInfo() != null ? ex.getAdditionalInfo().getUri() : null;
+        String masked = uri != null ? SensitiveHelper.filterApplicableSensitiveData(ex, uri) : null;
+        return masked != null ? EcsLogMessage.reusableMasked(ex, masked) : EcsLogMessage.reusable(ex);
     }
 }
@@ -14,9 +14,7 @@ public class MiddlewareEcsBusiness extends AbstractMiddlewareEcsLog {
 
         if (request instanceof BusinessExceptionECS exp) {
 
-            String messageId = MessageIdMngUseCase.resolveForException(
-                    exp.getMetaInfo().getMessageId()
-            );
+            String messageId = MessageIdMngUseCase.resolveForExceptionFrom(exp.getMetaInfo()::getMessageId);
 
             var logError = new LogRecord.ErrorLog<String, String>();
             logError.setOptionalInfo(exp.getOptionalInfo());
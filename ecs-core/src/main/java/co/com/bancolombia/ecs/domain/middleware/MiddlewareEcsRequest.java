@@ -59,10 +59,13 @@ public class MiddlewareEcsRequest extends AbstractMiddlewareEcsLog {
         additionalInfo.setHeaders(requestInfo.getHeaders());
         additionalInfo.setRequestBody(requestInfo.getRequestBody());
         additionalInfo.setResponseBody(requestInfo.getResponseBody());
+        additionalInfo.setRawRequestBody(requestInfo.getRawRequestBody());
+        additionalInfo.setRawResponseBody(requestInfo.getRawResponseBody());
         additionalInfo.setResponseResult(requestInfo.getResponseResult());
         additionalInfo.setResponseCode(requestInfo.getResponseCode());
         additionalInfo.setMethod(requestInfo.getMethod());
         additionalInfo.setUri(requestInfo.getUrl());
+        additionalInfo.setRoute(requestInfo.getRoute());
         return additionalInfo;
     }
 
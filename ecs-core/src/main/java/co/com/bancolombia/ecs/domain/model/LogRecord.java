@@ -1,19 +1,20 @@
 package co.com.bancolombia.ecs.domain.model;
 
+import co.com.bancolombia.ecs.helpers.EcsClock;
+import co.com.bancolombia.ecs.helpers.LogRecordSerializer;
+import co.com.bancolombia.ecs.infra.config.managementid.application.MessageIdMngUseCase;
+import co.com.bancolombia.ecs.model.messageid.MessageIdGenerators;
+import co.com.bancolombia.ecs.model.request.RawJsonBody;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
 import java.util.Map;
-import java.util.UUID;
 
 import static aQute.bnd.annotation.headers.Category.json;
 
@@ -23,33 +24,41 @@ import static aQute.bnd.annotation.headers.Category.json;
 @NoArgsConstructor
 @Builder(toBuilder = true)
 @JsonInclude(JsonInclude.Include.NON_NULL)
+// Jackson moves renamed properties after the other ones; the order is pinned so every serializer agrees
+@JsonPropertyOrder({"date", "service", "consumer", "additionalInfo", "level", "error",
+        LogRecord.MESSAGE_ID, LogRecord.TIMESTAMP})
 public class LogRecord<T, R> {
 
     public static final String DATE_FORMAT = "dd/MM/yyyy HH:mm:ss:SSSS";
     public static final String MESSAGE_ID = "message-id";
-    @Builder.Default
+    public static final String TIMESTAMP = "@timestamp";
     @JsonProperty(MESSAGE_ID)
-    private String messageId = UUID.randomUUID().toString();
+    private String messageId;
+    @Builder.Default
+    private String date = EcsClock.currentDate();
     @Builder.Default
-    private String date = currentDate();
+    @JsonProperty(TIMESTAMP)
+    private String timestamp = EcsClock.currentIsoTimestampIfEnabled();
     private String service;
     private String consumer;
     private AdditionalInfo<T, R> additionalInfo;
     private Level level;
     private ErrorLog<T, R> error;
 
-    private static String currentDate() {
-        var date = LocalDateTime.now(ZoneOffset.of("-05:00"));
-        return date.format(DateTimeFormatter.ofPattern(DATE_FORMAT));
+    /**
+     * Sets the message id when none was set: the id of the current request is reused, and a new one
+     * is only generated for records logged outside of a request. The request id is only visible to
+     * the thread serving the request, so this must run there, before the record is handed to any
+     * other thread.
+     */
+    public void resolveMessageId() {
+        if (messageId == null) {
+            messageId = MessageIdMngUseCase.getFromContext().orElseGet(MessageIdGenerators::nextId);
+        }
     }
 
     public String toJson() {
-        var objectMapper = new ObjectMapper();
-        try {
-            return objectMapper.writeValueAsString(this);
-        } catch (JsonProcessingException ex) {
-            return "{\"error:\" \"json conversion fail\"}";
-        }
+        return LogRecordSerializer.toJson(this);
     }
 
     public enum Level {
@@ -89,9 +98,17 @@ public class LogRecord<T, R> {
     public static class AdditionalInfo<T, R> {
         private String method;
         private String uri;
+        // Route template of the handler that served the uri, used by sampling and never written
+        @JsonIgnore
+        private String route;
         private Map<T, R> headers;
         private Map<T, R> requestBody;
         private Map<T, R> responseBody;
+        // Written by LogRecordModule in place of the map of the same body when the map is null
+        @JsonIgnore
+        private RawJsonBody rawRequestBody;
+        @JsonIgnore
+        private RawJsonBody rawResponseBody;
         private String responseResult;
         private String responseCode;
     }
@@ -0,0 +1,40 @@
+package co.com.bancolombia.ecs.helpers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * Binary formats a {@code LogRecord} can be written in instead of JSON text.
+ * Each record is a standalone document, so a stream of records is the concatenation of their bytes.
+ */
+public enum BinaryEncoding {
+    /**
+     * CBOR (RFC 8949); a stream of records is a CBOR sequence (RFC 8742).
+     */
+    CBOR("application/cbor", new CBORFactory()),
+    /**
+     * Jackson Smile; every record starts with the Smile header. Names are not shared between
+     * fields, because a back reference would point into the previous record once records are concatenated.
+     */
+    SMILE("application/x-jackson-smile", SmileFactory.builder()
+            .disable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+            .build());
+
+    private final String contentType;
+    private final JsonFactory factory;
+
+    BinaryEncoding(String contentType, JsonFactory factory) {
+        this.contentType = contentType;
+        this.factory = factory;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    JsonFactory factory() {
+        return factory;
+    }
+}
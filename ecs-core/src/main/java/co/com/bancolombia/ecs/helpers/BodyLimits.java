@@ -0,0 +1,19 @@
+package co.com.bancolombia.ecs.helpers;
+
+/**
+ * Size limits applied to a logged body while it is parsed. A limit of zero or less means no limit.
+ *
+ * @param maxDepth         Maximum nesting of objects and arrays; the root object is at depth 1.
+ * @param maxArrayElements Maximum number of elements kept from each array.
+ * @param maxStringLength  Maximum number of characters kept from each string value.
+ * @param maxChars         Maximum number of characters of the compact JSON text of the body, counted
+ *                         for each body on its own.
+ */
+public record BodyLimits(int maxDepth, int maxArrayElements, int maxStringLength, int maxChars) {
+
+    public static final BodyLimits NONE = new BodyLimits(0, 0, 0, 0);
+
+    public boolean isUnlimited() {
+        return maxDepth <= 0 && maxArrayElements <= 0 && maxStringLength <= 0 && maxChars <= 0;
+    }
+}
@@ -0,0 +1,91 @@
+package co.com.bancolombia.ecs.helpers;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the {@link BodyLimits} of logged request and response bodies, by direction and by route.
+ * <p>
+ * A route may be a path or a template such as {@code /clients/{id}}. The limits of a request are
+ * the ones of the route of the handler that served it when one is configured with that route,
+ * otherwise the ones of its path or of the most specific configured template that matches it.
+ */
+@UtilityClass
+public class BodyLimitsHelper {
+
+    private static BodyLimits requestLimits = BodyLimits.NONE;
+    private static BodyLimits responseLimits = BodyLimits.NONE;
+    private static RouteLimits requestRouteLimits = RouteLimits.of(Map.of());
+    private static RouteLimits responseRouteLimits = RouteLimits.of(Map.of());
+
+    /**
+     * @param request        The limits of request bodies.
+     * @param response       The limits of response bodies.
+     * @param requestRoutes  The limits of request bodies of given routes, replacing {@code request}.
+     * @param responseRoutes The limits of response bodies of given routes, replacing {@code response}.
+     */
+    public static void init(BodyLimits request, BodyLimits response,
+                            Map<String, BodyLimits> requestRoutes, Map<String, BodyLimits> responseRoutes) {
+        requestLimits = request != null ? request : BodyLimits.NONE;
+        responseLimits = response != null ? response : BodyLimits.NONE;
+        requestRouteLimits = RouteLimits.of(requestRoutes != null ? requestRoutes : Map.of());
+        responseRouteLimits = RouteLimits.of(responseRoutes != null ? responseRoutes : Map.of());
+    }
+
+    public static BodyLimits forRequest(String uri) {
+        return forRequest(uri, null);
+    }
+
+    /**
+     * @param uri   The path of the request.
+     * @param route The route template of the handler that served it, may be {@code null}.
+     * @return The limits of the request body.
+     */
+    public static BodyLimits forRequest(String uri, String route) {
+        return requestRouteLimits.find(uri, route, requestLimits);
+    }
+
+    public static BodyLimits forResponse(String uri) {
+        return forResponse(uri, null);
+    }
+
+    /**
+     * @param uri   The path of the request.
+     * @param route The route template of the handler that served it, may be {@code null}.
+     * @return The limits of the response body.
+     */
+    public static BodyLimits forResponse(String uri, String route) {
+        return responseRouteLimits.find(uri, route, responseLimits);
+    }
+
+    /**
+     * The limits of each configured route, looked up as they are, and the templated routes
+     * matched against paths that have no limits of their own.
+     */
+    private record RouteLimits(Map<String, BodyLimits> routes, RouteMatcher<BodyLimits> templates) {
+
+        static RouteLimits of(Map<String, BodyLimits> routes) {
+            Map<String, BodyLimits> templates = new HashMap<>();
+            routes.forEach((route, limits) -> {
+                if (RouteMatcher.isTemplate(route)) {
+                    templates.put(route, limits);
+                }
+            });
+            return new RouteLimits(Map.copyOf(routes), RouteMatcher.of(templates));
+        }
+
+        BodyLimits find(String uri, String route, BodyLimits fallback) {
+            BodyLimits limits = route != null ? routes.get(route) : null;
+            if (limits == null && uri != null) {
+                limits = routes.get(uri);
+                if (limits == null) {
+                    RouteMatcher.Route<BodyLimits> match = templates.match(uri);
+                    limits = match != null ? match.value() : null;
+                }
+            }
+            return limits != null ? limits : fallback;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package co.com.bancolombia.ecs.helpers;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A map holding at most {@code capacity} entries, evicting with the clock algorithm when one more is
+ * added. Keys that come from requests, such as paths with identifiers, are unbounded, so the caches
+ * and counters keyed by them use this map to keep a fixed footprint.
+ * <p>
+ * Reads are a lookup in a {@link ConcurrentHashMap} that marks the entry as referenced, without
+ * taking a lock, since they run for every record. Only the insertions that go over the capacity
+ * synchronize, to move the hand: a referenced entry is unmarked and skipped, the first unmarked one
+ * is evicted. While an eviction is in progress the map may briefly hold more than {@code capacity}
+ * entries.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+final class ClockCache<K, V> {
+
+    private final int capacity;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    // Guarded by this
+    private Iterator<Map.Entry<K, Entry<V>>> hand;
+
+    ClockCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Clock cache capacity must be greater than zero: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    V get(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null ? entry.touch() : null;
+    }
+
+    /**
+     * Returns the value of the key, adding the one computed by {@code mapping} when there is none.
+     * Callers racing on a missing key may each run the mapping, but all of them get the value kept.
+     */
+    V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            Entry<V> created = new Entry<>(mapping.apply(key));
+            entry = entries.putIfAbsent(key, created);
+            if (entry == null) {
+                evictOverflow();
+                return created.value;
+            }
+        }
+        return entry.touch();
+    }
+
+    void put(K key, V value) {
+        if (entries.put(key, new Entry<>(value)) == null) {
+            evictOverflow();
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        hand = null;
+    }
+
+    private void evictOverflow() {
+        if (entries.size() <= capacity) {
+            return;
+        }
+        synchronized (this) {
+            // Past two turns every entry was unmarked at least once, so readers cannot hold the hand
+            long sweeps = 2L * capacity;
+            while (entries.size() > capacity) {
+                if (hand == null || !hand.hasNext()) {
+                    hand = entries.entrySet().iterator();
+                    if (!hand.hasNext()) {
+                        return;
+                    }
+                }
+                Map.Entry<K, Entry<V>> candidate = hand.next();
+                Entry<V> entry = candidate.getValue();
+                if (entry.referenced && sweeps-- > 0) {
+                    entry.referenced = false;
+                } else {
+                    entries.remove(candidate.getKey(), entry);
+                }
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private volatile boolean referenced;
+
+        private Entry(V value) {
+            this.value = value;
+        }
+
+        private V touch() {
+            // Skipping the write when already marked keeps hot entries from bouncing between cores
+            if (!referenced) {
+                referenced = true;
+            }
+            return value;
+        }
+    }
+}
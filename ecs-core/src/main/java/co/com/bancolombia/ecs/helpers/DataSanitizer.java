@@ -1,12 +1,21 @@
 package co.com.bancolombia.ecs.helpers;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import co.com.bancolombia.ecs.model.request.RawJsonBody;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import lombok.experimental.UtilityClass;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -16,25 +25,202 @@ import java.util.stream.Collectors;
 @UtilityClass
 public class DataSanitizer {
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    // Refuses to write a field name twice in an object, where the tree keeps a single field
+    private static final JsonFactory streamingFactory = JsonFactory.builder()
+            .enable(StreamWriteFeature.STRICT_DUPLICATE_DETECTION)
+            .build();
 
+    /**
+     * Replaces the patterns in the raw text, then the values of the sensitive fields while the body
+     * is copied token by token, without building a tree.
+     *
+     * @param body            The body to sanitize.
+     * @param sensitiveFields Names of the fields whose value is replaced, at any depth, ignoring case.
+     * @param patterns        Patterns replaced in the raw text before parsing.
+     * @param replacement     The text that replaces the sensitive values.
+     * @return The sanitized body as compact JSON, or the body as it is when it is not JSON.
+     */
     public static String sanitize(String body, Set<String> sensitiveFields, List<Pattern> patterns,
                                   String replacement) {
         if (body == null || body.isEmpty()) return body;
+        return sanitize(body, SanitizationPlan.of(sensitiveFields, patterns, replacement));
+    }
+
+    /**
+     * Same as {@link #sanitize(String, Set, List, String)} with settings compiled beforehand.
+     *
+     * @param body The body to sanitize.
+     * @param plan The sensitive fields, patterns and replacement of the body.
+     * @return The sanitized body as compact JSON, or the body as it is when it is not JSON.
+     */
+    public static String sanitize(String body, SanitizationPlan plan) {
+        if (body == null || body.isEmpty()) return body;
+
+        String json = plan.replacePatterns(body);
+        try (JsonParser parser = streamingFactory.createParser(json)) {
+            firstToken(parser);
+            return copyToText(parser, json.length(), plan, BodyLimits.NONE);
+        } catch (IOException e) {
+            return sanitizeTree(body, json, plan);
+        }
+    }
+
+    /**
+     * Sanitizes the body like {@link #sanitize} and keeps the result as the bytes that are logged.
+     * The body is streamed once from the text to the bytes; a JSON object is then embedded in the
+     * record as it is instead of going through {@link HandlerHelper#parseToMap}.
+     *
+     * @param body            The body to sanitize.
+     * @param contentType     The content type of the body, may be {@code null}.
+     * @param sensitiveFields Names of the fields whose value is replaced, at any depth.
+     * @param patterns        Patterns replaced in the raw text before parsing.
+     * @param replacement     The text that replaces the sensitive values.
+     * @return The sanitized body, or {@code null} when there is nothing to log.
+     */
+    public static RawJsonBody sanitizeToRaw(String body, String contentType, Set<String> sensitiveFields,
+                                            List<Pattern> patterns, String replacement) {
+        return sanitizeToRaw(body, contentType, sensitiveFields, patterns, replacement, BodyLimits.NONE);
+    }
+
+    /**
+     * Same as {@link #sanitizeToRaw(String, String, Set, List, String)}, cutting the body to the given limits
+     * while it is parsed, so the parts beyond them are never copied.
+     *
+     * @param limits The limits of the body, see {@link TruncatingJsonGenerator} for the truncation markers.
+     */
+    public static RawJsonBody sanitizeToRaw(String body, String contentType, Set<String> sensitiveFields,
+                                            List<Pattern> patterns, String replacement, BodyLimits limits) {
+        if (body == null) return null;
+        if (body.isEmpty()) return RawJsonBody.ofText(body, contentType);
+        return sanitizeToRaw(body, contentType, SanitizationPlan.of(sensitiveFields, patterns, replacement), limits);
+    }
+
+    /**
+     * Same as {@link #sanitizeToRaw(String, String, Set, List, String, BodyLimits)} with settings compiled
+     * beforehand, so nothing derived from the configuration is built per body.
+     *
+     * @param body        The body to sanitize.
+     * @param contentType The content type of the body, may be {@code null}.
+     * @param plan        The sensitive fields, patterns and replacement of the body.
+     * @param limits      The limits of the body.
+     * @return The sanitized body, or {@code null} when there is nothing to log.
+     */
+    public static RawJsonBody sanitizeToRaw(String body, String contentType, SanitizationPlan plan,
+                                            BodyLimits limits) {
+        if (body == null) return null;
+        if (body.isEmpty()) return RawJsonBody.ofText(body, contentType);
+
+        String json = plan.replacePatterns(body);
+        try (JsonParser parser = streamingFactory.createParser(json)) {
+            return switch (firstToken(parser)) {
+                case VALUE_NULL -> null;
+                case START_OBJECT -> RawJsonBody.ofJson(copyToBytes(parser, json.length(), plan, limits), contentType);
+                default -> RawJsonBody.ofText(copyToText(parser, json.length(), plan, limits), contentType);
+            };
+        } catch (IOException e) {
+            return sanitizeTreeToRaw(body, json, contentType, plan, limits);
+        }
+    }
+
+    private static JsonToken firstToken(JsonParser parser) throws IOException {
+        JsonToken root = parser.nextToken();
+        if (root == null) {
+            throw new JsonParseException(parser, "No content to sanitize");
+        }
+        return root;
+    }
+
+    // Text is written like ObjectMapper.writeValueAsString, which keeps characters outside the BMP as they are
+    private static String copyToText(JsonParser parser, int sizeHint, SanitizationPlan plan,
+                                     BodyLimits limits) throws IOException {
+        var text = new StringWriter(sizeHint);
+        try (JsonGenerator generator = streamingFactory.createGenerator(text)) {
+            copySanitized(parser, generator, plan, limits);
+        }
+        return text.toString();
+    }
+
+    private static byte[] copyToBytes(JsonParser parser, int sizeHint, SanitizationPlan plan,
+                                      BodyLimits limits) throws IOException {
+        try (var bytes = new ByteArrayBuilder(sizeHint);
+             JsonGenerator generator = streamingFactory.createGenerator(bytes, JsonEncoding.UTF8)) {
+            copySanitized(parser, generator, plan, limits);
+            generator.flush();
+            return bytes.toByteArray();
+        }
+    }
 
-        String sanitizedByRegex = sanitizeJsonWithRegex(body, patterns, replacement);
+    /**
+     * Copies the value at the current token of the parser through a {@link SanitizingJsonGenerator}.
+     */
+    private static void copySanitized(JsonParser parser, JsonGenerator generator, SanitizationPlan plan,
+                                      BodyLimits limits) throws IOException {
+        var sanitizing = new SanitizingJsonGenerator(generator, plan);
+        if (limits.isUnlimited()) {
+            SanitizingJsonGenerator.copyValue(parser, sanitizing);
+        } else {
+            // Truncated first, so the limits see the original values as the tree did
+            TruncatingJsonGenerator.copyValue(parser, new TruncatingJsonGenerator(sanitizing, limits));
+        }
+    }
 
+    /**
+     * Sanitizes a body that could not be streamed, because it is not JSON or a field name repeats in
+     * an object, by parsing it into a tree: the last value of a repeated field is kept at the place
+     * of the first, including a body field named like the {@code _truncated} marker.
+     *
+     * @param json The body with the patterns already replaced.
+     */
+    static String sanitizeTree(String body, String json, SanitizationPlan plan) {
         try {
-            Object parsed = objectMapper.readValue(sanitizedByRegex, new TypeReference<>() {
-            });
-            if (parsed instanceof Map) {
-                sanitizeJsonMap((Map<String, Object>) parsed, toLowerSet(sensitiveFields), replacement);
-            }
-            return objectMapper.writeValueAsString(parsed);
-        } catch (JsonProcessingException e) {
+            return objectMapper.writeValueAsString(parseSanitized(json, plan, BodyLimits.NONE));
+        } catch (IOException e) {
             return body;
         }
     }
 
+    private static RawJsonBody sanitizeTreeToRaw(String body, String json, String contentType, SanitizationPlan plan,
+                                                 BodyLimits limits) {
+        try {
+            Object parsed = parseSanitized(json, plan, limits);
+            if (parsed == null) {
+                return null;
+            }
+            return parsed instanceof Map
+                    ? RawJsonBody.ofJson(objectMapper.writeValueAsBytes(parsed), contentType)
+                    : RawJsonBody.ofText(objectMapper.writeValueAsString(parsed), contentType);
+        } catch (IOException e) {
+            // Not JSON, so only the length of the text can be limited
+            return RawJsonBody.ofText(truncateText(body, limits), contentType);
+        }
+    }
+
+    private static Object parseSanitized(String json, SanitizationPlan plan, BodyLimits limits) throws IOException {
+        Object parsed = limits.isUnlimited()
+                ? objectMapper.readValue(json, Object.class)
+                : readTruncated(json, limits);
+        if (parsed instanceof Map) {
+            sanitizeJsonMap((Map<String, Object>) parsed, plan);
+        }
+        return parsed;
+    }
+
+    private static Object readTruncated(String json, BodyLimits limits) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(json);
+             var tokens = new TokenBuffer(parser)) {
+            parser.nextToken();
+            TruncatingJsonGenerator.copyValue(parser, new TruncatingJsonGenerator(tokens, limits));
+            return objectMapper.readValue(tokens.asParser(), Object.class);
+        }
+    }
+
+    private static String truncateText(String text, BodyLimits limits) {
+        int maxString = limits.maxStringLength();
+        int maxChars = limits.maxChars();
+        boolean stringIsTighter = maxString > 0 && (maxChars <= 0 || maxString < maxChars);
+        return TruncatingJsonGenerator.truncate(text, stringIsTighter ? maxString : maxChars);
+    }
+
     // This method handles mixed case headers and symbols '-' and '_' in the header.
     public static Map<String, String> sanitizeHeaders(
         Set<Map.Entry<String, List<String>>> requestHeaders, Set<String> allowedHeaders) {
@@ -65,50 +251,33 @@ public class DataSanitizer {
         return key.replace("-", "").replace("_", "").toLowerCase();
     }
 
-    private static void sanitizeJsonMap(Map<String, Object> map, Set<String> sensitiveFields, String replacement) {
+    private static void sanitizeJsonMap(Map<String, Object> map, SanitizationPlan plan) {
         for (Map.Entry<String, Object> entry : map.entrySet()) {
             String key = entry.getKey();
             Object value = entry.getValue();
 
-            if (sensitiveFields.contains(key.toLowerCase())) {
-                map.put(key, replacement);
+            if (plan.isSensitiveField(key)) {
+                map.put(key, plan.getReplacement());
             } else if (value instanceof Map) {
-                sanitizeJsonMap((Map<String, Object>) value, sensitiveFields, replacement);
+                sanitizeJsonMap((Map<String, Object>) value, plan);
             } else if (value instanceof List) {
-                sanitizeJsonList((List<Object>) value, sensitiveFields, replacement);
+                sanitizeJsonList((List<Object>) value, plan);
             } else if (value instanceof String) {
                 map.put(key, value);
             }
         }
     }
 
-    private static String sanitizeJsonWithRegex(String rawJson, List<Pattern> patterns, String replacement) {
-        String sanitized = rawJson;
-        for (Pattern pattern : patterns) {
-            var matcher = pattern.matcher(sanitized);
-            sanitized = matcher.replaceAll(replacement);
-        }
-        return sanitized;
-    }
-
-    private static void sanitizeJsonList(List<Object> list, Set<String> sensitiveFields, String replacement) {
+    private static void sanitizeJsonList(List<Object> list, SanitizationPlan plan) {
         for (var i = 0; i < list.size(); i++) {
             Object item = list.get(i);
             if (item instanceof Map) {
-                sanitizeJsonMap((Map<String, Object>) item, sensitiveFields, replacement);
+                sanitizeJsonMap((Map<String, Object>) item, plan);
             } else if (item instanceof List) {
-                sanitizeJsonList((List<Object>) item, sensitiveFields, replacement);
+                sanitizeJsonList((List<Object>) item, plan);
             } else if (item instanceof String) {
                 list.set(i, item);
             }
         }
     }
-
-    private static Set<String> toLowerSet(Set<String> input) {
-        Set<String> result = new HashSet<>();
-        for (String item : input) {
-            result.add(item.toLowerCase());
-        }
-        return result;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package co.com.bancolombia.ecs.helpers;
+
+import lombok.experimental.UtilityClass;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Clock used to stamp {@code LogRecord}s.
+ * The formatted date and time up to the seconds is cached and rebuilt only when the second
+ * changes, so most calls only write the sub-second suffix. The cache is a single immutable
+ * holder published through a volatile field: concurrent callers never lock, and at worst
+ * rebuild the same prefix.
+ */
+@UtilityClass
+public class EcsClock {
+
+    private static final ZoneOffset LOG_ZONE = ZoneOffset.of("-05:00");
+    private static final DateTimeFormatter DATE_PREFIX_FORMAT =
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss:").withZone(LOG_ZONE);
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss:SSSS").withZone(LOG_ZONE);
+    private static final DateTimeFormatter ISO_PREFIX_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.").withZone(ZoneOffset.UTC);
+    private static final int DATE_FRACTION_DIGITS = 4;
+    private static final int ISO_FRACTION_DIGITS = 3;
+    private static final int NANOS_PER_DATE_FRACTION = 100_000;
+    private static final int NANOS_PER_MILLI = 1_000_000;
+    private static final char ISO_UTC_SUFFIX = 'Z';
+
+    private static volatile CachedSecond datePrefix = new CachedSecond(Long.MIN_VALUE, "");
+    private static volatile CachedSecond isoPrefix = new CachedSecond(Long.MIN_VALUE, "");
+    private static volatile boolean isoTimestampEnabled = false;
+
+    private record CachedSecond(long epochSecond, String prefix) {
+    }
+
+    public static void setIsoTimestampEnabled(boolean enabled) {
+        isoTimestampEnabled = enabled;
+    }
+
+    /**
+     * Formats the current time as {@code dd/MM/yyyy HH:mm:ss:SSSS} in the {@code -05:00} offset.
+     *
+     * @return The formatted current date.
+     */
+    public static String currentDate() {
+        return formatDate(Instant.now());
+    }
+
+    /**
+     * Formats the current time as an ISO-8601 UTC timestamp with milliseconds,
+     * for example {@code 2025-01-31T15:04:05.123Z}.
+     *
+     * @return The ISO-8601 timestamp.
+     */
+    public static String currentIsoTimestamp() {
+        return formatIso(Instant.now());
+    }
+
+    /**
+     * Returns the ISO-8601 timestamp only when the {@code @timestamp} field is enabled.
+     *
+     * @return The ISO-8601 timestamp, or {@code null} when the option is disabled.
+     */
+    public static String currentIsoTimestampIfEnabled() {
+        return isoTimestampEnabled ? currentIsoTimestamp() : null;
+    }
+
+    /**
+     * Converts a date written by {@link #currentDate()} to an ISO-8601 UTC timestamp, for records
+     * that were created without one.
+     *
+     * @param date The date in {@code dd/MM/yyyy HH:mm:ss:SSSS} at the {@code -05:00} offset.
+     * @return The ISO-8601 timestamp, or {@code null} when the date is missing or has another format.
+     */
+    public static String toIsoTimestamp(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return formatIso(Instant.from(DATE_FORMAT.parse(date)));
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    static String formatDate(Instant instant) {
+        CachedSecond cached = datePrefix;
+        if (cached.epochSecond() != instant.getEpochSecond()) {
+            cached = new CachedSecond(instant.getEpochSecond(), DATE_PREFIX_FORMAT.format(instant));
+            datePrefix = cached;
+        }
+        return withFraction(cached.prefix(), instant.getNano() / NANOS_PER_DATE_FRACTION, DATE_FRACTION_DIGITS,
+                false);
+    }
+
+    static String formatIso(Instant instant) {
+        CachedSecond cached = isoPrefix;
+        if (cached.epochSecond() != instant.getEpochSecond()) {
+            cached = new CachedSecond(instant.getEpochSecond(), ISO_PREFIX_FORMAT.format(instant));
+            isoPrefix = cached;
+        }
+        return withFraction(cached.prefix(), instant.getNano() / NANOS_PER_MILLI, ISO_FRACTION_DIGITS, true);
+    }
+
+    private static String withFraction(String prefix, int fraction, int digits, boolean utcSuffix) {
+        int prefixLength = prefix.length();
+        var chars = new char[prefixLength + digits + (utcSuffix ? 1 : 0)];
+        prefix.getChars(0, prefixLength, chars, 0);
+        int value = fraction;
+        for (int i = prefixLength + digits - 1; i >= prefixLength; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        if (utcSuffix) {
+            chars[chars.length - 1] = ISO_UTC_SUFFIX;
+        }
+        return new String(chars);
+    }
+}
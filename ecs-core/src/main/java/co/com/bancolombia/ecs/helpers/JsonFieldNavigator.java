@@ -7,6 +7,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -26,6 +28,23 @@ public class JsonFieldNavigator {
         this.strategies = strategies;
     }
 
+    /**
+     * Masks the fields of every path and name of the plan in one depth-first walk of the tree,
+     * following the trie of the plan along the way instead of walking the tree once per path.
+     * Masks that hit the same value are applied in rule order, as if the rules were applied one
+     * at a time.
+     *
+     * @param rootNode The root JSON node to start from.
+     * @param plan     The compiled rules of the URI.
+     */
+    void mask(JsonNode rootNode, MaskingPlan plan) {
+        if (rootNode instanceof ObjectNode objectNode) {
+            maskObject(objectNode, plan.root(), plan);
+        } else if (rootNode instanceof ArrayNode arrayNode) {
+            maskArray(arrayNode, null, List.of(), plan);
+        }
+    }
+
     /**
      * Masks a field in the JSON structure based on the specified path and rule.
      *
@@ -177,4 +196,65 @@ public class JsonFieldNavigator {
             parent.put(fieldName, masked);
         }
     }
+
+    /**
+     * Masks the string fields of an object and walks into its objects and arrays.
+     *
+     * @param objectNode The object being walked.
+     * @param node       The trie node of the object, or {@code null} when no path reaches it.
+     * @param plan       The compiled rules, for the fields matched by name.
+     */
+    private void maskObject(ObjectNode objectNode, MaskingPlan.Node node, MaskingPlan plan) {
+        Iterator<Map.Entry<String, JsonNode>> fields = objectNode.properties().iterator();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            MaskingPlan.Step step = node != null ? node.step(field.getKey()) : null;
+            JsonNode value = field.getValue();
+            if (value.isTextual()) {
+                List<MaskingPlan.Mask> masks = step != null ? step.valueMasks() : plan.nameMasks(field.getKey());
+                if (masks.isEmpty()) continue;
+                String masked = MaskingPlan.apply(value.asText(), masks);
+                if (masked == null) {
+                    fields.remove();
+                } else {
+                    field.setValue(objectNode.textNode(masked));
+                }
+            } else if (value instanceof ObjectNode child) {
+                maskObject(child, step != null ? step.object() : null, plan);
+            } else if (value instanceof ArrayNode array) {
+                maskArray(array, step != null ? step.elements() : null,
+                        step != null ? step.elementMasks() : List.of(), plan);
+            }
+        }
+    }
+
+    /**
+     * Masks the string elements of an array and walks into its objects and arrays.
+     *
+     * @param arrayNode    The array being walked.
+     * @param elements     The trie node of the object elements, or {@code null}.
+     * @param elementMasks The masks of the string elements.
+     * @param plan         The compiled rules, for the fields matched by name.
+     */
+    private void maskArray(ArrayNode arrayNode, MaskingPlan.Node elements, List<MaskingPlan.Mask> elementMasks,
+                           MaskingPlan plan) {
+        var i = 0;
+        while (i < arrayNode.size()) {
+            JsonNode element = arrayNode.get(i);
+            if (element.isTextual() && !elementMasks.isEmpty()) {
+                String masked = MaskingPlan.apply(element.asText(), elementMasks);
+                if (masked == null) {
+                    // The next element takes its index
+                    arrayNode.remove(i);
+                    continue;
+                }
+                arrayNode.set(i, arrayNode.textNode(masked));
+            } else if (element instanceof ObjectNode child) {
+                maskObject(child, elements, plan);
+            } else if (element instanceof ArrayNode nested) {
+                maskArray(nested, null, List.of(), plan);
+            }
+            i++;
+        }
+    }
 }
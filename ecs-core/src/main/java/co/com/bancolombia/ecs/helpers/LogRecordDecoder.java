@@ -0,0 +1,78 @@
+package co.com.bancolombia.ecs.helpers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads back streams of records written in a {@link BinaryEncoding}, for tools and agents that
+ * need the records as maps or as JSON text.
+ */
+@UtilityClass
+public class LogRecordDecoder {
+
+    private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<>() {
+    };
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final char LINE_SEPARATOR = '\n';
+
+    /**
+     * @param data     The concatenated records.
+     * @param encoding The format they were written in.
+     * @return The records in the order they were written.
+     * @throws IOException If the data is not a stream of records in the given format.
+     */
+    public static List<Map<String, Object>> decode(byte[] data, BinaryEncoding encoding) throws IOException {
+        var mapper = new ObjectMapper(encoding.factory());
+        List<Map<String, Object>> records = new ArrayList<>();
+        try (JsonParser parser = mapper.createParser(data)) {
+            while (nextRecord(parser) != null) {
+                records.add(mapper.readValue(parser, RECORD_TYPE));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Converts a stream of records to JSON text, one record per line (NDJSON), without
+     * building them in memory.
+     *
+     * @param input    The concatenated records; it is not closed.
+     * @param encoding The format they were written in.
+     * @param output   Receives the JSON lines; it is flushed but not closed.
+     * @return The number of records converted.
+     * @throws IOException If the input is not a stream of records in the given format or cannot be read.
+     */
+    public static long toNdjson(InputStream input, BinaryEncoding encoding, Writer output) throws IOException {
+        long count = 0;
+        try (JsonParser parser = encoding.factory().createParser(input);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(output)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (nextRecord(parser) != null) {
+                generator.copyCurrentStructure(parser);
+                generator.writeRaw(LINE_SEPARATOR);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static JsonToken nextRecord(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        // The Smile header that starts each record reads as the end of the previous document
+        return token != null ? token : parser.nextToken();
+    }
+}
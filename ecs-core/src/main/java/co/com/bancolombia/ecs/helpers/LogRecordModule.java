@@ -0,0 +1,487 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.model.request.RawJsonBody;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.Serializers;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Jackson module with hand-written serializers for {@link LogRecord}, {@link LogRecord.AdditionalInfo}
+ * and {@link LogRecord.ErrorLog}. Each one writes its fields in a straight line with pre-encoded
+ * names, so serializing a record does not go through bean introspection or reflective getters.
+ * The output is the same as the one of the annotated classes: field order, names and null handling.
+ * The sanitized bodies of {@link RawJsonBody} are embedded as they are in place of a missing body map,
+ * or converted token by token when the record is written in a binary format.
+ * Subclasses are left to the default bean serializers so their own fields are not lost.
+ * With {@link OutputSchema#ECS} the record is written with Elastic Common Schema field names instead.
+ */
+public final class LogRecordModule extends SimpleModule {
+
+    private static final SerializedString MESSAGE_ID = new SerializedString(LogRecord.MESSAGE_ID);
+    private static final SerializedString DATE = new SerializedString("date");
+    private static final SerializedString TIMESTAMP = new SerializedString(LogRecord.TIMESTAMP);
+    private static final SerializedString SERVICE = new SerializedString("service");
+    private static final SerializedString CONSUMER = new SerializedString("consumer");
+    private static final SerializedString ADDITIONAL_INFO = new SerializedString("additionalInfo");
+    private static final SerializedString LEVEL = new SerializedString("level");
+    private static final SerializedString ERROR = new SerializedString("error");
+    private static final SerializedString METHOD = new SerializedString("method");
+    private static final SerializedString URI = new SerializedString("uri");
+    private static final SerializedString HEADERS = new SerializedString("headers");
+    private static final SerializedString REQUEST_BODY = new SerializedString("requestBody");
+    private static final SerializedString RESPONSE_BODY = new SerializedString("responseBody");
+    private static final SerializedString RAW_BODY = new SerializedString(HandlerHelper.RAW_BODY);
+    private static final SerializedString RESPONSE_RESULT = new SerializedString("responseResult");
+    private static final SerializedString RESPONSE_CODE = new SerializedString("responseCode");
+    private static final SerializedString TYPE = new SerializedString("type");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString OPTIONAL_INFO = new SerializedString("optionalInfo");
+    private static final SerializedString[] LEVEL_NAMES = levelNames();
+
+    // Elastic Common Schema names and constant values
+    private static final SerializedString ECS = new SerializedString("ecs");
+    private static final SerializedString ECS_VERSION = new SerializedString("8.11.0");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString LOG = new SerializedString("log");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString TRACE = new SerializedString("trace");
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString LABELS = new SerializedString("labels");
+    private static final SerializedString LABEL_RESPONSE_RESULT = new SerializedString("response_result");
+    private static final SerializedString URL = new SerializedString("url");
+    private static final SerializedString PATH = new SerializedString("path");
+    private static final SerializedString HTTP = new SerializedString("http");
+    private static final SerializedString REQUEST = new SerializedString("request");
+    private static final SerializedString RESPONSE = new SerializedString("response");
+    private static final SerializedString STATUS_CODE = new SerializedString("status_code");
+    private static final SerializedString BODY = new SerializedString("body");
+    private static final SerializedString CONTENT = new SerializedString("content");
+    private static final SerializedString DATA = new SerializedString("data");
+    private static final SerializedString DETAILS = new SerializedString("details");
+    private static final SerializedString[] ECS_LEVEL_NAMES = {
+            new SerializedString("debug"),
+            new SerializedString("info"),
+            new SerializedString("warn"),
+            new SerializedString("error"),
+            new SerializedString("fatal")
+    };
+    private static final JsonFactory RAW_BODY_PARSERS = new JsonFactory();
+
+    private static final RecordSerializer RECORD_SERIALIZER = new RecordSerializer();
+    private static final EcsRecordSerializer ECS_RECORD_SERIALIZER = new EcsRecordSerializer();
+    private static final AdditionalInfoSerializer ADDITIONAL_INFO_SERIALIZER = new AdditionalInfoSerializer();
+    private static final ErrorLogSerializer ERROR_LOG_SERIALIZER = new ErrorLogSerializer();
+
+    private final OutputSchema schema;
+
+    public LogRecordModule() {
+        this(OutputSchema.LEGACY);
+    }
+
+    /**
+     * @param schema The field layout the records are written with.
+     */
+    public LogRecordModule(OutputSchema schema) {
+        super(LogRecordModule.class.getSimpleName());
+        this.schema = schema;
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        context.addSerializers(new ExactClassSerializers(schema == OutputSchema.ECS ? ECS_RECORD_SERIALIZER
+                : RECORD_SERIALIZER));
+    }
+
+    private static SerializedString[] levelNames() {
+        LogRecord.Level[] levels = LogRecord.Level.values();
+        var names = new SerializedString[levels.length];
+        for (LogRecord.Level level : levels) {
+            names[level.ordinal()] = new SerializedString(level.name());
+        }
+        return names;
+    }
+
+    private static void writeStringField(JsonGenerator gen, SerializedString name, String value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        }
+    }
+
+    private static void writeMap(JsonGenerator gen, Map<?, ?> map, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(map, map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object key = entry.getKey();
+            if (key instanceof String name) {
+                gen.writeFieldName(name);
+            } else if (key == null) {
+                provider.findNullKeySerializer(provider.constructType(Object.class), null)
+                        .serialize(null, gen, provider);
+            } else {
+                provider.findKeySerializer(key.getClass(), null).serialize(key, gen, provider);
+            }
+            Object value = entry.getValue();
+            if (value instanceof String text) {
+                gen.writeString(text);
+            } else {
+                provider.defaultSerializeValue(value, gen);
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeMapField(JsonGenerator gen, SerializedString name, Map<?, ?> map,
+                                      SerializerProvider provider) throws IOException {
+        if (map != null) {
+            gen.writeFieldName(name);
+            writeMap(gen, map, provider);
+        }
+    }
+
+    private static boolean isTextBody(Map<?, ?> map, RawJsonBody rawBody) {
+        return map == null && !rawBody.isJson();
+    }
+
+    /**
+     * Writes the body map, or the raw JSON body when there is no map.
+     */
+    private static void writeJsonBody(JsonGenerator gen, Map<?, ?> map, RawJsonBody rawBody,
+                                      SerializerProvider provider) throws IOException {
+        if (map != null) {
+            writeMap(gen, map, provider);
+        } else if (gen.canWriteBinaryNatively()) {
+            // A binary format cannot embed JSON text, so the body is copied token by token
+            try (JsonParser parser = RAW_BODY_PARSERS.createParser(
+                    rawBody.getBytes(), rawBody.getOffset(), rawBody.getLength())) {
+                parser.nextToken();
+                gen.copyCurrentStructure(parser);
+            }
+        } else {
+            gen.writeRawValue(new RawJsonValue(rawBody));
+        }
+    }
+
+    private static final class ExactClassSerializers extends Serializers.Base {
+
+        private final JsonSerializer<?> recordSerializer;
+
+        private ExactClassSerializers(JsonSerializer<?> recordSerializer) {
+            this.recordSerializer = recordSerializer;
+        }
+
+        @Override
+        public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type, BeanDescription beanDesc) {
+            Class<?> raw = type.getRawClass();
+            if (raw == LogRecord.class) {
+                return recordSerializer;
+            }
+            if (raw == LogRecord.AdditionalInfo.class) {
+                return ADDITIONAL_INFO_SERIALIZER;
+            }
+            if (raw == LogRecord.ErrorLog.class) {
+                return ERROR_LOG_SERIALIZER;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * {@code @JsonInclude(NON_NULL)}: null fields are omitted. Fields follow the {@code @JsonPropertyOrder}
+     * of {@link LogRecord}.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final class RecordSerializer extends StdSerializer<LogRecord> {
+
+        private RecordSerializer() {
+            super(LogRecord.class);
+        }
+
+        @Override
+        public void serialize(LogRecord logRecord, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(logRecord);
+            writeStringField(gen, DATE, logRecord.getDate());
+            writeStringField(gen, SERVICE, logRecord.getService());
+            writeStringField(gen, CONSUMER, logRecord.getConsumer());
+            if (logRecord.getAdditionalInfo() != null) {
+                gen.writeFieldName(ADDITIONAL_INFO);
+                ADDITIONAL_INFO_SERIALIZER.serialize(logRecord.getAdditionalInfo(), gen, provider);
+            }
+            if (logRecord.getLevel() != null) {
+                gen.writeFieldName(LEVEL);
+                gen.writeString(LEVEL_NAMES[logRecord.getLevel().ordinal()]);
+            }
+            if (logRecord.getError() != null) {
+                gen.writeFieldName(ERROR);
+                ERROR_LOG_SERIALIZER.serialize(logRecord.getError(), gen, provider);
+            }
+            writeStringField(gen, MESSAGE_ID, logRecord.getMessageId());
+            writeStringField(gen, TIMESTAMP, logRecord.getTimestamp());
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * {@code @JsonInclude(NON_NULL)}: null fields are omitted.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final class AdditionalInfoSerializer extends StdSerializer<LogRecord.AdditionalInfo> {
+
+        private AdditionalInfoSerializer() {
+            super(LogRecord.AdditionalInfo.class);
+        }
+
+        @Override
+        public void serialize(LogRecord.AdditionalInfo info, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(info);
+            writeStringField(gen, METHOD, info.getMethod());
+            writeStringField(gen, URI, info.getUri());
+            writeMapField(gen, HEADERS, info.getHeaders(), provider);
+            writeBodyField(gen, REQUEST_BODY, info.getRequestBody(), info.getRawRequestBody(), provider);
+            writeBodyField(gen, RESPONSE_BODY, info.getResponseBody(), info.getRawResponseBody(), provider);
+            writeStringField(gen, RESPONSE_RESULT, info.getResponseResult());
+            writeStringField(gen, RESPONSE_CODE, info.getResponseCode());
+            gen.writeEndObject();
+        }
+
+        private static void writeBodyField(JsonGenerator gen, SerializedString name, Map<?, ?> map,
+                                           RawJsonBody rawBody, SerializerProvider provider) throws IOException {
+            if (map == null && rawBody == null) {
+                return;
+            }
+            gen.writeFieldName(name);
+            if (isTextBody(map, rawBody)) {
+                // Same shape as HandlerHelper.parseToMap gives to a body that is not a JSON object
+                gen.writeStartObject();
+                gen.writeFieldName(RAW_BODY);
+                gen.writeString(rawBody.asString());
+                gen.writeEndObject();
+            } else {
+                writeJsonBody(gen, map, rawBody, provider);
+            }
+        }
+    }
+
+    /**
+     * No inclusion rule: null fields are written as {@code null}.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final class ErrorLogSerializer extends StdSerializer<LogRecord.ErrorLog> {
+
+        private ErrorLogSerializer() {
+            super(LogRecord.ErrorLog.class);
+        }
+
+        @Override
+        public void serialize(LogRecord.ErrorLog error, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(error);
+            gen.writeFieldName(TYPE);
+            gen.writeString(error.getType());
+            gen.writeFieldName(MESSAGE);
+            gen.writeString(error.getMessage());
+            gen.writeFieldName(DESCRIPTION);
+            gen.writeString(error.getDescription());
+            gen.writeFieldName(OPTIONAL_INFO);
+            if (error.getOptionalInfo() == null) {
+                gen.writeNull();
+            } else {
+                writeMap(gen, error.getOptionalInfo(), provider);
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the record with Elastic Common Schema field names. Every name and constant value is
+     * pre-encoded, and so is the service name, which is encoded once and reused while it does not change.
+     * Null fields and groups without fields are omitted.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final class EcsRecordSerializer extends StdSerializer<LogRecord> {
+
+        private static final int STATUS_CODE_DIGITS = 3;
+
+        private volatile SerializedString serviceName = new SerializedString("");
+
+        private EcsRecordSerializer() {
+            super(LogRecord.class);
+        }
+
+        @Override
+        public void serialize(LogRecord logRecord, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(logRecord);
+            String timestamp = logRecord.getTimestamp() != null ? logRecord.getTimestamp()
+                    : EcsClock.toIsoTimestamp(logRecord.getDate());
+            writeStringField(gen, TIMESTAMP, timestamp);
+            if (logRecord.getLevel() != null) {
+                gen.writeFieldName(LOG);
+                gen.writeStartObject();
+                gen.writeFieldName(LEVEL);
+                gen.writeString(ECS_LEVEL_NAMES[logRecord.getLevel().ordinal()]);
+                gen.writeEndObject();
+            }
+            gen.writeFieldName(ECS);
+            gen.writeStartObject();
+            gen.writeFieldName(VERSION);
+            gen.writeString(ECS_VERSION);
+            gen.writeEndObject();
+            if (logRecord.getService() != null) {
+                gen.writeFieldName(SERVICE);
+                gen.writeStartObject();
+                gen.writeFieldName(NAME);
+                gen.writeString(serviceName(logRecord.getService()));
+                gen.writeEndObject();
+            }
+            if (logRecord.getMessageId() != null) {
+                gen.writeFieldName(TRACE);
+                gen.writeStartObject();
+                gen.writeFieldName(ID);
+                gen.writeString(logRecord.getMessageId());
+                gen.writeEndObject();
+            }
+            LogRecord.AdditionalInfo info = logRecord.getAdditionalInfo();
+            writeLabels(gen, logRecord.getConsumer(), info != null ? info.getResponseResult() : null);
+            if (info != null) {
+                writeHttp(gen, info, provider);
+            }
+            if (logRecord.getError() != null) {
+                writeError(gen, logRecord.getError(), provider);
+            }
+            gen.writeEndObject();
+        }
+
+        private SerializedString serviceName(String service) {
+            SerializedString cached = serviceName;
+            if (!cached.getValue().equals(service)) {
+                cached = new SerializedString(service);
+                serviceName = cached;
+            }
+            return cached;
+        }
+
+        private static void writeLabels(JsonGenerator gen, String consumer, String responseResult) throws IOException {
+            if (consumer == null && responseResult == null) {
+                return;
+            }
+            gen.writeFieldName(LABELS);
+            gen.writeStartObject();
+            writeStringField(gen, CONSUMER, consumer);
+            writeStringField(gen, LABEL_RESPONSE_RESULT, responseResult);
+            gen.writeEndObject();
+        }
+
+        private static void writeHttp(JsonGenerator gen, LogRecord.AdditionalInfo info, SerializerProvider provider)
+                throws IOException {
+            if (info.getUri() != null) {
+                gen.writeFieldName(URL);
+                gen.writeStartObject();
+                gen.writeFieldName(PATH);
+                gen.writeString(info.getUri());
+                gen.writeEndObject();
+            }
+            boolean hasRequest = info.getMethod() != null || info.getHeaders() != null
+                    || info.getRequestBody() != null || info.getRawRequestBody() != null;
+            boolean hasResponse = info.getResponseCode() != null
+                    || info.getResponseBody() != null || info.getRawResponseBody() != null;
+            if (!hasRequest && !hasResponse) {
+                return;
+            }
+            gen.writeFieldName(HTTP);
+            gen.writeStartObject();
+            if (hasRequest) {
+                gen.writeFieldName(REQUEST);
+                gen.writeStartObject();
+                writeStringField(gen, METHOD, info.getMethod());
+                writeMapField(gen, HEADERS, info.getHeaders(), provider);
+                writeBody(gen, info.getRequestBody(), info.getRawRequestBody(), provider);
+                gen.writeEndObject();
+            }
+            if (hasResponse) {
+                gen.writeFieldName(RESPONSE);
+                gen.writeStartObject();
+                writeStatusCode(gen, info.getResponseCode());
+                writeBody(gen, info.getResponseBody(), info.getRawResponseBody(), provider);
+                gen.writeEndObject();
+            }
+            gen.writeEndObject();
+        }
+
+        /**
+         * A JSON body is written as the {@code data} object, a text body as the ECS {@code content} string.
+         */
+        private static void writeBody(JsonGenerator gen, Map<?, ?> map, RawJsonBody rawBody,
+                                      SerializerProvider provider) throws IOException {
+            if (map == null && rawBody == null) {
+                return;
+            }
+            gen.writeFieldName(BODY);
+            gen.writeStartObject();
+            if (isTextBody(map, rawBody)) {
+                gen.writeFieldName(CONTENT);
+                gen.writeString(rawBody.asString());
+            } else {
+                gen.writeFieldName(DATA);
+                writeJsonBody(gen, map, rawBody, provider);
+            }
+            gen.writeEndObject();
+        }
+
+        private static void writeStatusCode(JsonGenerator gen, String code) throws IOException {
+            if (code == null) {
+                return;
+            }
+            gen.writeFieldName(STATUS_CODE);
+            int status = parseStatusCode(code);
+            if (status < 0) {
+                gen.writeString(code);
+            } else {
+                gen.writeNumber(status);
+            }
+        }
+
+        /**
+         * @return The numeric status code, or {@code -1} when the code is not three digits.
+         */
+        private static int parseStatusCode(String code) {
+            if (code.length() != STATUS_CODE_DIGITS) {
+                return -1;
+            }
+            var status = 0;
+            for (var i = 0; i < STATUS_CODE_DIGITS; i++) {
+                char digit = code.charAt(i);
+                if (digit < '0' || digit > '9') {
+                    return -1;
+                }
+                status = status * 10 + digit - '0';
+            }
+            return status;
+        }
+
+        private static void writeError(JsonGenerator gen, LogRecord.ErrorLog error, SerializerProvider provider)
+                throws IOException {
+            gen.writeFieldName(ERROR);
+            gen.writeStartObject();
+            writeStringField(gen, TYPE, error.getType());
+            writeStringField(gen, MESSAGE, error.getMessage());
+            writeStringField(gen, DESCRIPTION, error.getDescription());
+            writeMapField(gen, DETAILS, error.getOptionalInfo(), provider);
+            gen.writeEndObject();
+        }
+    }
+}
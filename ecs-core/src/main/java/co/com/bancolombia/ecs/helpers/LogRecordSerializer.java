@@ -0,0 +1,372 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.experimental.UtilityClass;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Shared, thread-safe serialization engine for {@link LogRecord}.
+ * The mapper and the {@link ObjectWriter} are built once, and every thread reuses
+ * its own character and byte buffers, so serializing a record does not allocate a mapper,
+ * a serializer cache or a fresh writer per call. The record classes are written by the
+ * serializers of {@link LogRecordModule} instead of reflective bean serializers.
+ * Records can also be written in one of the {@link BinaryEncoding} formats, with the same fields,
+ * and with the field layout of any {@link OutputSchema}.
+ */
+@UtilityClass
+public class LogRecordSerializer {
+
+    public static final String JSON_CONVERSION_FAIL = "{\"error:\" \"json conversion fail\"}";
+    public static final String BINARY_CONVERSION_FAIL = "binary conversion fail";
+    public static final String ERROR_FIELD = "error";
+    public static final String MESSAGE_FIELD = "message";
+
+    private static final byte[] JSON_CONVERSION_FAIL_BYTES = JSON_CONVERSION_FAIL.getBytes(StandardCharsets.UTF_8);
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectMapper[] BINARY_MAPPERS = binaryMappers();
+    private static final SchemaWriters[] SCHEMA_WRITERS = schemaWriters();
+    private static final ThreadLocal<ReusableCharWriter> CHAR_BUFFER =
+            ThreadLocal.withInitial(ReusableCharWriter::new);
+    private static final ThreadLocal<ReusableByteStream> BYTE_BUFFER =
+            ThreadLocal.withInitial(ReusableByteStream::new);
+
+    private static volatile SchemaWriters writers = SCHEMA_WRITERS[OutputSchema.LEGACY.ordinal()];
+
+    /**
+     * The writers of one {@link OutputSchema}: JSON text and each {@link BinaryEncoding}.
+     */
+    private record SchemaWriters(OutputSchema schema, ObjectWriter json, ObjectWriter[] binary) {
+    }
+
+    /**
+     * Selects the field layout of every record serialized from now on.
+     *
+     * @param schema The field layout.
+     */
+    public static void setSchema(OutputSchema schema) {
+        writers = SCHEMA_WRITERS[schema.ordinal()];
+    }
+
+    /**
+     * @return The field layout records are serialized with.
+     */
+    static OutputSchema getSchema() {
+        return writers.schema();
+    }
+
+    /**
+     * Receives a slice of a thread-local buffer holding a serialized record.
+     * The slice is only valid during the call.
+     *
+     * @param <T> The type of the target the bytes are written to.
+     */
+    @FunctionalInterface
+    public interface SliceWriter<T> {
+        void write(T target, byte[] buffer, int offset, int length);
+    }
+
+    /**
+     * Serializes the given record to its JSON representation.
+     *
+     * @param logRecord The record to serialize.
+     * @return The JSON document, or {@link #JSON_CONVERSION_FAIL} if the record cannot be serialized.
+     */
+    public static String toJson(LogRecord<?, ?> logRecord) {
+        ReusableCharWriter buffer = acquireCharBuffer();
+        try {
+            return serialize(logRecord, buffer) ? buffer.toString() : JSON_CONVERSION_FAIL;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Serializes the record applying the sensitive data masks while it is written.
+     *
+     * @param logRecord The record to serialize.
+     * @param plan      The masks of the record URI.
+     * @return The masked JSON document, or {@link #JSON_CONVERSION_FAIL} if the record cannot be serialized.
+     */
+    static String toJson(LogRecord<?, ?> logRecord, MaskingPlan plan) {
+        ReusableCharWriter buffer = acquireCharBuffer();
+        try {
+            return serialize(logRecord, buffer, plan) ? buffer.toString() : JSON_CONVERSION_FAIL;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Appends the JSON representation of the record to the given builder without
+     * creating an intermediate {@link String}.
+     *
+     * @param logRecord The record to serialize.
+     * @param target    The builder that receives the JSON document.
+     */
+    public static void appendJson(LogRecord<?, ?> logRecord, StringBuilder target) {
+        ReusableCharWriter buffer = acquireCharBuffer();
+        try {
+            if (serialize(logRecord, buffer)) {
+                buffer.appendTo(target);
+            } else {
+                target.append(JSON_CONVERSION_FAIL);
+            }
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Serializes the record as UTF-8 into a thread-local buffer and hands the resulting
+     * slice to the writer, so callers can copy it straight into their own destination.
+     *
+     * @param logRecord   The record to serialize.
+     * @param target      The destination passed back to the writer.
+     * @param sliceWriter Receives the serialized bytes.
+     * @param <T>         The type of the destination.
+     */
+    public static <T> void writeJson(LogRecord<?, ?> logRecord, T target, SliceWriter<T> sliceWriter) {
+        ReusableByteStream buffer = acquireByteBuffer();
+        try {
+            if (serialize(logRecord, buffer)) {
+                sliceWriter.write(target, buffer.array(), 0, buffer.size());
+            } else {
+                sliceWriter.write(target, JSON_CONVERSION_FAIL_BYTES, 0, JSON_CONVERSION_FAIL_BYTES.length);
+            }
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Serializes the record in a binary format into a thread-local buffer and hands the resulting
+     * slice to the writer. A record that cannot be serialized is replaced by a document with an
+     * {@value #ERROR_FIELD} field.
+     *
+     * @param logRecord   The record to serialize.
+     * @param encoding    The binary format.
+     * @param target      The destination passed back to the writer.
+     * @param sliceWriter Receives the serialized bytes.
+     * @param <T>         The type of the destination.
+     */
+    public static <T> void writeBinary(LogRecord<?, ?> logRecord, BinaryEncoding encoding, T target,
+                                       SliceWriter<T> sliceWriter) {
+        ReusableByteStream buffer = acquireByteBuffer();
+        try {
+            if (!serialize(logRecord, encoding, buffer)) {
+                buffer.reset();
+                writeField(ERROR_FIELD, BINARY_CONVERSION_FAIL, encoding, buffer);
+            }
+            sliceWriter.write(target, buffer.array(), 0, buffer.size());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Writes an already rendered message in a binary format. A JSON object, such as a record rendered
+     * after the sensitive data rules were applied, is converted token by token; any other text is
+     * written as the {@value #MESSAGE_FIELD} field of a document.
+     *
+     * @param text        The rendered message.
+     * @param encoding    The binary format.
+     * @param target      The destination passed back to the writer.
+     * @param sliceWriter Receives the serialized bytes.
+     * @param <T>         The type of the destination.
+     */
+    public static <T> void writeBinary(String text, BinaryEncoding encoding, T target, SliceWriter<T> sliceWriter) {
+        ReusableByteStream buffer = acquireByteBuffer();
+        try {
+            if (!transcode(text, encoding, buffer)) {
+                buffer.reset();
+                writeField(MESSAGE_FIELD, text, encoding, buffer);
+            }
+            sliceWriter.write(target, buffer.array(), 0, buffer.size());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * @param logRecord The record to serialize.
+     * @param encoding  The binary format.
+     * @return A copy of the serialized record.
+     */
+    public static byte[] toBytes(LogRecord<?, ?> logRecord, BinaryEncoding encoding) {
+        var bytes = new byte[1][];
+        writeBinary(logRecord, encoding, bytes, (target, buffer, offset, length) ->
+                target[0] = Arrays.copyOfRange(buffer, offset, offset + length));
+        return bytes[0];
+    }
+
+    private static boolean serialize(LogRecord<?, ?> logRecord, ReusableCharWriter buffer) {
+        try {
+            writers.json().writeValue(buffer, logRecord);
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static boolean serialize(LogRecord<?, ?> logRecord, ReusableCharWriter buffer, MaskingPlan plan) {
+        try (JsonGenerator generator = new MaskingJsonGenerator(MAPPER.createGenerator(buffer), plan)) {
+            writers.json().writeValue(generator, logRecord);
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static boolean serialize(LogRecord<?, ?> logRecord, ReusableByteStream buffer) {
+        try {
+            writers.json().writeValue(buffer, logRecord);
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static boolean serialize(LogRecord<?, ?> logRecord, BinaryEncoding encoding,
+                                     ReusableByteStream buffer) {
+        try {
+            writers.binary()[encoding.ordinal()].writeValue(buffer, logRecord);
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static boolean transcode(String json, BinaryEncoding encoding, ReusableByteStream buffer) {
+        try (JsonParser parser = MAPPER.createParser(json);
+             JsonGenerator generator = BINARY_MAPPERS[encoding.ordinal()].createGenerator(buffer)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            generator.copyCurrentStructure(parser);
+            return parser.nextToken() == null;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static void writeField(String name, String value, BinaryEncoding encoding, ReusableByteStream buffer) {
+        try {
+            BINARY_MAPPERS[encoding.ordinal()].writeValue(buffer, Map.of(name, value));
+        } catch (IOException ex) {
+            // Writing a single string into memory does not fail
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static ObjectMapper[] binaryMappers() {
+        BinaryEncoding[] encodings = BinaryEncoding.values();
+        var mappers = new ObjectMapper[encodings.length];
+        for (BinaryEncoding encoding : encodings) {
+            mappers[encoding.ordinal()] = new ObjectMapper(encoding.factory());
+        }
+        return mappers;
+    }
+
+    private static SchemaWriters[] schemaWriters() {
+        OutputSchema[] schemas = OutputSchema.values();
+        var result = new SchemaWriters[schemas.length];
+        for (OutputSchema schema : schemas) {
+            var module = new LogRecordModule(schema);
+            var binary = new ObjectWriter[BINARY_MAPPERS.length];
+            for (BinaryEncoding encoding : BinaryEncoding.values()) {
+                binary[encoding.ordinal()] = new ObjectMapper(encoding.factory()).registerModule(module)
+                        .writerFor(LogRecord.class);
+            }
+            ObjectWriter json = new ObjectMapper().registerModule(module).writerFor(LogRecord.class);
+            result[schema.ordinal()] = new SchemaWriters(schema, json, binary);
+        }
+        return result;
+    }
+
+    private static ReusableCharWriter acquireCharBuffer() {
+        ReusableCharWriter buffer = CHAR_BUFFER.get();
+        ReusableCharWriter acquired = buffer.inUse ? new ReusableCharWriter() : buffer;
+        acquired.inUse = true;
+        return acquired;
+    }
+
+    private static ReusableByteStream acquireByteBuffer() {
+        ReusableByteStream buffer = BYTE_BUFFER.get();
+        ReusableByteStream acquired = buffer.inUse ? new ReusableByteStream() : buffer;
+        acquired.inUse = true;
+        return acquired;
+    }
+
+    /**
+     * Character buffer reused across records of the same thread. Oversized buffers are
+     * dropped after use so a single large payload does not stay pinned in memory.
+     */
+    private static final class ReusableCharWriter extends CharArrayWriter {
+        private boolean inUse;
+
+        private ReusableCharWriter() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() {
+            // The buffer outlives the generator that writes into it.
+        }
+
+        private void appendTo(StringBuilder target) {
+            target.append(buf, 0, count);
+        }
+
+        private void release() {
+            reset();
+            if (buf.length > MAX_RETAINED_BUFFER_SIZE) {
+                buf = new char[INITIAL_BUFFER_SIZE];
+            }
+            inUse = false;
+        }
+    }
+
+    /**
+     * Byte buffer reused across records of the same thread, exposing its backing array
+     * so the serialized bytes can be copied without an extra array allocation.
+     */
+    private static final class ReusableByteStream extends ByteArrayOutputStream {
+        private boolean inUse;
+
+        private ReusableByteStream() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() {
+            // The buffer outlives the generator that writes into it.
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+
+        private void release() {
+            reset();
+            if (buf.length > MAX_RETAINED_BUFFER_SIZE) {
+                buf = new byte[INITIAL_BUFFER_SIZE];
+            }
+            inUse = false;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.model.request.RawJsonBody;
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Generator that applies a {@link MaskingPlan} while a document is being written, so a record is
+ * masked in the same pass that serializes it instead of being parsed back into a tree.
+ * It follows the trie of the plan along the enclosing fields; the name of a field that may be
+ * removed is held back until its value is known.
+ * Raw JSON bodies are streamed token by token through the generator so the same rules reach them.
+ */
+final class MaskingJsonGenerator extends JsonGeneratorDelegate {
+
+    private static final JsonFactory RAW_BODY_PARSERS = new JsonFactory();
+
+    private final MaskingPlan plan;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    // Rules reachable from the field whose name was written last
+    private List<MaskingPlan.Mask> fieldMasks = List.of();
+    private MaskingPlan.Node fieldObject;
+    private MaskingPlan.Node fieldArray;
+    private List<MaskingPlan.Mask> fieldArrayMasks = List.of();
+    private String heldName;
+    private SerializableString heldSerializedName;
+
+    MaskingJsonGenerator(JsonGenerator delegate, MaskingPlan plan) {
+        super(delegate, false);
+        this.plan = plan;
+    }
+
+    /**
+     * An open object or array. For an object, {@code node} is the trie node of its fields, or
+     * {@code null} when no path reaches it; for an array, it is the node of its object elements
+     * and {@code elementMasks} apply to its string elements.
+     */
+    private record Frame(boolean array, MaskingPlan.Node node, List<MaskingPlan.Mask> elementMasks) {
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        if (onFieldName(name)) {
+            heldName = name;
+        } else {
+            delegate.writeFieldName(name);
+        }
+    }
+
+    @Override
+    public void writeFieldName(SerializableString name) throws IOException {
+        if (onFieldName(name.getValue())) {
+            heldSerializedName = name;
+        } else {
+            delegate.writeFieldName(name);
+        }
+    }
+
+    @Override
+    public void writeFieldId(long id) throws IOException {
+        writeFieldName(Long.toString(id));
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+        List<MaskingPlan.Mask> masks = valueMasks();
+        if (text == null || masks.isEmpty()) {
+            beforeValue();
+            delegate.writeString(text);
+            return;
+        }
+        String masked = MaskingPlan.apply(text, masks);
+        if (masked == null) {
+            heldName = null;
+            heldSerializedName = null;
+            resetField();
+        } else {
+            beforeValue();
+            delegate.writeString(masked);
+        }
+    }
+
+    @Override
+    public void writeString(char[] text, int offset, int len) throws IOException {
+        writeString(new String(text, offset, len));
+    }
+
+    @Override
+    public void writeString(SerializableString text) throws IOException {
+        if (valueMasks().isEmpty()) {
+            beforeValue();
+            delegate.writeString(text);
+        } else {
+            writeString(text.getValue());
+        }
+    }
+
+    @Override
+    public void writeStartObject() throws IOException {
+        pushObject();
+        delegate.writeStartObject();
+    }
+
+    @Override
+    public void writeStartObject(Object forValue) throws IOException {
+        pushObject();
+        delegate.writeStartObject(forValue);
+    }
+
+    @Override
+    public void writeStartObject(Object forValue, int size) throws IOException {
+        pushObject();
+        delegate.writeStartObject(forValue, size);
+    }
+
+    @Override
+    public void writeEndObject() throws IOException {
+        frames.poll();
+        resetField();
+        delegate.writeEndObject();
+    }
+
+    @Override
+    public void writeStartArray() throws IOException {
+        pushArray();
+        delegate.writeStartArray();
+    }
+
+    @Override
+    public void writeStartArray(Object forValue) throws IOException {
+        pushArray();
+        delegate.writeStartArray(forValue);
+    }
+
+    @Override
+    public void writeStartArray(Object forValue, int size) throws IOException {
+        pushArray();
+        delegate.writeStartArray(forValue, size);
+    }
+
+    @Override
+    public void writeEndArray() throws IOException {
+        frames.poll();
+        resetField();
+        delegate.writeEndArray();
+    }
+
+    @Override
+    public void writeRawUTF8String(byte[] text, int offset, int length) throws IOException {
+        beforeValue();
+        delegate.writeRawUTF8String(text, offset, length);
+    }
+
+    @Override
+    public void writeUTF8String(byte[] text, int offset, int length) throws IOException {
+        beforeValue();
+        delegate.writeUTF8String(text, offset, length);
+    }
+
+    @Override
+    public void writeRawValue(String text) throws IOException {
+        beforeValue();
+        delegate.writeRawValue(text);
+    }
+
+    @Override
+    public void writeRawValue(String text, int offset, int len) throws IOException {
+        beforeValue();
+        delegate.writeRawValue(text, offset, len);
+    }
+
+    @Override
+    public void writeRawValue(char[] text, int offset, int len) throws IOException {
+        beforeValue();
+        delegate.writeRawValue(text, offset, len);
+    }
+
+    @Override
+    public void writeRawValue(SerializableString raw) throws IOException {
+        if (raw instanceof RawJsonValue rawJson) {
+            RawJsonBody body = rawJson.body();
+            try (JsonParser parser = RAW_BODY_PARSERS.createParser(
+                    body.getBytes(), body.getOffset(), body.getLength())) {
+                parser.nextToken();
+                copyCurrentStructure(parser);
+            }
+            return;
+        }
+        beforeValue();
+        delegate.writeRawValue(raw);
+    }
+
+    @Override
+    public void writeBinary(Base64Variant b64variant, byte[] data, int offset, int len) throws IOException {
+        beforeValue();
+        delegate.writeBinary(b64variant, data, offset, len);
+    }
+
+    @Override
+    public int writeBinary(Base64Variant b64variant, InputStream data, int dataLength) throws IOException {
+        beforeValue();
+        return delegate.writeBinary(b64variant, data, dataLength);
+    }
+
+    @Override
+    public void writeNumber(short v) throws IOException {
+        beforeValue();
+        delegate.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(int v) throws IOException {
+        beforeValue();
+        delegate.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(long v) throws IOException {
+        beforeValue();
+        delegate.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(BigInteger v) throws IOException {
+        beforeValue();
+        delegate.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(double v) throws IOException {
+        beforeValue();
+        delegate.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(float v) throws IOException {
+        beforeValue();
+        delegate.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(BigDecimal v) throws IOException {
+        beforeValue();
+        delegate.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(String encodedValue) throws IOException {
+        beforeValue();
+        delegate.writeNumber(encodedValue);
+    }
+
+    @Override
+    public void writeNumber(char[] encodedValueBuffer, int offset, int length) throws IOException {
+        beforeValue();
+        delegate.writeNumber(encodedValueBuffer, offset, length);
+    }
+
+    @Override
+    public void writeBoolean(boolean state) throws IOException {
+        beforeValue();
+        delegate.writeBoolean(state);
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        beforeValue();
+        delegate.writeNull();
+    }
+
+    @Override
+    public void writeEmbeddedObject(Object object) throws IOException {
+        beforeValue();
+        delegate.writeEmbeddedObject(object);
+    }
+
+    /**
+     * Looks up the masks and the trie nodes reachable from a new field of the current object.
+     *
+     * @return {@code true} when the value of the field may be masked, so its name must be held back.
+     */
+    private boolean onFieldName(String name) {
+        resetField();
+        Frame frame = frames.peek();
+        MaskingPlan.Step step = frame != null && frame.node() != null ? frame.node().step(name) : null;
+        if (step == null) {
+            fieldMasks = plan.nameMasks(name);
+        } else {
+            fieldMasks = step.valueMasks();
+            fieldObject = step.object();
+            fieldArray = step.elements();
+            fieldArrayMasks = step.elementMasks();
+        }
+        return !fieldMasks.isEmpty();
+    }
+
+    private List<MaskingPlan.Mask> valueMasks() {
+        Frame frame = frames.peek();
+        if (frame == null) {
+            return List.of();
+        }
+        return frame.array() ? frame.elementMasks() : fieldMasks;
+    }
+
+    private void pushObject() throws IOException {
+        Frame frame = frames.peek();
+        MaskingPlan.Node node;
+        if (frame == null) {
+            node = plan.root();
+        } else {
+            node = frame.array() ? frame.node() : fieldObject;
+        }
+        beforeValue();
+        frames.push(new Frame(false, node, List.of()));
+    }
+
+    private void pushArray() throws IOException {
+        Frame frame = frames.peek();
+        boolean field = frame != null && !frame.array();
+        MaskingPlan.Node node = field ? fieldArray : null;
+        List<MaskingPlan.Mask> elementMasks = field ? fieldArrayMasks : List.of();
+        beforeValue();
+        frames.push(new Frame(true, node, elementMasks));
+    }
+
+    private void beforeValue() throws IOException {
+        if (heldName != null) {
+            delegate.writeFieldName(heldName);
+            heldName = null;
+        } else if (heldSerializedName != null) {
+            delegate.writeFieldName(heldSerializedName);
+            heldSerializedName = null;
+        }
+        resetField();
+    }
+
+    private void resetField() {
+        fieldMasks = List.of();
+        fieldObject = null;
+        fieldArray = null;
+        fieldArrayMasks = List.of();
+    }
+}
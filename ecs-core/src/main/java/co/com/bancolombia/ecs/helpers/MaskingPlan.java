@@ -0,0 +1,201 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.helpers.strategy.MaskingStrategy;
+import co.com.bancolombia.ecs.infra.config.SensitiveRulesConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The sensitive data rules of one URI, compiled for {@link MaskingJsonGenerator} and
+ * {@link JsonFieldNavigator#mask}. Every field path of every rule becomes a {@link Mask} numbered
+ * in the order the rules are declared, so masks that hit the same value are applied in the same
+ * order as they would be one rule at a time.
+ * <p>
+ * The field paths with a dot share a trie of {@link Node}s keyed by field name, so a document is
+ * masked in a single walk that follows at most one node per object. The masks of the field names
+ * matched at any depth are merged into every step of the trie with that name beforehand.
+ */
+final class MaskingPlan {
+
+    private static final String PATH_SEPARATOR = "\\.";
+    private static final String ARRAY_SUFFIX = "[*]";
+
+    private final Map<String, List<Mask>> nameMasks;
+    private final Node root;
+
+    private MaskingPlan(Map<String, List<Mask>> nameMasks, Node root) {
+        this.nameMasks = nameMasks;
+        this.root = root;
+    }
+
+    /**
+     * Compiles the enabled rules. Field paths with a dot are matched from the root of the document,
+     * after translating them to the layout of the schema with {@link SchemaFieldPaths}; the other
+     * ones match a field with that name at any depth.
+     *
+     * @param rules      The rules of a URI, in declaration order.
+     * @param strategies The strategy of each masking type.
+     * @param schema     The layout of the documents the plan is applied to.
+     * @return The compiled plan.
+     */
+    static MaskingPlan compile(List<SensitiveRulesConfig.SensitiveDataRule> rules,
+                               Map<SensitiveRulesConfig.MaskingType, MaskingStrategy> strategies,
+                               OutputSchema schema) {
+        Map<String, List<Mask>> nameMasks = new HashMap<>();
+        var root = new Node();
+        var ordinal = 0;
+        for (SensitiveRulesConfig.SensitiveDataRule rule : rules) {
+            MaskingStrategy strategy = strategies.get(rule.getMaskingType());
+            if (!rule.isEnabled() || strategy == null || rule.getFieldPaths() == null) continue;
+            for (String fieldPath : rule.getFieldPaths()) {
+                if (fieldPath == null || fieldPath.isBlank()) continue;
+                if (fieldPath.contains(".")) {
+                    for (String path : SchemaFieldPaths.forSchema(fieldPath, schema)) {
+                        root.add(path.split(PATH_SEPARATOR), 0, new Mask(ordinal++, rule, strategy));
+                    }
+                } else {
+                    nameMasks.computeIfAbsent(fieldPath, name -> new ArrayList<>())
+                            .add(new Mask(ordinal++, rule, strategy));
+                }
+            }
+        }
+        root.freeze(nameMasks);
+        nameMasks.replaceAll((name, masks) -> List.copyOf(masks));
+        return new MaskingPlan(nameMasks, root);
+    }
+
+    boolean isEmpty() {
+        return nameMasks.isEmpty() && root.steps.isEmpty();
+    }
+
+    /**
+     * @return The node of the root object of the document.
+     */
+    Node root() {
+        return root;
+    }
+
+    /**
+     * @param fieldName The name of a field that no path of the trie reaches.
+     * @return The masks of the string value of the field.
+     */
+    List<Mask> nameMasks(String fieldName) {
+        return nameMasks.getOrDefault(fieldName, Collections.emptyList());
+    }
+
+    /**
+     * Applies the masks in order.
+     *
+     * @param value The original value.
+     * @param masks The masks that target the value, sorted by ordinal.
+     * @return The masked value, or {@code null} when the value must be removed.
+     */
+    static String apply(String value, List<Mask> masks) {
+        String masked = value;
+        for (Mask mask : masks) {
+            masked = mask.strategy().mask(masked, mask.rule());
+            if (masked == null) {
+                return null;
+            }
+        }
+        return masked;
+    }
+
+    record Mask(int ordinal, SensitiveRulesConfig.SensitiveDataRule rule, MaskingStrategy strategy) {
+    }
+
+    /**
+     * An object reached by the first parts of one or more field paths.
+     */
+    static final class Node {
+
+        private final Map<String, Step> steps = new HashMap<>();
+
+        /**
+         * @param fieldName The name of a field of the object.
+         * @return What the paths expect from the field, or {@code null} when no path goes through it.
+         */
+        Step step(String fieldName) {
+            return steps.get(fieldName);
+        }
+
+        private void add(String[] parts, int index, Mask mask) {
+            if (index >= parts.length) return;
+            String part = parts[index];
+            boolean array = part.contains(ARRAY_SUFFIX);
+            Step step = steps.computeIfAbsent(array ? part.replace(ARRAY_SUFFIX, "") : part, name -> new Step());
+            boolean last = index == parts.length - 1;
+            if (array && last) {
+                step.elementMasks.add(mask);
+            } else if (array) {
+                step.elements = step.elements != null ? step.elements : new Node();
+                step.elements.add(parts, index + 1, mask);
+            } else if (last) {
+                step.valueMasks.add(mask);
+            } else {
+                step.object = step.object != null ? step.object : new Node();
+                step.object.add(parts, index + 1, mask);
+            }
+        }
+
+        private void freeze(Map<String, List<Mask>> nameMasks) {
+            steps.forEach((name, step) -> step.freeze(nameMasks.getOrDefault(name, Collections.emptyList()), nameMasks));
+        }
+    }
+
+    /**
+     * What the field paths expect from one field of a {@link Node}: masks for a string value,
+     * masks for the string elements of an array value, and the nodes of an object value or of
+     * the object elements of an array value.
+     */
+    static final class Step {
+
+        private List<Mask> valueMasks = new ArrayList<>();
+        private List<Mask> elementMasks = new ArrayList<>();
+        private Node object;
+        private Node elements;
+
+        /**
+         * @return The masks of a string value, including the ones of the field name, sorted by ordinal.
+         */
+        List<Mask> valueMasks() {
+            return valueMasks;
+        }
+
+        /**
+         * @return The masks of the string elements of an array value.
+         */
+        List<Mask> elementMasks() {
+            return elementMasks;
+        }
+
+        /**
+         * @return The node of an object value, or {@code null}.
+         */
+        Node object() {
+            return object;
+        }
+
+        /**
+         * @return The node of the object elements of an array value, or {@code null}.
+         */
+        Node elements() {
+            return elements;
+        }
+
+        private void freeze(List<Mask> fieldNameMasks, Map<String, List<Mask>> nameMasks) {
+            List<Mask> merged = new ArrayList<>(valueMasks);
+            merged.addAll(fieldNameMasks);
+            merged.sort(Comparator.comparingInt(Mask::ordinal));
+            valueMasks = List.copyOf(merged);
+            elementMasks = List.copyOf(elementMasks);
+            if (object != null) object.freeze(nameMasks);
+            if (elements != null) elements.freeze(nameMasks);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.helpers.RecordFieldMasker.Field;
+import co.com.bancolombia.ecs.model.request.RawJsonBody;
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes {@link LogRecord}s as OpenTelemetry (OTLP) log records in the protocol buffers wire
+ * format, without the generated OTLP classes.
+ * <p>
+ * The level becomes the severity, the error message (or the method and URI of the request) the
+ * body, and the other fields attributes named after the OpenTelemetry semantic conventions:
+ * {@code message.id}, {@code service.name}, {@code consumer}, {@code http.request.method},
+ * {@code url.path}, {@code http.request.header}, {@code http.request.body},
+ * {@code http.response.body}, {@code http.response.status_code}, {@code http.response.result},
+ * {@code exception.type}, {@code exception.message}, {@code error.description} and
+ * {@code error.optional_info}. Maps become key-value lists and collections arrays.
+ * <p>
+ * {@link #encodeMaskedLogRecord(LogRecord, long)} applies the sensitive data rules to the fields
+ * while they are encoded, so a record never has to be rendered as JSON and read back.
+ * <p>
+ * Records are encoded one by one and joined into an {@code ExportLogsServiceRequest} by
+ * {@link #encodeExportRequest(Map, List)}, so a batch is built by concatenation.
+ */
+@UtilityClass
+public class OtlpLogEncoder {
+
+    public static final String SCOPE_NAME = "co.com.bancolombia.ecs";
+
+    // opentelemetry.proto.logs.v1.LogRecord
+    private static final int RECORD_TIME = 1;
+    private static final int RECORD_SEVERITY_NUMBER = 2;
+    private static final int RECORD_SEVERITY_TEXT = 3;
+    private static final int RECORD_BODY = 5;
+    private static final int RECORD_ATTRIBUTES = 6;
+    private static final int RECORD_OBSERVED_TIME = 11;
+    // opentelemetry.proto.common.v1.AnyValue
+    private static final int VALUE_STRING = 1;
+    private static final int VALUE_BOOL = 2;
+    private static final int VALUE_INT = 3;
+    private static final int VALUE_DOUBLE = 4;
+    private static final int VALUE_ARRAY = 5;
+    private static final int VALUE_KEY_VALUE_LIST = 6;
+    private static final int VALUE_BYTES = 7;
+    // KeyValue, ArrayValue and KeyValueList
+    private static final int KEY_VALUE_KEY = 1;
+    private static final int KEY_VALUE_VALUE = 2;
+    private static final int LIST_VALUES = 1;
+    // ExportLogsServiceRequest, ResourceLogs, Resource, ScopeLogs and InstrumentationScope
+    private static final int REQUEST_RESOURCE_LOGS = 1;
+    private static final int RESOURCE_LOGS_RESOURCE = 1;
+    private static final int RESOURCE_LOGS_SCOPE_LOGS = 2;
+    private static final int RESOURCE_ATTRIBUTES = 1;
+    private static final int SCOPE_LOGS_SCOPE = 1;
+    private static final int SCOPE_LOGS_LOG_RECORDS = 2;
+    private static final int SCOPE_NAME_FIELD = 1;
+
+    private static final int SEVERITY_DEBUG = 5;
+    private static final int SEVERITY_INFO = 9;
+    private static final int SEVERITY_WARN = 13;
+    private static final int SEVERITY_ERROR = 17;
+    private static final int SEVERITY_FATAL = 21;
+    private static final int INITIAL_RECORD_SIZE = 512;
+
+    /**
+     * @param logRecord    The record.
+     * @param timeUnixNano When the record was logged, in nanoseconds since the epoch.
+     * @return The encoded {@code LogRecord} message.
+     */
+    public static byte[] encodeLogRecord(LogRecord<?, ?> logRecord, long timeUnixNano) {
+        return encode(logRecord, timeUnixNano, null);
+    }
+
+    /**
+     * Encodes the record with the sensitive data rules of its URI applied to every field, each one
+     * at the path it has in the JSON document of the current output schema.
+     *
+     * @param logRecord    The record before the sensitive data rules.
+     * @param timeUnixNano When the record was logged, in nanoseconds since the epoch.
+     * @return The encoded {@code LogRecord} message.
+     */
+    public static byte[] encodeMaskedLogRecord(LogRecord<?, ?> logRecord, long timeUnixNano) {
+        LogRecord.AdditionalInfo<?, ?> info = logRecord.getAdditionalInfo();
+        MaskingPlan plan = info != null && info.getUri() != null ? SensitiveHelper.planFor(info.getUri()) : null;
+        return encode(logRecord, timeUnixNano,
+                plan != null ? new RecordFieldMasker(plan, LogRecordSerializer.getSchema()) : null);
+    }
+
+    /**
+     * Encodes a document that is only available as JSON text: it becomes the body of a record
+     * without severity or attributes.
+     *
+     * @param json         The rendered JSON document.
+     * @param timeUnixNano When the record was logged, in nanoseconds since the epoch.
+     * @return The encoded {@code LogRecord} message.
+     */
+    public static byte[] encodeRenderedLogRecord(String json, long timeUnixNano) {
+        var writer = new ProtobufWriter(json.length() + 32);
+        writer.writeFixed64(RECORD_TIME, timeUnixNano);
+        writer.writeFixed64(RECORD_OBSERVED_TIME, timeUnixNano);
+        int mark = writer.beginMessage(RECORD_BODY);
+        writer.writeString(VALUE_STRING, json);
+        writer.endMessage(mark);
+        return writer.toByteArray();
+    }
+
+    private static byte[] encode(LogRecord<?, ?> logRecord, long timeUnixNano, RecordFieldMasker masker) {
+        var writer = new ProtobufWriter(INITIAL_RECORD_SIZE);
+        writer.writeFixed64(RECORD_TIME, timeUnixNano);
+        writer.writeFixed64(RECORD_OBSERVED_TIME, timeUnixNano);
+        if (logRecord.getLevel() != null) {
+            writer.writeVarint(RECORD_SEVERITY_NUMBER, severityNumber(logRecord.getLevel()));
+            writer.writeString(RECORD_SEVERITY_TEXT, logRecord.getLevel().value());
+        }
+        LogRecord.AdditionalInfo<?, ?> info = logRecord.getAdditionalInfo();
+        LogRecord.ErrorLog<?, ?> error = logRecord.getError();
+        Object method = info != null ? mask(masker, Field.METHOD, info.getMethod()) : null;
+        Object uri = info != null ? mask(masker, Field.URI, info.getUri()) : null;
+        Object errorMessage = error != null ? mask(masker, Field.ERROR_MESSAGE, error.getMessage()) : null;
+        String body = body(errorMessage, method, uri);
+        if (body != null) {
+            int mark = writer.beginMessage(RECORD_BODY);
+            writer.writeString(VALUE_STRING, body);
+            writer.endMessage(mark);
+        }
+        writeAttribute(writer, "message.id", mask(masker, Field.MESSAGE_ID, logRecord.getMessageId()));
+        writeAttribute(writer, "service.name", mask(masker, Field.SERVICE, logRecord.getService()));
+        writeAttribute(writer, "consumer", mask(masker, Field.CONSUMER, logRecord.getConsumer()));
+        if (info != null) {
+            writeAttribute(writer, "http.request.method", method);
+            writeAttribute(writer, "url.path", uri);
+            writeAttribute(writer, "http.request.header", mask(masker, Field.HEADERS, info.getHeaders()));
+            writeAttribute(writer, "http.request.body",
+                    body(masker, Field.REQUEST_BODY, info.getRequestBody(), info.getRawRequestBody()));
+            writeAttribute(writer, "http.response.body",
+                    body(masker, Field.RESPONSE_BODY, info.getResponseBody(), info.getRawResponseBody()));
+            writeAttribute(writer, "http.response.status_code",
+                    statusCode(mask(masker, Field.RESPONSE_CODE, info.getResponseCode())));
+            writeAttribute(writer, "http.response.result",
+                    mask(masker, Field.RESPONSE_RESULT, info.getResponseResult()));
+        }
+        if (error != null) {
+            writeAttribute(writer, "exception.type", mask(masker, Field.ERROR_TYPE, error.getType()));
+            writeAttribute(writer, "exception.message", errorMessage);
+            writeAttribute(writer, "error.description", mask(masker, Field.ERROR_DESCRIPTION, error.getDescription()));
+            writeAttribute(writer, "error.optional_info",
+                    mask(masker, Field.ERROR_OPTIONAL_INFO, error.getOptionalInfo()));
+        }
+        return writer.toByteArray();
+    }
+
+    private static Object mask(RecordFieldMasker masker, Field field, Object value) {
+        return masker != null ? masker.mask(field, value) : value;
+    }
+
+    private static Object body(RecordFieldMasker masker, Field field, Map<?, ?> map, RawJsonBody rawBody) {
+        if (masker != null) {
+            return masker.maskBody(field, map, rawBody);
+        }
+        return map != null ? map : rawBody;
+    }
+
+    /**
+     * Wraps encoded records in a request with a single resource and instrumentation scope.
+     *
+     * @param resourceAttributes Attributes of the resource, such as {@code service.name}.
+     * @param logRecords         Records returned by {@link #encodeLogRecord(LogRecord, long)}.
+     * @return The encoded {@code ExportLogsServiceRequest}.
+     */
+    public static byte[] encodeExportRequest(Map<String, String> resourceAttributes, List<byte[]> logRecords) {
+        int size = 64;
+        for (byte[] logRecord : logRecords) {
+            size += logRecord.length + 4;
+        }
+        var writer = new ProtobufWriter(size);
+        int resourceLogs = writer.beginMessage(REQUEST_RESOURCE_LOGS);
+        int resource = writer.beginMessage(RESOURCE_LOGS_RESOURCE);
+        resourceAttributes.forEach((key, value) -> writeKeyValue(writer, RESOURCE_ATTRIBUTES, key, value));
+        writer.endMessage(resource);
+        int scopeLogs = writer.beginMessage(RESOURCE_LOGS_SCOPE_LOGS);
+        int scope = writer.beginMessage(SCOPE_LOGS_SCOPE);
+        writer.writeString(SCOPE_NAME_FIELD, SCOPE_NAME);
+        writer.endMessage(scope);
+        for (byte[] logRecord : logRecords) {
+            writer.writeBytes(SCOPE_LOGS_LOG_RECORDS, logRecord, 0, logRecord.length);
+        }
+        writer.endMessage(scopeLogs);
+        writer.endMessage(resourceLogs);
+        return writer.toByteArray();
+    }
+
+    private static int severityNumber(LogRecord.Level level) {
+        return switch (level) {
+            case DEBUG -> SEVERITY_DEBUG;
+            case INFO -> SEVERITY_INFO;
+            case WARNING -> SEVERITY_WARN;
+            case ERROR -> SEVERITY_ERROR;
+            case FATAL -> SEVERITY_FATAL;
+        };
+    }
+
+    private static String body(Object errorMessage, Object method, Object uri) {
+        if (errorMessage != null) {
+            return errorMessage.toString();
+        }
+        if (uri == null) {
+            return null;
+        }
+        return method != null ? method + " " + uri : uri.toString();
+    }
+
+    private static Object statusCode(Object responseCode) {
+        if (!(responseCode instanceof String code)) {
+            return responseCode;
+        }
+        try {
+            return Long.parseLong(code.trim());
+        } catch (NumberFormatException ex) {
+            return code;
+        }
+    }
+
+    private static void writeAttribute(ProtobufWriter writer, String key, Object value) {
+        if (value != null) {
+            writeKeyValue(writer, RECORD_ATTRIBUTES, key, value);
+        }
+    }
+
+    private static void writeKeyValue(ProtobufWriter writer, int field, String key, Object value) {
+        int mark = writer.beginMessage(field);
+        writer.writeString(KEY_VALUE_KEY, key);
+        writeAnyValue(writer, KEY_VALUE_VALUE, value);
+        writer.endMessage(mark);
+    }
+
+    private static void writeAnyValue(ProtobufWriter writer, int field, Object value) {
+        int mark = writer.beginMessage(field);
+        switch (value) {
+            case null -> {
+                // An empty AnyValue stands for null
+            }
+            case CharSequence text -> writer.writeString(VALUE_STRING, text.toString());
+            case Boolean bool -> writer.writeBool(VALUE_BOOL, bool);
+            case Byte number -> writer.writeVarint(VALUE_INT, number);
+            case Short number -> writer.writeVarint(VALUE_INT, number);
+            case Integer number -> writer.writeVarint(VALUE_INT, number);
+            case Long number -> writer.writeVarint(VALUE_INT, number);
+            case BigInteger number when number.bitLength() < Long.SIZE ->
+                    writer.writeVarint(VALUE_INT, number.longValue());
+            case Float number -> writer.writeDouble(VALUE_DOUBLE, number);
+            case Double number -> writer.writeDouble(VALUE_DOUBLE, number);
+            case BigDecimal number -> writer.writeDouble(VALUE_DOUBLE, number.doubleValue());
+            case byte[] bytes -> writer.writeBytes(VALUE_BYTES, bytes, 0, bytes.length);
+            case RawJsonBody raw -> writer.writeString(VALUE_STRING, raw.asString());
+            case Map<?, ?> map -> {
+                int list = writer.beginMessage(VALUE_KEY_VALUE_LIST);
+                map.forEach((key, entry) -> writeKeyValue(writer, LIST_VALUES, String.valueOf(key), entry));
+                writer.endMessage(list);
+            }
+            case Collection<?> collection -> {
+                int array = writer.beginMessage(VALUE_ARRAY);
+                collection.forEach(element -> writeAnyValue(writer, LIST_VALUES, element));
+                writer.endMessage(array);
+            }
+            case Object[] elements -> {
+                int array = writer.beginMessage(VALUE_ARRAY);
+                for (Object element : elements) {
+                    writeAnyValue(writer, LIST_VALUES, element);
+                }
+                writer.endMessage(array);
+            }
+            default -> writer.writeString(VALUE_STRING, value.toString());
+        }
+        writer.endMessage(mark);
+    }
+}
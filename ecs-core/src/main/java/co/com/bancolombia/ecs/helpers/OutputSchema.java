@@ -0,0 +1,16 @@
+package co.com.bancolombia.ecs.helpers;
+
+/**
+ * Field layout of the serialized {@code LogRecord}.
+ */
+public enum OutputSchema {
+    /**
+     * The layout of the library: {@code date}, {@code message-id}, {@code additionalInfo} and a plain {@code level}.
+     */
+    LEGACY,
+    /**
+     * Elastic Common Schema field names: {@code @timestamp}, {@code log.level}, {@code http.*}, {@code url.path},
+     * {@code trace.id} and {@code error.*}, so documents can be indexed without renaming them at ingest.
+     */
+    ECS
+}
@@ -0,0 +1,122 @@
+package co.com.bancolombia.ecs.helpers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal protocol buffers writer over a single growable array. Nested messages are written in
+ * place: {@link #beginMessage(int)} reserves one byte for the length and {@link #endMessage(int)}
+ * fills it in, shifting the content only when the length needs more than one byte.
+ */
+final class ProtobufWriter {
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_FIXED64 = 1;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+
+    private byte[] buffer;
+    private int size;
+
+    ProtobufWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    void writeVarint(int field, long value) {
+        writeTag(field, WIRE_VARINT);
+        writeRawVarint(value);
+    }
+
+    void writeBool(int field, boolean value) {
+        writeVarint(field, value ? 1 : 0);
+    }
+
+    void writeFixed64(int field, long value) {
+        writeTag(field, WIRE_FIXED64);
+        ensureCapacity(Long.BYTES);
+        for (int i = 0; i < Long.BYTES; i++) {
+            buffer[size++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    void writeDouble(int field, double value) {
+        writeFixed64(field, Double.doubleToRawLongBits(value));
+    }
+
+    void writeString(int field, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeBytes(field, bytes, 0, bytes.length);
+    }
+
+    void writeBytes(int field, byte[] bytes, int offset, int length) {
+        writeTag(field, WIRE_LENGTH_DELIMITED);
+        writeRawVarint(length);
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    /**
+     * Starts a nested message; everything written until {@link #endMessage(int)} is its content.
+     *
+     * @param field The field number of the message.
+     * @return The mark to pass to {@link #endMessage(int)}.
+     */
+    int beginMessage(int field) {
+        writeTag(field, WIRE_LENGTH_DELIMITED);
+        ensureCapacity(1);
+        return size++;
+    }
+
+    void endMessage(int mark) {
+        int length = size - mark - 1;
+        int lengthBytes = varintSize(length);
+        if (lengthBytes > 1) {
+            ensureCapacity(lengthBytes - 1);
+            System.arraycopy(buffer, mark + 1, buffer, mark + lengthBytes, length);
+            size += lengthBytes - 1;
+        }
+        int position = mark;
+        long value = length;
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position] = (byte) value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void writeTag(int field, int wireType) {
+        writeRawVarint(((long) field << 3) | wireType);
+    }
+
+    private void writeRawVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+
+    private static int varintSize(long value) {
+        int bytes = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,128 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.model.request.RawJsonBody;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Exposes the bytes of a JSON {@link RawJsonBody} to {@code JsonGenerator#writeRawValue}, so a UTF-8
+ * generator copies them straight into its buffer. The text is only decoded for character generators.
+ */
+final class RawJsonValue implements SerializableString {
+
+    private final RawJsonBody body;
+    private String value;
+    private SerializedString quoted;
+
+    RawJsonValue(RawJsonBody body) {
+        this.body = body;
+    }
+
+    RawJsonBody body() {
+        return body;
+    }
+
+    @Override
+    public String getValue() {
+        if (value == null) {
+            value = body.asString();
+        }
+        return value;
+    }
+
+    @Override
+    public int charLength() {
+        return getValue().length();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return Arrays.copyOfRange(body.getBytes(), body.getOffset(), body.getOffset() + body.getLength());
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+        int length = body.getLength();
+        if (offset + length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(body.getBytes(), body.getOffset(), buffer, offset, length);
+        return length;
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+        String text = getValue();
+        int length = text.length();
+        if (offset + length > buffer.length) {
+            return -1;
+        }
+        text.getChars(0, length, buffer, offset);
+        return length;
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        out.write(body.getBytes(), body.getOffset(), body.getLength());
+        return body.getLength();
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer out) {
+        int length = body.getLength();
+        if (length > out.remaining()) {
+            return -1;
+        }
+        out.put(body.getBytes(), body.getOffset(), length);
+        return length;
+    }
+
+    // A raw value is never written quoted; these are only here to honour the interface.
+
+    @Override
+    public char[] asQuotedChars() {
+        return quoted().asQuotedChars();
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return quoted().asQuotedUTF8();
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+        return quoted().appendQuotedUTF8(buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+        return quoted().appendQuoted(buffer, offset);
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        return quoted().writeQuotedUTF8(out);
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+        return quoted().putQuotedUTF8(buffer);
+    }
+
+    private SerializedString quoted() {
+        if (quoted == null) {
+            quoted = new SerializedString(getValue());
+        }
+        return quoted;
+    }
+
+    @Override
+    public String toString() {
+        return getValue();
+    }
+}
@@ -0,0 +1,203 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.model.request.RawJsonBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies a {@link MaskingPlan} to the fields of a {@link LogRecord} one at a time, for encoders that
+ * do not write the JSON document of the record. Each field is masked at the path it has in the
+ * document of the {@link OutputSchema}, following the trie of the plan as {@link MaskingJsonGenerator}
+ * does: a string takes the masks of its path, or of its field name when no path reaches it, the
+ * string elements of an array take the element masks of its path, and a value a rule removes is left out.
+ */
+final class RecordFieldMasker {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // Stands for a removed value inside maps and arrays, where null is a value
+    private static final Object REMOVED = new Object();
+    private static final String ECS_JSON_BODY = "data";
+    private static final String ECS_TEXT_BODY = "content";
+    private static final int STATUS_CODE_DIGITS = 3;
+
+    private final MaskingPlan plan;
+    private final OutputSchema schema;
+
+    /**
+     * A field of the record and its path in the document of each schema.
+     */
+    enum Field {
+        MESSAGE_ID(path(LogRecord.MESSAGE_ID), path("trace", "id")),
+        SERVICE(path("service"), path("service", "name")),
+        CONSUMER(path("consumer"), path("labels", "consumer")),
+        METHOD(path("additionalInfo", "method"), path("http", "request", "method")),
+        URI(path("additionalInfo", "uri"), path("url", "path")),
+        HEADERS(path("additionalInfo", "headers"), path("http", "request", "headers")),
+        REQUEST_BODY(path("additionalInfo", "requestBody"), path("http", "request", "body")),
+        RESPONSE_BODY(path("additionalInfo", "responseBody"), path("http", "response", "body")),
+        RESPONSE_RESULT(path("additionalInfo", "responseResult"), path("labels", "response_result")),
+        RESPONSE_CODE(path("additionalInfo", "responseCode"), path("http", "response", "status_code")),
+        ERROR_TYPE(path("error", "type"), path("error", "type")),
+        ERROR_MESSAGE(path("error", "message"), path("error", "message")),
+        ERROR_DESCRIPTION(path("error", "description"), path("error", "description")),
+        ERROR_OPTIONAL_INFO(path("error", "optionalInfo"), path("error", "details"));
+
+        private final String[] legacy;
+        private final String[] ecs;
+
+        Field(String[] legacy, String[] ecs) {
+            this.legacy = legacy;
+            this.ecs = ecs;
+        }
+
+        private static String[] path(String... names) {
+            return names;
+        }
+    }
+
+    RecordFieldMasker(MaskingPlan plan, OutputSchema schema) {
+        this.plan = plan;
+        this.schema = schema;
+    }
+
+    /**
+     * @param field The field of the record.
+     * @param value Its value.
+     * @return The masked value, or {@code null} when a rule removes it.
+     */
+    Object mask(Field field, Object value) {
+        if (value == null || field == Field.RESPONSE_CODE && schema == OutputSchema.ECS && isStatusNumber(value)) {
+            // The ECS status code is written as a number, which no rule masks
+            return value;
+        }
+        return maskAt(path(field), value);
+    }
+
+    /**
+     * Masks a request or response body, written as its map, as the raw JSON document or as raw text.
+     *
+     * @param field   {@link Field#REQUEST_BODY} or {@link Field#RESPONSE_BODY}.
+     * @param map     The body map, may be {@code null}.
+     * @param rawBody The sanitized body used when there is no map, may be {@code null}.
+     * @return The masked map, the JSON text of the masked raw document, the masked raw text, or
+     * {@code null} when there is no body or a rule removes it.
+     */
+    Object maskBody(Field field, Map<?, ?> map, RawJsonBody rawBody) {
+        String[] path = path(field);
+        if (map != null) {
+            return maskAt(schema == OutputSchema.ECS ? append(path, ECS_JSON_BODY) : path, map);
+        }
+        if (rawBody == null) {
+            return null;
+        }
+        if (!rawBody.isJson()) {
+            return maskAt(append(path, schema == OutputSchema.ECS ? ECS_TEXT_BODY : HandlerHelper.RAW_BODY),
+                    rawBody.asString());
+        }
+        try {
+            Object document = MAPPER.readValue(rawBody.getBytes(), rawBody.getOffset(), rawBody.getLength(),
+                    Object.class);
+            Object masked = maskAt(schema == OutputSchema.ECS ? append(path, ECS_JSON_BODY) : path, document);
+            return masked != null ? MAPPER.writeValueAsString(masked) : null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private String[] path(Field field) {
+        return schema == OutputSchema.ECS ? field.ecs : field.legacy;
+    }
+
+    private Object maskAt(String[] path, Object value) {
+        MaskingPlan.Node node = plan.root();
+        MaskingPlan.Step step = null;
+        for (var i = 0; i < path.length; i++) {
+            if (i > 0) {
+                node = step != null ? step.object() : null;
+            }
+            step = node != null ? node.step(path[i]) : null;
+        }
+        Object masked = maskField(path[path.length - 1], step, value);
+        return masked != REMOVED ? masked : null;
+    }
+
+    private Object maskField(String name, MaskingPlan.Step step, Object value) {
+        return switch (value) {
+            case String text -> maskString(text, step != null ? step.valueMasks() : plan.nameMasks(name));
+            case Map<?, ?> map -> maskObject(map, step != null ? step.object() : null);
+            case Collection<?> elements -> maskArray(elements, step);
+            case Object[] elements -> maskArray(Arrays.asList(elements), step);
+            case null, default -> value;
+        };
+    }
+
+    private Map<Object, Object> maskObject(Map<?, ?> map, MaskingPlan.Node node) {
+        Map<Object, Object> masked = new LinkedHashMap<>();
+        map.forEach((key, value) -> {
+            String name = String.valueOf(key);
+            Object field = maskField(name, node != null ? node.step(name) : null, value);
+            if (field != REMOVED) {
+                masked.put(key, field);
+            }
+        });
+        return masked;
+    }
+
+    private List<Object> maskArray(Collection<?> elements, MaskingPlan.Step step) {
+        MaskingPlan.Node node = step != null ? step.elements() : null;
+        List<MaskingPlan.Mask> masks = step != null ? step.elementMasks() : List.of();
+        List<Object> masked = new ArrayList<>(elements.size());
+        for (Object element : elements) {
+            Object value = switch (element) {
+                case String text -> maskString(text, masks);
+                case Map<?, ?> map -> maskObject(map, node);
+                // Nested arrays are not reached by any path
+                case Collection<?> nested -> maskArray(nested, null);
+                case Object[] nested -> maskArray(Arrays.asList(nested), null);
+                case null, default -> element;
+            };
+            if (value != REMOVED) {
+                masked.add(value);
+            }
+        }
+        return masked;
+    }
+
+    private static Object maskString(String text, List<MaskingPlan.Mask> masks) {
+        if (masks.isEmpty()) {
+            return text;
+        }
+        String masked = MaskingPlan.apply(text, masks);
+        return masked != null ? masked : REMOVED;
+    }
+
+    private static String[] append(String[] path, String name) {
+        String[] result = Arrays.copyOf(path, path.length + 1);
+        result[path.length] = name;
+        return result;
+    }
+
+    /**
+     * Same rule as the ECS serializer of {@link LogRecordModule}: three digits are written as a number.
+     */
+    private static boolean isStatusNumber(Object value) {
+        if (!(value instanceof String code) || code.length() != STATUS_CODE_DIGITS) {
+            return false;
+        }
+        for (var i = 0; i < STATUS_CODE_DIGITS; i++) {
+            if (code.charAt(i) < '0' || code.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
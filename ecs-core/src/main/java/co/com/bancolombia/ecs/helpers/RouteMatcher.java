@@ -0,0 +1,208 @@
+package co.com.bancolombia.ecs.helpers;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Matches request paths against route templates such as {@code /clients/{id}/accounts/*} or
+ * {@code /files/**}, compiled into a tree with one level per path segment.
+ * <p>
+ * A template segment is either literal, {@code {name}} or {@code *}, which match any single
+ * non-empty segment, or {@code **}, which matches zero or more segments. At every level a literal
+ * segment is tried first, then a single segment variable and then {@code **}, so the most specific
+ * template wins. Segments that only contain a variable, such as {@code file-{id}.json}, are literal.
+ * Matching stops at the query string and does not allocate: literal children are looked up by the
+ * hash of the segment, compared in place against the path.
+ *
+ * @param <T> The type of the value of each route.
+ */
+final class RouteMatcher<T> {
+
+    private static final String ANY_SEGMENTS = "**";
+    private static final String ANY_SEGMENT = "*";
+
+    private final Node<T> root;
+    private final boolean empty;
+
+    /**
+     * A template and its value, returned by {@link #match(String)}.
+     */
+    record Route<T>(String template, T value) {
+    }
+
+    private RouteMatcher(Node<T> root, boolean empty) {
+        this.root = root;
+        this.empty = empty;
+    }
+
+    /**
+     * @param routes The value of each route template.
+     * @return The compiled matcher.
+     */
+    static <T> RouteMatcher<T> of(Map<String, T> routes) {
+        var root = new Node<T>();
+        routes.forEach((template, value) -> {
+            if (template != null) {
+                root.add(template, value);
+            }
+        });
+        root.freeze();
+        return new RouteMatcher<>(root, routes.isEmpty());
+    }
+
+    /**
+     * @param template A route as configured.
+     * @return Whether the route has variable or wildcard segments, so it cannot be looked up as it is.
+     */
+    static boolean isTemplate(String template) {
+        return template != null && (template.indexOf('{') >= 0 || template.contains(ANY_SEGMENT));
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * @param path The path of a request, with or without query string.
+     * @return The most specific route that matches the path, or {@code null}.
+     */
+    Route<T> match(String path) {
+        if (path == null || empty) {
+            return null;
+        }
+        int end = path.indexOf('?');
+        if (end < 0) {
+            end = path.length();
+        }
+        return match(root, path, firstSegment(path, end), end);
+    }
+
+    private static <T> Route<T> match(Node<T> node, String path, int start, int end) {
+        if (start > end) {
+            if (node.route != null) {
+                return node.route;
+            }
+            return node.anySegments != null ? match(node.anySegments, path, start, end) : null;
+        }
+        int slash = segmentEnd(path, start, end);
+        Route<T> route;
+        Node<T> literal = node.literal(path, start, slash);
+        if (literal != null && (route = match(literal, path, slash + 1, end)) != null) {
+            return route;
+        }
+        if (node.anySegment != null && slash > start
+                && (route = match(node.anySegment, path, slash + 1, end)) != null) {
+            return route;
+        }
+        if (node.anySegments != null) {
+            // Zero segments first, then one more segment at a time
+            for (int next = start; ; next = segmentEnd(path, next, end) + 1) {
+                if ((route = match(node.anySegments, path, next, end)) != null) {
+                    return route;
+                }
+                if (next > end) {
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Where the first segment starts, after a leading slash, or {@code end + 1} when the
+     * path has no segments.
+     */
+    private static int firstSegment(String path, int end) {
+        int start = end > 0 && path.charAt(0) == '/' ? 1 : 0;
+        return start == end ? end + 1 : start;
+    }
+
+    private static int segmentEnd(String path, int start, int end) {
+        int slash = path.indexOf('/', start);
+        return slash < 0 || slash > end ? end : slash;
+    }
+
+    private static int hash(String path, int start, int end) {
+        var hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + path.charAt(i);
+        }
+        return hash;
+    }
+
+    private static final class Node<T> {
+
+        private Map<String, Node<T>> building = new HashMap<>();
+        // Literal children sorted by the hash of their segment
+        private int[] hashes;
+        private String[] segments;
+        private Node<T>[] literals;
+        private Node<T> anySegment;
+        private Node<T> anySegments;
+        private Route<T> route;
+
+        private void add(String template, T value) {
+            int end = template.length();
+            Node<T> node = this;
+            for (int start = firstSegment(template, end); start <= end; ) {
+                int slash = segmentEnd(template, start, end);
+                node = node.child(template.substring(start, slash));
+                start = slash + 1;
+            }
+            if (node.route == null) {
+                node.route = new Route<>(template, value);
+            }
+        }
+
+        private Node<T> child(String segment) {
+            if (ANY_SEGMENTS.equals(segment)) {
+                return anySegments = anySegments != null ? anySegments : new Node<>();
+            }
+            if (ANY_SEGMENT.equals(segment)
+                    || segment.length() > 2 && segment.charAt(0) == '{' && segment.indexOf('}') == segment.length() - 1) {
+                return anySegment = anySegment != null ? anySegment : new Node<>();
+            }
+            return building.computeIfAbsent(segment, key -> new Node<>());
+        }
+
+        @SuppressWarnings("unchecked")
+        private void freeze() {
+            String[] sorted = building.keySet().toArray(String[]::new);
+            Arrays.sort(sorted, Comparator.comparingInt(String::hashCode));
+            hashes = new int[sorted.length];
+            segments = sorted;
+            literals = new Node[sorted.length];
+            for (var i = 0; i < sorted.length; i++) {
+                hashes[i] = sorted[i].hashCode();
+                literals[i] = building.get(sorted[i]);
+                literals[i].freeze();
+            }
+            building = null;
+            if (anySegment != null) anySegment.freeze();
+            if (anySegments != null) anySegments.freeze();
+        }
+
+        private Node<T> literal(String path, int start, int end) {
+            if (segments.length == 0) {
+                return null;
+            }
+            int hash = hash(path, start, end);
+            int i = Arrays.binarySearch(hashes, hash);
+            if (i < 0) {
+                return null;
+            }
+            while (i > 0 && hashes[i - 1] == hash) {
+                i--;
+            }
+            int length = end - start;
+            for (; i < hashes.length && hashes[i] == hash; i++) {
+                if (segments[i].length() == length && path.regionMatches(start, segments[i], 0, length)) {
+                    return literals[i];
+                }
+            }
+            return null;
+        }
+    }
+}
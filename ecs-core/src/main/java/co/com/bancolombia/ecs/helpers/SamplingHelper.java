@@ -6,17 +6,30 @@ import lombok.experimental.UtilityClass;
 import lombok.extern.log4j.Log4j2;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Decides which logs of a uri and response code are printed, following the show and skip counts
+ * of the sampling rules. Rules are keyed by {@code uri|code}, where the uri may be a route template
+ * such as {@code /clients/{id}}: a request is counted under the route of the handler that served it
+ * when a rule has that route, otherwise under its uri or the most specific template with a rule for
+ * its code that matches it, so {@code /clients/123} and {@code /clients/456} share one counter.
+ * Counters are kept in a {@link ClockCache} of at most {@code MAX_COUNTERS} keys; an evicted counter
+ * starts a new cycle.
+ */
 @Log4j2
 @UtilityClass
 public class SamplingHelper {
 
+    private static final int MAX_COUNTERS = 10_000;
     private static Map<String, SamplingConfig.SamplingRule> rules = Collections.emptyMap();
-    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    // The templated uris of the rules of each code, matched against the uri of requests without a rule of their own
+    private static Map<String, RouteMatcher<Boolean>> routes = Map.of();
+    private static final ClockCache<String, LongAdder> counters = new ClockCache<>(MAX_COUNTERS);
     private static final String INIT_MESSAGE = "{} sampling rules have been loaded successfully";
+    private static final String KEY_SEPARATOR = "|";
     private static final String START_CODE_40X = "40";
     private static final int MIN_ERROR_CODE_PARTS = 2;
     private static boolean samplingEnabled = true;
@@ -25,6 +38,8 @@ public class SamplingHelper {
         if (rulesMap != null) {
             log.info(INIT_MESSAGE, rulesMap.size());
             rules = rulesMap;
+            routes = templatedUrisByCode(rulesMap);
+            counters.clear();
         }
     }
 
@@ -34,39 +49,38 @@ public class SamplingHelper {
 
     public static void reset() {
         rules = Collections.emptyMap();
+        routes = Map.of();
         counters.clear();
         samplingEnabled = true;
     }
 
-    private static void incrementCounter(String key) {
-        counters.computeIfAbsent(key, k -> new LongAdder()).increment();
-    }
-
-    private static long getCount(String key) {
-        return counters.getOrDefault(key, new LongAdder()).sum();
-    }
-
     public static boolean validatePrint(LogRecord<String, String> ex) {
         if (!samplingEnabled || ex.getAdditionalInfo() == null) {
             return true;
         }
-        String uri = ex.getAdditionalInfo().getUri();
-        String responseCode = ex.getAdditionalInfo().getResponseCode();
+        var info = ex.getAdditionalInfo();
+        String uri = info.getUri();
+        String responseCode = info.getResponseCode();
         if (uri == null || responseCode == null) {
             return false;
         }
-        return evaluateSamplingRule(ex, uri, responseCode);
+        return evaluateSamplingRule(ex, info.getRoute(), uri, responseCode);
     }
 
-    private static boolean evaluateSamplingRule(LogRecord<String, String> ex, String uri, String responseCode) {
-        String key = buildKey(ex, uri, responseCode);
-        if (!rules.containsKey(key)) {
+    private static boolean evaluateSamplingRule(LogRecord<String, String> ex, String route, String uri,
+                                                String responseCode) {
+        if (rules.isEmpty()) {
+            return true;
+        }
+        String key = buildKey(ex, route, uri, responseCode);
+        if (key == null) {
             return true;
         }
         var rule = rules.get(key);
         int cycle = rule.getShowCount() + rule.getSkipCount();
-        incrementCounter(key);
-        long current = getCount(key);
+        var counter = counters.computeIfAbsent(key, k -> new LongAdder());
+        counter.increment();
+        long current = counter.sum();
         long position = (current - 1) % cycle;
         if (current >= cycle) {
             counters.put(key, new LongAdder());
@@ -74,14 +88,51 @@ public class SamplingHelper {
         return position < rule.getShowCount();
     }
 
-    private static String buildKey(LogRecord<String, String> ex, String uri, String responseCode) {
+    /**
+     * @return The key of the rule that applies to the request, or {@code null} when none does.
+     */
+    private static String buildKey(LogRecord<String, String> ex, String route, String uri, String responseCode) {
+        String code = responseCode;
         if (responseCode.startsWith(START_CODE_40X)) {
             String errorType = ex.getError() != null ? ex.getError().getType() : null;
             if (errorType != null) {
-                return uri + "|" + getErrorCode(errorType);
+                code = getErrorCode(errorType);
+            }
+        }
+        if (route != null && !route.equals(uri)) {
+            String key = route + KEY_SEPARATOR + code;
+            if (rules.containsKey(key)) {
+                return key;
+            }
+        }
+        String key = uri + KEY_SEPARATOR + code;
+        if (rules.containsKey(key)) {
+            return key;
+        }
+        // Only the templates with a rule for the code are matched, so a less specific one is not hidden
+        RouteMatcher<Boolean> codeRoutes = routes.get(code);
+        var template = codeRoutes != null ? codeRoutes.match(uri) : null;
+        return template != null ? template.template() + KEY_SEPARATOR + code : null;
+    }
+
+    /**
+     * @return A matcher of the uris of the rules that are route templates for each code, taken from
+     * the keys since the rules may not carry their uri.
+     */
+    private static Map<String, RouteMatcher<Boolean>> templatedUrisByCode(
+            Map<String, SamplingConfig.SamplingRule> rulesMap) {
+        Map<String, Map<String, Boolean>> templates = new HashMap<>();
+        for (String key : rulesMap.keySet()) {
+            int separator = key.lastIndexOf(KEY_SEPARATOR);
+            String uri = separator >= 0 ? key.substring(0, separator) : key;
+            if (separator >= 0 && RouteMatcher.isTemplate(uri)) {
+                templates.computeIfAbsent(key.substring(separator + 1), code -> new HashMap<>())
+                        .put(uri, Boolean.TRUE);
             }
         }
-        return uri + "|" + responseCode;
+        Map<String, RouteMatcher<Boolean>> matchers = new HashMap<>();
+        templates.forEach((code, uris) -> matchers.put(code, RouteMatcher.of(uris)));
+        return matchers;
     }
 
     private String getErrorCode(String errorCode){
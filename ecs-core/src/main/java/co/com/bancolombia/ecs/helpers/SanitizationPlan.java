@@ -0,0 +1,119 @@
+package co.com.bancolombia.ecs.helpers;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The sensitive data settings of request or response bodies, compiled once for {@link DataSanitizer}.
+ * <p>
+ * Field names are kept in lower case with the length of the longest one, so most names that
+ * cannot match are rejected without being lower-cased. The patterns are also joined into one
+ * alternation that scans the body once: when it finds nothing no pattern can match and the body is
+ * left as it is; otherwise each pattern is replaced in turn, as before, since a single pass over the
+ * alternation would not handle overlapping matches or a pattern that matches the replacement.
+ * Patterns with flags, back references, named groups, quoting or comments are not joined: the
+ * alternation would change their meaning or, with a group name used twice, not compile.
+ */
+public final class SanitizationPlan {
+
+    private static final Pattern NOT_JOINABLE =
+            Pattern.compile("\\\\(?:[1-9]|k<|Q)|\\(\\?[a-zA-Z-]*x|\\(\\?<[a-zA-Z]");
+
+    private final Set<String> fields;
+    private final int maxFieldLength;
+    private final List<Pattern> patterns;
+    // Matches wherever one of the patterns matches, null when it cannot be built
+    private final Pattern anyPattern;
+    private final String replacement;
+
+    private SanitizationPlan(Set<String> fields, List<Pattern> patterns, Pattern anyPattern, String replacement) {
+        this.fields = fields;
+        this.maxFieldLength = fields.stream().mapToInt(String::length).max().orElse(0);
+        this.patterns = patterns;
+        this.anyPattern = anyPattern;
+        this.replacement = replacement;
+    }
+
+    /**
+     * @param sensitiveFields Names of the fields whose value is replaced, at any depth, ignoring case.
+     * @param patterns        Patterns replaced in the raw text before parsing, in order.
+     * @param replacement     The text that replaces the sensitive values and the pattern matches.
+     * @return The compiled plan.
+     */
+    public static SanitizationPlan compile(Set<String> sensitiveFields, List<Pattern> patterns, String replacement) {
+        List<Pattern> copy = List.copyOf(patterns);
+        return new SanitizationPlan(Set.copyOf(toLowerSet(sensitiveFields)), copy, anyPattern(copy), replacement);
+    }
+
+    /**
+     * A plan for a single body, which does not pay for joining the patterns.
+     */
+    static SanitizationPlan of(Set<String> sensitiveFields, List<Pattern> patterns, String replacement) {
+        return new SanitizationPlan(toLowerSet(sensitiveFields), patterns, null, replacement);
+    }
+
+    public String getReplacement() {
+        return replacement;
+    }
+
+    boolean hasFields() {
+        return !fields.isEmpty();
+    }
+
+    /**
+     * @param name A field name as it appears in the body.
+     * @return Whether the value of the field must be replaced.
+     */
+    boolean isSensitiveField(String name) {
+        // Lower-casing never makes a name shorter
+        return name.length() <= maxFieldLength && fields.contains(name.toLowerCase());
+    }
+
+    /**
+     * @param text The raw body.
+     * @return The body with every pattern replaced.
+     */
+    String replacePatterns(String text) {
+        if (patterns.isEmpty() || anyPattern != null && !anyPattern.matcher(text).find()) {
+            return text;
+        }
+        String sanitized = text;
+        for (Pattern pattern : patterns) {
+            sanitized = pattern.matcher(sanitized).replaceAll(replacement);
+        }
+        return sanitized;
+    }
+
+    private static Pattern anyPattern(List<Pattern> patterns) {
+        if (patterns.size() < 2) {
+            return null;
+        }
+        var alternation = new StringBuilder();
+        for (Pattern pattern : patterns) {
+            if (pattern.flags() != 0 || NOT_JOINABLE.matcher(pattern.pattern()).find()) {
+                return null;
+            }
+            if (!alternation.isEmpty()) {
+                alternation.append('|');
+            }
+            alternation.append("(?:").append(pattern.pattern()).append(')');
+        }
+        try {
+            return Pattern.compile(alternation.toString());
+        } catch (PatternSyntaxException ex) {
+            // Each pattern is still applied on its own
+            return null;
+        }
+    }
+
+    private static Set<String> toLowerSet(Set<String> input) {
+        Set<String> result = new HashSet<>();
+        for (String item : input) {
+            result.add(item.toLowerCase());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,357 @@
+package co.com.bancolombia.ecs.helpers;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Generator that replaces the value of every sensitive field, at any depth, while a body is copied
+ * through it, so {@link DataSanitizer} never builds a tree of the body. Like the tree walk it
+ * replaces, fields are only matched when the root of the body is an object; field names are
+ * compared in lower case and an object or array under a sensitive field is replaced as a whole.
+ * The state is a couple of flags and a nesting counter, whatever the size of the body.
+ */
+final class SanitizingJsonGenerator extends JsonGeneratorDelegate {
+
+    private final SanitizationPlan plan;
+    private final String replacement;
+    private boolean started;
+    private boolean rootObject;
+    // The value of the field whose name was written last must be replaced
+    private boolean replacing;
+    // Nesting inside a replaced object or array, whose content is discarded
+    private int skipping;
+
+    /**
+     * @param delegate The generator that receives the sanitized body.
+     * @param plan     The sensitive fields and their replacement.
+     */
+    SanitizingJsonGenerator(JsonGenerator delegate, SanitizationPlan plan) {
+        super(delegate, false);
+        this.plan = plan;
+        this.replacement = plan.getReplacement();
+    }
+
+    /**
+     * Copies the value at the current token of the parser. The children of a replaced object or
+     * array are skipped by the parser, so they are never copied.
+     *
+     * @param parser    The parser positioned on the first token of the value.
+     * @param generator The generator that receives the value.
+     */
+    static void copyValue(JsonParser parser, SanitizingJsonGenerator generator) throws IOException {
+        var depth = 0;
+        JsonToken token = parser.currentToken();
+        while (token != null) {
+            generator.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                if (generator.isSkipping()) {
+                    parser.skipChildren();
+                    generator.copyCurrentEvent(parser);
+                } else {
+                    depth++;
+                }
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+            if (depth == 0) {
+                return;
+            }
+            token = parser.nextToken();
+        }
+    }
+
+    boolean isSkipping() {
+        return skipping > 0;
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        if (skipping > 0) {
+            return;
+        }
+        delegate.writeFieldName(name);
+        replacing = rootObject && plan.hasFields() && plan.isSensitiveField(name);
+    }
+
+    @Override
+    public void writeFieldName(SerializableString name) throws IOException {
+        writeFieldName(name.getValue());
+    }
+
+    @Override
+    public void writeFieldId(long id) throws IOException {
+        writeFieldName(Long.toString(id));
+    }
+
+    @Override
+    public void writeStartObject() throws IOException {
+        if (onStart(true)) {
+            delegate.writeStartObject();
+        }
+    }
+
+    @Override
+    public void writeStartObject(Object forValue) throws IOException {
+        if (onStart(true)) {
+            delegate.writeStartObject(forValue);
+        }
+    }
+
+    @Override
+    public void writeStartObject(Object forValue, int size) throws IOException {
+        if (onStart(true)) {
+            delegate.writeStartObject(forValue, size);
+        }
+    }
+
+    @Override
+    public void writeEndObject() throws IOException {
+        if (onEnd()) {
+            delegate.writeEndObject();
+        }
+    }
+
+    @Override
+    public void writeStartArray() throws IOException {
+        if (onStart(false)) {
+            delegate.writeStartArray();
+        }
+    }
+
+    @Override
+    public void writeStartArray(Object forValue) throws IOException {
+        if (onStart(false)) {
+            delegate.writeStartArray(forValue);
+        }
+    }
+
+    @Override
+    public void writeStartArray(Object forValue, int size) throws IOException {
+        if (onStart(false)) {
+            delegate.writeStartArray(forValue, size);
+        }
+    }
+
+    @Override
+    public void writeEndArray() throws IOException {
+        if (onEnd()) {
+            delegate.writeEndArray();
+        }
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+        if (onValue()) {
+            delegate.writeString(text);
+        }
+    }
+
+    @Override
+    public void writeString(char[] text, int offset, int len) throws IOException {
+        if (onValue()) {
+            delegate.writeString(text, offset, len);
+        }
+    }
+
+    @Override
+    public void writeString(SerializableString text) throws IOException {
+        if (onValue()) {
+            delegate.writeString(text);
+        }
+    }
+
+    @Override
+    public void writeRawUTF8String(byte[] text, int offset, int length) throws IOException {
+        if (onValue()) {
+            delegate.writeRawUTF8String(text, offset, length);
+        }
+    }
+
+    @Override
+    public void writeUTF8String(byte[] text, int offset, int length) throws IOException {
+        if (onValue()) {
+            delegate.writeUTF8String(text, offset, length);
+        }
+    }
+
+    @Override
+    public void writeRawValue(String text) throws IOException {
+        if (onValue()) {
+            delegate.writeRawValue(text);
+        }
+    }
+
+    @Override
+    public void writeRawValue(String text, int offset, int len) throws IOException {
+        if (onValue()) {
+            delegate.writeRawValue(text, offset, len);
+        }
+    }
+
+    @Override
+    public void writeRawValue(char[] text, int offset, int len) throws IOException {
+        if (onValue()) {
+            delegate.writeRawValue(text, offset, len);
+        }
+    }
+
+    @Override
+    public void writeRawValue(SerializableString raw) throws IOException {
+        if (onValue()) {
+            delegate.writeRawValue(raw);
+        }
+    }
+
+    @Override
+    public void writeBinary(Base64Variant b64variant, byte[] data, int offset, int len) throws IOException {
+        if (onValue()) {
+            delegate.writeBinary(b64variant, data, offset, len);
+        }
+    }
+
+    @Override
+    public int writeBinary(Base64Variant b64variant, InputStream data, int dataLength) throws IOException {
+        if (onValue()) {
+            return delegate.writeBinary(b64variant, data, dataLength);
+        }
+        return 0;
+    }
+
+    @Override
+    public void writeNumber(short v) throws IOException {
+        if (onValue()) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(int v) throws IOException {
+        if (onValue()) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(long v) throws IOException {
+        if (onValue()) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(BigInteger v) throws IOException {
+        if (onValue()) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(double v) throws IOException {
+        if (onValue()) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(float v) throws IOException {
+        if (onValue()) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(BigDecimal v) throws IOException {
+        if (onValue()) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(String encodedValue) throws IOException {
+        if (onValue()) {
+            delegate.writeNumber(encodedValue);
+        }
+    }
+
+    @Override
+    public void writeNumber(char[] encodedValueBuffer, int offset, int length) throws IOException {
+        if (onValue()) {
+            delegate.writeNumber(encodedValueBuffer, offset, length);
+        }
+    }
+
+    @Override
+    public void writeBoolean(boolean state) throws IOException {
+        if (onValue()) {
+            delegate.writeBoolean(state);
+        }
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        if (onValue()) {
+            delegate.writeNull();
+        }
+    }
+
+    @Override
+    public void writeEmbeddedObject(Object object) throws IOException {
+        if (onValue()) {
+            delegate.writeEmbeddedObject(object);
+        }
+    }
+
+    /**
+     * @return {@code true} when the scalar value must be written as it is.
+     */
+    private boolean onValue() throws IOException {
+        if (skipping > 0) {
+            return false;
+        }
+        if (replacing) {
+            replacing = false;
+            delegate.writeString(replacement);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} when the object or array must be written, {@code false} when it is
+     * discarded because it is replaced or inside a replaced value.
+     */
+    private boolean onStart(boolean object) throws IOException {
+        if (skipping > 0) {
+            skipping++;
+            return false;
+        }
+        if (replacing) {
+            replacing = false;
+            delegate.writeString(replacement);
+            skipping = 1;
+            return false;
+        }
+        if (!started) {
+            started = true;
+            rootObject = object;
+        }
+        return true;
+    }
+
+    private boolean onEnd() {
+        if (skipping > 0) {
+            skipping--;
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The dotted field paths of the sensitive data rules in the document of each {@link OutputSchema}.
+ * Rules are written against the legacy layout, so with {@link OutputSchema#ECS} a path that starts
+ * with a legacy field is translated to the field the ECS document has in its place, for example
+ * {@code additionalInfo.requestBody.password} to {@code http.request.body.data.password}. Paths that
+ * already use ECS names are kept as they are.
+ */
+@UtilityClass
+class SchemaFieldPaths {
+
+    private static final String SEPARATOR = ".";
+    private static final String ARRAY_SUFFIX = "[*]";
+
+    private static final Set<String> LEGACY_ROOTS = Set.of(LogRecord.MESSAGE_ID, "date", LogRecord.TIMESTAMP,
+            "service", "consumer", "additionalInfo", "level", "error");
+    private static final Set<String> ECS_ROOTS = Set.of(LogRecord.TIMESTAMP, "log", "ecs", "service", "trace",
+            "labels", "url", "http", "error");
+
+    // Longest prefixes first; a raw body may be a text body or a JSON body with a "raw" field
+    private static final List<Translation> ECS_TRANSLATIONS = List.of(
+            new Translation("additionalInfo.requestBody." + HandlerHelper.RAW_BODY,
+                    "http.request.body.content", "http.request.body.data." + HandlerHelper.RAW_BODY),
+            new Translation("additionalInfo.responseBody." + HandlerHelper.RAW_BODY,
+                    "http.response.body.content", "http.response.body.data." + HandlerHelper.RAW_BODY),
+            new Translation("additionalInfo.requestBody", "http.request.body.data"),
+            new Translation("additionalInfo.responseBody", "http.response.body.data"),
+            new Translation("additionalInfo.method", "http.request.method"),
+            new Translation("additionalInfo.uri", "url.path"),
+            new Translation("additionalInfo.headers", "http.request.headers"),
+            new Translation("additionalInfo.responseResult", "labels.response_result"),
+            new Translation("additionalInfo.responseCode", "http.response.status_code"),
+            new Translation("error.optionalInfo", "error.details")
+    );
+
+    /**
+     * @param fieldPath A dotted field path of a rule.
+     * @param schema    The layout of the document the rule is applied to.
+     * @return The paths of the same field in the document of the schema.
+     */
+    static List<String> forSchema(String fieldPath, OutputSchema schema) {
+        if (schema != OutputSchema.ECS) {
+            return List.of(fieldPath);
+        }
+        String[] parts = fieldPath.split("\\.");
+        for (Translation translation : ECS_TRANSLATIONS) {
+            List<String> translated = translation.apply(parts);
+            if (translated != null) {
+                return translated;
+            }
+        }
+        return List.of(fieldPath);
+    }
+
+    /**
+     * @param fieldPath A dotted field path, already in the layout of the schema.
+     * @param schema    The layout of the document.
+     * @return {@code true} if the first field of the path is a field the schema writes at the root.
+     */
+    static boolean hasRootField(String fieldPath, OutputSchema schema) {
+        int end = fieldPath.indexOf(SEPARATOR);
+        String root = (end < 0 ? fieldPath : fieldPath.substring(0, end)).replace(ARRAY_SUFFIX, "");
+        return (schema == OutputSchema.ECS ? ECS_ROOTS : LEGACY_ROOTS).contains(root);
+    }
+
+    private record Translation(String[] legacy, String[] ecs) {
+
+        private Translation(String legacy, String... ecs) {
+            this(legacy.split("\\."), ecs);
+        }
+
+        /**
+         * @return The ECS paths, or {@code null} when the path does not start with the legacy prefix.
+         */
+        private List<String> apply(String[] parts) {
+            if (parts.length < legacy.length) {
+                return null;
+            }
+            for (var i = 0; i < legacy.length; i++) {
+                if (!parts[i].replace(ARRAY_SUFFIX, "").equals(legacy[i])) {
+                    return null;
+                }
+            }
+            // An array marker on the last part of the prefix stays on the field it was moved to
+            String suffix = parts[legacy.length - 1].endsWith(ARRAY_SUFFIX) ? ARRAY_SUFFIX : "";
+            String rest = String.join(SEPARATOR, Arrays.copyOfRange(parts, legacy.length, parts.length));
+            List<String> paths = new ArrayList<>(ecs.length);
+            for (String prefix : ecs) {
+                paths.add(rest.isEmpty() ? prefix + suffix : prefix + suffix + SEPARATOR + rest);
+            }
+            return paths;
+        }
+    }
+}
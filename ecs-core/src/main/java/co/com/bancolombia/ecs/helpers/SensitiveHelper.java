@@ -1,5 +1,6 @@
 package co.com.bancolombia.ecs.helpers;
 
+import co.com.bancolombia.ecs.domain.model.LogRecord;
 import co.com.bancolombia.ecs.helpers.strategy.MaskingStrategy;
 import co.com.bancolombia.ecs.helpers.strategy.PartialMaskingStrategy;
 import co.com.bancolombia.ecs.helpers.strategy.RemoveMaskingStrategy;
@@ -12,20 +13,35 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.experimental.UtilityClass;
 import lombok.extern.log4j.Log4j2;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * Utility class for filtering sensitive data in JSON content based on predefined rules.
+ * <p>
+ * Rules are keyed by URI. A URI with variable or wildcard segments, such as {@code /clients/{id}},
+ * is a route template matched with a {@link RouteMatcher}; the plan resolved for each concrete URI
+ * is kept in a bounded {@link ClockCache}, read without locking, so the routes are only walked for
+ * URIs not seen recently.
+ * <p>
+ * Field paths are compiled for the layout set with {@link #setSchema(OutputSchema)}: with
+ * {@link OutputSchema#ECS}, the legacy paths are translated to their ECS fields, and a dotted path
+ * whose first field is not written by the layout is reported, since it would never match.
  */
 @Log4j2
 @UtilityClass
 public class SensitiveHelper {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int ROUTE_CACHE_SIZE = 1024;
+    private static OutputSchema schema = OutputSchema.LEGACY;
     private static Map<String, List<SensitiveRulesConfig.SensitiveDataRule>> rules = Collections.emptyMap();
+    private static Map<String, MaskingPlan> plans = Collections.emptyMap();
+    private static RouteMatcher<MaskingPlan> routes = RouteMatcher.of(Map.of());
+    private static ClockCache<String, MaskingPlan> resolved = new ClockCache<>(ROUTE_CACHE_SIZE);
 
     private static final String INIT_MESSAGE = "{} sensitive data rules loaded";
     private static final String NO_SENSITIVE_CONFIGURED = "No sensitive rules configured, returning original content";
@@ -38,6 +54,8 @@ public class SensitiveHelper {
     );
 
     private static final JsonFieldNavigator NAVIGATOR = new JsonFieldNavigator(STRATEGIES);
+    // Cached for the URIs that no rule applies to
+    private static final MaskingPlan NO_PLAN = MaskingPlan.compile(List.of(), STRATEGIES, OutputSchema.LEGACY);
 
     /**
      * Initializes the sensitive data rules from the provided map.
@@ -48,35 +66,71 @@ public class SensitiveHelper {
         if (rulesMap != null) {
             log.info(INIT_MESSAGE, rulesMap.size());
             rules = rulesMap;
+            compile();
         }
     }
 
+    /**
+     * Sets the layout of the documents the rules are applied to, compiling the loaded rules again.
+     *
+     * @param outputSchema The layout written by {@link LogRecordSerializer}.
+     */
+    public static void setSchema(OutputSchema outputSchema) {
+        schema = outputSchema != null ? outputSchema : OutputSchema.LEGACY;
+        if (!rules.isEmpty()) {
+            compile();
+        }
+    }
+
+    /**
+     * Serializes the record applying the rules of the given URI in the same pass, without
+     * parsing the JSON document back into a tree.
+     *
+     * @param logRecord The record to serialize.
+     * @param uri       The URI to determine which rules to apply.
+     * @return The JSON document with sensitive data masked or removed according to the rules.
+     */
+    public static String filterSensitiveData(LogRecord<?, ?> logRecord, String uri) {
+        MaskingPlan plan = planFor(uri);
+        if (plan == null) {
+            log.debug(NO_SENSITIVE_CONFIGURED);
+            return LogRecordSerializer.toJson(logRecord);
+        }
+        return LogRecordSerializer.toJson(logRecord, plan);
+    }
+
+    /**
+     * Serializes the record applying the rules of the given URI, resolving them once, for callers
+     * that render the record another way when no rule applies.
+     *
+     * @param logRecord The record to serialize.
+     * @param uri       The URI to determine which rules to apply.
+     * @return The JSON document with sensitive data masked or removed, or {@code null} when no rule
+     * applies to the URI.
+     */
+    public static String filterApplicableSensitiveData(LogRecord<?, ?> logRecord, String uri) {
+        MaskingPlan plan = planFor(uri);
+        return plan != null ? LogRecordSerializer.toJson(logRecord, plan) : null;
+    }
+
     /**
      * Filters sensitive data from the given JSON content based on the configured rules for the specified URI.
+     * Every field path and name of the rules is masked in a single walk of the parsed tree.
      *
      * @param jsonContent The JSON content as a string.
      * @param uri         The URI to determine which rules to apply.
      * @return The JSON content with sensitive data masked or removed according to the rules.
      */
     public static String filterSensitiveData(String jsonContent, String uri) {
-        List<SensitiveRulesConfig.SensitiveDataRule> applicableRules = findApplicableRules(uri);
-        if (rules.isEmpty() || jsonContent == null || jsonContent.isEmpty() || applicableRules.isEmpty()) {
+        MaskingPlan plan = planFor(uri);
+        if (plan == null || jsonContent == null || jsonContent.isEmpty()) {
             log.debug(NO_SENSITIVE_CONFIGURED);
             return jsonContent;
         }
 
         try {
             JsonNode root = MAPPER.readTree(jsonContent);
-            for (SensitiveRulesConfig.SensitiveDataRule rule : applicableRules) {
-                for (String fieldPath : rule.getFieldPaths()) {
-                    if (fieldPath == null || fieldPath.isBlank()) continue;
-                    if (fieldPath.contains(".")) {
-                        NAVIGATOR.maskFieldByPath(root, fieldPath, rule);
-                    } else {
-                        NAVIGATOR.maskFieldByName(root, fieldPath, rule);
-                    }
-                }
-            }
+            NAVIGATOR.mask(root, plan);
             return MAPPER.writeValueAsString(root);
         } catch (JsonProcessingException e) {
             log.warn("Error filtering sensitive data: {}", e.getMessage());
@@ -85,16 +139,72 @@ public class SensitiveHelper {
     }
 
     /**
-     * Finds the applicable sensitive data rules for the given URI.
+     * Indicates whether any enabled rule applies to the given URI, so callers can skip
+     * rendering the record as text when there is nothing to mask.
      *
      * @param uri The URI to match against the configured rules.
-     * @return A list of sensitive data rules that are enabled and match the URI.
+     * @return {@code true} if at least one enabled rule with field paths matches the URI.
      */
-    private static List<SensitiveRulesConfig.SensitiveDataRule> findApplicableRules(String uri) {
-        return rules.entrySet().stream()
-                .filter(entry -> Objects.equals(entry.getKey(), uri))
-                .flatMap(entry -> entry.getValue().stream())
-                .filter(SensitiveRulesConfig.SensitiveDataRule::isEnabled)
-                .toList();
+    public static boolean hasApplicableRules(String uri) {
+        return planFor(uri) != null;
+    }
+
+    /**
+     * Resolves the plan of a URI: the rules of that exact URI, otherwise the rules of the most
+     * specific route template that matches it.
+     *
+     * @param uri The URI of the record.
+     * @return The plan, or {@code null} when no rule applies.
+     */
+    static MaskingPlan planFor(String uri) {
+        MaskingPlan plan = plans.get(uri);
+        if (plan != null || uri == null || routes.isEmpty()) {
+            return plan;
+        }
+        plan = resolved.get(uri);
+        if (plan == null) {
+            RouteMatcher.Route<MaskingPlan> route = routes.match(uri);
+            plan = route != null ? route.value() : NO_PLAN;
+            resolved.put(uri, plan);
+        }
+        return plan != NO_PLAN ? plan : null;
+    }
+
+    private static void compile() {
+        warnUnmatchedPaths(rules, schema);
+        Map<String, MaskingPlan> compiled = compilePlans(rules, schema);
+        Map<String, MaskingPlan> templates = new HashMap<>();
+        compiled.forEach((uri, plan) -> {
+            if (RouteMatcher.isTemplate(uri)) {
+                templates.put(uri, plan);
+            }
+        });
+        plans = compiled;
+        routes = RouteMatcher.of(templates);
+        resolved = new ClockCache<>(ROUTE_CACHE_SIZE);
+    }
+
+    private static void warnUnmatchedPaths(Map<String, List<SensitiveRulesConfig.SensitiveDataRule>> rulesMap,
+                                           OutputSchema outputSchema) {
+        rulesMap.forEach((uri, uriRules) -> uriRules.stream()
+                .filter(rule -> rule.getFieldPaths() != null)
+                .flatMap(rule -> Arrays.stream(rule.getFieldPaths()))
+                .filter(fieldPath -> fieldPath != null && fieldPath.contains("."))
+                .filter(fieldPath -> SchemaFieldPaths.forSchema(fieldPath, outputSchema).stream()
+                        .noneMatch(path -> SchemaFieldPaths.hasRootField(path, outputSchema)))
+                .forEach(fieldPath -> log.warn("Sensitive rule path '{}' of '{}' starts with no field of the {} "
+                        + "output schema, so it never matches a record", fieldPath, uri, outputSchema)));
+    }
+
+    private static Map<String, MaskingPlan> compilePlans(
+            Map<String, List<SensitiveRulesConfig.SensitiveDataRule>> rulesMap, OutputSchema outputSchema) {
+        Map<String, MaskingPlan> compiled = new HashMap<>();
+        rulesMap.forEach((uri, uriRules) -> {
+            MaskingPlan plan = MaskingPlan.compile(uriRules, STRATEGIES, outputSchema);
+            if (!plan.isEmpty()) {
+                compiled.put(uri, plan);
+            }
+        });
+        return compiled;
     }
 }
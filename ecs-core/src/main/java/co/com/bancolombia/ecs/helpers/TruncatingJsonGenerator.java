@@ -0,0 +1,486 @@
+package co.com.bancolombia.ecs.helpers;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Generator that enforces {@link BodyLimits} on the document written through it and leaves
+ * a marker wherever something was cut:
+ * <ul>
+ *     <li>a string longer than the limit keeps its first characters followed by {@code ...[truncated: N chars]};</li>
+ *     <li>an object or array nested too deep is replaced by {@value #MAX_DEPTH_MARKER};</li>
+ *     <li>an array with too many elements ends with {@code [truncated: N more items]};</li>
+ *     <li>once the character budget is spent nothing else is written, an object that lost fields ends with
+ *     {@code "_truncated":"max-chars"} and an array that lost elements ends with {@value #MAX_CHARS_MARKER}.</li>
+ * </ul>
+ * The budget is counted in characters of the compact JSON text of each body on its own, not in
+ * bytes of the record.
+ */
+final class TruncatingJsonGenerator extends JsonGeneratorDelegate {
+
+    static final String TRUNCATED_FIELD = "_truncated";
+    static final String MAX_CHARS = "max-chars";
+    static final String MAX_DEPTH_MARKER = "[truncated: max-depth]";
+    static final String MAX_CHARS_MARKER = "[truncated: " + MAX_CHARS + "]";
+
+    private static final int CONTAINER_SIZE = 2;
+    private static final int FIELD_NAME_OVERHEAD = 4;
+    private static final int STRING_OVERHEAD = 2;
+
+    private final BodyLimits limits;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    // Nesting inside a dropped object or array, whose content is discarded
+    private int skipping;
+    private long written;
+    private boolean exhausted;
+    private String heldName;
+
+    TruncatingJsonGenerator(JsonGenerator delegate, BodyLimits limits) {
+        super(delegate, false);
+        this.limits = limits;
+    }
+
+    private static final class Frame {
+        private final boolean array;
+        private int items;
+        private int droppedItems;
+        private boolean droppedForChars;
+
+        private Frame(boolean array) {
+            this.array = array;
+        }
+    }
+
+    /**
+     * Copies the value at the current token of the parser. The children of a dropped object or
+     * array are skipped by the parser, so they are never read into memory.
+     *
+     * @param parser    The parser positioned on the first token of the value.
+     * @param generator The generator that receives the value.
+     */
+    static void copyValue(JsonParser parser, TruncatingJsonGenerator generator) throws IOException {
+        var depth = 0;
+        JsonToken token = parser.currentToken();
+        while (token != null) {
+            generator.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                if (generator.isSkipping()) {
+                    parser.skipChildren();
+                    generator.copyCurrentEvent(parser);
+                } else {
+                    depth++;
+                }
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+            if (depth == 0) {
+                return;
+            }
+            token = parser.nextToken();
+        }
+    }
+
+    boolean isSkipping() {
+        return skipping > 0;
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        if (skipping == 0) {
+            heldName = name;
+        }
+    }
+
+    @Override
+    public void writeFieldName(SerializableString name) throws IOException {
+        writeFieldName(name.getValue());
+    }
+
+    @Override
+    public void writeFieldId(long id) throws IOException {
+        writeFieldName(Long.toString(id));
+    }
+
+    @Override
+    public void writeStartObject() throws IOException {
+        if (enter(false)) {
+            delegate.writeStartObject();
+        }
+    }
+
+    @Override
+    public void writeStartObject(Object forValue) throws IOException {
+        if (enter(false)) {
+            delegate.writeStartObject(forValue);
+        }
+    }
+
+    @Override
+    public void writeStartObject(Object forValue, int size) throws IOException {
+        if (enter(false)) {
+            delegate.writeStartObject(forValue, size);
+        }
+    }
+
+    @Override
+    public void writeEndObject() throws IOException {
+        Frame frame = exit();
+        if (frame == null) {
+            return;
+        }
+        if (frame.droppedForChars) {
+            delegate.writeFieldName(TRUNCATED_FIELD);
+            delegate.writeString(MAX_CHARS);
+        }
+        delegate.writeEndObject();
+    }
+
+    @Override
+    public void writeStartArray() throws IOException {
+        if (enter(true)) {
+            delegate.writeStartArray();
+        }
+    }
+
+    @Override
+    public void writeStartArray(Object forValue) throws IOException {
+        if (enter(true)) {
+            delegate.writeStartArray(forValue);
+        }
+    }
+
+    @Override
+    public void writeStartArray(Object forValue, int size) throws IOException {
+        if (enter(true)) {
+            delegate.writeStartArray(forValue, size);
+        }
+    }
+
+    @Override
+    public void writeEndArray() throws IOException {
+        Frame frame = exit();
+        if (frame == null) {
+            return;
+        }
+        if (frame.droppedItems > 0) {
+            delegate.writeString("[truncated: " + frame.droppedItems + " more items]");
+        }
+        if (frame.droppedForChars) {
+            delegate.writeString(MAX_CHARS_MARKER);
+        }
+        delegate.writeEndArray();
+    }
+
+    // The delegate would write primitive arrays in one call, so they are written element by element
+
+    @Override
+    public void writeArray(int[] array, int offset, int length) throws IOException {
+        writeStartArray(array, length);
+        for (int i = offset; i < offset + length; i++) {
+            writeNumber(array[i]);
+        }
+        writeEndArray();
+    }
+
+    @Override
+    public void writeArray(long[] array, int offset, int length) throws IOException {
+        writeStartArray(array, length);
+        for (int i = offset; i < offset + length; i++) {
+            writeNumber(array[i]);
+        }
+        writeEndArray();
+    }
+
+    @Override
+    public void writeArray(double[] array, int offset, int length) throws IOException {
+        writeStartArray(array, length);
+        for (int i = offset; i < offset + length; i++) {
+            writeNumber(array[i]);
+        }
+        writeEndArray();
+    }
+
+    @Override
+    public void writeArray(String[] array, int offset, int length) throws IOException {
+        writeStartArray(array, length);
+        for (int i = offset; i < offset + length; i++) {
+            writeString(array[i]);
+        }
+        writeEndArray();
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+        if (text == null) {
+            writeNull();
+            return;
+        }
+        if (skipping > 0) {
+            return;
+        }
+        String value = truncate(text);
+        if (admit(value.length() + STRING_OVERHEAD)) {
+            delegate.writeString(value);
+        }
+    }
+
+    @Override
+    public void writeString(char[] text, int offset, int len) throws IOException {
+        if (skipping == 0) {
+            writeString(new String(text, offset, len));
+        }
+    }
+
+    @Override
+    public void writeString(SerializableString text) throws IOException {
+        writeString(text.getValue());
+    }
+
+    @Override
+    public void writeRawUTF8String(byte[] text, int offset, int length) throws IOException {
+        // Already escaped, so it can only be kept or dropped as a whole
+        if (admit(length + STRING_OVERHEAD)) {
+            delegate.writeRawUTF8String(text, offset, length);
+        }
+    }
+
+    @Override
+    public void writeUTF8String(byte[] text, int offset, int length) throws IOException {
+        writeString(new String(text, offset, length, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeRawValue(String text) throws IOException {
+        if (admit(text.length())) {
+            delegate.writeRawValue(text);
+        }
+    }
+
+    @Override
+    public void writeRawValue(String text, int offset, int len) throws IOException {
+        if (admit(len)) {
+            delegate.writeRawValue(text, offset, len);
+        }
+    }
+
+    @Override
+    public void writeRawValue(char[] text, int offset, int len) throws IOException {
+        if (admit(len)) {
+            delegate.writeRawValue(text, offset, len);
+        }
+    }
+
+    @Override
+    public void writeRawValue(SerializableString raw) throws IOException {
+        if (admit(raw.charLength())) {
+            delegate.writeRawValue(raw);
+        }
+    }
+
+    @Override
+    public void writeBinary(Base64Variant b64variant, byte[] data, int offset, int len) throws IOException {
+        if (admit(len * 4L / 3 + STRING_OVERHEAD)) {
+            delegate.writeBinary(b64variant, data, offset, len);
+        }
+    }
+
+    @Override
+    public int writeBinary(Base64Variant b64variant, InputStream data, int dataLength) throws IOException {
+        if (admit(dataLength * 4L / 3 + STRING_OVERHEAD)) {
+            return delegate.writeBinary(b64variant, data, dataLength);
+        }
+        return 0;
+    }
+
+    @Override
+    public void writeNumber(short v) throws IOException {
+        if (admit(digits(v))) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(int v) throws IOException {
+        if (admit(digits(v))) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(long v) throws IOException {
+        if (admit(digits(v))) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(BigInteger v) throws IOException {
+        if (v == null) {
+            writeNull();
+        } else if (skipping == 0 && admit(v.toString().length())) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(double v) throws IOException {
+        if (skipping == 0 && admit(Double.toString(v).length())) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(float v) throws IOException {
+        if (skipping == 0 && admit(Float.toString(v).length())) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(BigDecimal v) throws IOException {
+        if (v == null) {
+            writeNull();
+        } else if (skipping == 0 && admit(v.toString().length())) {
+            delegate.writeNumber(v);
+        }
+    }
+
+    @Override
+    public void writeNumber(String encodedValue) throws IOException {
+        if (admit(encodedValue.length())) {
+            delegate.writeNumber(encodedValue);
+        }
+    }
+
+    @Override
+    public void writeNumber(char[] encodedValueBuffer, int offset, int length) throws IOException {
+        if (admit(length)) {
+            delegate.writeNumber(encodedValueBuffer, offset, length);
+        }
+    }
+
+    @Override
+    public void writeBoolean(boolean state) throws IOException {
+        if (admit(state ? 4 : 5)) {
+            delegate.writeBoolean(state);
+        }
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        if (admit(4)) {
+            delegate.writeNull();
+        }
+    }
+
+    @Override
+    public void writeEmbeddedObject(Object object) throws IOException {
+        if (admit(STRING_OVERHEAD)) {
+            delegate.writeEmbeddedObject(object);
+        }
+    }
+
+    /**
+     * Decides whether the next value is written, and writes the held field name when it is.
+     *
+     * @param size The size of the value in the output.
+     * @return {@code true} when the value must be written.
+     */
+    private boolean admit(long size) throws IOException {
+        if (skipping > 0) {
+            return false;
+        }
+        Frame frame = frames.peek();
+        if (frame != null && frame.array && limits.maxArrayElements() > 0
+                && frame.items >= limits.maxArrayElements()) {
+            frame.droppedItems++;
+            return false;
+        }
+        long nameSize = heldName != null ? heldName.length() + FIELD_NAME_OVERHEAD : 1;
+        // A root value is always written, it can only be cut by the other limits
+        if (frame != null && limits.maxChars() > 0 && (exhausted || written + nameSize + size > limits.maxChars())) {
+            exhausted = true;
+            frame.droppedForChars = true;
+            heldName = null;
+            return false;
+        }
+        written += nameSize + size;
+        if (frame != null && frame.array) {
+            frame.items++;
+        }
+        if (heldName != null) {
+            delegate.writeFieldName(heldName);
+            heldName = null;
+        }
+        return true;
+    }
+
+    private boolean enter(boolean array) throws IOException {
+        if (skipping > 0) {
+            skipping++;
+            return false;
+        }
+        if (limits.maxDepth() > 0 && frames.size() >= limits.maxDepth()) {
+            if (admit(MAX_DEPTH_MARKER.length() + STRING_OVERHEAD)) {
+                delegate.writeString(MAX_DEPTH_MARKER);
+            }
+            skipping = 1;
+            return false;
+        }
+        if (!admit(CONTAINER_SIZE)) {
+            skipping = 1;
+            return false;
+        }
+        frames.push(new Frame(array));
+        return true;
+    }
+
+    /**
+     * @return The frame that was closed, or {@code null} when the end belongs to a dropped value.
+     */
+    private Frame exit() {
+        if (skipping > 0) {
+            skipping--;
+            return null;
+        }
+        heldName = null;
+        return frames.pop();
+    }
+
+    private String truncate(String text) {
+        return truncate(text, limits.maxStringLength());
+    }
+
+    /**
+     * @param text The text to cut.
+     * @param max  The number of characters kept, zero or less to keep them all.
+     * @return The text, or its first characters followed by the truncation marker.
+     */
+    static String truncate(String text, int max) {
+        if (max <= 0 || text.length() <= max) {
+            return text;
+        }
+        int end = Character.isHighSurrogate(text.charAt(max - 1)) ? max - 1 : max;
+        return text.substring(0, end) + "...[truncated: " + text.length() + " chars]";
+    }
+
+    private static int digits(long value) {
+        var count = value < 0 ? 2 : 1;
+        for (long rest = Math.abs(value / 10); rest > 0; rest /= 10) {
+            count++;
+        }
+        return count;
+    }
+}
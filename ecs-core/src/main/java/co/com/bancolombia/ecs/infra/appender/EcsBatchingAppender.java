@@ -0,0 +1,107 @@
+package co.com.bancolombia.ecs.infra.appender;
+
+import co.com.bancolombia.ecs.infra.layout.EcsJsonLayout;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log4j2 appender that writes records in batches through a {@link NdjsonBatchWriter}, to stdout
+ * or to a file. Uses {@link EcsJsonLayout} unless another layout is given.
+ *
+ * <pre>
+ * appender.batch.type=EcsBatching
+ * appender.batch.name=BATCH
+ * appender.batch.maxBatchRecords=256
+ * appender.batch.maxDelayMicros=2000
+ * </pre>
+ */
+@Plugin(name = EcsBatchingAppender.PLUGIN_NAME, category = Core.CATEGORY_NAME,
+        elementType = Appender.ELEMENT_TYPE, printObject = true)
+public final class EcsBatchingAppender extends AbstractAppender {
+
+    public static final String PLUGIN_NAME = "EcsBatching";
+
+    private final NdjsonBatchWriter writer;
+
+    private EcsBatchingAppender(String name, Filter filter, Layout<? extends Serializable> layout,
+                                NdjsonBatchWriter writer) {
+        super(name, filter, layout, true, Property.EMPTY_ARRAY);
+        this.writer = writer;
+    }
+
+    /**
+     * @param name            The appender name.
+     * @param fileName        File the records are appended to; stdout when empty.
+     * @param maxBatchRecords Records that trigger a write.
+     * @param maxDelayMicros  Longest time a record waits in memory before it is written.
+     * @param bufferSize      Size in bytes of each batch buffer.
+     * @param layout          Layout of each record, {@link EcsJsonLayout} by default.
+     * @param filter          Optional filter.
+     * @return The appender.
+     */
+    @PluginFactory
+    public static EcsBatchingAppender createAppender(
+            @PluginAttribute("name") String name,
+            @PluginAttribute("fileName") String fileName,
+            @PluginAttribute(value = "maxBatchRecords", defaultInt = 256) int maxBatchRecords,
+            @PluginAttribute(value = "maxDelayMicros", defaultLong = 2000) long maxDelayMicros,
+            @PluginAttribute(value = "bufferSize", defaultInt = 256 * 1024) int bufferSize,
+            @PluginElement("Layout") Layout<? extends Serializable> layout,
+            @PluginElement("Filter") Filter filter) {
+        boolean toFile = fileName != null && !fileName.isBlank();
+        var writer = new NdjsonBatchWriter(toFile ? openFile(fileName) : stdout(), toFile, maxBatchRecords,
+                TimeUnit.MICROSECONDS.toNanos(maxDelayMicros), bufferSize);
+        return new EcsBatchingAppender(name, filter, layout != null ? layout : EcsJsonLayout.createLayout(), writer);
+    }
+
+    public NdjsonBatchWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        writer.write(event, getLayout());
+    }
+
+    @Override
+    public boolean stop(long timeout, TimeUnit timeUnit) {
+        setStopping();
+        boolean stopped = super.stop(timeout, timeUnit, false);
+        writer.close();
+        setStopped();
+        return stopped;
+    }
+
+    private static FileChannel openFile(String fileName) {
+        try {
+            return FileChannel.open(Path.of(fileName),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to open " + fileName, ex);
+        }
+    }
+
+    private static FileChannel stdout() {
+        // Writes straight to file descriptor 1, without the buffering of System.out
+        return new FileOutputStream(FileDescriptor.out).getChannel();
+    }
+}
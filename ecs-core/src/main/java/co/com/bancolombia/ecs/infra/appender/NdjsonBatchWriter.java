@@ -0,0 +1,231 @@
+package co.com.bancolombia.ecs.infra.appender;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
+import org.apache.logging.log4j.core.layout.Encoder;
+import org.apache.logging.log4j.status.StatusLogger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gathers encoded records in memory and writes them to a channel as one block, so a burst of
+ * records costs one write call instead of one per record. A batch is written once it holds
+ * {@code maxBatchRecords} records, once its first record is {@code maxDelayNanos} old, when the
+ * buffer fills up, and on {@link #close()}.
+ * <p>
+ * Records are encoded into one of two direct buffers while the other one is being written, so
+ * producers only wait for the channel when both are in use.
+ */
+public final class NdjsonBatchWriter implements ByteBufferDestination, AutoCloseable {
+
+    private static final Logger STATUS_LOGGER = StatusLogger.getLogger();
+    private static final String THREAD_NAME = "ecs-log-batch-flusher";
+
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;
+    private final int maxBatchRecords;
+    private final long maxDelayNanos;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Thread flusher;
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong recordCount = new AtomicLong();
+    private final AtomicLong failedWriteCount = new AtomicLong();
+
+    private ByteBuffer current;
+    private ByteBuffer spare;
+    private int pendingRecords;
+    private long batchStartNanos;
+    private volatile boolean running = true;
+
+    /**
+     * @param channel         Where the batches are written.
+     * @param closeChannel    Whether {@link #close()} also closes the channel; {@code false} for stdout.
+     * @param maxBatchRecords Records that trigger a write.
+     * @param maxDelayNanos   Longest time a record waits in memory before it is written.
+     * @param bufferSize      Size in bytes of each of the two buffers.
+     */
+    public NdjsonBatchWriter(WritableByteChannel channel, boolean closeChannel, int maxBatchRecords,
+                             long maxDelayNanos, int bufferSize) {
+        if (maxBatchRecords < 1 || maxDelayNanos < 1 || bufferSize < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid batch configuration: max-batch-records [%d], max-delay [%dns] and buffer-size [%d] " +
+                            "must be greater than zero", maxBatchRecords, maxDelayNanos, bufferSize));
+        }
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.maxBatchRecords = maxBatchRecords;
+        this.maxDelayNanos = maxDelayNanos;
+        this.current = ByteBuffer.allocateDirect(bufferSize);
+        this.spare = ByteBuffer.allocateDirect(bufferSize);
+        this.flusher = new Thread(this::runFlusher, THREAD_NAME);
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Encodes one record into the current batch and writes the batch if it is full.
+     *
+     * @param event   The record.
+     * @param encoder The layout that turns it into bytes, including its line separator.
+     */
+    public void write(LogEvent event, Encoder<LogEvent> encoder) {
+        boolean full;
+        synchronized (this) {
+            encoder.encode(event, this);
+            pendingRecords++;
+            recordCount.incrementAndGet();
+            full = pendingRecords >= maxBatchRecords;
+            if (pendingRecords == 1 && !full) {
+                batchStartNanos = System.nanoTime();
+                notifyAll();
+            }
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the records gathered so far, if any.
+     */
+    public void flush() {
+        ByteBuffer batch;
+        synchronized (this) {
+            if (current.position() == 0) {
+                return;
+            }
+            // Taken before the swap, so batches reach the channel in the order they were filled
+            writeLock.lock();
+            batch = swap();
+        }
+        writeBatch(batch);
+    }
+
+    @Override
+    public ByteBuffer getByteBuffer() {
+        return current;
+    }
+
+    @Override
+    public synchronized ByteBuffer drain(ByteBuffer buf) {
+        // A record did not fit: the batch is written right away, on the producer thread
+        if (current.position() > 0) {
+            writeLock.lock();
+            writeBatch(swap());
+        }
+        return current;
+    }
+
+    @Override
+    public synchronized void writeBytes(ByteBuffer data) {
+        ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+    }
+
+    @Override
+    public synchronized void writeBytes(byte[] data, int offset, int length) {
+        ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+    }
+
+    /**
+     * @return Blocks written to the channel.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * @return Records accepted since the writer was created.
+     */
+    public long getRecordCount() {
+        return recordCount.get();
+    }
+
+    /**
+     * @return Blocks that could not be written and were discarded.
+     */
+    public long getFailedWriteCount() {
+        return failedWriteCount.get();
+    }
+
+    /**
+     * Writes the pending records and stops the flusher thread.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            running = false;
+            notifyAll();
+        }
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (closeChannel) {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                STATUS_LOGGER.error("Unable to close the batch output", ex);
+            }
+        }
+    }
+
+    // Requires the monitor and the write lock
+    private ByteBuffer swap() {
+        ByteBuffer batch = current;
+        current = spare;
+        spare = null;
+        pendingRecords = 0;
+        batch.flip();
+        return batch;
+    }
+
+    // Requires the write lock, which is released
+    private void writeBatch(ByteBuffer batch) {
+        try {
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            batchCount.incrementAndGet();
+        } catch (IOException ex) {
+            failedWriteCount.incrementAndGet();
+            STATUS_LOGGER.error("Unable to write a batch of {} bytes", batch.limit(), ex);
+        } finally {
+            batch.clear();
+            spare = batch;
+            writeLock.unlock();
+        }
+    }
+
+    private void runFlusher() {
+        while (running) {
+            long deadline;
+            synchronized (this) {
+                while (running && pendingRecords == 0) {
+                    try {
+                        wait();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                deadline = batchStartNanos + maxDelayNanos;
+            }
+            long remaining;
+            while (running && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            flush();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package co.com.bancolombia.ecs.infra.async;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.infra.drain.DrainStage;
+import co.com.bancolombia.ecs.infra.drain.LogBuffer;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Moves the output of {@link LogRecord}s off the request thread.
+ * Request threads publish records into a bounded queue and a fixed set of daemon consumer
+ * threads hand them to the writer, which applies the sensitive data rules, serializes and
+ * prints them. A published record must not be modified by the request thread afterwards.
+ * When the queue is full the configured {@link OverflowPolicy} decides what is kept.
+ * <p>
+ * Every record accepted by {@link #dispatch(LogRecord)} is written or counted as dropped, also
+ * when it races with {@link #close()}: a producer announces itself before checking whether the
+ * dispatcher is running, and closing waits for the announced producers while it drains the queue.
+ */
+@Log4j2
+public class AsyncLogDispatcher implements LogBuffer {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final String THREAD_NAME_PREFIX = "ecs-log-dispatcher-";
+
+    private final BlockingQueue<LogRecord<String, String>> queue;
+    private final int queueCapacity;
+    private final Consumer<LogRecord<String, String>> writer;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final long shutdownTimeoutMillis;
+    private final List<Thread> consumers;
+    private final AtomicLong overflowCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    // Producers between the running check and the end of their offer
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean running = true;
+
+    public AsyncLogDispatcher(int queueSize,
+                              int consumerThreads,
+                              OverflowPolicy overflowPolicy,
+                              int sampleRate,
+                              long shutdownTimeoutMillis,
+                              Consumer<LogRecord<String, String>> writer) {
+        if (queueSize < 1 || consumerThreads < 1 || sampleRate < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid async configuration: queue-size [%d], consumers [%d] and sample-rate [%d] " +
+                            "must be greater than zero", queueSize, consumerThreads, sampleRate));
+        }
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.queueCapacity = queueSize;
+        this.writer = writer;
+        this.overflowPolicy = overflowPolicy != null ? overflowPolicy : OverflowPolicy.BLOCK;
+        this.sampleRate = sampleRate;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.consumers = new ArrayList<>(consumerThreads);
+        for (int i = 0; i < consumerThreads; i++) {
+            Thread consumer = new Thread(this::consume, THREAD_NAME_PREFIX + i);
+            consumer.setDaemon(true);
+            consumers.add(consumer);
+            consumer.start();
+        }
+    }
+
+    /**
+     * Publishes a record for asynchronous output.
+     *
+     * @param logRecord The record to print.
+     * @return {@code false} when the dispatcher is closed and the caller must print the record itself.
+     */
+    public boolean dispatch(LogRecord<String, String> logRecord) {
+        inFlight.incrementAndGet();
+        try {
+            if (!running) {
+                return false;
+            }
+            if (!queue.offer(logRecord)) {
+                overflowCount.incrementAndGet();
+                onOverflow(logRecord);
+            }
+            return true;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @Override
+    public DrainStage getDrainStage() {
+        return DrainStage.DISPATCH;
+    }
+
+    @Override
+    public long getBufferedRecords() {
+        return queue.size();
+    }
+
+    @Override
+    public long getDroppedRecords() {
+        return droppedCount.get();
+    }
+
+    private void onOverflow(LogRecord<String, String> logRecord) {
+        switch (overflowPolicy) {
+            case BLOCK -> put(logRecord);
+            case DROP_OLDEST -> dropOldest(logRecord);
+            case DROP_BY_LEVEL -> {
+                if (isCritical(logRecord)) {
+                    put(logRecord);
+                } else {
+                    droppedCount.incrementAndGet();
+                }
+            }
+            case SAMPLE -> {
+                if (overflowCount.get() % sampleRate == 0) {
+                    put(logRecord);
+                } else {
+                    droppedCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void dropOldest(LogRecord<String, String> logRecord) {
+        while (!queue.offer(logRecord)) {
+            if (queue.poll() != null) {
+                droppedCount.incrementAndGet();
+            }
+        }
+    }
+
+    private void put(LogRecord<String, String> logRecord) {
+        try {
+            queue.put(logRecord);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    private static boolean isCritical(LogRecord<String, String> logRecord) {
+        return logRecord.getLevel() == LogRecord.Level.ERROR || logRecord.getLevel() == LogRecord.Level.FATAL;
+    }
+
+    private void consume() {
+        while (running || !queue.isEmpty()) {
+            try {
+                LogRecord<String, String> logRecord = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (logRecord != null) {
+                    write(logRecord);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(LogRecord<String, String> logRecord) {
+        try {
+            writer.accept(logRecord);
+        } catch (RuntimeException e) {
+            log.warn("Async log record could not be written: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops accepting records, waits for the consumers to drain the queue and prints any
+     * record still left on the calling thread, including the ones of producers that were
+     * publishing when the dispatcher stopped.
+     */
+    @Override
+    public void close() {
+        running = false;
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMillis;
+        for (Thread consumer : consumers) {
+            try {
+                consumer.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // Draining also frees the slots that blocked producers wait for
+        while (inFlight.get() > 0) {
+            drain();
+            Thread.onSpinWait();
+        }
+        drain();
+    }
+
+    private void drain() {
+        LogRecord<String, String> pending;
+        while ((pending = queue.poll()) != null) {
+            write(pending);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package co.com.bancolombia.ecs.infra.async;
+
+/**
+ * What {@link AsyncLogDispatcher} does with a record when its queue is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * The request thread waits until there is room in the queue. No record is lost.
+     */
+    BLOCK,
+    /**
+     * The oldest queued record is discarded to make room for the new one.
+     */
+    DROP_OLDEST,
+    /**
+     * {@code ERROR} and {@code FATAL} records wait for room; records of any other level are discarded.
+     */
+    DROP_BY_LEVEL,
+    /**
+     * One of every {@code sample-rate} records waits for room; the others are discarded.
+     */
+    SAMPLE
+}
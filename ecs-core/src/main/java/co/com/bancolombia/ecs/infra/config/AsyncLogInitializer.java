@@ -0,0 +1,40 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.application.LoggerEcs;
+import co.com.bancolombia.ecs.infra.async.AsyncLogDispatcher;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Configuration;
+
+@Log4j2
+@Configuration
+public class AsyncLogInitializer implements DisposableBean {
+
+    private final AsyncLogDispatcher dispatcher;
+
+    public AsyncLogInitializer(AsyncLogProperties asyncLogProperties) {
+        if (Boolean.TRUE.equals(asyncLogProperties.getEnabled())) {
+            dispatcher = new AsyncLogDispatcher(
+                    asyncLogProperties.getQueueSize(),
+                    asyncLogProperties.getConsumers(),
+                    asyncLogProperties.getOverflowPolicy(),
+                    asyncLogProperties.getSampleRate(),
+                    asyncLogProperties.getShutdownTimeoutMs(),
+                    LoggerEcs::write);
+            LoggerEcs.setDispatcher(dispatcher);
+            log.info("async is enabled: queue-size {}, consumers {}, overflow-policy {}",
+                    asyncLogProperties.getQueueSize(), asyncLogProperties.getConsumers(),
+                    asyncLogProperties.getOverflowPolicy());
+        } else {
+            dispatcher = null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (dispatcher != null) {
+            LoggerEcs.setDispatcher(null);
+            dispatcher.close();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.infra.async.OverflowPolicy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "adapter.ecs.logs.async")
+public class AsyncLogProperties {
+    private Boolean enabled;
+    private int queueSize = 8192;
+    private int consumers = 1;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    // With SAMPLE, one of every sample-rate records is kept while the queue is full
+    private int sampleRate = 10;
+    private long shutdownTimeoutMs = 5000;
+}
@@ -0,0 +1,50 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.helpers.BodyLimits;
+import co.com.bancolombia.ecs.helpers.BodyLimitsHelper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Log4j2
+@Configuration
+public class BodyLimitsInitializer {
+
+    public BodyLimitsInitializer(BodyLimitsProperties bodyLimitsProperties) {
+        BodyLimits request = toBodyLimits(bodyLimitsProperties.getRequest(), BodyLimits.NONE);
+        BodyLimits response = toBodyLimits(bodyLimitsProperties.getResponse(), BodyLimits.NONE);
+
+        Map<String, BodyLimits> requestRoutes = new HashMap<>();
+        Map<String, BodyLimits> responseRoutes = new HashMap<>();
+        for (BodyLimitsProperties.RouteLimits route : bodyLimitsProperties.getRoutes()) {
+            if (route.getPath() == null || route.getPath().isBlank()) {
+                throw new IllegalArgumentException("adapter.ecs.logs.body-limits.routes[].path is required");
+            }
+            requestRoutes.put(route.getPath(), toBodyLimits(route.getRequest(), request));
+            responseRoutes.put(route.getPath(), toBodyLimits(route.getResponse(), response));
+        }
+
+        BodyLimitsHelper.init(request, response, requestRoutes, responseRoutes);
+        if (!request.isUnlimited() || !response.isUnlimited() || !requestRoutes.isEmpty()) {
+            log.info("body limits are enabled: request {}, response {}, {} routes",
+                    request, response, requestRoutes.size());
+        }
+    }
+
+    private static BodyLimits toBodyLimits(BodyLimitsProperties.Limits limits, BodyLimits defaults) {
+        if (limits == null) {
+            return defaults;
+        }
+        return new BodyLimits(
+                valueOrDefault(limits.getMaxDepth(), defaults.maxDepth()),
+                valueOrDefault(limits.getMaxArrayElements(), defaults.maxArrayElements()),
+                valueOrDefault(limits.getMaxStringLength(), defaults.maxStringLength()),
+                valueOrDefault(limits.getMaxChars(), defaults.maxChars()));
+    }
+
+    private static int valueOrDefault(Integer value, int defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+}
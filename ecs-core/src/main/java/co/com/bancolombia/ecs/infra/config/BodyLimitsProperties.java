@@ -0,0 +1,42 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "adapter.ecs.logs.body-limits")
+public class BodyLimitsProperties {
+    private Limits request = new Limits();
+    private Limits response = new Limits();
+    private List<RouteLimits> routes = new ArrayList<>();
+
+    /**
+     * Limits of one direction. A missing or non-positive value means no limit.
+     */
+    @Getter
+    @Setter
+    public static class Limits {
+        private Integer maxDepth;
+        private Integer maxArrayElements;
+        private Integer maxStringLength;
+        private Integer maxChars;
+    }
+
+    /**
+     * Limits of the bodies of one URI path. Each value that is set replaces the one of its direction.
+     */
+    @Getter
+    @Setter
+    public static class RouteLimits {
+        private String path;
+        private Limits request = new Limits();
+        private Limits response = new Limits();
+    }
+}
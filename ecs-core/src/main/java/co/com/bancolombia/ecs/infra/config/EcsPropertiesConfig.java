@@ -1,6 +1,7 @@
 package co.com.bancolombia.ecs.infra.config;
 
 import co.com.bancolombia.ecs.domain.model.ExceptionLevel;
+import co.com.bancolombia.ecs.helpers.SanitizationPlan;
 import co.com.bancolombia.ecs.infra.config.sensitive.SensitiveRequestProperties;
 import co.com.bancolombia.ecs.infra.config.sensitive.SensitiveResponseProperties;
 import co.com.bancolombia.ecs.infra.config.service.ServiceProperties;
@@ -28,11 +29,13 @@ public class EcsPropertiesConfig {
     private Set<String> excludedPaths;
     private List<Pattern> sensitiveRequestPatterns;
     private String sensitiveRequestReplacement;
+    private SanitizationPlan requestSanitizationPlan;
     private String delimiterRequest;
     // Response
     private Set<String> sensitiveResponseFields;
     private List<Pattern> sensitiveResponsePatterns;
     private String sensitiveResponseReplacement;
+    private SanitizationPlan responseSanitizationPlan;
     private String delimiterResponse;
     // Print request/response only for configured errors
     private final Boolean printReqRespOnErrorOnly;
@@ -70,6 +73,8 @@ public class EcsPropertiesConfig {
             this.excludedPaths = splitToSet(requestProps.getExcludedPaths(), delimiterRequest);
             this.sensitiveRequestPatterns = splitToList(requestProps.getPatterns(), delimiterRequest);
             this.sensitiveRequestReplacement = requestProps.getReplacement();
+            this.requestSanitizationPlan = SanitizationPlan.compile(
+                    sensitiveRequestFields, sensitiveRequestPatterns, sensitiveRequestReplacement);
             requestHeadersAndPathAllowed(requestProps);
         }
 
@@ -80,6 +85,8 @@ public class EcsPropertiesConfig {
             this.sensitiveResponseFields = splitToSet(responseProps.getFields(), delimiterResponse);
             this.sensitiveResponsePatterns = splitToList(responseProps.getPatterns(), delimiterResponse);
             this.sensitiveResponseReplacement = responseProps.getReplacement();
+            this.responseSanitizationPlan = SanitizationPlan.compile(
+                    sensitiveResponseFields, sensitiveResponsePatterns, sensitiveResponseReplacement);
         }
     }
 
@@ -0,0 +1,49 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.application.LoggerEcs;
+import co.com.bancolombia.ecs.infra.sink.ElasticBulkSink;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Configuration;
+
+@Log4j2
+@Configuration
+public class ElasticBulkInitializer implements DisposableBean {
+
+    private final ElasticBulkSink sink;
+
+    public ElasticBulkInitializer(ElasticBulkProperties elasticBulkProperties) {
+        if (Boolean.TRUE.equals(elasticBulkProperties.getEnabled())) {
+            RecordSinkGuard.requireNoActiveSink("adapter.ecs.logs.elasticsearch");
+            sink = new ElasticBulkSink(ElasticBulkSink.Settings.builder()
+                    .url(elasticBulkProperties.getUrl())
+                    .index(elasticBulkProperties.getIndex())
+                    .authorization(elasticBulkProperties.getAuthorization())
+                    .gzip(elasticBulkProperties.isGzip())
+                    .bufferBytes(elasticBulkProperties.getBufferBytes())
+                    .batchBytes(elasticBulkProperties.getBatchBytes())
+                    .lingerMillis(elasticBulkProperties.getLingerMs())
+                    .maxConcurrency(elasticBulkProperties.getMaxConcurrency())
+                    .maxRetries(elasticBulkProperties.getMaxRetries())
+                    .initialBackoffMillis(elasticBulkProperties.getInitialBackoffMs())
+                    .maxBackoffMillis(elasticBulkProperties.getMaxBackoffMs())
+                    .failureThreshold(elasticBulkProperties.getFailureThreshold())
+                    .openMillis(elasticBulkProperties.getOpenMs())
+                    .requestTimeoutMillis(elasticBulkProperties.getRequestTimeoutMs())
+                    .build());
+            LoggerEcs.setSink(sink);
+            log.info("elasticsearch sink is enabled: {}, index {}", elasticBulkProperties.getUrl(),
+                    elasticBulkProperties.getIndex());
+        } else {
+            sink = null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (sink != null) {
+            LoggerEcs.removeSink(sink);
+            sink.close();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "adapter.ecs.logs.elasticsearch")
+public class ElasticBulkProperties {
+    private Boolean enabled;
+    private String url = "http://localhost:9200";
+    private String index = "logs-ecs-default";
+    private String authorization;
+    private boolean gzip = true;
+    private int bufferBytes = 16 * 1024 * 1024;
+    private int batchBytes = 1024 * 1024;
+    private long lingerMs = 1_000;
+    private int maxConcurrency = 2;
+    private int maxRetries = 3;
+    private long initialBackoffMs = 200;
+    private long maxBackoffMs = 5_000;
+    private int failureThreshold = 5;
+    private long openMs = 30_000;
+    private long requestTimeoutMs = 10_000;
+}
@@ -0,0 +1,15 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "adapter.ecs.logs.drain")
+public class LogDrainProperties {
+    private boolean enabled = true;
+    private long timeoutMs = 10_000;
+}
@@ -0,0 +1,26 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.helpers.EcsClock;
+import co.com.bancolombia.ecs.helpers.LogRecordSerializer;
+import co.com.bancolombia.ecs.helpers.OutputSchema;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.Configuration;
+
+@Log4j2
+@Configuration
+public class LogOutputInitializer {
+
+    public LogOutputInitializer(OutputProperties outputProperties) {
+        OutputSchema schema = outputProperties.getSchema() != null ? outputProperties.getSchema() : OutputSchema.LEGACY;
+        // ECS documents are keyed by @timestamp, so it is stamped when the record is created
+        boolean isoTimestamp = Boolean.TRUE.equals(outputProperties.getIsoTimestamp()) || schema == OutputSchema.ECS;
+        EcsClock.setIsoTimestampEnabled(isoTimestamp);
+        LogRecordSerializer.setSchema(schema);
+        if (isoTimestamp) {
+            log.info("output.iso-timestamp is enabled: records include an ISO-8601 @timestamp field");
+        }
+        if (schema == OutputSchema.ECS) {
+            log.info("output.schema is ECS: records are written with Elastic Common Schema field names");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.application.LoggerEcs;
+import co.com.bancolombia.ecs.infra.sink.MappedSegmentSink;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+@Log4j2
+@Configuration
+public class MappedSinkInitializer implements DisposableBean {
+
+    private final MappedSegmentSink sink;
+
+    public MappedSinkInitializer(MappedSinkProperties mappedSinkProperties) {
+        if (Boolean.TRUE.equals(mappedSinkProperties.getEnabled())) {
+            RecordSinkGuard.requireNoActiveSink("adapter.ecs.logs.mapped-sink");
+            Path directory = Path.of(mappedSinkProperties.getDirectory());
+            try {
+                sink = new MappedSegmentSink(directory, mappedSinkProperties.getPrefix(),
+                        mappedSinkProperties.getSegmentSize(), mappedSinkProperties.getRollIntervalMs(),
+                        sealed -> log.debug("segment sealed: {}", sealed));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unable to open the mapped sink in " + directory, ex);
+            }
+            LoggerEcs.setSink(sink);
+            log.info("mapped-sink is enabled: directory {}, segment-size {}, roll-interval-ms {}",
+                    directory.toAbsolutePath(), mappedSinkProperties.getSegmentSize(),
+                    mappedSinkProperties.getRollIntervalMs());
+        } else {
+            sink = null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (sink != null) {
+            LoggerEcs.removeSink(sink);
+            sink.close();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "adapter.ecs.logs.mapped-sink")
+public class MappedSinkProperties {
+    private Boolean enabled;
+    private String directory = "logs";
+    private String prefix = "ecs";
+    private int segmentSize = 64 * 1024 * 1024;
+    private long rollIntervalMs = 300_000;
+}
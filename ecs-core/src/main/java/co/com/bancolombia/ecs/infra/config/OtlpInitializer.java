@@ -0,0 +1,53 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.application.LoggerEcs;
+import co.com.bancolombia.ecs.infra.config.service.ServiceProperties;
+import co.com.bancolombia.ecs.infra.sink.OtlpLogExporter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Log4j2
+@Configuration
+public class OtlpInitializer implements DisposableBean {
+
+    private static final String SERVICE_NAME_ATTRIBUTE = "service.name";
+
+    private final OtlpLogExporter exporter;
+
+    public OtlpInitializer(OtlpProperties otlpProperties, ServiceProperties serviceProperties) {
+        if (Boolean.TRUE.equals(otlpProperties.getEnabled())) {
+            RecordSinkGuard.requireNoActiveSink("adapter.ecs.logs.otlp");
+            Map<String, String> resourceAttributes = new LinkedHashMap<>(otlpProperties.getResourceAttributes());
+            if (serviceProperties.getName() != null) {
+                resourceAttributes.putIfAbsent(SERVICE_NAME_ATTRIBUTE, serviceProperties.getName());
+            }
+            exporter = new OtlpLogExporter(OtlpLogExporter.Settings.builder()
+                    .endpoint(otlpProperties.getEndpoint())
+                    .headers(Map.copyOf(otlpProperties.getHeaders()))
+                    .resourceAttributes(resourceAttributes)
+                    .gzip(otlpProperties.isGzip())
+                    .maxQueueSize(otlpProperties.getMaxQueueSize())
+                    .maxBatchSize(otlpProperties.getMaxBatchSize())
+                    .scheduleDelayMillis(otlpProperties.getScheduleDelayMs())
+                    .exportTimeoutMillis(otlpProperties.getExportTimeoutMs())
+                    .maxRetries(otlpProperties.getMaxRetries())
+                    .build());
+            LoggerEcs.setSink(exporter);
+            log.info("otlp exporter is enabled: {}", otlpProperties.getEndpoint());
+        } else {
+            exporter = null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (exporter != null) {
+            LoggerEcs.removeSink(exporter);
+            exporter.close();
+        }
+    }
+}
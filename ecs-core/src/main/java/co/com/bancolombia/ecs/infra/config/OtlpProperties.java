@@ -0,0 +1,26 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "adapter.ecs.logs.otlp")
+public class OtlpProperties {
+    private Boolean enabled;
+    private String endpoint = "http://localhost:4318/v1/logs";
+    private Map<String, String> headers = new LinkedHashMap<>();
+    private Map<String, String> resourceAttributes = new LinkedHashMap<>();
+    private boolean gzip;
+    private int maxQueueSize = 8192;
+    private int maxBatchSize = 512;
+    private long scheduleDelayMs = 1_000;
+    private long exportTimeoutMs = 10_000;
+    private int maxRetries = 3;
+}
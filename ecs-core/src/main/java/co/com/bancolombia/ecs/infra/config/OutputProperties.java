@@ -0,0 +1,18 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.helpers.OutputSchema;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "adapter.ecs.logs.output")
+public class OutputProperties {
+    // Adds an ISO-8601 UTC "@timestamp" field next to "date"
+    private Boolean isoTimestamp;
+    // Field layout of the records; ECS writes Elastic Common Schema names
+    private OutputSchema schema = OutputSchema.LEGACY;
+}
@@ -0,0 +1,37 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.application.LoggerEcs;
+import co.com.bancolombia.ecs.infra.overload.OverloadController;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Configuration;
+
+@Log4j2
+@Configuration
+public class OverloadInitializer implements DisposableBean {
+
+    private final OverloadController controller;
+
+    public OverloadInitializer(OverloadProperties overloadProperties) {
+        if (Boolean.TRUE.equals(overloadProperties.getEnabled())) {
+            controller = new OverloadController(OverloadController.Settings.builder()
+                    .latencyThresholdMicros(overloadProperties.getLatencyThresholdMicros())
+                    .queueThreshold(overloadProperties.getQueueThreshold())
+                    .recoveryRatio(overloadProperties.getRecoveryRatio())
+                    .evaluationIntervalMillis(overloadProperties.getEvaluationIntervalMs())
+                    .build());
+            LoggerEcs.setOverloadController(controller);
+            log.info("overload control is enabled: latency-threshold {} us, queue-threshold {}",
+                    overloadProperties.getLatencyThresholdMicros(), overloadProperties.getQueueThreshold());
+        } else {
+            controller = null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (controller != null) {
+            LoggerEcs.setOverloadController(null);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "adapter.ecs.logs.overload")
+public class OverloadProperties {
+    private Boolean enabled;
+    private long latencyThresholdMicros = 1_000;
+    private double queueThreshold = 0.8;
+    private double recoveryRatio = 0.5;
+    private long evaluationIntervalMs = 200;
+}
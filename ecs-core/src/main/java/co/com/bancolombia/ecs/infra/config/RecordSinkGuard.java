@@ -0,0 +1,27 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.application.LoggerEcs;
+import co.com.bancolombia.ecs.infra.sink.EcsRecordSink;
+import lombok.experimental.UtilityClass;
+
+/**
+ * {@link LoggerEcs} writes to a single sink, so enabling a second one would silently replace the
+ * first while its threads keep running. The initializers check it before building their sink.
+ */
+@UtilityClass
+class RecordSinkGuard {
+
+    /**
+     * @param prefix Properties prefix of the sink being enabled.
+     * @throws IllegalStateException If another sink is already active.
+     */
+    static void requireNoActiveSink(String prefix) {
+        EcsRecordSink active = LoggerEcs.getSink();
+        if (active != null) {
+            throw new IllegalStateException(String.format(
+                    "Unable to enable [%s]: %s is already enabled. Only one of adapter.ecs.logs.shipper, " +
+                            "adapter.ecs.logs.mapped-sink, adapter.ecs.logs.elasticsearch and adapter.ecs.logs.otlp " +
+                            "can be enabled", prefix, active.getClass().getSimpleName()));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package co.com.bancolombia.ecs.infra.config;
 
 
+import co.com.bancolombia.ecs.helpers.OutputSchema;
 import co.com.bancolombia.ecs.helpers.SensitiveHelper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,7 +17,7 @@ import java.util.stream.Collectors;
 @Configuration
 public class SensitiveRulesInitializer {
 
-    public SensitiveRulesInitializer(SensitiveRulesConfig sensitiveConfig) {
+    public SensitiveRulesInitializer(SensitiveRulesConfig sensitiveConfig, OutputProperties outputProperties) {
 
         log.info("Initializing sensitive rules with config: {}", sensitiveConfig.getSensitiveData());
         Map<String, List<SensitiveRulesConfig.SensitiveDataRule>> sensitiveRules =
@@ -29,6 +30,9 @@ public class SensitiveRulesInitializer {
                     rule.isEnabled(), String.join(",", rule.getFieldPaths())));
         });
 
+        // Dotted field paths are compiled for the layout of the documents they are applied to
+        SensitiveHelper.setSchema(outputProperties.getSchema() != null ? outputProperties.getSchema()
+                : OutputSchema.LEGACY);
         SensitiveHelper.init(sensitiveRules);
     }
 
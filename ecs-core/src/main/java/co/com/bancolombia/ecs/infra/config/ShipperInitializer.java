@@ -0,0 +1,43 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.application.LoggerEcs;
+import co.com.bancolombia.ecs.infra.sink.NdjsonShipper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Configuration;
+
+@Log4j2
+@Configuration
+public class ShipperInitializer implements DisposableBean {
+
+    private final NdjsonShipper shipper;
+
+    public ShipperInitializer(ShipperProperties shipperProperties) {
+        if (Boolean.TRUE.equals(shipperProperties.getEnabled())) {
+            RecordSinkGuard.requireNoActiveSink("adapter.ecs.logs.shipper");
+            shipper = new NdjsonShipper(NdjsonShipper.Settings.builder()
+                    .protocol(shipperProperties.getProtocol())
+                    .host(shipperProperties.getHost())
+                    .port(shipperProperties.getPort())
+                    .compression(shipperProperties.getCompression())
+                    .bufferBytes(shipperProperties.getBufferBytes())
+                    .batchBytes(shipperProperties.getBatchBytes())
+                    .lingerMillis(shipperProperties.getLingerMs())
+                    .maxBackoffMillis(shipperProperties.getMaxBackoffMs())
+                    .build());
+            LoggerEcs.setSink(shipper);
+            log.info("shipper is enabled: {}://{}:{}, compression {}", shipperProperties.getProtocol(),
+                    shipperProperties.getHost(), shipperProperties.getPort(), shipperProperties.getCompression());
+        } else {
+            shipper = null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (shipper != null) {
+            LoggerEcs.removeSink(shipper);
+            shipper.close();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.infra.sink.ShipperCompression;
+import co.com.bancolombia.ecs.infra.sink.ShipperProtocol;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "adapter.ecs.logs.shipper")
+public class ShipperProperties {
+    private Boolean enabled;
+    private ShipperProtocol protocol = ShipperProtocol.TCP;
+    private String host = "localhost";
+    private int port = 5170;
+    private ShipperCompression compression = ShipperCompression.NONE;
+    private int bufferBytes = 8 * 1024 * 1024;
+    private int batchBytes = 64 * 1024;
+    private long lingerMs = 200;
+    private long maxBackoffMs = 10_000;
+}
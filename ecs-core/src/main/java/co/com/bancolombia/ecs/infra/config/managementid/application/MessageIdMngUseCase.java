@@ -3,15 +3,15 @@ package co.com.bancolombia.ecs.infra.config.managementid.application;
 import co.com.bancolombia.ecs.helpers.DataSanitizer;
 import co.com.bancolombia.ecs.infra.config.managementid.domain.MessageIdRequestProperties;
 import co.com.bancolombia.ecs.infra.shared.common.domain.ContextECS;
+import co.com.bancolombia.ecs.model.messageid.MessageIdGenerators;
 import lombok.extern.log4j.Log4j2;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
+import java.util.function.Supplier;
 
 @Log4j2
 public class MessageIdMngUseCase {
@@ -62,7 +62,7 @@ public class MessageIdMngUseCase {
         if (Boolean.TRUE.equals(enabledFlag)) {
             return Optional.ofNullable(incomingHeaderValue)
                     .filter(Predicate.not(String::isBlank))
-                    .orElseGet(() -> UUID.randomUUID().toString());
+                    .orElseGet(MessageIdGenerators::nextId);
         }
         return (incomingHeaderValue != null && !incomingHeaderValue.isBlank())
                 ? incomingHeaderValue
@@ -78,13 +78,17 @@ public class MessageIdMngUseCase {
      * </ul>
      */
     public static String resolveForException(String metaInfoMessageId) {
-        String contextMessageId = MessageIdMngUseCase.getFromContext().orElse(null);
-        String resolved = Stream.of(contextMessageId, metaInfoMessageId)
-                .filter(s -> s != null && !s.isBlank())
-                .findFirst()
-                .orElse(null);
-        return (resolved != null) ? resolved:
-                UUID.randomUUID().toString();
+        return resolveForExceptionFrom(() -> metaInfoMessageId);
+    }
+
+    /**
+     * Igual que {@link #resolveForException(String)}, pero el messageId de la excepción solo se
+     * consulta cuando el contexto no tiene uno, de modo que no se genera un id que se descartaría.
+     */
+    public static String resolveForExceptionFrom(Supplier<String> metaInfoMessageId) {
+        return MessageIdMngUseCase.getFromContext()
+                .or(() -> Optional.ofNullable(metaInfoMessageId.get()).filter(Predicate.not(String::isBlank)))
+                .orElseGet(MessageIdGenerators::nextId);
     }
 
 
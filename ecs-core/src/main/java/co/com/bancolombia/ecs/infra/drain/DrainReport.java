@@ -0,0 +1,17 @@
+package co.com.bancolombia.ecs.infra.drain;
+
+/**
+ * Outcome of draining one or more {@link LogBuffer}s.
+ *
+ * @param flushed   Records written while draining.
+ * @param dropped   Records discarded while draining, or still buffered at the deadline.
+ * @param completed {@code false} when some buffer was still draining at the deadline.
+ */
+public record DrainReport(long flushed, long dropped, boolean completed) {
+
+    public static final DrainReport EMPTY = new DrainReport(0, 0, true);
+
+    public DrainReport plus(DrainReport other) {
+        return new DrainReport(flushed + other.flushed, dropped + other.dropped, completed && other.completed);
+    }
+}
@@ -0,0 +1,20 @@
+package co.com.bancolombia.ecs.infra.drain;
+
+/**
+ * Order in which {@link LogBuffer}s are drained on shutdown: each stage feeds the next one, so
+ * the records it flushes are not lost in a buffer that is already closed.
+ */
+public enum DrainStage {
+    /**
+     * Request logs still being built off the request thread.
+     */
+    REQUESTS,
+    /**
+     * Records queued for asynchronous output.
+     */
+    DISPATCH,
+    /**
+     * Records buffered by the output itself, such as a network sink.
+     */
+    OUTPUT
+}
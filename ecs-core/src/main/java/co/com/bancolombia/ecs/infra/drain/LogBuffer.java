@@ -0,0 +1,26 @@
+package co.com.bancolombia.ecs.infra.drain;
+
+/**
+ * A component that holds log records in memory before they are written, and must be drained
+ * when the application stops.
+ */
+public interface LogBuffer extends AutoCloseable {
+
+    DrainStage getDrainStage();
+
+    /**
+     * @return Records held in memory and not written yet.
+     */
+    long getBufferedRecords();
+
+    /**
+     * @return Records discarded since the buffer was created.
+     */
+    long getDroppedRecords();
+
+    /**
+     * Stops taking records and writes the buffered ones. Calling it again has no effect.
+     */
+    @Override
+    void close();
+}
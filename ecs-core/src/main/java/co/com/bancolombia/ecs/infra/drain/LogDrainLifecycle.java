@@ -0,0 +1,119 @@
+package co.com.bancolombia.ecs.infra.drain;
+
+import co.com.bancolombia.ecs.application.LoggerEcs;
+import co.com.bancolombia.ecs.infra.async.AsyncLogDispatcher;
+import co.com.bancolombia.ecs.infra.sink.EcsRecordSink;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains every buffer of log records when the application stops, after the web server has
+ * stopped taking requests and before the beans are destroyed, so the last records before a pod
+ * terminates are written.
+ * <p>
+ * The buffers are drained stage by stage, in the order of the {@link DrainStage} each one reports,
+ * the buffers of one stage in parallel, all within {@code timeoutMillis}. The dispatcher and the
+ * sink of {@link LoggerEcs} are drained with the others, and are detached right before their stage
+ * is drained, so records logged from then on are printed through Log4j2 instead of being lost.
+ */
+@Log4j2
+public class LogDrainLifecycle implements SmartLifecycle {
+
+    /**
+     * Below the phases of the web server, so the buffers are drained once requests have stopped.
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final boolean enabled;
+    private final long timeoutMillis;
+    private final List<? extends LogBuffer> buffers;
+    private volatile boolean running;
+    private volatile DrainReport lastReport;
+
+    /**
+     * @param enabled        Whether the buffers are drained; when not, they are only closed with the beans.
+     * @param timeoutMillis  Longest time spent draining.
+     * @param buffers       Buffers owned by the caller, drained in the stage each one reports.
+     */
+    public LogDrainLifecycle(boolean enabled, long timeoutMillis, List<? extends LogBuffer> buffers) {
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid drain configuration: timeout-ms [%d] must be greater than zero", timeoutMillis));
+        }
+        this.enabled = enabled;
+        this.timeoutMillis = timeoutMillis;
+        this.buffers = List.copyOf(buffers);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        AsyncLogDispatcher dispatcher = LoggerEcs.getDispatcher();
+        EcsRecordSink sink = LoggerEcs.getSink();
+        Map<DrainStage, List<LogBuffer>> stages = new EnumMap<>(DrainStage.class);
+        buffers.forEach(buffer -> addToStage(stages, buffer));
+        addToStage(stages, dispatcher);
+        addToStage(stages, sink);
+
+        DrainReport report = DrainReport.EMPTY;
+        for (List<LogBuffer> stage : stages.values()) {
+            if (dispatcher != null && stage.contains(dispatcher)) {
+                LoggerEcs.setDispatcher(null);
+            }
+            if (sink != null && stage.contains(sink)) {
+                LoggerEcs.setSink(null);
+            }
+            report = report.plus(LogDrainer.drain(stage, deadline));
+        }
+
+        lastReport = report;
+        log.info("Log buffers drained in {} ms: {} records flushed, {} dropped{}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), report.flushed(), report.dropped(),
+                report.completed() ? "" : ", deadline reached");
+    }
+
+    private static void addToStage(Map<DrainStage, List<LogBuffer>> stages, LogBuffer buffer) {
+        if (buffer != null) {
+            stages.computeIfAbsent(buffer.getDrainStage(), stage -> new ArrayList<>()).add(buffer);
+        }
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * @return The outcome of the last drain, or {@code null} while the application is running.
+     */
+    public DrainReport getLastReport() {
+        return lastReport;
+    }
+}
@@ -0,0 +1,73 @@
+package co.com.bancolombia.ecs.infra.drain;
+
+import lombok.extern.log4j.Log4j2;
+import lombok.experimental.UtilityClass;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Closes {@link LogBuffer}s in parallel, each on its own virtual thread, and waits for them
+ * until a deadline. A buffer still draining at the deadline is left running and its records are
+ * reported as dropped.
+ */
+@Log4j2
+@UtilityClass
+public class LogDrainer {
+
+    private static final String THREAD_NAME_PREFIX = "ecs-log-drain-";
+
+    /**
+     * @param buffers       The buffers to close.
+     * @param deadlineNanos {@link System#nanoTime()} by which the buffers must be drained.
+     * @return How many records were flushed and dropped.
+     */
+    public static DrainReport drain(Collection<? extends LogBuffer> buffers, long deadlineNanos) {
+        List<Draining> drains = new ArrayList<>(buffers.size());
+        for (LogBuffer buffer : buffers) {
+            long buffered = buffer.getBufferedRecords();
+            long dropped = buffer.getDroppedRecords();
+            Thread thread = Thread.ofVirtual()
+                    .name(THREAD_NAME_PREFIX + buffer.getClass().getSimpleName())
+                    .start(() -> close(buffer));
+            drains.add(new Draining(buffer, thread, buffered, dropped));
+        }
+        DrainReport report = DrainReport.EMPTY;
+        for (Draining draining : drains) {
+            report = report.plus(await(draining, deadlineNanos));
+        }
+        return report;
+    }
+
+    private static void close(LogBuffer buffer) {
+        try {
+            buffer.close();
+        } catch (RuntimeException ex) {
+            log.warn("Unable to drain {}: {}", buffer.getClass().getSimpleName(), ex.toString());
+        }
+    }
+
+    private static DrainReport await(Draining draining, long deadlineNanos) {
+        boolean completed;
+        try {
+            completed = draining.thread().join(Duration.ofNanos(Math.max(deadlineNanos - System.nanoTime(), 0)));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            completed = false;
+        }
+        LogBuffer buffer = draining.buffer();
+        long dropped = buffer.getDroppedRecords() - draining.droppedBefore();
+        long remaining = completed ? 0 : buffer.getBufferedRecords();
+        long flushed = Math.max(draining.bufferedBefore() - remaining - dropped, 0);
+        if (!completed) {
+            log.warn("{} was still draining {} records at the deadline", buffer.getClass().getSimpleName(),
+                    remaining);
+        }
+        return new DrainReport(flushed, dropped + remaining, completed);
+    }
+
+    private record Draining(LogBuffer buffer, Thread thread, long bufferedBefore, long droppedBefore) {
+    }
+}
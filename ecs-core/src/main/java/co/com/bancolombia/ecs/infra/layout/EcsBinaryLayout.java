@@ -0,0 +1,97 @@
+package co.com.bancolombia.ecs.infra.layout;
+
+import co.com.bancolombia.ecs.helpers.BinaryEncoding;
+import co.com.bancolombia.ecs.helpers.LogRecordSerializer;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.layout.AbstractLayout;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.message.Message;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Locale;
+
+/**
+ * Log4j2 layout that writes each ECS record as a binary document (CBOR or Smile), for appenders
+ * that ship logs to a local agent. Records logged through {@link EcsLogMessage} are serialized
+ * directly into the appender's {@link ByteBufferDestination}; any other message is written as a
+ * document with its text. Records are written back to back, see {@code LogRecordDecoder}.
+ *
+ * <pre>
+ * appender.socket.layout.type=EcsBinaryLayout
+ * appender.socket.layout.encoding=SMILE
+ * </pre>
+ */
+@Plugin(name = EcsBinaryLayout.PLUGIN_NAME, category = Node.CATEGORY,
+        elementType = Layout.ELEMENT_TYPE, printObject = true)
+public final class EcsBinaryLayout extends AbstractLayout<byte[]> {
+
+    public static final String PLUGIN_NAME = "EcsBinaryLayout";
+
+    private static final LogRecordSerializer.SliceWriter<ByteBufferDestination> DESTINATION_WRITER =
+            EcsBinaryLayout::writeRecord;
+    private static final LogRecordSerializer.SliceWriter<ByteArrayOutputStream> ARRAY_WRITER =
+            ByteArrayOutputStream::write;
+
+    private final BinaryEncoding encoding;
+
+    private EcsBinaryLayout(BinaryEncoding encoding) {
+        super(null, null, null);
+        this.encoding = encoding;
+    }
+
+    /**
+     * @param encoding {@code CBOR} or {@code SMILE}, case-insensitive.
+     * @return The layout.
+     */
+    @PluginFactory
+    public static EcsBinaryLayout createLayout(
+            @PluginAttribute(value = "encoding", defaultString = "CBOR") String encoding) {
+        return new EcsBinaryLayout(BinaryEncoding.valueOf(encoding.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    public BinaryEncoding getEncoding() {
+        return encoding;
+    }
+
+    @Override
+    public byte[] toByteArray(LogEvent event) {
+        var output = new ByteArrayOutputStream();
+        write(event.getMessage(), output, ARRAY_WRITER);
+        return output.toByteArray();
+    }
+
+    @Override
+    public byte[] toSerializable(LogEvent event) {
+        return toByteArray(event);
+    }
+
+    @Override
+    public String getContentType() {
+        return encoding.getContentType();
+    }
+
+    @Override
+    public void encode(LogEvent event, ByteBufferDestination destination) {
+        write(event.getMessage(), destination, DESTINATION_WRITER);
+    }
+
+    private <T> void write(Message message, T target, LogRecordSerializer.SliceWriter<T> sliceWriter) {
+        if (message instanceof EcsLogMessage ecsMessage && !ecsMessage.isRendered()) {
+            LogRecordSerializer.writeBinary(ecsMessage.getLogRecord(), encoding, target, sliceWriter);
+        } else {
+            LogRecordSerializer.writeBinary(message.getFormattedMessage(), encoding, target, sliceWriter);
+        }
+    }
+
+    private static void writeRecord(ByteBufferDestination destination, byte[] buffer, int offset, int length) {
+        // Same monitor used by the Log4j2 encoders, so records of concurrent threads are not interleaved.
+        synchronized (destination) {
+            destination.writeBytes(buffer, offset, length);
+        }
+    }
+}
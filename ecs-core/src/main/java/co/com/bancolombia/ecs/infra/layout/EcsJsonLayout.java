@@ -0,0 +1,79 @@
+package co.com.bancolombia.ecs.infra.layout;
+
+import co.com.bancolombia.ecs.helpers.LogRecordSerializer;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.layout.AbstractStringLayout;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Log4j2 layout that prints one ECS record per line (NDJSON).
+ * Records logged through {@link EcsLogMessage} are serialized as UTF-8 directly into the
+ * appender's {@link ByteBufferDestination}; any other message is printed as its formatted text.
+ *
+ * <pre>
+ * appender.console.layout.type=EcsJsonLayout
+ * </pre>
+ */
+@Plugin(name = EcsJsonLayout.PLUGIN_NAME, category = Node.CATEGORY,
+        elementType = Layout.ELEMENT_TYPE, printObject = true)
+public final class EcsJsonLayout extends AbstractStringLayout {
+
+    public static final String PLUGIN_NAME = "EcsJsonLayout";
+
+    private static final char LINE_SEPARATOR = '\n';
+    private static final byte[] LINE_SEPARATOR_BYTES = {(byte) LINE_SEPARATOR};
+    private static final LogRecordSerializer.SliceWriter<ByteBufferDestination> DESTINATION_WRITER =
+            EcsJsonLayout::writeLine;
+
+    private EcsJsonLayout() {
+        super(StandardCharsets.UTF_8);
+    }
+
+    @PluginFactory
+    public static EcsJsonLayout createLayout() {
+        return new EcsJsonLayout();
+    }
+
+    @Override
+    public String toSerializable(LogEvent event) {
+        StringBuilder text = getStringBuilder();
+        appendMessage(event.getMessage(), text);
+        return text.toString();
+    }
+
+    @Override
+    public void encode(LogEvent event, ByteBufferDestination destination) {
+        if (event.getMessage() instanceof EcsLogMessage message && !message.isRendered()) {
+            LogRecordSerializer.writeJson(message.getLogRecord(), destination, DESTINATION_WRITER);
+            return;
+        }
+        StringBuilder text = getStringBuilder();
+        appendMessage(event.getMessage(), text);
+        getStringBuilderEncoder().encode(text, destination);
+    }
+
+    private static void appendMessage(Message message, StringBuilder text) {
+        if (message instanceof StringBuilderFormattable formattable) {
+            formattable.formatTo(text);
+        } else {
+            text.append(message.getFormattedMessage());
+        }
+        text.append(LINE_SEPARATOR);
+    }
+
+    private static void writeLine(ByteBufferDestination destination, byte[] buffer, int offset, int length) {
+        // Same monitor used by the Log4j2 encoders, so the record and its separator are not interleaved.
+        synchronized (destination) {
+            destination.writeBytes(buffer, offset, length);
+            destination.writeBytes(LINE_SEPARATOR_BYTES, 0, LINE_SEPARATOR_BYTES.length);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package co.com.bancolombia.ecs.infra.layout;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.helpers.LogRecordSerializer;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+
+/**
+ * Log4j2 {@link Message} that carries a {@link LogRecord} instead of its JSON text.
+ * The record is only serialized when an appender needs it: {@link EcsJsonLayout} writes it
+ * straight into the appender buffer and {@code %msg} in a {@code PatternLayout} appends it
+ * to the layout builder, so no intermediate {@link String} is created on either path.
+ * <p>
+ * The record is mutable, so the message is a {@link ReusableMessage}: the reusable events of
+ * Log4j2's garbage-free mode and of asynchronous loggers copy it with {@link #formatTo(StringBuilder)}
+ * into their own buffers on the logging thread, and appenders that keep the event take a
+ * {@link #memento()}. {@code LoggerEcs} fills one message per thread and releases it once logged.
+ */
+public final class EcsLogMessage implements ReusableMessage {
+
+    private static final Object[] NO_PARAMETERS = new Object[0];
+    private static final ThreadLocal<EcsLogMessage> REUSABLE = ThreadLocal.withInitial(EcsLogMessage::new);
+
+    private transient LogRecord<?, ?> logRecord;
+    private transient LogRecord<?, ?> sourceRecord;
+    private String json;
+    private boolean reserved;
+
+    private EcsLogMessage() {
+    }
+
+    private EcsLogMessage(LogRecord<?, ?> logRecord, LogRecord<?, ?> sourceRecord, String json) {
+        this.logRecord = logRecord;
+        this.sourceRecord = sourceRecord;
+        this.json = json;
+    }
+
+    /**
+     * Creates a message that serializes the record lazily.
+     *
+     * @param logRecord The record to log.
+     * @return The message wrapping the record.
+     */
+    public static EcsLogMessage of(LogRecord<?, ?> logRecord) {
+        return new EcsLogMessage(logRecord, null, null);
+    }
+
+    /**
+     * Creates a message from a JSON document that was already rendered, for example
+     * after the sensitive data rules were applied.
+     *
+     * @param json The rendered JSON document.
+     * @return The message wrapping the document.
+     */
+    public static EcsLogMessage ofJson(String json) {
+        return new EcsLogMessage(null, null, json);
+    }
+
+    /**
+     * Creates a message from the JSON document the sensitive data rules rendered, keeping the
+     * record it was rendered from for sinks that apply the rules themselves.
+     *
+     * @param sourceRecord The record before the sensitive data rules.
+     * @param json         The rendered JSON document.
+     * @return The message wrapping the document.
+     */
+    public static EcsLogMessage ofMasked(LogRecord<?, ?> sourceRecord, String json) {
+        return new EcsLogMessage(null, sourceRecord, json);
+    }
+
+    /**
+     * Fills the message of the current thread with a record, as {@link #of(LogRecord)} would. A new
+     * message is created instead while the one of the thread is still being logged up the stack.
+     *
+     * @param logRecord The record to log.
+     * @return The message wrapping the record, to be given back with {@link #release()}.
+     */
+    public static EcsLogMessage reusable(LogRecord<?, ?> logRecord) {
+        return reserve(logRecord, null, null);
+    }
+
+    /**
+     * Fills the message of the current thread with a masked document, as
+     * {@link #ofMasked(LogRecord, String)} would.
+     *
+     * @param sourceRecord The record before the sensitive data rules.
+     * @param json         The rendered JSON document.
+     * @return The message wrapping the document, to be given back with {@link #release()}.
+     */
+    public static EcsLogMessage reusableMasked(LogRecord<?, ?> sourceRecord, String json) {
+        return reserve(null, sourceRecord, json);
+    }
+
+    private static EcsLogMessage reserve(LogRecord<?, ?> logRecord, LogRecord<?, ?> sourceRecord, String json) {
+        EcsLogMessage message = REUSABLE.get();
+        if (message.reserved) {
+            return new EcsLogMessage(logRecord, sourceRecord, json);
+        }
+        message.reserved = true;
+        message.logRecord = logRecord;
+        message.sourceRecord = sourceRecord;
+        message.json = json;
+        return message;
+    }
+
+    /**
+     * Drops the record of a message obtained from {@link #reusable(LogRecord)} or
+     * {@link #reusableMasked(LogRecord, String)}, so the thread can fill it again. Other messages
+     * are left as they are.
+     */
+    public void release() {
+        if (reserved) {
+            logRecord = null;
+            sourceRecord = null;
+            json = null;
+            reserved = false;
+        }
+    }
+
+    /**
+     * @return The wrapped record, or {@code null} when the message was built from rendered JSON.
+     */
+    public LogRecord<?, ?> getLogRecord() {
+        return logRecord;
+    }
+
+    /**
+     * @return The record a masked message was rendered from, before the sensitive data rules, or
+     * {@code null} for other messages. Its values must not be written without applying the rules.
+     */
+    public LogRecord<?, ?> getSourceRecord() {
+        return sourceRecord;
+    }
+
+    /**
+     * @return {@code true} when the JSON text is already available and no serialization is needed.
+     */
+    public boolean isRendered() {
+        return json != null;
+    }
+
+    @Override
+    public String getFormattedMessage() {
+        if (json == null) {
+            json = LogRecordSerializer.toJson(logRecord);
+        }
+        return json;
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        if (json != null) {
+            buffer.append(json);
+        } else {
+            LogRecordSerializer.appendJson(logRecord, buffer);
+        }
+    }
+
+    /**
+     * @return The rendered JSON document, or {@code null} while the record was not serialized, so
+     * Log4j2 does not build the text of a record it copies with {@link #formatTo(StringBuilder)}.
+     */
+    @Override
+    public String getFormat() {
+        return json;
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return NO_PARAMETERS;
+    }
+
+    @Override
+    public Object[] swapParameters(Object[] emptyReplacement) {
+        return emptyReplacement;
+    }
+
+    @Override
+    public short getParameterCount() {
+        return 0;
+    }
+
+    /**
+     * @return A message with the JSON text of the record, which stays valid after the record or
+     * this message are reused.
+     */
+    @Override
+    public Message memento() {
+        return ofJson(getFormattedMessage());
+    }
+
+    @Override
+    public Throwable getThrowable() {
+        return null;
+    }
+}
@@ -0,0 +1,214 @@
+package co.com.bancolombia.ecs.infra.overload;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.infra.async.AsyncLogDispatcher;
+import lombok.Builder;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Sheds log output step by step when the output cannot keep up, so a slow stdout pipe or agent
+ * does not turn into request latency.
+ * <p>
+ * The pressure is the highest of two ratios: the moving average of the time spent writing a
+ * record over {@code latencyThresholdMicros}, and the fill of the asynchronous queue over
+ * {@code queueThreshold}. It is evaluated on the logging threads at most once per
+ * {@code evaluationIntervalMillis}: above 1 the {@link ShedLevel} goes up one step, below
+ * {@code recoveryRatio} it goes down one step, so the controller recovers by itself once the
+ * pressure drops. The average decays while nothing is written, and ERROR and FATAL records are
+ * never shed.
+ */
+@Log4j2
+public final class OverloadController {
+
+    // Weight of each new sample in the moving average, as a right shift: 1/8
+    private static final int AVERAGE_SHIFT = 3;
+    private static final ShedLevel[] LEVELS = ShedLevel.values();
+
+    private final long latencyThresholdNanos;
+    private final double queueThreshold;
+    private final double recoveryRatio;
+    private final long evaluationIntervalNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong averageLatencyNanos = new AtomicLong();
+    private final AtomicLong latencySamples = new AtomicLong();
+    private final AtomicLong nextEvaluationNanos;
+    private final AtomicLong shedResponseBodies = new AtomicLong();
+    private final AtomicLong shedRequestBodies = new AtomicLong();
+    private final AtomicLong shedRecords = new AtomicLong();
+    private final AtomicLong escalations = new AtomicLong();
+    private final AtomicLong recoveries = new AtomicLong();
+
+    private volatile ShedLevel level = ShedLevel.NONE;
+    private volatile long evaluatedSamples;
+
+    /**
+     * When the output is considered under pressure.
+     *
+     * @param latencyThresholdMicros   Average time to write a record above which load is shed.
+     * @param queueThreshold           Fill of the asynchronous queue, from 0 to 1, above which load is shed.
+     * @param recoveryRatio            Fraction of the thresholds below which shedding is relaxed.
+     * @param evaluationIntervalMillis Time between two changes of level.
+     */
+    @Builder
+    public record Settings(long latencyThresholdMicros, double queueThreshold, double recoveryRatio,
+                           long evaluationIntervalMillis) {
+    }
+
+    public OverloadController(Settings settings) {
+        this(settings, System::nanoTime);
+    }
+
+    OverloadController(Settings settings, LongSupplier nanoClock) {
+        if (settings.latencyThresholdMicros() < 1 || settings.queueThreshold() <= 0
+                || settings.queueThreshold() > 1 || settings.recoveryRatio() <= 0 || settings.recoveryRatio() >= 1
+                || settings.evaluationIntervalMillis() < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid overload configuration: latency-threshold-micros [%d] and evaluation-interval-ms [%d] " +
+                            "must be greater than zero, queue-threshold [%s] must be in (0, 1] and " +
+                            "recovery-ratio [%s] in (0, 1)", settings.latencyThresholdMicros(),
+                    settings.evaluationIntervalMillis(), settings.queueThreshold(), settings.recoveryRatio()));
+        }
+        this.latencyThresholdNanos = TimeUnit.MICROSECONDS.toNanos(settings.latencyThresholdMicros());
+        this.queueThreshold = settings.queueThreshold();
+        this.recoveryRatio = settings.recoveryRatio();
+        this.evaluationIntervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.evaluationIntervalMillis());
+        this.nanoClock = nanoClock;
+        this.nextEvaluationNanos = new AtomicLong(nanoClock.getAsLong() + evaluationIntervalNanos);
+    }
+
+    /**
+     * Applies the current level to a record before it is printed or queued.
+     *
+     * @param logRecord  The record; its bodies are removed when they are shed.
+     * @param dispatcher The asynchronous dispatcher, or {@code null} when records are printed inline.
+     * @return {@code false} when the whole record is shed.
+     */
+    public boolean admit(LogRecord<String, String> logRecord, AsyncLogDispatcher dispatcher) {
+        evaluateIfDue(dispatcher);
+        ShedLevel current = level;
+        if (current == ShedLevel.NONE || isCritical(logRecord)) {
+            return true;
+        }
+        if (current == ShedLevel.INFO_RECORDS && isShedable(logRecord)) {
+            shedRecords.incrementAndGet();
+            return false;
+        }
+        LogRecord.AdditionalInfo<String, String> info = logRecord.getAdditionalInfo();
+        if (info != null) {
+            if (info.getResponseBody() != null || info.getRawResponseBody() != null) {
+                info.setResponseBody(null);
+                info.setRawResponseBody(null);
+                shedResponseBodies.incrementAndGet();
+            }
+            if (current.compareTo(ShedLevel.REQUEST_BODY) >= 0
+                    && (info.getRequestBody() != null || info.getRawRequestBody() != null)) {
+                info.setRequestBody(null);
+                info.setRawRequestBody(null);
+                shedRequestBodies.incrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records the time it took to write one record to the output.
+     *
+     * @param nanos The elapsed time.
+     */
+    public void recordLatency(long nanos) {
+        latencySamples.incrementAndGet();
+        averageLatencyNanos.accumulateAndGet(nanos,
+                (average, sample) -> average + ((sample - average) >> AVERAGE_SHIFT));
+    }
+
+    public ShedLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * @return Moving average of the time to write a record, in nanoseconds.
+     */
+    public long getAverageLatencyNanos() {
+        return averageLatencyNanos.get();
+    }
+
+    /**
+     * @return Records whose response body was removed.
+     */
+    public long getShedResponseBodies() {
+        return shedResponseBodies.get();
+    }
+
+    /**
+     * @return Records whose request body was removed.
+     */
+    public long getShedRequestBodies() {
+        return shedRequestBodies.get();
+    }
+
+    /**
+     * @return DEBUG and INFO records discarded.
+     */
+    public long getShedRecords() {
+        return shedRecords.get();
+    }
+
+    /**
+     * @return Times the level went up.
+     */
+    public long getEscalations() {
+        return escalations.get();
+    }
+
+    /**
+     * @return Times the level went down.
+     */
+    public long getRecoveries() {
+        return recoveries.get();
+    }
+
+    private void evaluateIfDue(AsyncLogDispatcher dispatcher) {
+        long now = nanoClock.getAsLong();
+        long next = nextEvaluationNanos.get();
+        // Only the thread that moves the deadline evaluates
+        if (now - next < 0 || !nextEvaluationNanos.compareAndSet(next, now + evaluationIntervalNanos)) {
+            return;
+        }
+        long samples = latencySamples.get();
+        if (samples == evaluatedSamples) {
+            // Nothing was written since the last evaluation: let the average decay
+            averageLatencyNanos.updateAndGet(average -> average >> 1);
+        }
+        evaluatedSamples = samples;
+        double pressure = (double) averageLatencyNanos.get() / latencyThresholdNanos;
+        if (dispatcher != null) {
+            pressure = Math.max(pressure,
+                    (double) dispatcher.getQueueSize() / dispatcher.getQueueCapacity() / queueThreshold);
+        }
+        ShedLevel current = level;
+        if (pressure > 1 && current.ordinal() < LEVELS.length - 1) {
+            changeLevel(LEVELS[current.ordinal() + 1], pressure);
+            escalations.incrementAndGet();
+        } else if (pressure < recoveryRatio && current != ShedLevel.NONE) {
+            changeLevel(LEVELS[current.ordinal() - 1], pressure);
+            recoveries.incrementAndGet();
+        }
+    }
+
+    private void changeLevel(ShedLevel next, double pressure) {
+        log.debug("Log output pressure {}: shedding {}", pressure, next);
+        level = next;
+    }
+
+    private static boolean isCritical(LogRecord<String, String> logRecord) {
+        return logRecord.getLevel() == LogRecord.Level.ERROR || logRecord.getLevel() == LogRecord.Level.FATAL;
+    }
+
+    private static boolean isShedable(LogRecord<String, String> logRecord) {
+        return logRecord.getLevel() == LogRecord.Level.INFO || logRecord.getLevel() == LogRecord.Level.DEBUG;
+    }
+}
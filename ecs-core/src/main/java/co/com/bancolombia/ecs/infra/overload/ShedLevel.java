@@ -0,0 +1,12 @@
+package co.com.bancolombia.ecs.infra.overload;
+
+/**
+ * What {@link OverloadController} removes from the records, from no shedding to the most
+ * aggressive step. Each step also applies the ones before it.
+ */
+public enum ShedLevel {
+    NONE,
+    RESPONSE_BODY,
+    REQUEST_BODY,
+    INFO_RECORDS
+}
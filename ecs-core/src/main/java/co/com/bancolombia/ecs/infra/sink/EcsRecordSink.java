@@ -0,0 +1,31 @@
+package co.com.bancolombia.ecs.infra.sink;
+
+import co.com.bancolombia.ecs.infra.drain.DrainStage;
+import co.com.bancolombia.ecs.infra.drain.LogBuffer;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+
+/**
+ * Destination that receives the records of {@code LoggerEcs} instead of Log4j2.
+ */
+public interface EcsRecordSink extends LogBuffer {
+
+    /**
+     * Writes one record. Must not block the caller for long, it runs on the request thread
+     * unless asynchronous output is enabled. The message is reused once the call returns, so it must
+     * not be kept.
+     *
+     * @param message The record or its already rendered JSON.
+     */
+    void write(EcsLogMessage message);
+
+    @Override
+    default DrainStage getDrainStage() {
+        return DrainStage.OUTPUT;
+    }
+
+    /**
+     * Writes what is still buffered and releases the resources of the sink.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,469 @@
+package co.com.bancolombia.ecs.infra.sink;
+
+import co.com.bancolombia.ecs.helpers.LogRecordSerializer;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Builder;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Indexes records straight into Elasticsearch through its {@code _bulk} API, without going
+ * through stdout and a collector.
+ * <p>
+ * Callers only copy the serialized record into a buffer bounded by bytes; when it is full the
+ * record is discarded and counted. A single daemon thread gathers the records into batches of up
+ * to {@code batchBytes}, waiting at most {@code lingerMillis} after the oldest one, and posts them
+ * with the JDK {@link HttpClient}, optionally gzip compressed, with at most {@code maxConcurrency}
+ * requests in flight. Requests answered with 429 or 5xx, or that fail to connect, are retried
+ * after an exponential backoff with full jitter, and so are the single documents Elasticsearch
+ * rejects with those statuses. A {@link CircuitBreaker} stops calling the cluster after repeated
+ * failures; while it is open, and for the documents that could not be indexed, the records are
+ * written to stdout instead so they are not lost.
+ */
+@Log4j2
+public final class ElasticBulkSink implements EcsRecordSink {
+
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final byte[] CREATE_ACTION = "{\"create\":{}}\n".getBytes(StandardCharsets.UTF_8);
+    private static final String CONTENT_TYPE = "application/x-ndjson";
+    private static final String THREAD_NAME = "ecs-log-elastic-bulk";
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final LogRecordSerializer.SliceWriter<ElasticBulkSink> RECORD_WRITER = ElasticBulkSink::enqueue;
+
+    private final Settings settings;
+    private final URI bulkUri;
+    private final long lingerNanos;
+    private final HttpClient client;
+    private final OutputStream fallback;
+    private final CircuitBreaker breaker;
+    private final Semaphore inFlight;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition ready = lock.newCondition();
+    private final ArrayDeque<byte[]> pending = new ArrayDeque<>();
+    private final Thread dispatcher;
+    private final AtomicLong indexedRecords = new AtomicLong();
+    private final AtomicLong fallbackRecords = new AtomicLong();
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+
+    private int pendingBytes;
+    private long oldestNanos;
+    private boolean closed;
+
+    /**
+     * Where and how the records are indexed.
+     *
+     * @param url                  Base URL of the cluster, e.g. {@code http://localhost:9200}.
+     * @param index                Index or data stream the records are created in.
+     * @param authorization        Value of the {@code Authorization} header, e.g. {@code ApiKey ...}; optional.
+     * @param gzip                 Whether request bodies are gzip compressed.
+     * @param bufferBytes          Bytes of records kept in memory while they wait to be indexed.
+     * @param batchBytes           Size of the documents that triggers a bulk request.
+     * @param lingerMillis         Longest time a record waits for its batch to fill up.
+     * @param maxConcurrency       Bulk requests in flight at the same time, retries included.
+     * @param maxRetries           Attempts after the first one before the batch goes to stdout.
+     * @param initialBackoffMillis Upper bound of the wait before the first retry.
+     * @param maxBackoffMillis     Upper bound of the wait before any retry.
+     * @param failureThreshold     Consecutive failed requests that open the circuit.
+     * @param openMillis           Time the circuit stays open before a trial request.
+     * @param requestTimeoutMillis Longest time to connect or to wait for a response.
+     */
+    @Builder
+    public record Settings(String url, String index, String authorization, boolean gzip, int bufferBytes,
+                           int batchBytes, long lingerMillis, int maxConcurrency, int maxRetries,
+                           long initialBackoffMillis, long maxBackoffMillis, int failureThreshold,
+                           long openMillis, long requestTimeoutMillis) {
+    }
+
+    public ElasticBulkSink(Settings settings) {
+        this(settings, new FileOutputStream(FileDescriptor.out));
+    }
+
+    /**
+     * @param settings Where and how the records are indexed.
+     * @param fallback Receives, as NDJSON, the records that could not be indexed.
+     */
+    public ElasticBulkSink(Settings settings, OutputStream fallback) {
+        if (settings.bufferBytes() < 1 || settings.batchBytes() < 1 || settings.lingerMillis() < 1
+                || settings.maxConcurrency() < 1 || settings.maxRetries() < 0 || settings.initialBackoffMillis() < 1
+                || settings.maxBackoffMillis() < 1 || settings.requestTimeoutMillis() < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid elasticsearch sink configuration: buffer-bytes [%d], batch-bytes [%d], linger-ms [%d], " +
+                            "max-concurrency [%d], initial-backoff-ms [%d], max-backoff-ms [%d] and " +
+                            "request-timeout-ms [%d] must be greater than zero and max-retries [%d] must not be " +
+                            "negative", settings.bufferBytes(), settings.batchBytes(), settings.lingerMillis(),
+                    settings.maxConcurrency(), settings.initialBackoffMillis(), settings.maxBackoffMillis(),
+                    settings.requestTimeoutMillis(), settings.maxRetries()));
+        }
+        this.settings = settings;
+        this.bulkUri = URI.create(stripTrailingSlash(settings.url()) + "/" + settings.index() + "/_bulk");
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(settings.lingerMillis());
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(settings.requestTimeoutMillis()))
+                .build();
+        this.fallback = fallback;
+        this.breaker = new CircuitBreaker(settings.failureThreshold(), settings.openMillis());
+        this.inFlight = new Semaphore(settings.maxConcurrency());
+        this.dispatcher = new Thread(this::run, THREAD_NAME);
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public void write(EcsLogMessage message) {
+        if (message.isRendered()) {
+            byte[] json = message.getFormattedMessage().getBytes(StandardCharsets.UTF_8);
+            enqueue(json, 0, json.length);
+        } else {
+            LogRecordSerializer.writeJson(message.getLogRecord(), this, RECORD_WRITER);
+        }
+    }
+
+    /**
+     * Copies one serialized record into the buffer, or discards it when the buffer is full.
+     *
+     * @param buffer Holds the record.
+     * @param offset Start of the record in the buffer.
+     * @param length Length of the record.
+     */
+    public void enqueue(byte[] buffer, int offset, int length) {
+        int size = length + 1;
+        byte[] line = Arrays.copyOfRange(buffer, offset, offset + size);
+        line[length] = LINE_SEPARATOR;
+        lock.lock();
+        try {
+            if (closed || pendingBytes + size > settings.bufferBytes()) {
+                droppedRecords.incrementAndGet();
+                return;
+            }
+            if (pending.isEmpty()) {
+                oldestNanos = System.nanoTime();
+            }
+            pending.add(line);
+            pendingBytes += size;
+            if (pending.size() == 1 || pendingBytes >= settings.batchBytes()) {
+                ready.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Records Elasticsearch acknowledged.
+     */
+    public long getIndexedRecords() {
+        return indexedRecords.get();
+    }
+
+    /**
+     * @return Records written to stdout because they could not be indexed.
+     */
+    public long getFallbackRecords() {
+        return fallbackRecords.get();
+    }
+
+    /**
+     * @return Records discarded because the buffer was full.
+     */
+    @Override
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    /**
+     * @return Records waiting to be posted.
+     */
+    @Override
+    public long getBufferedRecords() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Bulk requests that failed to connect or were answered with an error status.
+     */
+    public long getFailedRequests() {
+        return failedRequests.get();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return breaker.getState();
+    }
+
+    /**
+     * @return Bytes waiting to be indexed.
+     */
+    public int getPendingBytes() {
+        lock.lock();
+        try {
+            return pendingBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Posts the buffered records and waits for the requests in flight and their retries. Whatever
+     * is still buffered after a few seconds is written to stdout, and the HTTP client is closed.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            ready.signal();
+        } finally {
+            lock.unlock();
+        }
+        boolean idle = false;
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_TIMEOUT_MILLIS);
+            dispatcher.join(SHUTDOWN_TIMEOUT_MILLIS);
+            long remaining = deadline - System.nanoTime();
+            idle = inFlight.tryAcquire(settings.maxConcurrency(), Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+            if (!idle) {
+                log.warn("Elasticsearch sink stopped with bulk requests still in flight");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        // Requests still in flight are aborted, so their batches fail and go to stdout
+        if (idle) {
+            client.close();
+        } else {
+            client.shutdownNow();
+        }
+        lock.lock();
+        try {
+            fallback(new ArrayList<>(pending));
+            pending.clear();
+            pendingBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        List<byte[]> batch;
+        while ((batch = nextBatch()) != null) {
+            inFlight.acquireUninterruptibly();
+            send(batch, 0);
+        }
+    }
+
+    private List<byte[]> nextBatch() {
+        List<byte[]> batch = new ArrayList<>();
+        int batchSize = 0;
+        lock.lock();
+        try {
+            while (pending.isEmpty()) {
+                if (closed) {
+                    return null;
+                }
+                ready.awaitUninterruptibly();
+            }
+            long remaining;
+            while (!closed && pendingBytes < settings.batchBytes()
+                    && (remaining = oldestNanos + lingerNanos - System.nanoTime()) > 0) {
+                ready.awaitNanos(remaining);
+            }
+            // A record larger than a batch is sent on its own
+            while (!pending.isEmpty()
+                    && (batch.isEmpty() || batchSize + pending.peek().length <= settings.batchBytes())) {
+                byte[] line = pending.poll();
+                batch.add(line);
+                batchSize += line.length;
+                pendingBytes -= line.length;
+            }
+            if (!pending.isEmpty()) {
+                oldestNanos = System.nanoTime();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+        return batch.isEmpty() ? null : batch;
+    }
+
+    // Runs holding one in-flight permit, released once the batch is indexed or written to stdout
+    private void send(List<byte[]> batch, int attempt) {
+        if (!breaker.allowRequest()) {
+            complete(batch);
+            return;
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(bulkUri)
+                .timeout(Duration.ofMillis(settings.requestTimeoutMillis()))
+                .header("Content-Type", CONTENT_TYPE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body(batch)));
+        if (settings.gzip()) {
+            request.header("Content-Encoding", "gzip");
+        }
+        if (settings.authorization() != null && !settings.authorization().isBlank()) {
+            request.header("Authorization", settings.authorization());
+        }
+        client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    try {
+                        onResponse(batch, attempt, response, error);
+                    } catch (RuntimeException ex) {
+                        log.warn("Unable to handle a bulk response: {}", ex.toString());
+                        complete(batch);
+                    }
+                });
+    }
+
+    private void onResponse(List<byte[]> batch, int attempt, HttpResponse<byte[]> response, Throwable error) {
+        List<byte[]> retry;
+        if (error != null || response.statusCode() == 429 || response.statusCode() >= 500) {
+            failedRequests.incrementAndGet();
+            breaker.onFailure();
+            log.debug("Bulk request to {} failed: {}", bulkUri,
+                    error != null ? error.toString() : "status " + response.statusCode());
+            retry = batch;
+        } else if (response.statusCode() >= 300) {
+            failedRequests.incrementAndGet();
+            breaker.onFailure();
+            log.warn("Bulk request to {} was rejected with status {}", bulkUri, response.statusCode());
+            complete(batch);
+            return;
+        } else {
+            breaker.onSuccess();
+            retry = acknowledge(batch, response.body());
+        }
+        if (retry.isEmpty()) {
+            inFlight.release();
+        } else if (attempt >= settings.maxRetries()) {
+            complete(retry);
+        } else {
+            CompletableFuture.delayedExecutor(backoff(attempt), TimeUnit.MILLISECONDS)
+                    .execute(() -> send(retry, attempt + 1));
+        }
+    }
+
+    /**
+     * Counts the documents Elasticsearch indexed and returns those it may accept on a later
+     * attempt; the ones refused for good, such as mapping errors, go to stdout right away.
+     */
+    private List<byte[]> acknowledge(List<byte[]> batch, byte[] body) {
+        JsonNode result;
+        try {
+            result = MAPPER.readTree(body);
+        } catch (IOException ex) {
+            log.warn("Unable to read a bulk response: {}", ex.toString());
+            result = null;
+        }
+        if (result == null || !result.path("errors").asBoolean()) {
+            indexedRecords.addAndGet(batch.size());
+            return List.of();
+        }
+        List<byte[]> retry = new ArrayList<>();
+        List<byte[]> refused = new ArrayList<>();
+        Iterator<JsonNode> items = result.path("items").elements();
+        for (int i = 0; i < batch.size() && items.hasNext(); i++) {
+            int status = items.next().path("create").path("status").asInt(200);
+            if (status == 429 || status >= 500) {
+                retry.add(batch.get(i));
+            } else if (status >= 300) {
+                refused.add(batch.get(i));
+            }
+        }
+        if (!refused.isEmpty()) {
+            log.debug("Elasticsearch refused {} documents", refused.size());
+            fallback(refused);
+        }
+        indexedRecords.addAndGet(batch.size() - retry.size() - refused.size());
+        return retry;
+    }
+
+    private long backoff(int attempt) {
+        long bound = Math.min(settings.maxBackoffMillis(), settings.initialBackoffMillis() << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    private byte[] body(List<byte[]> batch) {
+        int size = 0;
+        for (byte[] line : batch) {
+            size += CREATE_ACTION.length + line.length;
+        }
+        var content = new ByteArrayOutputStream(settings.gzip() ? size / 4 + 64 : size);
+        try (OutputStream output = settings.gzip() ? new GZIPOutputStream(content) : content) {
+            for (byte[] line : batch) {
+                output.write(CREATE_ACTION);
+                output.write(line);
+            }
+        } catch (IOException ex) {
+            // Only writes to memory
+            throw new IllegalStateException(ex);
+        }
+        return content.toByteArray();
+    }
+
+    private void complete(List<byte[]> batch) {
+        fallback(batch);
+        inFlight.release();
+    }
+
+    // The records of a batch are written at once, so they are not interleaved with other output
+    private void fallback(List<byte[]> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        int size = 0;
+        for (byte[] line : records) {
+            size += line.length;
+        }
+        var block = new ByteArrayOutputStream(size);
+        for (byte[] line : records) {
+            block.writeBytes(line);
+        }
+        synchronized (fallback) {
+            try {
+                block.writeTo(fallback);
+                fallback.flush();
+                fallbackRecords.addAndGet(records.size());
+            } catch (IOException ex) {
+                droppedRecords.addAndGet(records.size());
+            }
+        }
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,327 @@
+package co.com.bancolombia.ecs.infra.sink;
+
+import co.com.bancolombia.ecs.helpers.LogRecordSerializer;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Writes records as NDJSON into pre-allocated, memory-mapped segment files, without going through
+ * Log4j2 and without forcing them to disk on the write path.
+ * <p>
+ * The active segment is named {@code <prefix>-<sequence>.ndjson.active} and is zero-filled up to
+ * its size, so everything after the last line separator is not a complete record yet. It is sealed
+ * when the next record does not fit, when it is older than the roll interval, or on
+ * {@link #close()}. Sealing trims the file to its records, renames it to
+ * {@code <prefix>-<sequence>.ndjson} and hands the path to the listener. When a segment cannot be
+ * sealed or the next one cannot be created, the sink has no active segment: the record being written
+ * is discarded and counted, and the next write tries to create a segment again. A segment that could
+ * not be renamed stays active on disk and is recovered on the next start.
+ * <p>
+ * An active segment left behind by a crash is recovered when the sink starts: it is cut after its
+ * last complete record and sealed like any other segment.
+ */
+@Log4j2
+public final class MappedSegmentSink implements EcsRecordSink {
+
+    public static final String SEALED_SUFFIX = ".ndjson";
+    public static final String ACTIVE_SUFFIX = SEALED_SUFFIX + ".active";
+
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final String SEQUENCE_FORMAT = "%s-%020d";
+    private static final int RECOVERY_CHUNK_SIZE = 64 * 1024;
+    private static final LogRecordSerializer.SliceWriter<MappedSegmentSink> RECORD_WRITER = MappedSegmentSink::write;
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final long rollIntervalNanos;
+    private final Consumer<Path> sealedListener;
+    private final ScheduledExecutorService roller;
+    private final AtomicLong sealedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private long sequence;
+    private Path activePath;
+    private FileChannel channel;
+    // Null while there is no active segment, after a failed roll
+    private MappedByteBuffer segment;
+    private long segmentStartNanos;
+    private boolean closed;
+
+    /**
+     * @param directory          Where the segments are written; created if missing.
+     * @param prefix             Start of every segment name.
+     * @param segmentSize        Size in bytes each segment is pre-allocated to.
+     * @param rollIntervalMillis Age after which a segment with records is sealed.
+     * @param sealedListener     Receives the path of every sealed segment, on the thread that sealed it.
+     * @throws IOException If the directory or the first segment cannot be created.
+     */
+    public MappedSegmentSink(Path directory, String prefix, int segmentSize, long rollIntervalMillis,
+                             Consumer<Path> sealedListener) throws IOException {
+        if (segmentSize < 2 || rollIntervalMillis < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid mapped sink configuration: segment-size [%d] and roll-interval-ms [%d] " +
+                            "must be greater than zero", segmentSize, rollIntervalMillis));
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+        this.rollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(rollIntervalMillis);
+        this.sealedListener = sealedListener;
+        Files.createDirectories(directory);
+        this.sequence = recover(directory, prefix, sealedListener);
+        openSegment();
+        this.roller = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "ecs-mapped-sink-roller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, rollIntervalMillis / 4);
+        roller.scheduleAtFixedRate(this::rollIfExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void write(EcsLogMessage message) {
+        if (message.isRendered()) {
+            byte[] json = message.getFormattedMessage().getBytes(StandardCharsets.UTF_8);
+            write(json, 0, json.length);
+        } else {
+            LogRecordSerializer.writeJson(message.getLogRecord(), this, RECORD_WRITER);
+        }
+    }
+
+    /**
+     * Appends one serialized record followed by a line separator. A record larger than a whole
+     * segment is discarded.
+     *
+     * @param buffer Holds the record.
+     * @param offset Start of the record in the buffer.
+     * @param length Length of the record.
+     */
+    public synchronized void write(byte[] buffer, int offset, int length) {
+        if (closed || length + 1 > segmentSize) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        try {
+            if (segment == null) {
+                openSegment();
+            } else if (segment.remaining() < length + 1 || isExpired()) {
+                roll();
+            }
+            segment.put(buffer, offset, length);
+            // A reader that sees the separator also sees the record before it
+            VarHandle.releaseFence();
+            segment.put(LINE_SEPARATOR);
+        } catch (IOException ex) {
+            droppedCount.incrementAndGet();
+            log.error("Unable to roll the segment {}", activePath, ex);
+        }
+    }
+
+    /**
+     * @return Segments sealed since the sink started, not counting recovered ones.
+     */
+    public long getSealedCount() {
+        return sealedCount.get();
+    }
+
+    /**
+     * @return Records discarded because they did not fit in a segment or could not be written.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return Always zero: records are in the mapped segment as soon as they are written.
+     */
+    @Override
+    public long getBufferedRecords() {
+        return 0;
+    }
+
+    @Override
+    public long getDroppedRecords() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Seals the active segment, or removes it when it has no records, and stops taking records.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        roller.shutdownNow();
+        if (segment == null) {
+            return;
+        }
+        try {
+            if (segment.position() > 0) {
+                seal();
+            } else {
+                segment = null;
+                channel.close();
+                Files.delete(activePath);
+            }
+        } catch (IOException ex) {
+            log.error("Unable to seal the segment {}", activePath, ex);
+        }
+    }
+
+    private synchronized void rollIfExpired() {
+        if (closed || !isExpired()) {
+            return;
+        }
+        try {
+            roll();
+        } catch (IOException | RuntimeException ex) {
+            // Any exception would cancel the scheduled task, the next write retries
+            log.error("Unable to roll the segment {}", activePath, ex);
+        }
+    }
+
+    private boolean isExpired() {
+        return segment != null && segment.position() > 0
+                && System.nanoTime() - segmentStartNanos >= rollIntervalNanos;
+    }
+
+    /**
+     * Seals the active segment and opens the next one. When either step fails there is no active
+     * segment until {@link #openSegment()} succeeds.
+     */
+    private void roll() throws IOException {
+        seal();
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        Path path = directory.resolve(segmentName(prefix, sequence++) + ACTIVE_SUFFIX);
+        FileChannel opened = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // Mapping past the end grows the file, so the whole segment is allocated up front
+            segment = opened.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException ex) {
+            opened.close();
+            Files.deleteIfExists(path);
+            throw ex;
+        }
+        activePath = path;
+        channel = opened;
+        segmentStartNanos = System.nanoTime();
+    }
+
+    private void seal() throws IOException {
+        int length = segment.position();
+        segment = null;
+        try (FileChannel sealing = channel) {
+            trim(sealing, length);
+        }
+        Path sealedPath = Files.move(activePath, sealedPathOf(activePath), StandardCopyOption.ATOMIC_MOVE);
+        sealedCount.incrementAndGet();
+        try {
+            sealedListener.accept(sealedPath);
+        } catch (RuntimeException ex) {
+            log.error("Sealed segment listener failed for {}", sealedPath, ex);
+        }
+    }
+
+    private static long recover(Path directory, String prefix, Consumer<Path> sealedListener) throws IOException {
+        long lastSequence = 0;
+        List<Path> active = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                String suffix = name.endsWith(ACTIVE_SUFFIX) ? ACTIVE_SUFFIX : SEALED_SUFFIX;
+                if (!name.startsWith(prefix + "-") || !name.endsWith(suffix)) {
+                    continue;
+                }
+                try {
+                    long fileSequence = Long.parseLong(
+                            name.substring(prefix.length() + 1, name.length() - suffix.length()));
+                    lastSequence = Math.max(lastSequence, fileSequence);
+                } catch (NumberFormatException ex) {
+                    continue;
+                }
+                if (suffix.equals(ACTIVE_SUFFIX)) {
+                    active.add(file);
+                }
+            }
+        }
+        active.sort(null);
+        for (Path file : active) {
+            try (FileChannel recovering = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                trim(recovering, completeLength(recovering));
+            }
+            Path sealedPath = Files.move(file, sealedPathOf(file), StandardCopyOption.ATOMIC_MOVE);
+            log.warn("Recovered the unsealed segment {}", sealedPath);
+            sealedListener.accept(sealedPath);
+        }
+        return lastSequence + 1;
+    }
+
+    /**
+     * @return Length of the records that end with a line separator before the zero-filled tail.
+     */
+    static long completeLength(FileChannel file) throws IOException {
+        var chunk = ByteBuffer.allocate(RECOVERY_CHUNK_SIZE);
+        long complete = 0;
+        long position = 0;
+        while (file.read(chunk, position) > 0) {
+            chunk.flip();
+            while (chunk.hasRemaining()) {
+                byte value = chunk.get();
+                position++;
+                if (value == 0) {
+                    return complete;
+                }
+                if (value == LINE_SEPARATOR) {
+                    complete = position;
+                }
+            }
+            chunk.clear();
+        }
+        return complete;
+    }
+
+    private static void trim(FileChannel file, long length) {
+        try {
+            file.truncate(length);
+        } catch (IOException ex) {
+            // Platforms that do not allow it while the file is mapped keep the zero-filled tail
+            log.debug("Unable to trim segment to {} bytes: {}", length, ex.toString());
+        }
+    }
+
+    private static Path sealedPathOf(Path activePath) {
+        String name = activePath.getFileName().toString();
+        return activePath.resolveSibling(name.substring(0, name.length() - ACTIVE_SUFFIX.length()) + SEALED_SUFFIX);
+    }
+
+    private static String segmentName(String prefix, long sequence) {
+        return String.format(SEQUENCE_FORMAT, prefix, sequence);
+    }
+}
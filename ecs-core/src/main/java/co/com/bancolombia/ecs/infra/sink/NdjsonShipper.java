@@ -0,0 +1,402 @@
+package co.com.bancolombia.ecs.infra.sink;
+
+import co.com.bancolombia.ecs.helpers.LogRecordSerializer;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+import lombok.Builder;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ships records as NDJSON batches to a local collector (Logstash, Fluent Bit) over TCP or UDP,
+ * without going through stdout and a file.
+ * <p>
+ * Callers only copy the serialized record into a buffer bounded by bytes; when it is full the
+ * record is discarded and counted, so a slow or missing collector never blocks a request. A single
+ * daemon thread gathers the records into batches of up to {@code batchBytes}, waiting at most
+ * {@code lingerMillis} after the oldest one, and writes them through a non-blocking channel. When
+ * the collector cannot be reached the batch is kept and retried after an exponential backoff.
+ */
+@Log4j2
+public final class NdjsonShipper implements EcsRecordSink {
+
+    /**
+     * Largest UDP payload over IPv4.
+     */
+    public static final int MAX_DATAGRAM_BYTES = 65_507;
+
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final String THREAD_NAME = "ecs-log-shipper";
+    private static final long IO_TIMEOUT_MILLIS = 5_000;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5_000;
+    private static final long INITIAL_BACKOFF_MILLIS = 100;
+    private static final LogRecordSerializer.SliceWriter<NdjsonShipper> RECORD_WRITER = NdjsonShipper::enqueue;
+
+    private final Settings settings;
+    private final int batchBytes;
+    private final long lingerNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition ready = lock.newCondition();
+    private final ArrayDeque<byte[]> pending = new ArrayDeque<>();
+    private final Thread shipper;
+    private final AtomicLong shippedRecords = new AtomicLong();
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final AtomicLong failedSends = new AtomicLong();
+
+    private int pendingBytes;
+    private long oldestNanos;
+    private boolean closed;
+
+    private Selector selector;
+    private SelectableChannel channel;
+    private SelectionKey key;
+    private long backoffMillis = INITIAL_BACKOFF_MILLIS;
+
+    /**
+     * Where and how the records are shipped.
+     *
+     * @param protocol         TCP or UDP.
+     * @param host             Collector host, resolved on every connection attempt.
+     * @param port             Collector port.
+     * @param compression      Encoding of each batch.
+     * @param bufferBytes      Bytes of records kept in memory while they wait to be shipped.
+     * @param batchBytes       Uncompressed size that triggers a batch; capped for UDP.
+     * @param lingerMillis     Longest time a record waits for its batch to fill up.
+     * @param maxBackoffMillis Longest wait between two attempts to reach the collector.
+     */
+    @Builder
+    public record Settings(ShipperProtocol protocol, String host, int port, ShipperCompression compression,
+                           int bufferBytes, int batchBytes, long lingerMillis, long maxBackoffMillis) {
+    }
+
+    public NdjsonShipper(Settings settings) {
+        if (settings.bufferBytes() < 1 || settings.batchBytes() < 1 || settings.lingerMillis() < 1
+                || settings.maxBackoffMillis() < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid shipper configuration: buffer-bytes [%d], batch-bytes [%d], linger-ms [%d] and " +
+                            "max-backoff-ms [%d] must be greater than zero", settings.bufferBytes(),
+                    settings.batchBytes(), settings.lingerMillis(), settings.maxBackoffMillis()));
+        }
+        this.settings = settings;
+        this.batchBytes = settings.protocol() == ShipperProtocol.UDP
+                ? Math.min(settings.batchBytes(), MAX_DATAGRAM_BYTES)
+                : settings.batchBytes();
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(settings.lingerMillis());
+        this.shipper = new Thread(this::run, THREAD_NAME);
+        shipper.setDaemon(true);
+        shipper.start();
+    }
+
+    @Override
+    public void write(EcsLogMessage message) {
+        if (message.isRendered()) {
+            byte[] json = message.getFormattedMessage().getBytes(StandardCharsets.UTF_8);
+            enqueue(json, 0, json.length);
+        } else {
+            LogRecordSerializer.writeJson(message.getLogRecord(), this, RECORD_WRITER);
+        }
+    }
+
+    /**
+     * Copies one serialized record into the buffer, or discards it when the buffer is full or
+     * when it could never fit in a datagram.
+     *
+     * @param buffer Holds the record.
+     * @param offset Start of the record in the buffer.
+     * @param length Length of the record.
+     */
+    public void enqueue(byte[] buffer, int offset, int length) {
+        int size = length + 1;
+        if (settings.protocol() == ShipperProtocol.UDP && size > batchBytes) {
+            droppedRecords.incrementAndGet();
+            return;
+        }
+        byte[] line = Arrays.copyOfRange(buffer, offset, offset + size);
+        line[length] = LINE_SEPARATOR;
+        lock.lock();
+        try {
+            if (closed || pendingBytes + size > settings.bufferBytes()) {
+                droppedRecords.incrementAndGet();
+                return;
+            }
+            if (pending.isEmpty()) {
+                oldestNanos = System.nanoTime();
+            }
+            pending.add(line);
+            pendingBytes += size;
+            if (pending.size() == 1 || pendingBytes >= batchBytes) {
+                ready.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Records delivered to the collector.
+     */
+    public long getShippedRecords() {
+        return shippedRecords.get();
+    }
+
+    /**
+     * @return Records discarded because the buffer was full, they were too large, or the collector
+     * could not be reached before shutdown.
+     */
+    @Override
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    /**
+     * @return Records waiting to be shipped.
+     */
+    @Override
+    public long getBufferedRecords() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Attempts to connect or send that failed.
+     */
+    public long getFailedSends() {
+        return failedSends.get();
+    }
+
+    /**
+     * @return Bytes waiting to be shipped.
+     */
+    public int getPendingBytes() {
+        lock.lock();
+        try {
+            return pendingBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ships the buffered records, giving up after a few seconds if the collector cannot be reached.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            ready.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            shipper.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (shipper.isAlive()) {
+            shipper.interrupt();
+        }
+    }
+
+    private void run() {
+        try (Selector openedSelector = Selector.open()) {
+            selector = openedSelector;
+            Batch batch = nextBatch();
+            while (batch != null) {
+                if (send(batch)) {
+                    shippedRecords.addAndGet(batch.records());
+                    batch = nextBatch();
+                } else if (isClosed() || !pause()) {
+                    droppedRecords.addAndGet(batch.records() + drainAll());
+                    batch = null;
+                }
+            }
+        } catch (IOException ex) {
+            log.error("The log shipper stopped", ex);
+        } finally {
+            disconnect();
+        }
+    }
+
+    private Batch nextBatch() {
+        var content = new ByteArrayOutputStream(batchBytes);
+        int records = 0;
+        lock.lock();
+        try {
+            while (pending.isEmpty()) {
+                if (closed) {
+                    return null;
+                }
+                ready.awaitUninterruptibly();
+            }
+            long remaining;
+            while (!closed && pendingBytes < batchBytes
+                    && (remaining = oldestNanos + lingerNanos - System.nanoTime()) > 0) {
+                ready.awaitNanos(remaining);
+            }
+            // A record larger than a batch is shipped on its own
+            while (!pending.isEmpty()
+                    && (records == 0 || content.size() + pending.peek().length <= batchBytes)) {
+                byte[] line = pending.poll();
+                content.write(line, 0, line.length);
+                pendingBytes -= line.length;
+                records++;
+            }
+            if (!pending.isEmpty()) {
+                oldestNanos = System.nanoTime();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+        return records == 0 ? null : new Batch(encode(content), records);
+    }
+
+    private ByteBuffer encode(ByteArrayOutputStream content) {
+        if (settings.compression() != ShipperCompression.GZIP) {
+            return ByteBuffer.wrap(content.toByteArray());
+        }
+        var compressed = new ByteArrayOutputStream(content.size() / 4 + 64);
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            content.writeTo(gzip);
+        } catch (IOException ex) {
+            // Only writes to memory
+            throw new IllegalStateException(ex);
+        }
+        return ByteBuffer.wrap(compressed.toByteArray());
+    }
+
+    private boolean send(Batch batch) {
+        try {
+            if (channel == null) {
+                connect();
+            }
+            ByteBuffer data = batch.data();
+            while (data.hasRemaining()) {
+                int written = channel instanceof SocketChannel socket
+                        ? socket.write(data)
+                        : ((DatagramChannel) channel).write(data);
+                if (written == 0) {
+                    await(SelectionKey.OP_WRITE);
+                }
+            }
+            backoffMillis = INITIAL_BACKOFF_MILLIS;
+            return true;
+        } catch (IOException ex) {
+            failedSends.incrementAndGet();
+            log.debug("Unable to ship a batch to {}:{}: {}", settings.host(), settings.port(), ex.toString());
+            batch.data().rewind();
+            disconnect();
+            return false;
+        }
+    }
+
+    private void connect() throws IOException {
+        var address = new InetSocketAddress(settings.host(), settings.port());
+        if (settings.protocol() == ShipperProtocol.UDP) {
+            DatagramChannel datagram = DatagramChannel.open();
+            channel = datagram;
+            datagram.configureBlocking(false);
+            datagram.connect(address);
+            key = datagram.register(selector, 0);
+            return;
+        }
+        SocketChannel socket = SocketChannel.open();
+        channel = socket;
+        socket.configureBlocking(false);
+        key = socket.register(selector, 0);
+        if (!socket.connect(address)) {
+            await(SelectionKey.OP_CONNECT);
+            socket.finishConnect();
+        }
+    }
+
+    private void await(int operation) throws IOException {
+        key.interestOps(operation);
+        try {
+            selector.selectedKeys().clear();
+            if (selector.select(IO_TIMEOUT_MILLIS) == 0) {
+                throw new SocketTimeoutException("No progress after " + IO_TIMEOUT_MILLIS + " ms");
+            }
+        } finally {
+            key.interestOps(0);
+        }
+    }
+
+    private void disconnect() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            log.debug("Unable to close the shipper channel: {}", ex.toString());
+        }
+        channel = null;
+        key = null;
+    }
+
+    // Waits before the next attempt; false when the shipper is closed in the meantime
+    private boolean pause() {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(backoffMillis);
+            while (!closed && remaining > 0) {
+                remaining = ready.awaitNanos(remaining);
+            }
+            backoffMillis = Math.min(backoffMillis * 2, settings.maxBackoffMillis());
+            return !closed;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int drainAll() {
+        lock.lock();
+        try {
+            int records = pending.size();
+            pending.clear();
+            pendingBytes = 0;
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Batch(ByteBuffer data, int records) {
+    }
+}
@@ -0,0 +1,313 @@
+package co.com.bancolombia.ecs.infra.sink;
+
+import co.com.bancolombia.ecs.helpers.OtlpLogEncoder;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+import lombok.Builder;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports records to an OpenTelemetry collector with OTLP over HTTP, encoded as protocol buffers
+ * by {@link OtlpLogEncoder}.
+ * <p>
+ * Callers encode the record, so it is never read on another thread, and put the bytes in a queue
+ * bounded by {@code maxQueueSize}; when it is full the record is discarded and counted. A record
+ * rendered by the sensitive data rules is encoded from its source record with the same rules
+ * applied to each field. A single daemon thread takes up to {@code maxBatchSize} records, waiting
+ * at most {@code scheduleDelayMillis} after the first one, and posts them with the JDK
+ * {@link HttpClient}. Requests answered
+ * with 429, 502, 503 or 504, or that fail to connect, are retried after an exponential backoff
+ * with full jitter; a batch that still fails is discarded and counted.
+ */
+@Log4j2
+public final class OtlpLogExporter implements EcsRecordSink {
+
+    private static final String CONTENT_TYPE = "application/x-protobuf";
+    private static final String THREAD_NAME = "ecs-log-otlp-exporter";
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+    private static final long INITIAL_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final Pending CLOSE = new Pending(null);
+
+    private final Settings settings;
+    private final URI endpoint;
+    private final long scheduleDelayNanos;
+    private final HttpClient client;
+    private final BlockingQueue<Pending> queue;
+    private final Thread exporter;
+    private final AtomicLong exportedRecords = new AtomicLong();
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final AtomicLong failedExports = new AtomicLong();
+    private final AtomicLong exportCount = new AtomicLong();
+    private final AtomicLong lastExportNanos = new AtomicLong();
+    private final AtomicLong maxExportNanos = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Where and how the records are exported.
+     *
+     * @param endpoint            OTLP/HTTP logs URL, e.g. {@code http://localhost:4318/v1/logs}.
+     * @param headers             Extra request headers, such as authentication; optional.
+     * @param resourceAttributes  Attributes of the resource, such as {@code service.name}; optional.
+     * @param gzip                Whether request bodies are gzip compressed.
+     * @param maxQueueSize        Records waiting to be exported.
+     * @param maxBatchSize        Records in one export request.
+     * @param scheduleDelayMillis Longest time a record waits for its batch to fill up.
+     * @param exportTimeoutMillis Longest time to connect or to wait for a response.
+     * @param maxRetries          Attempts after the first one before the batch is discarded.
+     */
+    @Builder
+    public record Settings(String endpoint, Map<String, String> headers, Map<String, String> resourceAttributes,
+                           boolean gzip, int maxQueueSize, int maxBatchSize, long scheduleDelayMillis,
+                           long exportTimeoutMillis, int maxRetries) {
+    }
+
+    private record Pending(byte[] logRecord) {
+    }
+
+    public OtlpLogExporter(Settings settings) {
+        if (settings.maxQueueSize() < 1 || settings.maxBatchSize() < 1 || settings.scheduleDelayMillis() < 1
+                || settings.exportTimeoutMillis() < 1 || settings.maxRetries() < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid OTLP exporter configuration: max-queue-size [%d], max-batch-size [%d], " +
+                            "schedule-delay-ms [%d] and export-timeout-ms [%d] must be greater than zero and " +
+                            "max-retries [%d] must not be negative", settings.maxQueueSize(),
+                    settings.maxBatchSize(), settings.scheduleDelayMillis(), settings.exportTimeoutMillis(),
+                    settings.maxRetries()));
+        }
+        this.settings = settings;
+        this.endpoint = URI.create(settings.endpoint());
+        this.scheduleDelayNanos = TimeUnit.MILLISECONDS.toNanos(settings.scheduleDelayMillis());
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(settings.exportTimeoutMillis()))
+                .build();
+        // One extra slot so the close marker always fits
+        this.queue = new ArrayBlockingQueue<>(settings.maxQueueSize() + 1);
+        this.exporter = new Thread(this::run, THREAD_NAME);
+        exporter.setDaemon(true);
+        exporter.start();
+    }
+
+    @Override
+    public void write(EcsLogMessage message) {
+        if (closed || queue.remainingCapacity() <= 1) {
+            droppedRecords.incrementAndGet();
+            return;
+        }
+        Instant now = Instant.now();
+        byte[] logRecord;
+        try {
+            logRecord = encode(message, now.getEpochSecond() * NANOS_PER_SECOND + now.getNano());
+        } catch (RuntimeException ex) {
+            log.debug("Unable to encode a record for OTLP: {}", ex.toString());
+            droppedRecords.incrementAndGet();
+            return;
+        }
+        if (!queue.offer(new Pending(logRecord))) {
+            droppedRecords.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return Records the collector accepted.
+     */
+    public long getExportedRecords() {
+        return exportedRecords.get();
+    }
+
+    /**
+     * @return Records discarded because the queue was full, they could not be encoded, or their
+     * batch could not be exported.
+     */
+    @Override
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    @Override
+    public long getBufferedRecords() {
+        return queue.size();
+    }
+
+    /**
+     * @return Export requests that failed to connect or were answered with an error status,
+     * retries included.
+     */
+    public long getFailedExports() {
+        return failedExports.get();
+    }
+
+    /**
+     * @return Export requests the collector accepted.
+     */
+    public long getExportCount() {
+        return exportCount.get();
+    }
+
+    /**
+     * @return Duration of the last accepted export request, in nanoseconds.
+     */
+    public long getLastExportLatencyNanos() {
+        return lastExportNanos.get();
+    }
+
+    /**
+     * @return Duration of the slowest accepted export request, in nanoseconds.
+     */
+    public long getMaxExportLatencyNanos() {
+        return maxExportNanos.get();
+    }
+
+    /**
+     * @return Records waiting to be exported.
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Exports the queued records, giving up after a few seconds if the collector does not answer.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.offer(CLOSE);
+        try {
+            exporter.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (exporter.isAlive()) {
+            exporter.interrupt();
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(settings.maxBatchSize());
+        boolean draining = false;
+        try {
+            while (!draining || !queue.isEmpty()) {
+                Pending first = draining ? queue.poll() : queue.poll(scheduleDelayNanos, TimeUnit.NANOSECONDS);
+                if (first == null || first == CLOSE) {
+                    // The marker may not fit when records raced for the last slot
+                    draining = closed;
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + scheduleDelayNanos;
+                while (batch.size() < settings.maxBatchSize()) {
+                    Pending next = draining
+                            ? queue.poll()
+                            : queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == CLOSE) {
+                        draining = true;
+                    } else if (next != null) {
+                        batch.add(next);
+                    } else {
+                        break;
+                    }
+                }
+                export(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+            droppedRecords.addAndGet(batch.size() + queue.size());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void export(List<Pending> batch) throws InterruptedException {
+        List<byte[]> logRecords = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            logRecords.add(pending.logRecord());
+        }
+        HttpRequest request = request(OtlpLogEncoder.encodeExportRequest(
+                settings.resourceAttributes() != null ? settings.resourceAttributes() : Map.of(), logRecords));
+        for (int attempt = 0; ; attempt++) {
+            long start = System.nanoTime();
+            String failure;
+            boolean retryable;
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status >= 200 && status < 300) {
+                    long elapsed = System.nanoTime() - start;
+                    lastExportNanos.set(elapsed);
+                    maxExportNanos.accumulateAndGet(elapsed, Math::max);
+                    exportCount.incrementAndGet();
+                    exportedRecords.addAndGet(logRecords.size());
+                    return;
+                }
+                failure = "status " + status;
+                retryable = status == 429 || status == 502 || status == 503 || status == 504;
+            } catch (IOException ex) {
+                failure = ex.toString();
+                retryable = true;
+            }
+            failedExports.incrementAndGet();
+            if (!retryable || attempt >= settings.maxRetries()) {
+                log.warn("Unable to export {} records to {}: {}", logRecords.size(), endpoint, failure);
+                droppedRecords.addAndGet(logRecords.size());
+                return;
+            }
+            long bound = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << Math.min(attempt, 20));
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        }
+    }
+
+    private static byte[] encode(EcsLogMessage message, long timeUnixNano) {
+        if (message.getLogRecord() != null) {
+            return OtlpLogEncoder.encodeLogRecord(message.getLogRecord(), timeUnixNano);
+        }
+        if (message.getSourceRecord() != null) {
+            return OtlpLogEncoder.encodeMaskedLogRecord(message.getSourceRecord(), timeUnixNano);
+        }
+        return OtlpLogEncoder.encodeRenderedLogRecord(message.getFormattedMessage(), timeUnixNano);
+    }
+
+    private HttpRequest request(byte[] body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofMillis(settings.exportTimeoutMillis()))
+                .header("Content-Type", CONTENT_TYPE);
+        if (settings.headers() != null) {
+            settings.headers().forEach(request::header);
+        }
+        if (settings.gzip()) {
+            request.header("Content-Encoding", "gzip");
+            body = gzip(body);
+        }
+        return request.POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
+    }
+
+    private static byte[] gzip(byte[] body) {
+        var compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            // Only writes to memory
+            throw new IllegalStateException(ex);
+        }
+        return compressed.toByteArray();
+    }
+}
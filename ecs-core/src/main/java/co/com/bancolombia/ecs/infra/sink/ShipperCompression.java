@@ -0,0 +1,12 @@
+package co.com.bancolombia.ecs.infra.sink;
+
+/**
+ * Encoding of each batch sent by {@link NdjsonShipper}.
+ */
+public enum ShipperCompression {
+    NONE,
+    /**
+     * Every batch is a complete gzip member; over TCP the stream is a concatenation of members.
+     */
+    GZIP
+}
@@ -0,0 +1,15 @@
+package co.com.bancolombia.ecs.infra.sink;
+
+/**
+ * Transport used by {@link NdjsonShipper}.
+ */
+public enum ShipperProtocol {
+    /**
+     * One connection; batches are written back to back as an NDJSON stream.
+     */
+    TCP,
+    /**
+     * One datagram per batch, so a batch is at most {@link NdjsonShipper#MAX_DATAGRAM_BYTES} bytes.
+     */
+    UDP
+}
@@ -4,7 +4,13 @@ import co.com.bancolombia.ecs.domain.model.LogRecord;
 import co.com.bancolombia.ecs.helpers.LoggerEcsTestHelper;
 import co.com.bancolombia.ecs.helpers.SamplingHelper;
 import co.com.bancolombia.ecs.helpers.SensitiveHelper;
+import co.com.bancolombia.ecs.infra.async.AsyncLogDispatcher;
+import co.com.bancolombia.ecs.infra.async.OverflowPolicy;
 import co.com.bancolombia.ecs.infra.config.SamplingConfig;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+import co.com.bancolombia.ecs.infra.overload.OverloadController;
+import co.com.bancolombia.ecs.infra.shared.common.domain.ContextECS;
+import co.com.bancolombia.ecs.infra.sink.EcsRecordSink;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,13 +23,23 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.lang.reflect.Constructor;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class LoggerEcsTest {
@@ -176,23 +192,189 @@ class LoggerEcsTest {
                 "imprime 4 cada 10 intentos");
     }
 
+    @Test
+    void shouldHandRecordToDispatcherWhenAsyncIsEnabled() {
+        AsyncLogDispatcher dispatcher = mock(AsyncLogDispatcher.class);
+        when(dispatcher.dispatch(logRecord)).thenReturn(true);
+        LoggerEcs.setDispatcher(dispatcher);
+
+        try (MockedStatic<SamplingHelper> mockedSampling = Mockito.mockStatic(SamplingHelper.class);
+             MockedStatic<SensitiveHelper> mockedSensitive = Mockito.mockStatic(SensitiveHelper.class)) {
+            mockedSampling.when(() -> SamplingHelper.validatePrint(logRecord)).thenReturn(Boolean.TRUE);
+
+            LoggerEcs.print(logRecord);
+
+            verify(dispatcher).dispatch(logRecord);
+            mockedSensitive.verifyNoInteractions();
+        } finally {
+            LoggerEcs.setDispatcher(null);
+        }
+    }
+
+    @Test
+    void shouldKeepRequestMessageIdWhenRecordIsWrittenOnAnotherThread() throws InterruptedException {
+        List<String> written = new CopyOnWriteArrayList<>();
+        CountDownLatch writtenLatch = new CountDownLatch(1);
+        var asyncDispatcher = new AsyncLogDispatcher(4, 1, OverflowPolicy.BLOCK, 1, 1000, pending -> {
+            written.add(pending.getMessageId());
+            writtenLatch.countDown();
+        });
+        logRecord.setMessageId(null);
+        LoggerEcs.setDispatcher(asyncDispatcher);
+        ContextECS.setMessageId("request-id");
+
+        try (MockedStatic<SamplingHelper> mockedSampling = Mockito.mockStatic(SamplingHelper.class)) {
+            mockedSampling.when(() -> SamplingHelper.validatePrint(logRecord)).thenReturn(Boolean.TRUE);
+
+            LoggerEcs.print(logRecord);
+
+            assertTrue(writtenLatch.await(5, TimeUnit.SECONDS));
+        } finally {
+            LoggerEcs.setDispatcher(null);
+            ContextECS.clear();
+            asyncDispatcher.close();
+        }
+
+        assertEquals(List.of("request-id"), written);
+    }
+
+    @Test
+    void shouldNotResolveMessageIdWhenItIsRead() {
+        ContextECS.setMessageId("request-id");
+        try {
+            var unresolved = new LogRecord<String, String>();
+
+            assertNull(unresolved.getMessageId());
+            unresolved.resolveMessageId();
+            assertEquals("request-id", unresolved.getMessageId());
+        } finally {
+            ContextECS.clear();
+        }
+    }
+
+    @Test
+    void shouldWriteRecordWhenDispatcherIsClosed() {
+        AsyncLogDispatcher dispatcher = mock(AsyncLogDispatcher.class);
+        when(dispatcher.dispatch(logRecord)).thenReturn(false);
+        LoggerEcs.setDispatcher(dispatcher);
+
+        try (MockedStatic<SamplingHelper> mockedSampling = Mockito.mockStatic(SamplingHelper.class);
+             MockedStatic<SensitiveHelper> mockedSensitive = Mockito.mockStatic(SensitiveHelper.class)) {
+            mockedSampling.when(() -> SamplingHelper.validatePrint(logRecord)).thenReturn(Boolean.TRUE);
+
+            LoggerEcs.print(logRecord);
+
+            mockedSensitive.verify(() -> SensitiveHelper.filterApplicableSensitiveData(logRecord, URI));
+        } finally {
+            LoggerEcs.setDispatcher(null);
+        }
+    }
+
+    @Test
+    void shouldWriteRecordToSinkInsteadOfLog4j() {
+        EcsRecordSink sink = mock(EcsRecordSink.class);
+        LoggerEcs.setSink(sink);
+
+        try {
+            LoggerEcs.write(logRecord);
+
+            verify(sink).write(any(EcsLogMessage.class));
+        } finally {
+            LoggerEcs.setSink(null);
+        }
+    }
+
+    @Test
+    void shouldOnlyRemoveTheCurrentSink() {
+        EcsRecordSink sink = mock(EcsRecordSink.class);
+        LoggerEcs.setSink(sink);
+
+        try {
+            LoggerEcs.removeSink(mock(EcsRecordSink.class));
+            assertSame(sink, LoggerEcs.getSink());
+
+            LoggerEcs.removeSink(sink);
+            assertNull(LoggerEcs.getSink());
+        } finally {
+            LoggerEcs.setSink(null);
+        }
+    }
+
+    @Test
+    void shouldSkipRecordsShedByOverloadController() {
+        EcsRecordSink sink = mock(EcsRecordSink.class);
+        OverloadController controller = mock(OverloadController.class);
+        when(controller.admit(logRecord, null)).thenReturn(false);
+        LoggerEcs.setSink(sink);
+        LoggerEcs.setOverloadController(controller);
+
+        try (MockedStatic<SamplingHelper> mockedSampling = Mockito.mockStatic(SamplingHelper.class)) {
+            mockedSampling.when(() -> SamplingHelper.validatePrint(logRecord)).thenReturn(Boolean.TRUE);
+
+            LoggerEcs.print(logRecord);
+
+            verify(sink, never()).write(any(EcsLogMessage.class));
+        } finally {
+            LoggerEcs.setSink(null);
+            LoggerEcs.setOverloadController(null);
+        }
+    }
+
+    @Test
+    void shouldReportOutputLatencyToOverloadController() {
+        EcsRecordSink sink = mock(EcsRecordSink.class);
+        OverloadController controller = mock(OverloadController.class);
+        LoggerEcs.setSink(sink);
+        LoggerEcs.setOverloadController(controller);
+
+        try {
+            LoggerEcs.write(logRecord);
+
+            verify(sink).write(any(EcsLogMessage.class));
+            verify(controller).recordLatency(anyLong());
+        } finally {
+            LoggerEcs.setSink(null);
+            LoggerEcs.setOverloadController(null);
+        }
+    }
+
     @Test
     void shouldFilterSensitiveDataWhenUriIsPresent() {
         var logRecordSensitive = LoggerEcsTestHelper.generateTestLogRecord();
         logRecordSensitive.getAdditionalInfo().setUri("/test/endpoint");
 
-        String originalJson = logRecordSensitive.toJson();
+        try (MockedStatic<SamplingHelper> mockedSampling = Mockito.mockStatic(SamplingHelper.class);
+             MockedStatic<SensitiveHelper> mockedSensitive = Mockito.mockStatic(SensitiveHelper.class)) {
+
+            mockedSampling.when(() -> SamplingHelper.validatePrint(logRecordSensitive)).thenReturn(Boolean.TRUE);
+            mockedSensitive.when(() -> SensitiveHelper.filterApplicableSensitiveData(logRecordSensitive,
+                    "/test/endpoint")).thenReturn("{\"filtered\":\"data\"}");
+
+            LoggerEcs.print(logRecordSensitive);
+
+            mockedSensitive.verify(() -> SensitiveHelper.filterApplicableSensitiveData(logRecordSensitive,
+                    "/test/endpoint"));
+            mockedSensitive.verify(() -> SensitiveHelper.hasApplicableRules(Mockito.anyString()), Mockito.never());
+            mockedSensitive.verify(() -> SensitiveHelper.filterSensitiveData(Mockito.anyString(), Mockito.anyString()),
+                    Mockito.never());
+        }
+    }
+
+    @Test
+    void shouldNotRenderJsonWhenNoRuleAppliesToUri() {
+        var logRecordSensitive = LoggerEcsTestHelper.generateTestLogRecord();
 
         try (MockedStatic<SamplingHelper> mockedSampling = Mockito.mockStatic(SamplingHelper.class);
              MockedStatic<SensitiveHelper> mockedSensitive = Mockito.mockStatic(SensitiveHelper.class)) {
 
             mockedSampling.when(() -> SamplingHelper.validatePrint(logRecordSensitive)).thenReturn(Boolean.TRUE);
-            mockedSensitive.when(() -> SensitiveHelper.filterSensitiveData(originalJson, "/test/endpoint"))
-                    .thenReturn("{\"filtered\":\"data\"}");
+            mockedSensitive.when(() -> SensitiveHelper.filterApplicableSensitiveData(logRecordSensitive,
+                    "/test/endpoint")).thenReturn(null);
 
             LoggerEcs.print(logRecordSensitive);
 
-            mockedSensitive.verify(() -> SensitiveHelper.filterSensitiveData(originalJson, "/test/endpoint"));
+            mockedSensitive.verify(() -> SensitiveHelper.filterSensitiveData(
+                    Mockito.any(LogRecord.class), Mockito.anyString()), Mockito.never());
         }
     }
 
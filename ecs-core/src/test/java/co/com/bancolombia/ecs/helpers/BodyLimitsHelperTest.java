@@ -0,0 +1,42 @@
+package co.com.bancolombia.ecs.helpers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BodyLimitsHelperTest {
+
+    private static final BodyLimits DEFAULT = new BodyLimits(0, 0, 0, 4096);
+    private static final BodyLimits CLIENT = new BodyLimits(0, 0, 0, 256);
+    private static final BodyLimits ME = new BodyLimits(0, 0, 0, 64);
+    private static final BodyLimits FILES = new BodyLimits(0, 10, 0, 0);
+
+    @AfterEach
+    void tearDown() {
+        BodyLimitsHelper.init(null, null, null, null);
+    }
+
+    @Test
+    void shouldApplyLimitsOfRouteTemplatesToPathsWithVariables() {
+        BodyLimitsHelper.init(DEFAULT, DEFAULT,
+                Map.of("/clients/{id}", CLIENT, "/clients/me", ME), Map.of("/files/**", FILES));
+
+        assertEquals(CLIENT, BodyLimitsHelper.forRequest("/clients/123"));
+        assertEquals(ME, BodyLimitsHelper.forRequest("/clients/me"));
+        assertEquals(DEFAULT, BodyLimitsHelper.forRequest("/clients/123/accounts"));
+        assertEquals(FILES, BodyLimitsHelper.forResponse("/files/2024/report.pdf"));
+        assertEquals(DEFAULT, BodyLimitsHelper.forResponse("/clients/123"));
+    }
+
+    @Test
+    void shouldPreferTheRouteOfTheHandler() {
+        BodyLimitsHelper.init(DEFAULT, DEFAULT, Map.of("/clients/{id}", CLIENT, "/clients/me", ME), Map.of());
+
+        assertEquals(CLIENT, BodyLimitsHelper.forRequest("/clients/me", "/clients/{id}"));
+        assertEquals(CLIENT, BodyLimitsHelper.forRequest("/clients/7", "/clients/{clientId}"));
+        assertEquals(DEFAULT, BodyLimitsHelper.forRequest(null, null));
+    }
+}
@@ -0,0 +1,89 @@
+package co.com.bancolombia.ecs.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClockCacheTest {
+
+    @Test
+    void shouldKeepReferencedEntryWhenEvicting() {
+        var cache = new ClockCache<String, String>(2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+
+        cache.put("c", "3");
+
+        assertEquals(2, cache.size());
+        assertEquals("1", cache.get("a"));
+    }
+
+    @Test
+    void shouldComputeMissingValuesWithinCapacity() {
+        var cache = new ClockCache<Integer, String>(3);
+        for (var i = 0; i < 10; i++) {
+            cache.computeIfAbsent(i, String::valueOf);
+        }
+
+        assertEquals(3, cache.size());
+        cache.put(9, "9");
+        assertEquals("9", cache.computeIfAbsent(9, key -> "other"));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(9));
+    }
+
+    @Test
+    void shouldEvictEvenWhenEveryEntryIsReferenced() {
+        var cache = new ClockCache<Integer, Integer>(4);
+        for (var i = 0; i < 100; i++) {
+            cache.put(i, i);
+            for (var j = 0; j <= i; j++) {
+                cache.get(j);
+            }
+        }
+
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    void shouldReturnTheSameValueToConcurrentCallers() throws InterruptedException {
+        var cache = new ClockCache<String, Object>(16);
+        var values = ConcurrentHashMap.newKeySet();
+        var start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (var i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                values.add(cache.computeIfAbsent("key", key -> new Object()));
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, values.size());
+        assertSame(values.iterator().next(), cache.get("key"));
+    }
+
+    @Test
+    void shouldRejectCapacityBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> new ClockCache<String, String>(0));
+    }
+}
@@ -1,5 +1,6 @@
 package co.com.bancolombia.ecs.helpers;
 
+import co.com.bancolombia.ecs.model.request.RawJsonBody;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -402,4 +403,84 @@ class DataSanitizerTest {
 
         assertTrue(result.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSanitizeToRawShouldKeepSanitizedJsonObjectAsBytes() {
+        String body = "{\"password\":\"1234\",\"card\":\"4111111111111111\",\"items\":[{\"Password\":\"x\"}]}";
+        Set<String> sensitiveFields = Set.of("password");
+        List<Pattern> patterns = List.of(Pattern.compile("4111\\d{12}"));
+
+        RawJsonBody raw = DataSanitizer.sanitizeToRaw(body, "application/json", sensitiveFields, patterns, "****");
+
+        assertTrue(raw.isJson());
+        assertEquals("application/json", raw.getContentType());
+        assertEquals(DataSanitizer.sanitize(body, sensitiveFields, patterns, "****"), raw.asString());
+    }
+
+    @Test
+    void testSanitizeToRawShouldKeepOtherBodiesAsText() {
+        Set<String> sensitiveFields = Set.of("password");
+        List<Pattern> patterns = List.of();
+
+        RawJsonBody array = DataSanitizer.sanitizeToRaw("[ {\"a\": 1} ]", null, sensitiveFields, patterns, "****");
+        RawJsonBody text = DataSanitizer.sanitizeToRaw("plain-text-body", null, sensitiveFields, patterns, "****");
+        RawJsonBody empty = DataSanitizer.sanitizeToRaw("", null, sensitiveFields, patterns, "****");
+
+        assertFalse(array.isJson());
+        assertEquals("[{\"a\":1}]", array.asString());
+        assertFalse(text.isJson());
+        assertEquals("plain-text-body", text.asString());
+        assertEquals("", empty.asString());
+        assertNull(DataSanitizer.sanitizeToRaw("null", null, sensitiveFields, patterns, "****"));
+        assertNull(DataSanitizer.sanitizeToRaw(null, null, sensitiveFields, patterns, "****"));
+    }
+
+    @Test
+    void testSanitizeToRawShouldApplyBodyLimitsWhileParsing() {
+        String body = "{\"password\":\"1234\",\"items\":[1,2,3,4],\"note\":\"abcdefghij\"}";
+
+        RawJsonBody raw = DataSanitizer.sanitizeToRaw(body, null, Set.of("password"), List.of(), "****",
+                new BodyLimits(0, 2, 5, 0));
+
+        assertTrue(raw.isJson());
+        assertEquals("{\"password\":\"****\",\"items\":[1,2,\"[truncated: 2 more items]\"],"
+                + "\"note\":\"abcde...[truncated: 10 chars]\"}", raw.asString());
+    }
+
+    @Test
+    void testSanitizeToRawShouldCutTextBodiesToLimits() {
+        RawJsonBody raw = DataSanitizer.sanitizeToRaw("plain-text-body", null, Set.of(), List.of(), "****",
+                new BodyLimits(0, 0, 0, 5));
+
+        assertFalse(raw.isJson());
+        assertEquals("plain...[truncated: 15 chars]", raw.asString());
+    }
+
+    @Test
+    void testSanitizeShouldKeepLastValueOfRepeatedFields() {
+        String body = "{\"a\":1,\"password\":\"1\",\"b\":2,\"a\":3,\"password\":\"2\"}";
+
+        String sanitized = DataSanitizer.sanitize(body, Set.of("password"), List.of(), "****");
+
+        assertEquals("{\"a\":3,\"password\":\"****\",\"b\":2}", sanitized);
+    }
+
+    @Test
+    void testSanitizeToRawShouldMergeBodyFieldNamedLikeTruncationMarker() {
+        String body = "{\"_truncated\":\"mine\",\"items\":[1,2,3,4,5,6,7,8,9,10,11,12,13,14,15]}";
+
+        RawJsonBody raw = DataSanitizer.sanitizeToRaw(body, null, Set.of(), List.of(), "****",
+                new BodyLimits(0, 0, 0, 30));
+
+        assertTrue(raw.isJson());
+        assertEquals("{\"_truncated\":\"max-chars\"}", raw.asString());
+    }
+
+    @Test
+    void testSanitizeToRawShouldKeepSupplementaryCharactersInText() {
+        RawJsonBody raw = DataSanitizer.sanitizeToRaw("[\"\ud83d\ude42\"]", null, Set.of(), List.of(), "****");
+
+        assertFalse(raw.isJson());
+        assertEquals("[\"\ud83d\ude42\"]", raw.asString());
+    }
+}
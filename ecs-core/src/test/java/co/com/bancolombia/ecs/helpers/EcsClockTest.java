@@ -0,0 +1,73 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EcsClockTest {
+
+    @AfterEach
+    void tearDown() {
+        EcsClock.setIsoTimestampEnabled(false);
+    }
+
+    @Test
+    void shouldFormatDateLikeDateTimeFormatter() {
+        Instant instant = Instant.parse("2025-01-31T15:04:05.012345678Z");
+        String expected = LocalDateTime.ofInstant(instant, ZoneOffset.of("-05:00"))
+                .format(DateTimeFormatter.ofPattern(LogRecord.DATE_FORMAT));
+
+        assertEquals(expected, EcsClock.formatDate(instant));
+        assertEquals("31/01/2025 10:04:05:0123", EcsClock.formatDate(instant));
+    }
+
+    @Test
+    void shouldRefreshCachedSecond() {
+        assertEquals("31/01/2025 10:04:05:0000", EcsClock.formatDate(Instant.parse("2025-01-31T15:04:05Z")));
+        assertEquals("31/01/2025 10:04:06:9999",
+                EcsClock.formatDate(Instant.parse("2025-01-31T15:04:06.999999999Z")));
+        assertEquals("2025-01-31T15:04:05.000Z", EcsClock.formatIso(Instant.parse("2025-01-31T15:04:05Z")));
+        assertEquals("2025-01-31T15:04:06.999Z", EcsClock.formatIso(Instant.parse("2025-01-31T15:04:06.999999Z")));
+    }
+
+    @Test
+    void shouldFormatParsableIsoTimestamp() {
+        String timestamp = EcsClock.currentIsoTimestamp();
+
+        assertTrue(timestamp.matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}Z"));
+        assertNotNull(Instant.parse(timestamp));
+    }
+
+    @Test
+    void shouldFormatCurrentDate() {
+        assertTrue(EcsClock.currentDate().matches("\\d{2}/\\d{2}/\\d{4} \\d{2}:\\d{2}:\\d{2}:\\d{4}"));
+    }
+
+    @Test
+    void shouldAddIsoTimestampOnlyWhenEnabled() {
+        assertNull(EcsClock.currentIsoTimestampIfEnabled());
+        assertNull(LogRecord.builder().build().getTimestamp());
+
+        EcsClock.setIsoTimestampEnabled(true);
+
+        assertNotNull(EcsClock.currentIsoTimestampIfEnabled());
+        assertTrue(LogRecord.builder().build().toJson().contains("\"@timestamp\":\""));
+    }
+
+    @Test
+    void shouldConvertDateToIsoTimestamp() {
+        assertEquals("2025-01-31T15:04:05.123Z", EcsClock.toIsoTimestamp("31/01/2025 10:04:05:1234"));
+        assertNull(EcsClock.toIsoTimestamp("2025-01-31"));
+        assertNull(EcsClock.toIsoTimestamp(null));
+    }
+}
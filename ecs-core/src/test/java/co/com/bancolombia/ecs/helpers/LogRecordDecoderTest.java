@@ -0,0 +1,63 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LogRecordDecoderTest {
+
+    @ParameterizedTest
+    @EnumSource(BinaryEncoding.class)
+    void shouldDecodeConcatenatedRecords(BinaryEncoding encoding) throws Exception {
+        LogRecord<String, String> first = LoggerEcsTestHelper.generateTestLogRecord();
+        LogRecord<String, String> second = LoggerEcsTestHelper.generateTestLogRecord();
+        second.setLevel(LogRecord.Level.ERROR);
+
+        var decoded = LogRecordDecoder.decode(concat(encoding, first, second), encoding);
+
+        assertEquals(2, decoded.size());
+        assertEquals("INFO", decoded.get(0).get("level"));
+        assertEquals("ERROR", decoded.get(1).get("level"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(BinaryEncoding.class)
+    void shouldConvertRecordsToJsonLines(BinaryEncoding encoding) throws Exception {
+        LogRecord<String, String> first = LoggerEcsTestHelper.generateTestLogRecord();
+        LogRecord<String, String> second = LoggerEcsTestHelper.generateTestLogRecord();
+        var output = new StringWriter();
+
+        long count = LogRecordDecoder.toNdjson(
+                new ByteArrayInputStream(concat(encoding, first, second)), encoding, output);
+
+        assertEquals(2, count);
+        assertEquals(first.toJson() + "\n" + second.toJson() + "\n", output.toString());
+    }
+
+    @ParameterizedTest
+    @EnumSource(BinaryEncoding.class)
+    void shouldFailOnTruncatedRecord(BinaryEncoding encoding) {
+        byte[] bytes = LogRecordSerializer.toBytes(LoggerEcsTestHelper.generateTestLogRecord(), encoding);
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+
+        assertThrows(IOException.class, () -> LogRecordDecoder.decode(truncated, encoding));
+    }
+
+    @SafeVarargs
+    private static byte[] concat(BinaryEncoding encoding, LogRecord<String, String>... records) {
+        var output = new ByteArrayOutputStream();
+        for (LogRecord<String, String> logRecord : records) {
+            output.writeBytes(LogRecordSerializer.toBytes(logRecord, encoding));
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,167 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.model.request.RawJsonBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogRecordModuleTest {
+
+    private final ObjectMapper reflective = new ObjectMapper();
+    private final ObjectMapper generated = new ObjectMapper().registerModule(new LogRecordModule());
+    private final ObjectMapper ecs = new ObjectMapper().registerModule(new LogRecordModule(OutputSchema.ECS));
+
+    @Test
+    void shouldWriteFullRecordLikeBeanSerializer() throws Exception {
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+        logRecord.setTimestamp("2025-01-31T15:04:05.123Z");
+        logRecord.setError(LogRecord.ErrorLog.<String, String>builder()
+                .type("type")
+                .message("quoted \"message\"")
+                .optionalInfo(Map.of("key", "value"))
+                .build());
+
+        assertSameJson(logRecord);
+    }
+
+    @Test
+    void shouldOmitNullFieldsAndWriteNullErrorFields() throws Exception {
+        var logRecord = new LogRecord<String, String>();
+        logRecord.setMessageId("id");
+        logRecord.setAdditionalInfo(new LogRecord.AdditionalInfo<>());
+        logRecord.setError(new LogRecord.ErrorLog<>());
+
+        assertSameJson(logRecord);
+        assertTrue(generated.writeValueAsString(logRecord)
+                .contains("\"error\":{\"type\":null,\"message\":null,\"description\":null,\"optionalInfo\":null}"));
+    }
+
+    @Test
+    void shouldWriteMapsWithAnyKeyAndValue() throws Exception {
+        Map<Object, Object> body = new LinkedHashMap<>();
+        body.put("text", "value");
+        body.put("missing", null);
+        body.put(7, List.of(1, "two"));
+        var logRecord = new LogRecord<Object, Object>();
+        logRecord.setMessageId("id");
+        logRecord.setLevel(LogRecord.Level.WARNING);
+        logRecord.setAdditionalInfo(LogRecord.AdditionalInfo.builder().requestBody(body).responseBody(Map.of()).build());
+
+        assertSameJson(logRecord);
+    }
+
+    @Test
+    void shouldFailLikeBeanSerializerForUnserializableValues() {
+        class Unserializable {
+        }
+        var logRecord = new LogRecord<String, Object>();
+        logRecord.setAdditionalInfo(LogRecord.AdditionalInfo.<String, Object>builder()
+                .responseBody(Map.of("key", new Unserializable()))
+                .build());
+
+        assertThrows(InvalidDefinitionException.class, () -> generated.writeValueAsString(logRecord));
+    }
+
+    @Test
+    void shouldKeepFieldsOfSubclasses() throws Exception {
+        var logRecord = new ExtendedLogRecord();
+        logRecord.setMessageId("id");
+
+        assertTrue(generated.writeValueAsString(logRecord).contains("\"channel\":\"web\""));
+        assertSameJson(logRecord);
+    }
+
+    @Test
+    void shouldEmbedRawBodiesLikeParsedMaps() throws Exception {
+        String json = "{\"name\":\"caf\u00e9\",\"items\":[1,{\"a\":null}],\"nested\":{\"ok\":true}}";
+        String text = "plain \"text\"";
+        LogRecord<String, String> parsed = LoggerEcsTestHelper.generateTestLogRecord();
+        parsed.getAdditionalInfo().setRequestBody(HandlerHelper.parseToMap(json));
+        parsed.getAdditionalInfo().setResponseBody(HandlerHelper.parseToMap(text));
+        LogRecord<String, String> raw = LoggerEcsTestHelper.generateTestLogRecord();
+        raw.setDate(parsed.getDate());
+        raw.setMessageId(parsed.getMessageId());
+        raw.getAdditionalInfo().setRequestBody(null);
+        raw.getAdditionalInfo().setResponseBody(null);
+        raw.getAdditionalInfo().setRawRequestBody(
+                RawJsonBody.ofJson(json.getBytes(StandardCharsets.UTF_8), "application/json"));
+        raw.getAdditionalInfo().setRawResponseBody(RawJsonBody.ofText(text, "text/plain"));
+
+        assertEquals(generated.writeValueAsString(parsed), generated.writeValueAsString(raw));
+        assertEquals(new String(generated.writeValueAsBytes(parsed), StandardCharsets.UTF_8),
+                new String(generated.writeValueAsBytes(raw), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldWriteEcsFieldNames() throws Exception {
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+        logRecord.setTimestamp("2025-01-31T15:04:05.123Z");
+        logRecord.setLevel(LogRecord.Level.WARNING);
+        logRecord.getAdditionalInfo().setRequestBody(null);
+        logRecord.getAdditionalInfo().setRawRequestBody(
+                RawJsonBody.ofJson("{\"id\":1}".getBytes(StandardCharsets.UTF_8), "application/json"));
+        logRecord.setError(LogRecord.ErrorLog.<String, String>builder()
+                .type("type")
+                .message("message")
+                .optionalInfo(Map.of("key", "value"))
+                .build());
+
+        assertEquals("{\"@timestamp\":\"2025-01-31T15:04:05.123Z\",\"log\":{\"level\":\"warn\"},"
+                        + "\"ecs\":{\"version\":\"8.11.0\"},\"service\":{\"name\":\"TestService\"},"
+                        + "\"trace\":{\"id\":\"test-message-id\"},"
+                        + "\"labels\":{\"consumer\":\"test-consumer\",\"response_result\":\"OK\"},"
+                        + "\"url\":{\"path\":\"/test/endpoint\"},"
+                        + "\"http\":{\"request\":{\"method\":\"POST\","
+                        + "\"headers\":{\"Content-Type\":\"application/json\"},"
+                        + "\"body\":{\"data\":{\"id\":1}}},"
+                        + "\"response\":{\"status_code\":200,\"body\":{\"data\":{\"result\":\"success\"}}}},"
+                        + "\"error\":{\"type\":\"type\",\"message\":\"message\",\"details\":{\"key\":\"value\"}}}",
+                ecs.writeValueAsString(logRecord));
+    }
+
+    @Test
+    void shouldWriteEcsTextBodiesStatusCodesAndMissingGroups() throws Exception {
+        var logRecord = new LogRecord<String, String>();
+        logRecord.setMessageId("id");
+        logRecord.setDate("31/01/2025 10:04:05:1230");
+        logRecord.setTimestamp(null);
+        logRecord.setAdditionalInfo(LogRecord.AdditionalInfo.<String, String>builder()
+                .responseCode("2xx")
+                .rawResponseBody(RawJsonBody.ofText("plain", "text/plain"))
+                .build());
+
+        assertEquals("{\"@timestamp\":\"2025-01-31T15:04:05.123Z\",\"ecs\":{\"version\":\"8.11.0\"},"
+                        + "\"trace\":{\"id\":\"id\"},"
+                        + "\"http\":{\"response\":{\"status_code\":\"2xx\",\"body\":{\"content\":\"plain\"}}}}",
+                ecs.writeValueAsString(logRecord));
+    }
+
+    @Test
+    void shouldOmitTheEcsTraceWithoutMessageId() throws Exception {
+        var logRecord = new LogRecord<String, String>();
+        logRecord.setTimestamp("2025-01-31T15:04:05.123Z");
+
+        assertEquals("{\"@timestamp\":\"2025-01-31T15:04:05.123Z\",\"ecs\":{\"version\":\"8.11.0\"}}",
+                ecs.writeValueAsString(logRecord));
+    }
+
+    private void assertSameJson(LogRecord<?, ?> logRecord) throws Exception {
+        assertEquals(reflective.writeValueAsString(logRecord), generated.writeValueAsString(logRecord));
+    }
+
+    @Getter
+    private static final class ExtendedLogRecord extends LogRecord<String, String> {
+        private final String channel = "web";
+    }
+}
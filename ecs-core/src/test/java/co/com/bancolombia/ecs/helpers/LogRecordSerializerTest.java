@@ -0,0 +1,95 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.model.request.RawJsonBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogRecordSerializerTest {
+
+    @Test
+    void shouldProduceSameJsonAsObjectMapper() throws Exception {
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+
+        String expected = new ObjectMapper().writeValueAsString(logRecord);
+
+        assertEquals(expected, LogRecordSerializer.toJson(logRecord));
+    }
+
+    @Test
+    void shouldReuseBufferWithoutLeakingPreviousContent() {
+        LogRecord<String, String> large = LoggerEcsTestHelper.generateTestLogRecord();
+        large.getAdditionalInfo().setResponseBody(Map.of("payload", "x".repeat(100_000)));
+        LogRecord<String, String> small = LoggerEcsTestHelper.generateTestLogRecord();
+
+        String largeJson = LogRecordSerializer.toJson(large);
+        String smallJson = LogRecordSerializer.toJson(small);
+
+        assertTrue(largeJson.length() > 100_000);
+        assertEquals(small.toJson(), smallJson);
+        assertTrue(smallJson.length() < 1_000);
+    }
+
+    @Test
+    void shouldReturnFailureMessageWhenRecordIsNotSerializable() {
+        class Unserializable {
+        }
+        var jsonRecord = new LogRecord<String, Object>();
+        jsonRecord.setAdditionalInfo(LogRecord.AdditionalInfo.<String, Object>builder()
+                .responseBody(Map.of("key", new Unserializable()))
+                .build());
+
+        assertEquals(LogRecordSerializer.JSON_CONVERSION_FAIL, LogRecordSerializer.toJson(jsonRecord));
+    }
+
+    @ParameterizedTest
+    @EnumSource(BinaryEncoding.class)
+    void shouldEncodeSameFieldsInBinaryFormats(BinaryEncoding encoding) throws Exception {
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+        logRecord.getAdditionalInfo().setRequestBody(null);
+        logRecord.getAdditionalInfo().setRawRequestBody(RawJsonBody.ofJson(
+                "{\"items\":[1,{\"a\":null}]}".getBytes(StandardCharsets.UTF_8), "application/json"));
+        Map<?, ?> expected = new ObjectMapper().readValue(logRecord.toJson(), Map.class);
+
+        List<Map<String, Object>> decoded =
+                LogRecordDecoder.decode(LogRecordSerializer.toBytes(logRecord, encoding), encoding);
+
+        assertEquals(List.of(expected), decoded);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BinaryEncoding.class)
+    void shouldEncodeRenderedJsonAndPlainTextInBinaryFormats(BinaryEncoding encoding) throws Exception {
+        var output = new ByteArrayOutputStream();
+        LogRecordSerializer.writeBinary("{\"filtered\":[\"data\"]}", encoding, output, ByteArrayOutputStream::write);
+        LogRecordSerializer.writeBinary("plain message", encoding, output, ByteArrayOutputStream::write);
+
+        assertEquals(List.of(Map.of("filtered", List.of("data")), Map.of("message", "plain message")),
+                LogRecordDecoder.decode(output.toByteArray(), encoding));
+    }
+
+    @Test
+    void shouldEncodeFailureDocumentWhenRecordIsNotSerializableInBinaryFormat() throws Exception {
+        class Unserializable {
+        }
+        var binaryRecord = new LogRecord<String, Object>();
+        binaryRecord.setAdditionalInfo(LogRecord.AdditionalInfo.<String, Object>builder()
+                .responseBody(Map.of("key", new Unserializable()))
+                .build());
+
+        byte[] bytes = LogRecordSerializer.toBytes(binaryRecord, BinaryEncoding.CBOR);
+
+        assertEquals(List.of(Map.of("error", LogRecordSerializer.BINARY_CONVERSION_FAIL)),
+                LogRecordDecoder.decode(bytes, BinaryEncoding.CBOR));
+    }
+}
@@ -0,0 +1,108 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.helpers.strategy.CustomMaskingStrategy;
+import co.com.bancolombia.ecs.helpers.strategy.FullMaskingStrategy;
+import co.com.bancolombia.ecs.helpers.strategy.MaskingStrategy;
+import co.com.bancolombia.ecs.helpers.strategy.PartialMaskingStrategy;
+import co.com.bancolombia.ecs.helpers.strategy.RemoveMaskingStrategy;
+import co.com.bancolombia.ecs.infra.config.SensitiveRulesConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MaskingJsonGeneratorTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Map<SensitiveRulesConfig.MaskingType, MaskingStrategy> STRATEGIES = Map.of(
+            SensitiveRulesConfig.MaskingType.FULL, new FullMaskingStrategy(),
+            SensitiveRulesConfig.MaskingType.PARTIAL, new PartialMaskingStrategy(),
+            SensitiveRulesConfig.MaskingType.CUSTOM, new CustomMaskingStrategy(),
+            SensitiveRulesConfig.MaskingType.REMOVE, new RemoveMaskingStrategy()
+    );
+    private static final String DOCUMENT = """
+            {"id":"abc123","user":{"name":"Juan","age":30,"card":{"number":"4111111111111111"}},
+            "items":[{"name":"first","tags":["x","yy"]},{"name":"second"},"plain",["nested"]],
+            "codes":["c1","c2","c3"],"name":"root","empty":"","nothing":null}""";
+
+    static Stream<Arguments> rules() {
+        return Stream.of(
+                Arguments.of(List.of(rule(SensitiveRulesConfig.MaskingType.PARTIAL, "name"))),
+                Arguments.of(List.of(rule(SensitiveRulesConfig.MaskingType.FULL, "user.card.number"))),
+                Arguments.of(List.of(rule(SensitiveRulesConfig.MaskingType.REMOVE, "user.name", "id"))),
+                Arguments.of(List.of(rule(SensitiveRulesConfig.MaskingType.CUSTOM, "items[*].name"))),
+                Arguments.of(List.of(rule(SensitiveRulesConfig.MaskingType.PARTIAL, "items[*].tags[*]"))),
+                Arguments.of(List.of(rule(SensitiveRulesConfig.MaskingType.FULL, "root.codes[*]", "x.codes[*]"))),
+                Arguments.of(List.of(rule(SensitiveRulesConfig.MaskingType.PARTIAL, "user.age", "user.card"))),
+                Arguments.of(List.of(
+                        rule(SensitiveRulesConfig.MaskingType.PARTIAL, "name"),
+                        rule(SensitiveRulesConfig.MaskingType.FULL, "user.name"))),
+                Arguments.of(List.of(
+                        rule(SensitiveRulesConfig.MaskingType.CUSTOM, "user.name"),
+                        rule(SensitiveRulesConfig.MaskingType.REMOVE, "name"))),
+                Arguments.of(List.of(
+                        rule(SensitiveRulesConfig.MaskingType.FULL, "user.card.number", "items[*].name", "id"),
+                        rule(SensitiveRulesConfig.MaskingType.PARTIAL, "name", "items[*].tags[*]", "user.name"),
+                        rule(SensitiveRulesConfig.MaskingType.CUSTOM, "codes[*]", "user.card.number")))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("rules")
+    void shouldProduceSameOutputAsTreeMasking(List<SensitiveRulesConfig.SensitiveDataRule> rules) throws IOException {
+        assertEquals(maskTree(rules), maskStream(rules));
+    }
+
+    @ParameterizedTest
+    @MethodSource("rules")
+    void shouldMaskTreeInOneWalkLikeOneRuleAtATime(List<SensitiveRulesConfig.SensitiveDataRule> rules)
+            throws IOException {
+        JsonNode root = MAPPER.readTree(DOCUMENT);
+        new JsonFieldNavigator(STRATEGIES).mask(root, MaskingPlan.compile(rules, STRATEGIES, OutputSchema.LEGACY));
+
+        assertEquals(maskTree(rules), MAPPER.writeValueAsString(root));
+    }
+
+    private static String maskTree(List<SensitiveRulesConfig.SensitiveDataRule> rules) throws IOException {
+        JsonNode root = MAPPER.readTree(DOCUMENT);
+        var navigator = new JsonFieldNavigator(STRATEGIES);
+        for (SensitiveRulesConfig.SensitiveDataRule rule : rules) {
+            for (String fieldPath : rule.getFieldPaths()) {
+                if (fieldPath.contains(".")) {
+                    navigator.maskFieldByPath(root, fieldPath, rule);
+                } else {
+                    navigator.maskFieldByName(root, fieldPath, rule);
+                }
+            }
+        }
+        return MAPPER.writeValueAsString(root);
+    }
+
+    private static String maskStream(List<SensitiveRulesConfig.SensitiveDataRule> rules) throws IOException {
+        var writer = new StringWriter();
+        MaskingPlan plan = MaskingPlan.compile(rules, STRATEGIES, OutputSchema.LEGACY);
+        try (JsonGenerator generator = new MaskingJsonGenerator(MAPPER.createGenerator(writer), plan)) {
+            MAPPER.writeTree(generator, MAPPER.readTree(DOCUMENT));
+        }
+        return writer.toString();
+    }
+
+    private static SensitiveRulesConfig.SensitiveDataRule rule(SensitiveRulesConfig.MaskingType type,
+                                                               String... fieldPaths) {
+        var rule = new SensitiveRulesConfig.SensitiveDataRule();
+        rule.setMaskingType(type);
+        rule.setFieldPaths(fieldPaths);
+        rule.setCustomMask("<hidden>");
+        return rule;
+    }
+}
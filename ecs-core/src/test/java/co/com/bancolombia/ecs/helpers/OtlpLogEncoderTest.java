@@ -0,0 +1,181 @@
+package co.com.bancolombia.ecs.helpers;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.infra.config.SensitiveRulesConfig;
+import co.com.bancolombia.ecs.model.request.RawJsonBody;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OtlpLogEncoderTest {
+
+    private static final long TIME = 1_700_000_000_123_456_789L;
+    private static final String FULL_MASK = "*".repeat(15);
+
+    @AfterEach
+    void tearDown() {
+        SensitiveHelper.init(null);
+        SensitiveHelper.setSchema(OutputSchema.LEGACY);
+        LogRecordSerializer.setSchema(OutputSchema.LEGACY);
+    }
+
+    @Test
+    void shouldMapRecordFieldsToOtlp() {
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+
+        var otlp = new ProtobufTestReader(OtlpLogEncoder.encodeLogRecord(logRecord, TIME));
+
+        assertEquals(TIME, otlp.number(1));
+        assertEquals(TIME, otlp.number(11));
+        assertEquals(9, otlp.number(2));
+        assertEquals("INFO", otlp.string(3));
+        assertEquals("POST /test/endpoint", otlp.message(5).string(1));
+        Map<String, ProtobufTestReader> attributes = otlp.keyValues(6);
+        assertEquals("test-message-id", attributes.get("message.id").string(1));
+        assertEquals("TestService", attributes.get("service.name").string(1));
+        assertEquals("test-consumer", attributes.get("consumer").string(1));
+        assertEquals("POST", attributes.get("http.request.method").string(1));
+        assertEquals("/test/endpoint", attributes.get("url.path").string(1));
+        assertEquals(200, attributes.get("http.response.status_code").number(3));
+        assertEquals("OK", attributes.get("http.response.result").string(1));
+        assertEquals("application/json",
+                attributes.get("http.request.header").message(6).keyValues(1).get("Content-Type").string(1));
+        assertEquals("testValue",
+                attributes.get("http.request.body").message(6).keyValues(1).get("testKey").string(1));
+    }
+
+    @Test
+    void shouldMapErrorToExceptionAttributes() {
+        LogRecord<String, Object> logRecord = new LogRecord<>();
+        logRecord.setMessageId("id");
+        logRecord.setLevel(LogRecord.Level.ERROR);
+        logRecord.setError(LogRecord.ErrorLog.<String, Object>builder()
+                .type("BusinessException")
+                .message("Something failed")
+                .description("Details")
+                .optionalInfo(Map.of("attempts", 3, "ratio", 0.5, "tags", List.of("a", true)))
+                .build());
+
+        var otlp = new ProtobufTestReader(OtlpLogEncoder.encodeLogRecord(logRecord, TIME));
+
+        assertEquals(17, otlp.number(2));
+        assertEquals("Something failed", otlp.message(5).string(1));
+        Map<String, ProtobufTestReader> attributes = otlp.keyValues(6);
+        assertEquals("BusinessException", attributes.get("exception.type").string(1));
+        assertEquals("Something failed", attributes.get("exception.message").string(1));
+        assertEquals("Details", attributes.get("error.description").string(1));
+        Map<String, ProtobufTestReader> info = attributes.get("error.optional_info").message(6).keyValues(1);
+        assertEquals(3, info.get("attempts").number(3));
+        assertEquals(0.5, Double.longBitsToDouble(info.get("ratio").number(4)));
+        List<ProtobufTestReader> tags = info.get("tags").message(5).messages(1);
+        assertEquals("a", tags.get(0).string(1));
+        assertEquals(1, tags.get(1).number(2));
+    }
+
+    @Test
+    void shouldWriteLongNestedMessages() {
+        LogRecord<String, String> logRecord = new LogRecord<>();
+        logRecord.setMessageId("id");
+        logRecord.setService("x".repeat(20_000));
+
+        var otlp = new ProtobufTestReader(OtlpLogEncoder.encodeLogRecord(logRecord, TIME));
+
+        assertEquals("x".repeat(20_000), otlp.keyValues(6).get("service.name").string(1));
+    }
+
+    @Test
+    void shouldWrapRecordsInExportRequest() {
+        byte[] first = OtlpLogEncoder.encodeLogRecord(LoggerEcsTestHelper.generateTestLogRecord(), TIME);
+        byte[] second = OtlpLogEncoder.encodeLogRecord(LoggerEcsTestHelper.generateTestLogRecord(), TIME + 1);
+
+        var request = new ProtobufTestReader(OtlpLogEncoder.encodeExportRequest(
+                Map.of("service.name", "orders"), List.of(first, second)));
+
+        ProtobufTestReader resourceLogs = request.message(1);
+        assertEquals("orders", resourceLogs.message(1).keyValues(1).get("service.name").string(1));
+        ProtobufTestReader scopeLogs = resourceLogs.message(2);
+        assertEquals(OtlpLogEncoder.SCOPE_NAME, scopeLogs.message(1).string(1));
+        List<Object> logRecords = scopeLogs.all(2);
+        assertEquals(2, logRecords.size());
+        assertArrayEquals(first, (byte[]) logRecords.get(0));
+        assertArrayEquals(second, (byte[]) logRecords.get(1));
+        assertTrue(request.all(2).isEmpty());
+    }
+
+    @Test
+    void shouldMaskFieldsAtTheirLegacyPaths() {
+        SensitiveHelper.init(Map.of("/test/endpoint", List.of(
+                rule(SensitiveRulesConfig.MaskingType.FULL, "additionalInfo.requestBody.testKey", "result"),
+                rule(SensitiveRulesConfig.MaskingType.REMOVE, "consumer"))));
+
+        var otlp = new ProtobufTestReader(
+                OtlpLogEncoder.encodeMaskedLogRecord(LoggerEcsTestHelper.generateTestLogRecord(), TIME));
+
+        Map<String, ProtobufTestReader> attributes = otlp.keyValues(6);
+        assertEquals(FULL_MASK,
+                attributes.get("http.request.body").message(6).keyValues(1).get("testKey").string(1));
+        assertEquals(FULL_MASK,
+                attributes.get("http.response.body").message(6).keyValues(1).get("result").string(1));
+        assertNull(attributes.get("consumer"));
+        assertEquals("test-message-id", attributes.get("message.id").string(1));
+        assertEquals("POST /test/endpoint", otlp.message(5).string(1));
+    }
+
+    @Test
+    void shouldMaskFieldsAtTheirEcsPaths() {
+        LogRecordSerializer.setSchema(OutputSchema.ECS);
+        SensitiveHelper.setSchema(OutputSchema.ECS);
+        SensitiveHelper.init(Map.of("/test/endpoint", List.of(rule(SensitiveRulesConfig.MaskingType.FULL,
+                "http.request.body.data.card", "labels.consumer", "additionalInfo.responseResult"))));
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+        logRecord.getAdditionalInfo().setRequestBody(null);
+        logRecord.getAdditionalInfo().setRawRequestBody(RawJsonBody.ofJson(
+                "{\"card\":\"4111111111111111\",\"amount\":10}".getBytes(), "application/json"));
+
+        var otlp = new ProtobufTestReader(OtlpLogEncoder.encodeMaskedLogRecord(logRecord, TIME));
+
+        Map<String, ProtobufTestReader> attributes = otlp.keyValues(6);
+        assertEquals("{\"card\":\"" + FULL_MASK + "\",\"amount\":10}",
+                attributes.get("http.request.body").string(1));
+        assertEquals(FULL_MASK, attributes.get("consumer").string(1));
+        // Legacy paths are translated to their ECS fields
+        assertEquals(FULL_MASK, attributes.get("http.response.result").string(1));
+        assertEquals(200, attributes.get("http.response.status_code").number(3));
+    }
+
+    @Test
+    void shouldEncodeRecordWithoutRulesAsIs() {
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+
+        assertArrayEquals(OtlpLogEncoder.encodeLogRecord(logRecord, TIME),
+                OtlpLogEncoder.encodeMaskedLogRecord(logRecord, TIME));
+    }
+
+    @Test
+    void shouldEncodeRenderedDocumentAsBody() {
+        String json = "{\"message-id\":\"rendered-id\"}";
+
+        var otlp = new ProtobufTestReader(OtlpLogEncoder.encodeRenderedLogRecord(json, TIME));
+
+        assertEquals(TIME, otlp.number(1));
+        assertEquals(json, otlp.message(5).string(1));
+        assertTrue(otlp.all(6).isEmpty());
+    }
+
+    private static SensitiveRulesConfig.SensitiveDataRule rule(SensitiveRulesConfig.MaskingType maskingType,
+                                                              String... fieldPaths) {
+        SensitiveRulesConfig.SensitiveDataRule rule = new SensitiveRulesConfig.SensitiveDataRule();
+        rule.setUriPattern("/test/endpoint");
+        rule.setFieldPaths(fieldPaths);
+        rule.setMaskingType(maskingType);
+        rule.setEnabled(true);
+        return rule;
+    }
+}
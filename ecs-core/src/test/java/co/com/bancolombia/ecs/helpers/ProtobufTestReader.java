@@ -0,0 +1,94 @@
+package co.com.bancolombia.ecs.helpers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the fields of a protocol buffers message for assertions: varints and fixed64 values as
+ * {@link Long}, length-delimited values as {@code byte[]}.
+ */
+public final class ProtobufTestReader {
+
+    private final Map<Integer, List<Object>> fields = new LinkedHashMap<>();
+
+    public ProtobufTestReader(byte[] message) {
+        int position = 0;
+        while (position < message.length) {
+            long[] tag = varint(message, position);
+            position = (int) tag[1];
+            int field = (int) (tag[0] >>> 3);
+            Object value;
+            switch ((int) (tag[0] & 7)) {
+                case 0 -> {
+                    long[] read = varint(message, position);
+                    value = read[0];
+                    position = (int) read[1];
+                }
+                case 1 -> {
+                    long fixed = 0;
+                    for (int i = 0; i < Long.BYTES; i++) {
+                        fixed |= (message[position + i] & 0xFFL) << (8 * i);
+                    }
+                    value = fixed;
+                    position += Long.BYTES;
+                }
+                case 2 -> {
+                    long[] length = varint(message, position);
+                    position = (int) length[1];
+                    byte[] bytes = new byte[(int) length[0]];
+                    System.arraycopy(message, position, bytes, 0, bytes.length);
+                    value = bytes;
+                    position += bytes.length;
+                }
+                default -> throw new IllegalArgumentException("Unsupported wire type in tag " + tag[0]);
+            }
+            fields.computeIfAbsent(field, key -> new ArrayList<>()).add(value);
+        }
+    }
+
+    public List<Object> all(int field) {
+        return fields.getOrDefault(field, List.of());
+    }
+
+    public long number(int field) {
+        return (Long) all(field).getFirst();
+    }
+
+    public String string(int field) {
+        return new String((byte[]) all(field).getFirst(), StandardCharsets.UTF_8);
+    }
+
+    public ProtobufTestReader message(int field) {
+        return new ProtobufTestReader((byte[]) all(field).getFirst());
+    }
+
+    public List<ProtobufTestReader> messages(int field) {
+        return all(field).stream().map(value -> new ProtobufTestReader((byte[]) value)).toList();
+    }
+
+    /**
+     * Reads the {@code KeyValue} entries of a field as a map of key to encoded {@code AnyValue}.
+     */
+    public Map<String, ProtobufTestReader> keyValues(int field) {
+        Map<String, ProtobufTestReader> values = new LinkedHashMap<>();
+        for (ProtobufTestReader keyValue : messages(field)) {
+            values.put(keyValue.string(1), keyValue.message(2));
+        }
+        return values;
+    }
+
+    private static long[] varint(byte[] message, int position) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = message[position++];
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        return new long[]{value, position};
+    }
+}
@@ -0,0 +1,90 @@
+package co.com.bancolombia.ecs.helpers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteMatcherTest {
+
+    private static final RouteMatcher<String> MATCHER = RouteMatcher.of(Map.of(
+            "/clients", "clients",
+            "/clients/{id}", "client",
+            "/clients/me", "me",
+            "/clients/{id}/accounts/*", "account",
+            "/clients/{id}/accounts/{number}/movements", "movements",
+            "/files/**", "files",
+            "/files/**/meta", "meta",
+            "/", "root"));
+
+    @ParameterizedTest
+    @CsvSource({
+            "/clients, clients",
+            "/clients/123, client",
+            "/clients/me, me",
+            "/clients/123/accounts/9, account",
+            "/clients/123/accounts/9/movements, movements",
+            "/clients/123/accounts/9/movements?from=2024, movements",
+            "/files, files",
+            "/files/a/b/c, files",
+            "/files/a/b/meta, meta",
+            "/files/meta, meta",
+            "/, root",
+            "clients/123, client"
+    })
+    void shouldMatchMostSpecificRoute(String path, String expected) {
+        assertEquals(expected, MATCHER.match(path).value());
+    }
+
+    @Test
+    void shouldReturnTemplateOfMatchedRoute() {
+        assertEquals("/clients/{id}/accounts/*", MATCHER.match("/clients/1/accounts/2").template());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"/clients/123/cards", "/clients//accounts/9", "/accounts", "/clients/123/accounts"})
+    void shouldNotMatchOtherPaths(String path) {
+        assertNull(MATCHER.match(path));
+    }
+
+    @Test
+    void shouldMatchSegmentsWithSameHash() {
+        // "Aa" and "BB" have the same String hash code
+        var matcher = RouteMatcher.of(Map.of("/x/Aa", "first", "/x/BB", "second"));
+
+        assertEquals("first", matcher.match("/x/Aa").value());
+        assertEquals("second", matcher.match("/x/BB").value());
+        assertNull(matcher.match("/x/Ab"));
+    }
+
+    @Test
+    void shouldTreatPartialVariablesAsLiteral() {
+        var matcher = RouteMatcher.of(Map.of("/files/file-{id}.json", "file"));
+
+        assertNull(matcher.match("/files/file-1.json"));
+        assertEquals("file", matcher.match("/files/file-{id}.json").value());
+    }
+
+    @Test
+    void shouldDetectTemplates() {
+        assertTrue(RouteMatcher.isTemplate("/clients/{id}"));
+        assertTrue(RouteMatcher.isTemplate("/files/**"));
+        assertFalse(RouteMatcher.isTemplate("/clients/me"));
+        assertFalse(RouteMatcher.isTemplate(null));
+    }
+
+    @Test
+    void shouldNotMatchWhenEmpty() {
+        var matcher = RouteMatcher.<String>of(Map.of());
+
+        assertTrue(matcher.isEmpty());
+        assertNull(matcher.match("/clients"));
+        assertNull(MATCHER.match(null));
+    }
+}
@@ -207,4 +207,104 @@ class SamplingHelperTest {
 
         assertTrue(SamplingHelper.validatePrint(logRecord));
     }
+
+    @Test
+    void shouldShareTheCounterOfATemplatedRule() {
+        SamplingConfig.SamplingRule rule = new SamplingConfig.SamplingRule();
+        rule.setShowCount(1);
+        rule.setSkipCount(1);
+
+        SamplingHelper.init(Map.of("/clients/{id}|200", rule));
+
+        assertTrue(SamplingHelper.validatePrint(record("/clients/123", null, "200")));
+        assertFalse(SamplingHelper.validatePrint(record("/clients/456", null, "200")));
+        assertTrue(SamplingHelper.validatePrint(record("/clients/789", null, "200")));
+        assertTrue(SamplingHelper.validatePrint(record("/clients/123/accounts", null, "200")));
+        assertTrue(SamplingHelper.validatePrint(record("/clients/123", null, "500")));
+    }
+
+    @Test
+    void shouldPreferALiteralRuleOverATemplate() {
+        SamplingConfig.SamplingRule skipAll = new SamplingConfig.SamplingRule();
+        skipAll.setShowCount(0);
+        skipAll.setSkipCount(1);
+        SamplingConfig.SamplingRule showAll = new SamplingConfig.SamplingRule();
+        showAll.setShowCount(1);
+        showAll.setSkipCount(0);
+
+        SamplingHelper.init(Map.of("/clients/me|200", skipAll, "/clients/{id}|200", showAll));
+
+        assertFalse(SamplingHelper.validatePrint(record("/clients/me", null, "200")));
+        assertTrue(SamplingHelper.validatePrint(record("/clients/123", null, "200")));
+    }
+
+    @Test
+    void shouldMatchALessSpecificTemplateWithARuleForTheCode() {
+        SamplingConfig.SamplingRule showAll = new SamplingConfig.SamplingRule();
+        showAll.setShowCount(1);
+        showAll.setSkipCount(0);
+        SamplingConfig.SamplingRule rule = new SamplingConfig.SamplingRule();
+        rule.setShowCount(1);
+        rule.setSkipCount(1);
+
+        SamplingHelper.init(Map.of("/clients/{id}|200", showAll, "/clients/**|500", rule));
+
+        assertTrue(SamplingHelper.validatePrint(record("/clients/7", null, "500")));
+        assertFalse(SamplingHelper.validatePrint(record("/clients/8", null, "500")));
+        assertTrue(SamplingHelper.validatePrint(record("/clients/9", null, "200")));
+        assertTrue(SamplingHelper.validatePrint(record("/clients/9", null, "200")));
+    }
+
+    @Test
+    void shouldCountUnderTheRouteOfTheHandler() {
+        SamplingConfig.SamplingRule rule = new SamplingConfig.SamplingRule();
+        rule.setShowCount(1);
+        rule.setSkipCount(1);
+
+        SamplingHelper.init(Map.of("/clients/{id}|200", rule));
+
+        // The uri has the context path, the route of the handler does not
+        assertTrue(SamplingHelper.validatePrint(record("/api/clients/123", "/clients/{id}", "200")));
+        assertFalse(SamplingHelper.validatePrint(record("/api/clients/456", "/clients/{id}", "200")));
+        assertTrue(SamplingHelper.validatePrint(record("/api/clients/789", null, "200")));
+    }
+
+    @Test
+    void shouldMatchTemplatedRulesOfErrorCodes() {
+        SamplingConfig.SamplingRule rule = new SamplingConfig.SamplingRule();
+        rule.setShowCount(1);
+        rule.setSkipCount(1);
+        LogRecord<String, String> first = record("/clients/123", null, "409");
+        first.setError(logRecordError.getError());
+        LogRecord<String, String> second = record("/clients/456", null, "409");
+        second.setError(logRecordError.getError());
+
+        SamplingHelper.init(Map.of("/clients/{id}|BPER409-52", rule));
+
+        assertTrue(SamplingHelper.validatePrint(first));
+        assertFalse(SamplingHelper.validatePrint(second));
+    }
+
+    @Test
+    void shouldRestartCountersWhenRulesAreLoaded() {
+        SamplingConfig.SamplingRule rule = new SamplingConfig.SamplingRule();
+        rule.setShowCount(1);
+        rule.setSkipCount(1);
+        SamplingHelper.init(Map.of("/test/endpoint|200", rule));
+        assertTrue(SamplingHelper.validatePrint(logRecord));
+
+        SamplingHelper.init(Map.of("/test/endpoint|200", rule));
+
+        assertTrue(SamplingHelper.validatePrint(logRecord));
+    }
+
+    private static LogRecord<String, String> record(String uri, String route, String responseCode) {
+        LogRecord<String, String> logRecord = new LogRecord<>();
+        LogRecord.AdditionalInfo<String, String> info = new LogRecord.AdditionalInfo<>();
+        info.setUri(uri);
+        info.setRoute(route);
+        info.setResponseCode(responseCode);
+        logRecord.setAdditionalInfo(info);
+        return logRecord;
+    }
 }
@@ -0,0 +1,106 @@
+package co.com.bancolombia.ecs.helpers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SanitizationPlanTest {
+
+    private static final List<Pattern> PATTERNS = List.of(
+            Pattern.compile("\\d{16}"),
+            Pattern.compile("\"pin\":\"\\d+\""),
+            Pattern.compile("[A-Z]{3}-\\d{3}"));
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"card\":\"4111111111111111\",\"name\":\"test\"}",
+            "{\"pin\":\"1234\",\"plate\":\"ABC-123\"}",
+            "{\"name\":\"nothing to replace\"}",
+            "4111111111111111ABC-123\"pin\":\"1\"",
+            ""
+    })
+    void shouldReplacePatternsLikeSequentialPasses(String text) {
+        String expected = text;
+        for (Pattern pattern : PATTERNS) {
+            expected = pattern.matcher(expected).replaceAll("****");
+        }
+
+        assertEquals(expected, SanitizationPlan.compile(Set.of(), PATTERNS, "****").replacePatterns(text));
+        assertEquals(expected, SanitizationPlan.of(Set.of(), PATTERNS, "****").replacePatterns(text));
+    }
+
+    @Test
+    void shouldApplyPatternsInOrder() {
+        var plan = SanitizationPlan.compile(Set.of(), List.of(Pattern.compile("b"), Pattern.compile("#b")), "#");
+
+        // A single pass over the alternation would give "a ###"
+        assertEquals("a ####", plan.replacePatterns("a #bbb"));
+    }
+
+    @Test
+    void shouldKeepPatternsWithFlagsOrBackReferences() {
+        var plan = SanitizationPlan.compile(Set.of(), List.of(
+                Pattern.compile("(\\d)\\1"),
+                Pattern.compile("token", Pattern.CASE_INSENSITIVE)), "*");
+
+        assertEquals("a*b * 12", plan.replacePatterns("a11b TOKEN 12"));
+    }
+
+    @Test
+    void shouldKeepPatternsWithTheSameNamedGroup() {
+        var plan = SanitizationPlan.compile(Set.of(), List.of(
+                Pattern.compile("card=(?<digits>\\d{16})"),
+                Pattern.compile("account=(?<digits>\\d{10})")), "*");
+
+        assertEquals("* and *", plan.replacePatterns("card=4111111111111111 and account=1234567890"));
+    }
+
+    @Test
+    void shouldReturnSameTextWhenNothingMatches() {
+        var text = "{\"name\":\"test\"}";
+
+        assertSame(text, SanitizationPlan.compile(Set.of(), PATTERNS, "****").replacePatterns(text));
+        assertSame(text, SanitizationPlan.compile(Set.of(), List.of(), "****").replacePatterns(text));
+    }
+
+    @Test
+    void shouldMatchFieldsIgnoringCase() {
+        var plan = SanitizationPlan.compile(Set.of("Password", "cardNumber"), List.of(), "****");
+
+        assertTrue(plan.hasFields());
+        assertTrue(plan.isSensitiveField("password"));
+        assertTrue(plan.isSensitiveField("PASSWORD"));
+        assertTrue(plan.isSensitiveField("CardNumber"));
+        assertFalse(plan.isSensitiveField("passwordHint"));
+        assertFalse(plan.isSensitiveField("name"));
+        assertEquals("****", plan.getReplacement());
+    }
+
+    @Test
+    void shouldNotMatchAnyFieldWhenNoneIsConfigured() {
+        var plan = SanitizationPlan.compile(Set.of(), List.of(), "****");
+
+        assertFalse(plan.hasFields());
+        assertFalse(plan.isSensitiveField(""));
+    }
+
+    @Test
+    void shouldNotChangeWhenTheConfigurationChanges() {
+        Set<String> fields = new HashSet<>(Set.of("password"));
+        var plan = SanitizationPlan.compile(fields, List.of(), "****");
+
+        fields.add("token");
+
+        assertFalse(plan.isSensitiveField("token"));
+    }
+}
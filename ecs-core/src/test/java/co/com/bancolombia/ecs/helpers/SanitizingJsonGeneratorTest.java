@@ -0,0 +1,62 @@
+package co.com.bancolombia.ecs.helpers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SanitizingJsonGeneratorTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Set<String> FIELDS = Set.of("password", "card");
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"password\":\"1234\",\"name\":\"test\"}",
+            "{\"user\":{\"Password\":{\"old\":\"a\",\"new\":[1,2]},\"age\":30},\"card\":[{\"n\":1}],\"ok\":true}",
+            "{\"items\":[{\"card\":\"4111\"},[{\"password\":null}],\"plain\"],\"n\":1.10,\"e\":1e3,\"big\":12345678901234567890}",
+            "[{\"password\":\"1234\"},{\"card\":{\"n\":1}}]",
+            "\"password\"",
+            "-0",
+            "{\"text\":\"\\u00e9\\n\\\"q\\\" \\ud83d\\ude42\",\"empty\":{},\"list\":[]}"
+    })
+    void shouldProduceSameOutputAsTreeSanitizing(String body) throws IOException {
+        assertEquals(DataSanitizer.sanitizeTree(body, body, SanitizationPlan.compile(FIELDS, List.of(), "****")), copy(body, "****"));
+    }
+
+    @Test
+    void shouldReplaceWholeObjectsAndArrays() throws IOException {
+        String body = "{\"card\":{\"number\":\"4111\",\"cvv\":[1,2]},\"password\":[{\"a\":1}],\"name\":\"x\"}";
+
+        assertEquals("{\"card\":\"****\",\"password\":\"****\",\"name\":\"x\"}", copy(body, "****"));
+    }
+
+    @Test
+    void shouldWriteNullWhenReplacementIsNull() throws IOException {
+        assertEquals("{\"password\":null}", copy("{\"password\":\"1234\"}", null));
+    }
+
+    @Test
+    void shouldOnlySanitizeBodiesThatAreObjects() throws IOException {
+        assertEquals("[{\"password\":\"1234\"}]", copy("[{\"password\":\"1234\"}]", "****"));
+    }
+
+    private static String copy(String json, String replacement) throws IOException {
+        var writer = new StringWriter();
+        try (JsonParser parser = MAPPER.createParser(json);
+             var generator = new SanitizingJsonGenerator(MAPPER.createGenerator(writer),
+                     SanitizationPlan.compile(FIELDS, List.of(), replacement))) {
+            parser.nextToken();
+            SanitizingJsonGenerator.copyValue(parser, generator);
+        }
+        return writer.toString();
+    }
+}
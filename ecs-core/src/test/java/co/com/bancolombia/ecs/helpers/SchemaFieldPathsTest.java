@@ -0,0 +1,49 @@
+package co.com.bancolombia.ecs.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaFieldPathsTest {
+
+    @Test
+    void shouldKeepPathsOfLegacySchema() {
+        assertEquals(List.of("additionalInfo.requestBody.password"),
+                SchemaFieldPaths.forSchema("additionalInfo.requestBody.password", OutputSchema.LEGACY));
+    }
+
+    @Test
+    void shouldTranslateLegacyPathsToEcsFields() {
+        assertEquals(List.of("http.request.body.data.password"),
+                SchemaFieldPaths.forSchema("additionalInfo.requestBody.password", OutputSchema.ECS));
+        assertEquals(List.of("http.response.body.data.items[*].card"),
+                SchemaFieldPaths.forSchema("additionalInfo.responseBody.items[*].card", OutputSchema.ECS));
+        assertEquals(List.of("http.request.headers.Authorization"),
+                SchemaFieldPaths.forSchema("additionalInfo.headers.Authorization", OutputSchema.ECS));
+        assertEquals(List.of("error.details.account"),
+                SchemaFieldPaths.forSchema("error.optionalInfo.account", OutputSchema.ECS));
+        assertEquals(List.of("http.request.body.content", "http.request.body.data.raw"),
+                SchemaFieldPaths.forSchema("additionalInfo.requestBody.raw", OutputSchema.ECS));
+        assertEquals(List.of("http.request.body.data[*].card"),
+                SchemaFieldPaths.forSchema("additionalInfo.requestBody[*].card", OutputSchema.ECS));
+    }
+
+    @Test
+    void shouldKeepPathsWrittenWithEcsNames() {
+        assertEquals(List.of("http.request.body.data.password"),
+                SchemaFieldPaths.forSchema("http.request.body.data.password", OutputSchema.ECS));
+        assertEquals(List.of("error.message"), SchemaFieldPaths.forSchema("error.message", OutputSchema.ECS));
+    }
+
+    @Test
+    void shouldTellWhetherTheSchemaWritesTheRootField() {
+        assertTrue(SchemaFieldPaths.hasRootField("additionalInfo.requestBody.password", OutputSchema.LEGACY));
+        assertFalse(SchemaFieldPaths.hasRootField("http.request.body.data.password", OutputSchema.LEGACY));
+        assertTrue(SchemaFieldPaths.hasRootField("http.request.body.data.password", OutputSchema.ECS));
+        assertFalse(SchemaFieldPaths.hasRootField("additionalInfo.custom.password", OutputSchema.ECS));
+    }
+}
@@ -1,8 +1,11 @@
 package co.com.bancolombia.ecs.helpers;
 
+import co.com.bancolombia.ecs.domain.model.LogRecord;
 import co.com.bancolombia.ecs.infra.config.SensitiveRulesConfig;
+import co.com.bancolombia.ecs.model.request.RawJsonBody;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -427,4 +430,160 @@ class SensitiveHelperTest {
         assertTrue(result.contains("\"emptyValue\":\"\""));
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldRemoveEveryMatchingArrayElement() {
+        SensitiveRulesConfig.SensitiveDataRule rule = new SensitiveRulesConfig.SensitiveDataRule();
+        rule.setFieldPaths(new String[]{"data.codes[*]"});
+        rule.setMaskingType(SensitiveRulesConfig.MaskingType.REMOVE);
+        SensitiveHelper.init(Map.of("/test/endpoint", List.of(rule)));
+
+        String result = SensitiveHelper.filterSensitiveData(
+                "{\"data\":{\"codes\":[\"a\",\"b\",1,\"c\"]}}", "/test/endpoint");
+
+        assertEquals("{\"data\":{\"codes\":[1]}}", result);
+    }
+
+    @Test
+    void shouldApplyPathsSharingPrefixesAndNamesTogether() {
+        SensitiveRulesConfig.SensitiveDataRule full = new SensitiveRulesConfig.SensitiveDataRule();
+        full.setFieldPaths(new String[]{"client.card.number", "client.card.holder", "client.contacts[*].phone"});
+        full.setMaskingType(SensitiveRulesConfig.MaskingType.FULL);
+        full.setMaskingChar("*");
+        SensitiveRulesConfig.SensitiveDataRule remove = new SensitiveRulesConfig.SensitiveDataRule();
+        remove.setFieldPaths(new String[]{"email"});
+        remove.setMaskingType(SensitiveRulesConfig.MaskingType.REMOVE);
+        SensitiveHelper.init(Map.of("/test/endpoint", List.of(full, remove)));
+
+        String result = SensitiveHelper.filterSensitiveData("{\"client\":{\"card\":{\"number\":\"4111\"," +
+                "\"holder\":\"Ana\",\"email\":\"a@b.co\"},\"contacts\":[{\"phone\":\"300\",\"email\":\"c@d.co\"}]}," +
+                "\"email\":\"e@f.co\"}", "/test/endpoint");
+
+        assertFalse(result.contains("email"));
+        assertFalse(result.contains("4111") || result.contains("Ana") || result.contains("300"));
+        assertTrue(result.contains("\"contacts\":[{\"phone\":"));
+    }
+
+    @Test
+    void shouldApplyRulesOfRouteTemplates() {
+        SensitiveRulesConfig.SensitiveDataRule template = new SensitiveRulesConfig.SensitiveDataRule();
+        template.setFieldPaths(new String[]{"document"});
+        template.setMaskingType(SensitiveRulesConfig.MaskingType.REMOVE);
+        SensitiveRulesConfig.SensitiveDataRule exact = new SensitiveRulesConfig.SensitiveDataRule();
+        exact.setFieldPaths(new String[]{"name"});
+        exact.setMaskingType(SensitiveRulesConfig.MaskingType.REMOVE);
+        SensitiveHelper.init(Map.of("/clients/{id}", List.of(template), "/clients/me", List.of(exact)));
+        String jsonInput = "{\"document\":\"123\",\"name\":\"Ana\"}";
+
+        assertTrue(SensitiveHelper.hasApplicableRules("/clients/456"));
+        assertEquals("{\"name\":\"Ana\"}", SensitiveHelper.filterSensitiveData(jsonInput, "/clients/456"));
+        assertEquals("{\"name\":\"Ana\"}", SensitiveHelper.filterSensitiveData(jsonInput, "/clients/456"));
+        assertEquals("{\"document\":\"123\"}", SensitiveHelper.filterSensitiveData(jsonInput, "/clients/me"));
+        assertFalse(SensitiveHelper.hasApplicableRules("/clients/456/accounts"));
+        assertEquals(jsonInput, SensitiveHelper.filterSensitiveData(jsonInput, "/clients/456/accounts"));
+    }
+
+    @Test
+    void shouldForgetResolvedRoutesWhenRulesChange() {
+        SensitiveRulesConfig.SensitiveDataRule rule = new SensitiveRulesConfig.SensitiveDataRule();
+        rule.setFieldPaths(new String[]{"document"});
+        SensitiveHelper.init(Map.of("/clients/*", List.of(rule)));
+        assertTrue(SensitiveHelper.hasApplicableRules("/clients/1"));
+
+        SensitiveHelper.init(Map.of("/accounts/**", List.of(rule)));
+
+        assertFalse(SensitiveHelper.hasApplicableRules("/clients/1"));
+        assertTrue(SensitiveHelper.hasApplicableRules("/accounts/1/movements"));
+    }
+
+    @Test
+    void shouldMaskRecordWhileSerializingIt() {
+        SensitiveRulesConfig.SensitiveDataRule partial = new SensitiveRulesConfig.SensitiveDataRule();
+        partial.setFieldPaths(new String[]{"testKey", "additionalInfo.headers.Content-Type"});
+        partial.setVisibilityPercentage(0.5);
+        SensitiveRulesConfig.SensitiveDataRule remove = new SensitiveRulesConfig.SensitiveDataRule();
+        remove.setFieldPaths(new String[]{"additionalInfo.responseBody.result"});
+        remove.setMaskingType(SensitiveRulesConfig.MaskingType.REMOVE);
+        SensitiveHelper.init(Map.of("/test/endpoint", List.of(partial, remove)));
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+
+        String result = SensitiveHelper.filterSensitiveData(logRecord, "/test/endpoint");
+
+        assertEquals(SensitiveHelper.filterSensitiveData(logRecord.toJson(), "/test/endpoint"), result);
+        assertTrue(result.contains("\"testKey\":\"testV****\""));
+        assertTrue(result.contains("\"responseBody\":{}"));
+        assertEquals(result, SensitiveHelper.filterApplicableSensitiveData(logRecord, "/test/endpoint"));
+    }
+
+    @Test
+    void shouldSerializeRecordWithoutChangesWhenNoRuleApplies() {
+        SensitiveHelper.init(Map.of());
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+
+        assertFalse(SensitiveHelper.hasApplicableRules("/test/endpoint"));
+        assertEquals(logRecord.toJson(), SensitiveHelper.filterSensitiveData(logRecord, "/test/endpoint"));
+        assertNull(SensitiveHelper.filterApplicableSensitiveData(logRecord, "/test/endpoint"));
+    }
+
+    @Test
+    void shouldMaskRawBodiesLikeParsedMaps() {
+        SensitiveRulesConfig.SensitiveDataRule partial = new SensitiveRulesConfig.SensitiveDataRule();
+        partial.setFieldPaths(new String[]{"testKey", "additionalInfo.responseBody.items[*].card"});
+        partial.setVisibilityPercentage(0.5);
+        SensitiveHelper.init(Map.of("/test/endpoint", List.of(partial)));
+        String response = "{\"items\":[{\"card\":\"41111111\"}],\"testKey\":\"value\"}";
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+        logRecord.getAdditionalInfo().setRequestBody(null);
+        logRecord.getAdditionalInfo().setRawRequestBody(
+                RawJsonBody.ofJson("{\"testKey\":\"testValue\"}".getBytes(StandardCharsets.UTF_8), null));
+        logRecord.getAdditionalInfo().setResponseBody(null);
+        logRecord.getAdditionalInfo().setRawResponseBody(
+                RawJsonBody.ofJson(response.getBytes(StandardCharsets.UTF_8), null));
+
+        String result = SensitiveHelper.filterSensitiveData(logRecord, "/test/endpoint");
+
+        assertEquals(SensitiveHelper.filterSensitiveData(logRecord.toJson(), "/test/endpoint"), result);
+        assertTrue(result.contains("\"requestBody\":{\"testKey\":\"testV****\"}"));
+        assertTrue(result.contains("\"card\":\"4111****\""));
+    }
+
+    @Test
+    void shouldTranslateLegacyPathsWhenSchemaIsEcs() {
+        SensitiveRulesConfig.SensitiveDataRule remove = new SensitiveRulesConfig.SensitiveDataRule();
+        remove.setFieldPaths(new String[]{"additionalInfo.requestBody.testKey", "additionalInfo.responseBody.result"});
+        remove.setMaskingType(SensitiveRulesConfig.MaskingType.REMOVE);
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+        LogRecordSerializer.setSchema(OutputSchema.ECS);
+        SensitiveHelper.setSchema(OutputSchema.ECS);
+
+        try {
+            SensitiveHelper.init(Map.of("/test/endpoint", List.of(remove)));
+
+            String result = SensitiveHelper.filterSensitiveData(logRecord, "/test/endpoint");
+
+            assertTrue(result.contains("\"http\":{\"request\":"));
+            assertFalse(result.contains("testValue"));
+            assertFalse(result.contains("success"));
+        } finally {
+            SensitiveHelper.setSchema(OutputSchema.LEGACY);
+            LogRecordSerializer.setSchema(OutputSchema.LEGACY);
+        }
+    }
+
+    @Test
+    void shouldCompileLoadedRulesAgainWhenSchemaChanges() {
+        SensitiveRulesConfig.SensitiveDataRule remove = new SensitiveRulesConfig.SensitiveDataRule();
+        remove.setFieldPaths(new String[]{"additionalInfo.requestBody.testKey"});
+        remove.setMaskingType(SensitiveRulesConfig.MaskingType.REMOVE);
+        SensitiveHelper.init(Map.of("/test/endpoint", List.of(remove)));
+        String ecsDocument = "{\"http\":{\"request\":{\"body\":{\"data\":{\"testKey\":\"testValue\"}}}}}";
+
+        assertEquals(ecsDocument, SensitiveHelper.filterSensitiveData(ecsDocument, "/test/endpoint"));
+        SensitiveHelper.setSchema(OutputSchema.ECS);
+        try {
+            assertEquals("{\"http\":{\"request\":{\"body\":{\"data\":{}}}}}",
+                    SensitiveHelper.filterSensitiveData(ecsDocument, "/test/endpoint"));
+        } finally {
+            SensitiveHelper.setSchema(OutputSchema.LEGACY);
+        }
+    }
+}
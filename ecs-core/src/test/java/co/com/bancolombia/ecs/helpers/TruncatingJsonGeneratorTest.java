@@ -0,0 +1,81 @@
+package co.com.bancolombia.ecs.helpers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TruncatingJsonGeneratorTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String DOCUMENT = """
+            {"name":"abcdefghij","items":[1,2,3,4,{"x":[true]}],"deep":{"a":{"b":1}},"n":1.5,"z":null}""";
+
+    static Stream<Arguments> limits() {
+        return Stream.of(
+                Arguments.of(BodyLimits.NONE,
+                        "{\"name\":\"abcdefghij\",\"items\":[1,2,3,4,{\"x\":[true]}],\"deep\":{\"a\":{\"b\":1}},"
+                                + "\"n\":1.5,\"z\":null}"),
+                Arguments.of(new BodyLimits(0, 0, 4, 0),
+                        "{\"name\":\"abcd...[truncated: 10 chars]\",\"items\":[1,2,3,4,{\"x\":[true]}],"
+                                + "\"deep\":{\"a\":{\"b\":1}},\"n\":1.5,\"z\":null}"),
+                Arguments.of(new BodyLimits(2, 0, 0, 0),
+                        "{\"name\":\"abcdefghij\",\"items\":[1,2,3,4,\"[truncated: max-depth]\"],"
+                                + "\"deep\":{\"a\":\"[truncated: max-depth]\"},\"n\":1.5,\"z\":null}"),
+                Arguments.of(new BodyLimits(0, 2, 0, 0),
+                        "{\"name\":\"abcdefghij\",\"items\":[1,2,\"[truncated: 3 more items]\"],"
+                                + "\"deep\":{\"a\":{\"b\":1}},\"n\":1.5,\"z\":null}"),
+                Arguments.of(new BodyLimits(0, 0, 0, 40),
+                        "{\"name\":\"abcdefghij\",\"items\":[1,2,3,\"[truncated: max-chars]\"],"
+                                + "\"_truncated\":\"max-chars\"}")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("limits")
+    void shouldCutDocumentToLimits(BodyLimits limits, String expected) throws IOException {
+        assertEquals(expected, copy(DOCUMENT, limits));
+    }
+
+    @Test
+    void shouldWriteOnlyFirstValueOfParser() throws IOException {
+        assertEquals("{\"a\":1}", copy("{\"a\":1} {\"b\":2}", new BodyLimits(0, 1, 0, 0)));
+    }
+
+    @Test
+    void shouldKeepSurrogatePairsWhole() {
+        String truncated = TruncatingJsonGenerator.truncate("a😀b", 2);
+
+        assertTrue(truncated.startsWith("a..."));
+        assertEquals("abc", TruncatingJsonGenerator.truncate("abc", 0));
+    }
+
+    @Test
+    void shouldCutValuesWrittenBySerializer() throws IOException {
+        var writer = new StringWriter();
+        try (var generator = new TruncatingJsonGenerator(MAPPER.createGenerator(writer), new BodyLimits(1, 1, 0, 0))) {
+            MAPPER.writeValue(generator, new int[][]{{1, 2}, {3}});
+        }
+
+        assertEquals("[\"[truncated: max-depth]\",\"[truncated: 1 more items]\"]", writer.toString());
+    }
+
+    private static String copy(String json, BodyLimits limits) throws IOException {
+        var writer = new StringWriter();
+        try (JsonParser parser = MAPPER.createParser(json);
+             var generator = new TruncatingJsonGenerator(MAPPER.createGenerator(writer), limits)) {
+            parser.nextToken();
+            TruncatingJsonGenerator.copyValue(parser, generator);
+        }
+        return writer.toString();
+    }
+}
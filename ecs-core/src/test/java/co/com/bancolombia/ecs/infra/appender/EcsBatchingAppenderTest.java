@@ -0,0 +1,48 @@
+package co.com.bancolombia.ecs.infra.appender;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.helpers.LoggerEcsTestHelper;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EcsBatchingAppenderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldWriteNdjsonRecordsToFileOnStop() throws IOException {
+        Path file = directory.resolve("ecs.ndjson");
+        EcsBatchingAppender appender = EcsBatchingAppender.createAppender(
+                "BATCH", file.toString(), 100, TimeUnit.SECONDS.toMicros(60), 4096, null, null);
+        appender.start();
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+
+        appender.append(event(EcsLogMessage.of(logRecord)));
+        appender.append(event(new SimpleMessage("plain message")));
+        appender.stop(1, TimeUnit.SECONDS);
+
+        assertEquals(logRecord.toJson() + "\nplain message\n", Files.readString(file));
+        assertEquals(1, appender.getWriter().getBatchCount());
+        assertEquals(2, appender.getWriter().getRecordCount());
+    }
+
+    private static Log4jLogEvent event(Message message) {
+        return Log4jLogEvent.newBuilder()
+                .setLevel(Level.INFO)
+                .setMessage(message)
+                .build();
+    }
+}
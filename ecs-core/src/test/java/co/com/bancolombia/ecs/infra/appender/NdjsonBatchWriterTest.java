@@ -0,0 +1,141 @@
+package co.com.bancolombia.ecs.infra.appender;
+
+import co.com.bancolombia.ecs.infra.layout.EcsJsonLayout;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NdjsonBatchWriterTest {
+
+    private static final EcsJsonLayout LAYOUT = EcsJsonLayout.createLayout();
+
+    private final CapturingChannel channel = new CapturingChannel();
+    private NdjsonBatchWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void shouldWriteOneBlockPerFullBatch() {
+        writer = new NdjsonBatchWriter(channel, true, 3, TimeUnit.SECONDS.toNanos(60), 1024);
+
+        writer.write(event("1"), LAYOUT);
+        writer.write(event("2"), LAYOUT);
+        assertEquals(0, channel.writes.size());
+        writer.write(event("3"), LAYOUT);
+
+        assertEquals(List.of("1\n2\n3\n"), channel.writes);
+        assertEquals(1, writer.getBatchCount());
+        assertEquals(3, writer.getRecordCount());
+    }
+
+    @Test
+    void shouldWriteBatchOnceMaxDelayHasPassed() throws InterruptedException {
+        writer = new NdjsonBatchWriter(channel, true, 100, TimeUnit.MILLISECONDS.toNanos(20), 1024);
+
+        writer.write(event("1"), LAYOUT);
+        writer.write(event("2"), LAYOUT);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (channel.writes.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(List.of("1\n2\n"), channel.writes);
+    }
+
+    @Test
+    void shouldWriteBatchWhenBufferIsFull() {
+        writer = new NdjsonBatchWriter(channel, true, 100, TimeUnit.SECONDS.toNanos(60), 8);
+
+        writer.write(event("12345"), LAYOUT);
+        writer.write(event("67890"), LAYOUT);
+        writer.flush();
+
+        assertEquals("12345\n67890\n", String.join("", channel.writes));
+        assertTrue(channel.writes.size() > 1);
+    }
+
+    @Test
+    void shouldFlushAndCloseChannelOnClose() {
+        writer = new NdjsonBatchWriter(channel, true, 100, TimeUnit.SECONDS.toNanos(60), 1024);
+        writer.write(event("pending"), LAYOUT);
+
+        writer.close();
+
+        assertEquals(List.of("pending\n"), channel.writes);
+        assertTrue(channel.closed);
+    }
+
+    @Test
+    void shouldCountFailedWrites() {
+        channel.failing = true;
+        writer = new NdjsonBatchWriter(channel, false, 1, TimeUnit.SECONDS.toNanos(60), 1024);
+
+        writer.write(event("lost"), LAYOUT);
+
+        assertEquals(1, writer.getFailedWriteCount());
+        assertEquals(0, writer.getBatchCount());
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new NdjsonBatchWriter(channel, true, 0, 1, 1));
+    }
+
+    private static LogEvent event(String text) {
+        return Log4jLogEvent.newBuilder()
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(text))
+                .build();
+    }
+
+    private static final class CapturingChannel implements WritableByteChannel {
+        private final List<String> writes = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+        private volatile boolean closed;
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failing) {
+                throw new IOException("disk full");
+            }
+            var bytes = new ByteArrayOutputStream();
+            int length = src.remaining();
+            while (src.hasRemaining()) {
+                bytes.write(src.get());
+            }
+            writes.add(bytes.toString(StandardCharsets.UTF_8));
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package co.com.bancolombia.ecs.infra.async;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncLogDispatcherTest {
+
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private final CountDownLatch consumerBlocked = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AsyncLogDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    @Test
+    void shouldWriteRecordsOnConsumerThread() throws InterruptedException {
+        CountDownLatch writtenLatch = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        dispatcher = new AsyncLogDispatcher(4, 1, OverflowPolicy.BLOCK, 1, 1000, logRecord -> {
+            threads.add(Thread.currentThread().getName());
+            writtenLatch.countDown();
+        });
+
+        assertTrue(dispatcher.dispatch(record("1", LogRecord.Level.INFO)));
+
+        assertTrue(writtenLatch.await(5, TimeUnit.SECONDS));
+        assertTrue(threads.getFirst().startsWith("ecs-log-dispatcher-"));
+    }
+
+    @Test
+    void shouldDropOldestRecordWhenFull() throws InterruptedException {
+        dispatcher = blockedDispatcher(OverflowPolicy.DROP_OLDEST, 1);
+
+        dispatcher.dispatch(record("queued-1", LogRecord.Level.INFO));
+        dispatcher.dispatch(record("queued-2", LogRecord.Level.INFO));
+        dispatcher.dispatch(record("queued-3", LogRecord.Level.INFO));
+        release.countDown();
+        dispatcher.close();
+
+        assertEquals(List.of("blocker", "queued-2", "queued-3"), written);
+        assertEquals(1, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    void shouldOnlyDropNonCriticalRecordsByLevel() throws InterruptedException {
+        dispatcher = blockedDispatcher(OverflowPolicy.DROP_BY_LEVEL, 1);
+        dispatcher.dispatch(record("queued-1", LogRecord.Level.INFO));
+        dispatcher.dispatch(record("queued-2", LogRecord.Level.INFO));
+
+        dispatcher.dispatch(record("info", LogRecord.Level.INFO));
+        assertEquals(1, dispatcher.getDroppedCount());
+
+        Thread producer = Thread.ofVirtual().start(() -> dispatcher.dispatch(record("error", LogRecord.Level.ERROR)));
+        release.countDown();
+        producer.join(5000);
+        dispatcher.close();
+
+        assertEquals(List.of("blocker", "queued-1", "queued-2", "error"), written);
+        assertEquals(1, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    void shouldKeepOneOfEverySampleRateRecordsWhenFull() throws InterruptedException {
+        dispatcher = blockedDispatcher(OverflowPolicy.SAMPLE, 3);
+        dispatcher.dispatch(record("queued-1", LogRecord.Level.INFO));
+        dispatcher.dispatch(record("queued-2", LogRecord.Level.INFO));
+
+        dispatcher.dispatch(record("overflow-1", LogRecord.Level.INFO));
+        dispatcher.dispatch(record("overflow-2", LogRecord.Level.INFO));
+
+        assertEquals(2, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    void shouldReturnFalseWhenClosed() {
+        dispatcher = new AsyncLogDispatcher(4, 1, OverflowPolicy.BLOCK, 1, 1000, logRecord -> written.add("x"));
+        dispatcher.close();
+
+        assertFalse(dispatcher.dispatch(record("late", LogRecord.Level.INFO)));
+    }
+
+    @Test
+    void shouldDrainPendingRecordsOnClose() throws InterruptedException {
+        dispatcher = blockedDispatcher(OverflowPolicy.BLOCK, 1);
+        dispatcher.dispatch(record("queued-1", LogRecord.Level.INFO));
+        release.countDown();
+
+        dispatcher.close();
+
+        assertEquals(List.of("blocker", "queued-1"), written);
+        assertEquals(0, dispatcher.getQueueSize());
+    }
+
+    @Test
+    void shouldWriteEveryAcceptedRecordWhenClosingWhileDispatching() throws InterruptedException {
+        AtomicInteger writes = new AtomicInteger();
+        AtomicInteger accepted = new AtomicInteger();
+        dispatcher = new AsyncLogDispatcher(8, 1, OverflowPolicy.BLOCK, 1, 1000,
+                logRecord -> writes.incrementAndGet());
+        CountDownLatch started = new CountDownLatch(4);
+        List<Thread> producers = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread producer = new Thread(() -> {
+                started.countDown();
+                for (int n = 0; n < 20_000; n++) {
+                    if (dispatcher.dispatch(record("r", LogRecord.Level.INFO))) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        dispatcher.close();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertEquals(accepted.get(), writes.get());
+        assertEquals(0, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AsyncLogDispatcher(0, 1, OverflowPolicy.BLOCK, 1, 1000, logRecord -> { }));
+    }
+
+    /**
+     * Builds a dispatcher with a queue of two records whose consumer is stuck writing a first record.
+     */
+    private AsyncLogDispatcher blockedDispatcher(OverflowPolicy policy, int sampleRate) throws InterruptedException {
+        var blocked = new AsyncLogDispatcher(2, 1, policy, sampleRate, 5000, logRecord -> {
+            if ("blocker".equals(logRecord.getMessageId())) {
+                consumerBlocked.countDown();
+                awaitRelease();
+            }
+            written.add(logRecord.getMessageId());
+        });
+        blocked.dispatch(record("blocker", LogRecord.Level.INFO));
+        assertTrue(consumerBlocked.await(5, TimeUnit.SECONDS));
+        return blocked;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static LogRecord<String, String> record(String messageId, LogRecord.Level level) {
+        var logRecord = new LogRecord<String, String>();
+        logRecord.setMessageId(messageId);
+        logRecord.setLevel(level);
+        return logRecord;
+    }
+}
@@ -0,0 +1,54 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.helpers.BodyLimits;
+import co.com.bancolombia.ecs.helpers.BodyLimitsHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BodyLimitsInitializerTest {
+
+    @AfterEach
+    void tearDown() {
+        BodyLimitsHelper.init(null, null, null, null);
+    }
+
+    @Test
+    void shouldApplyDirectionLimitsAndRouteOverrides() {
+        var properties = new BodyLimitsProperties();
+        properties.getRequest().setMaxChars(1024);
+        properties.getResponse().setMaxArrayElements(50);
+        properties.getResponse().setMaxStringLength(200);
+        var route = new BodyLimitsProperties.RouteLimits();
+        route.setPath("/products");
+        route.getResponse().setMaxArrayElements(5);
+        properties.setRoutes(List.of(route));
+
+        new BodyLimitsInitializer(properties);
+
+        assertEquals(new BodyLimits(0, 0, 0, 1024), BodyLimitsHelper.forRequest("/products"));
+        assertEquals(new BodyLimits(0, 50, 200, 0), BodyLimitsHelper.forResponse("/accounts"));
+        assertEquals(new BodyLimits(0, 5, 200, 0), BodyLimitsHelper.forResponse("/products"));
+        assertEquals(new BodyLimits(0, 50, 200, 0), BodyLimitsHelper.forResponse(null));
+    }
+
+    @Test
+    void shouldBeUnlimitedByDefault() {
+        new BodyLimitsInitializer(new BodyLimitsProperties());
+
+        assertEquals(BodyLimits.NONE, BodyLimitsHelper.forRequest("/any"));
+        assertEquals(BodyLimits.NONE, BodyLimitsHelper.forResponse("/any"));
+    }
+
+    @Test
+    void shouldRejectRouteWithoutPath() {
+        var properties = new BodyLimitsProperties();
+        properties.setRoutes(List.of(new BodyLimitsProperties.RouteLimits()));
+
+        assertThrows(IllegalArgumentException.class, () -> new BodyLimitsInitializer(properties));
+    }
+}
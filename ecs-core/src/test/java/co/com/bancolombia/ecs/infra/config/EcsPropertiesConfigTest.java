@@ -1,6 +1,7 @@
 package co.com.bancolombia.ecs.infra.config;
 
 import co.com.bancolombia.ecs.domain.model.ExceptionLevel;
+import co.com.bancolombia.ecs.helpers.DataSanitizer;
 import co.com.bancolombia.ecs.infra.config.sensitive.SensitiveRequestProperties;
 import co.com.bancolombia.ecs.infra.config.sensitive.SensitiveResponseProperties;
 import co.com.bancolombia.ecs.infra.config.service.ServiceProperties;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class EcsPropertiesConfigTest {
@@ -62,6 +64,25 @@ class EcsPropertiesConfigTest {
         assertEquals("***", config.getSensitiveResponseReplacement());
     }
 
+    @Test
+    void testShouldCompileSanitizationPlans() {
+        assertEquals("***", config.getRequestSanitizationPlan().getReplacement());
+        assertEquals("{\"PASSWORD\":\"***\",\"name\":\"test\"}",
+                DataSanitizer.sanitize("{\"PASSWORD\":\"1234\",\"name\":\"test\"}",
+                        config.getRequestSanitizationPlan()));
+        assertEquals("{\"sessionId\":\"***\"}",
+                DataSanitizer.sanitize("{\"sessionId\":\"abc\"}", config.getResponseSanitizationPlan()));
+    }
+
+    @Test
+    void testShouldNotCompileSanitizationPlansWhenBodiesAreNotShown() {
+        reqProps.setShow(Boolean.FALSE);
+        resProps.setShow(Boolean.FALSE);
+        config = new EcsPropertiesConfig(serviceProps, reqProps, resProps, printOnErrorProperties);
+        assertNull(config.getRequestSanitizationPlan());
+        assertNull(config.getResponseSanitizationPlan());
+    }
+
     @Test
     void testShouldParseRequestPropertiesShowFalse() {
         reqProps.setShow(Boolean.FALSE);
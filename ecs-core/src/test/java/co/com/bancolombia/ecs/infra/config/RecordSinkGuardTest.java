@@ -0,0 +1,35 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.application.LoggerEcs;
+import co.com.bancolombia.ecs.infra.sink.EcsRecordSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class RecordSinkGuardTest {
+
+    @AfterEach
+    void tearDown() {
+        LoggerEcs.setSink(null);
+    }
+
+    @Test
+    void shouldAllowFirstSink() {
+        assertDoesNotThrow(() -> RecordSinkGuard.requireNoActiveSink("adapter.ecs.logs.otlp"));
+    }
+
+    @Test
+    void shouldFailWhenSecondSinkIsEnabled() {
+        LoggerEcs.setSink(mock(EcsRecordSink.class));
+        var shipperProperties = new ShipperProperties();
+        shipperProperties.setEnabled(true);
+
+        var error = assertThrows(IllegalStateException.class, () -> new ShipperInitializer(shipperProperties));
+
+        assertTrue(error.getMessage().contains("adapter.ecs.logs.shipper"));
+    }
+}
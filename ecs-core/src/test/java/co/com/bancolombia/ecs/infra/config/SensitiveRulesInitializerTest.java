@@ -1,5 +1,6 @@
 package co.com.bancolombia.ecs.infra.config;
 
+import co.com.bancolombia.ecs.helpers.OutputSchema;
 import co.com.bancolombia.ecs.helpers.SensitiveHelper;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
@@ -24,7 +25,7 @@ class SensitiveRulesInitializerTest {
         );
 
         try (MockedStatic<SensitiveHelper> mockedHelper = Mockito.mockStatic(SensitiveHelper.class)) {
-            new SensitiveRulesInitializer(sensitiveConfig);
+            new SensitiveRulesInitializer(sensitiveConfig, new OutputProperties());
             mockedHelper.verify(() -> SensitiveHelper.init(Mockito.argThat(
                     rulesMap -> rulesMap.containsKey("/retrieve-approvers") &&
                             rulesMap.containsKey("/user-profile") &&
@@ -44,7 +45,7 @@ class SensitiveRulesInitializerTest {
         );
 
         try (MockedStatic<SensitiveHelper> mockedHelper = Mockito.mockStatic(SensitiveHelper.class)) {
-            new SensitiveRulesInitializer(sensitiveConfig);
+            new SensitiveRulesInitializer(sensitiveConfig, new OutputProperties());
             mockedHelper.verify(() -> SensitiveHelper.init(Mockito.argThat(
                     rulesMap -> rulesMap.containsKey("/retrieve-approvers") &&
                             rulesMap.get("/retrieve-approvers").size() == 2
@@ -61,7 +62,7 @@ class SensitiveRulesInitializerTest {
         );
 
         try (MockedStatic<SensitiveHelper> mockedHelper = Mockito.mockStatic(SensitiveHelper.class)) {
-            new SensitiveRulesInitializer(sensitiveConfig);
+            new SensitiveRulesInitializer(sensitiveConfig, new OutputProperties());
             mockedHelper.verify(() -> SensitiveHelper.init(Map.of()), times(1));
         }
     }
@@ -76,7 +77,7 @@ class SensitiveRulesInitializerTest {
         );
 
         try (MockedStatic<SensitiveHelper> mockedHelper = Mockito.mockStatic(SensitiveHelper.class)) {
-            new SensitiveRulesInitializer(sensitiveConfig);
+            new SensitiveRulesInitializer(sensitiveConfig, new OutputProperties());
             mockedHelper.verify(() -> SensitiveHelper.init(Mockito.argThat(
                     rulesMap -> rulesMap.containsKey("/retrieve-detail") && rulesMap.size() == 1
             )), times(1));
@@ -89,7 +90,7 @@ class SensitiveRulesInitializerTest {
         sensitiveConfig.setSensitiveData(null);
 
         try (MockedStatic<SensitiveHelper> mockedHelper = Mockito.mockStatic(SensitiveHelper.class)) {
-            new SensitiveRulesInitializer(sensitiveConfig);
+            new SensitiveRulesInitializer(sensitiveConfig, new OutputProperties());
             mockedHelper.verify(() -> SensitiveHelper.init(Map.of()), times(1));
         }
     }
@@ -105,7 +106,7 @@ class SensitiveRulesInitializerTest {
 
         IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
-                () -> new SensitiveRulesInitializer(sensitiveConfig)
+                () -> new SensitiveRulesInitializer(sensitiveConfig, new OutputProperties())
         );
 
         assertTrue(exception.getMessage().contains("Error parsing sensitive data rules"));
@@ -121,7 +122,7 @@ class SensitiveRulesInitializerTest {
 
         IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
-                () -> new SensitiveRulesInitializer(sensitiveConfig)
+                () -> new SensitiveRulesInitializer(sensitiveConfig, new OutputProperties())
         );
 
         assertTrue(exception.getMessage().contains("Error parsing sensitive data rules"));
@@ -140,7 +141,7 @@ class SensitiveRulesInitializerTest {
         );
 
         try (MockedStatic<SensitiveHelper> mockedHelper = Mockito.mockStatic(SensitiveHelper.class)) {
-            new SensitiveRulesInitializer(sensitiveConfig);
+            new SensitiveRulesInitializer(sensitiveConfig, new OutputProperties());
             mockedHelper.verify(() -> SensitiveHelper.init(Mockito.argThat(
                     rulesMap -> rulesMap.size() == 3 &&
                             rulesMap.containsKey("/test-full") &&
@@ -158,11 +159,28 @@ class SensitiveRulesInitializerTest {
         );
 
         try (MockedStatic<SensitiveHelper> mockedHelper = Mockito.mockStatic(SensitiveHelper.class)) {
-            new SensitiveRulesInitializer(sensitiveConfig);
+            new SensitiveRulesInitializer(sensitiveConfig, new OutputProperties());
             mockedHelper.verify(() -> SensitiveHelper.init(Mockito.argThat(
                     rulesMap -> rulesMap.containsKey("/default-test") &&
                             rulesMap.get("/default-test").size() == 1
             )), times(1));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldCompileRulesForTheOutputSchema() {
+        SensitiveRulesConfig sensitiveConfig = new SensitiveRulesConfig();
+        sensitiveConfig.setSensitiveData(
+                "[{\"uriPattern\":\"/ecs\",\"fieldPaths\":[\"additionalInfo.requestBody.password\"]}]"
+        );
+        OutputProperties outputProperties = new OutputProperties();
+        outputProperties.setSchema(OutputSchema.ECS);
+
+        try (MockedStatic<SensitiveHelper> mockedHelper = Mockito.mockStatic(SensitiveHelper.class)) {
+            new SensitiveRulesInitializer(sensitiveConfig, outputProperties);
+            mockedHelper.verify(() -> SensitiveHelper.setSchema(OutputSchema.ECS), times(1));
+            mockedHelper.verify(() -> SensitiveHelper.init(Mockito.argThat(
+                    rulesMap -> rulesMap.containsKey("/ecs"))), times(1));
+        }
+    }
+}
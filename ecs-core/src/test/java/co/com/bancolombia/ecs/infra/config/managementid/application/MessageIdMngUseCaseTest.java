@@ -1,8 +1,11 @@
 package co.com.bancolombia.ecs.infra.config.managementid.application;
 
 import co.com.bancolombia.ecs.infra.config.managementid.domain.MessageIdRequestProperties;
+import co.com.bancolombia.ecs.infra.shared.common.domain.ContextECS;
 import org.junit.jupiter.api.Test;
 
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class MessageIdMngUseCaseTest {
@@ -53,6 +56,21 @@ class MessageIdMngUseCaseTest {
         assertNotNull(MessageIdMngUseCase.resolveForException( null));
     }
 
+    @Test
+    void shouldNotAskExceptionForMessageIdWhenContextHasOne() {
+        ContextECS.setMessageId("ctx-id");
+        try {
+            assertEquals("ctx-id", MessageIdMngUseCase.resolveForExceptionFrom(() -> fail("not expected")));
+        } finally {
+            ContextECS.clear();
+        }
+    }
+
+    @Test
+    void shouldGenerateTimeOrderedUuidWhenNoSource() {
+        assertEquals(7, UUID.fromString(MessageIdMngUseCase.resolveForExceptionFrom(() -> null)).version());
+    }
+
     @Test
     void shouldGenerateUuidForExceptionWhenFlagIsNull() {
         new MessageIdMngUseCase(new MessageIdRequestProperties(null));
@@ -0,0 +1,149 @@
+package co.com.bancolombia.ecs.infra.drain;
+
+import co.com.bancolombia.ecs.application.LoggerEcs;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+import co.com.bancolombia.ecs.infra.sink.EcsRecordSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogDrainLifecycleTest {
+
+    private final List<String> closed = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        LoggerEcs.setSink(null);
+        LoggerEcs.setDispatcher(null);
+    }
+
+    @Test
+    void shouldDrainRequestsBeforeTheSink() {
+        var requests = new OrderedBuffer("requests", DrainStage.REQUESTS, 2);
+        var sink = new OrderedSink(3);
+        LoggerEcs.setSink(sink);
+        var lifecycle = new LogDrainLifecycle(true, 5_000, List.of(requests));
+
+        lifecycle.start();
+        lifecycle.stop();
+
+        assertEquals(List.of("requests", "sink"), closed);
+        assertNull(LoggerEcs.getSink());
+        assertFalse(lifecycle.isRunning());
+        assertEquals(new DrainReport(5, 0, true), lifecycle.getLastReport());
+    }
+
+    @Test
+    void shouldDrainTheBuffersStageByStage() {
+        var output = new OrderedBuffer("output", DrainStage.OUTPUT, 1);
+        var dispatch = new OrderedBuffer("dispatch", DrainStage.DISPATCH, 1);
+        var requests = new OrderedBuffer("requests", DrainStage.REQUESTS, 1);
+        var lifecycle = new LogDrainLifecycle(true, 5_000, List.of(output, dispatch, requests));
+
+        lifecycle.start();
+        lifecycle.stop();
+
+        assertEquals(List.of("requests", "dispatch", "output"), closed);
+        assertEquals(new DrainReport(3, 0, true), lifecycle.getLastReport());
+    }
+
+    @Test
+    void shouldDrainOnlyOnce() {
+        var requests = new OrderedBuffer("requests", DrainStage.REQUESTS, 1);
+        var lifecycle = new LogDrainLifecycle(true, 5_000, List.of(requests));
+
+        lifecycle.start();
+        lifecycle.stop();
+        lifecycle.stop();
+
+        assertEquals(List.of("requests"), closed);
+    }
+
+    @Test
+    void shouldNotDrainWhenNeverStarted() {
+        var lifecycle = new LogDrainLifecycle(false, 5_000, List.of());
+
+        lifecycle.stop();
+
+        assertFalse(lifecycle.isAutoStartup());
+        assertNull(lifecycle.getLastReport());
+    }
+
+    @Test
+    void shouldStopAfterTheWebServer() {
+        var lifecycle = new LogDrainLifecycle(true, 5_000, List.of());
+
+        assertTrue(lifecycle.getPhase() < SmartLifecycle.DEFAULT_PHASE - 2048);
+    }
+
+    @Test
+    void shouldRejectInvalidTimeout() {
+        List<LogBuffer> buffers = List.of();
+
+        assertThrows(IllegalArgumentException.class, () -> new LogDrainLifecycle(true, 0, buffers));
+    }
+
+    private class OrderedBuffer implements LogBuffer {
+
+        private final String name;
+        private final DrainStage stage;
+        private long buffered;
+
+        private OrderedBuffer(String name, DrainStage stage, long buffered) {
+            this.name = name;
+            this.stage = stage;
+            this.buffered = buffered;
+        }
+
+        @Override
+        public DrainStage getDrainStage() {
+            return stage;
+        }
+
+        @Override
+        public synchronized long getBufferedRecords() {
+            return buffered;
+        }
+
+        @Override
+        public long getDroppedRecords() {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+            synchronized (closed) {
+                closed.add(name);
+            }
+            synchronized (this) {
+                buffered = 0;
+            }
+        }
+    }
+
+    private final class OrderedSink extends OrderedBuffer implements EcsRecordSink {
+
+        private OrderedSink(long buffered) {
+            super("sink", DrainStage.OUTPUT, buffered);
+        }
+
+        @Override
+        public void write(EcsLogMessage message) {
+            // Nothing is written in these tests
+        }
+
+        @Override
+        public DrainStage getDrainStage() {
+            return DrainStage.OUTPUT;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package co.com.bancolombia.ecs.infra.drain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogDrainerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void shouldReportFlushedAndDroppedRecords() {
+        var first = new TestBuffer(5, 0, null);
+        var second = new TestBuffer(3, 1, null);
+
+        DrainReport report = LogDrainer.drain(List.of(first, second), deadline(5_000));
+
+        assertEquals(new DrainReport(7, 1, true), report);
+        assertEquals(1, first.closeCount.get());
+        assertEquals(1, second.closeCount.get());
+    }
+
+    @Test
+    void shouldDrainBuffersInParallel() {
+        var started = new CountDownLatch(2);
+        var first = new TestBuffer(1, 0, () -> awaitOther(started));
+        var second = new TestBuffer(1, 0, () -> awaitOther(started));
+
+        DrainReport report = LogDrainer.drain(List.of(first, second), deadline(5_000));
+
+        assertEquals(new DrainReport(2, 0, true), report);
+    }
+
+    @Test
+    void shouldReportBufferedRecordsAsDroppedAtTheDeadline() {
+        var stuck = new TestBuffer(4, 0, this::awaitRelease);
+
+        DrainReport report = LogDrainer.drain(List.of(stuck), deadline(50));
+
+        assertFalse(report.completed());
+        assertEquals(0, report.flushed());
+        assertEquals(4, report.dropped());
+    }
+
+    @Test
+    void shouldCompleteWhenCloseFails() {
+        var failing = new TestBuffer(2, 0, () -> {
+            throw new IllegalStateException("closed");
+        });
+
+        DrainReport report = LogDrainer.drain(List.of(failing), deadline(5_000));
+
+        assertTrue(report.completed());
+    }
+
+    @Test
+    void shouldAddReports() {
+        DrainReport report = new DrainReport(1, 2, true).plus(new DrainReport(3, 4, false));
+
+        assertEquals(new DrainReport(4, 6, false), report);
+        assertEquals(report, report.plus(DrainReport.EMPTY));
+    }
+
+    private static long deadline(long millis) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static void awaitOther(CountDownLatch started) {
+        started.countDown();
+        try {
+            if (!started.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("The buffers were drained one after the other");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class TestBuffer implements LogBuffer {
+
+        private final AtomicInteger closeCount = new AtomicInteger();
+        private final long droppedOnClose;
+        private final Runnable onClose;
+        private volatile long buffered;
+        private volatile long dropped;
+
+        private TestBuffer(long buffered, long droppedOnClose, Runnable onClose) {
+            this.buffered = buffered;
+            this.droppedOnClose = droppedOnClose;
+            this.onClose = onClose;
+        }
+
+        @Override
+        public DrainStage getDrainStage() {
+            return DrainStage.OUTPUT;
+        }
+
+        @Override
+        public long getBufferedRecords() {
+            return buffered;
+        }
+
+        @Override
+        public long getDroppedRecords() {
+            return dropped;
+        }
+
+        @Override
+        public void close() {
+            closeCount.incrementAndGet();
+            if (onClose != null) {
+                onClose.run();
+            }
+            dropped += droppedOnClose;
+            buffered = 0;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package co.com.bancolombia.ecs.infra.layout;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.helpers.BinaryEncoding;
+import co.com.bancolombia.ecs.helpers.LogRecordDecoder;
+import co.com.bancolombia.ecs.helpers.LogRecordSerializer;
+import co.com.bancolombia.ecs.helpers.LoggerEcsTestHelper;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EcsBinaryLayoutTest {
+
+    @Test
+    void shouldEncodeRecordsDirectlyIntoDestination() throws Exception {
+        EcsBinaryLayout layout = EcsBinaryLayout.createLayout("smile");
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+        var destination = new CapturingDestination();
+
+        layout.encode(event(EcsLogMessage.of(logRecord)), destination);
+        layout.encode(event(EcsLogMessage.ofJson("{\"filtered\":\"data\"}")), destination);
+        layout.encode(event(new SimpleMessage("plain message")), destination);
+
+        var output = new StringWriter();
+        LogRecordDecoder.toNdjson(new ByteArrayInputStream(destination.content()), BinaryEncoding.SMILE, output);
+        assertEquals(logRecord.toJson() + "\n{\"filtered\":\"data\"}\n{\"message\":\"plain message\"}\n",
+                output.toString());
+    }
+
+    @Test
+    void shouldEncodeCborRecords() throws Exception {
+        EcsBinaryLayout layout = EcsBinaryLayout.createLayout(" cbor ");
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+
+        byte[] bytes = layout.toByteArray(event(EcsLogMessage.of(logRecord)));
+
+        assertEquals(BinaryEncoding.CBOR, layout.getEncoding());
+        assertEquals("application/cbor", layout.getContentType());
+        assertArrayEquals(LogRecordSerializer.toBytes(logRecord, BinaryEncoding.CBOR), bytes);
+        assertEquals(List.of(Map.of("message", "text")),
+                LogRecordDecoder.decode(layout.toSerializable(event(new SimpleMessage("text"))), BinaryEncoding.CBOR));
+    }
+
+    @Test
+    void shouldRejectUnknownEncoding() {
+        assertThrows(IllegalArgumentException.class, () -> EcsBinaryLayout.createLayout("avro"));
+    }
+
+    private static LogEvent event(Message message) {
+        return Log4jLogEvent.newBuilder()
+                .setLevel(Level.INFO)
+                .setMessage(message)
+                .build();
+    }
+
+    private static final class CapturingDestination implements ByteBufferDestination {
+        private final ByteBuffer buffer = ByteBuffer.allocate(64);
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(ByteBuffer buf) {
+            buf.flip();
+            out.write(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+            buf.clear();
+            return buf;
+        }
+
+        @Override
+        public void writeBytes(ByteBuffer data) {
+            drain(buffer);
+            while (data.hasRemaining()) {
+                out.write(data.get());
+            }
+        }
+
+        @Override
+        public void writeBytes(byte[] data, int offset, int length) {
+            drain(buffer);
+            out.write(data, offset, length);
+        }
+
+        private byte[] content() {
+            drain(buffer);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package co.com.bancolombia.ecs.infra.layout;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.helpers.LoggerEcsTestHelper;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EcsJsonLayoutTest {
+
+    private final EcsJsonLayout layout = EcsJsonLayout.createLayout();
+
+    @Test
+    void shouldEncodeRecordDirectlyIntoDestination() {
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+        var destination = new CapturingDestination();
+
+        layout.encode(event(EcsLogMessage.of(logRecord)), destination);
+
+        assertEquals(logRecord.toJson() + "\n", destination.content());
+    }
+
+    @Test
+    void shouldEncodeRenderedJson() {
+        var destination = new CapturingDestination();
+
+        layout.encode(event(EcsLogMessage.ofJson("{\"filtered\":\"data\"}")), destination);
+
+        assertEquals("{\"filtered\":\"data\"}\n", destination.content());
+    }
+
+    @Test
+    void shouldPrintOtherMessagesAsText() {
+        assertEquals("plain message\n", layout.toSerializable(event(new SimpleMessage("plain message"))));
+    }
+
+    @Test
+    void shouldFormatMessageLazily() {
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+        EcsLogMessage message = EcsLogMessage.of(logRecord);
+
+        assertFalse(message.isRendered());
+        var builder = new StringBuilder("prefix ");
+        message.formatTo(builder);
+
+        assertEquals("prefix " + logRecord.toJson(), builder.toString());
+        assertEquals(logRecord.toJson(), message.getFormattedMessage());
+        assertTrue(message.isRendered());
+        assertNotNull(message.getParameters());
+    }
+
+    @Test
+    void shouldReuseTheMessageOfTheThreadOnceReleased() {
+        LogRecord<String, String> first = LoggerEcsTestHelper.generateTestLogRecord();
+        LogRecord<String, String> second = LoggerEcsTestHelper.generateTestLogRecord();
+
+        EcsLogMessage message = EcsLogMessage.reusable(first);
+        EcsLogMessage nested = EcsLogMessage.reusable(second);
+        nested.release();
+        message.release();
+
+        assertNotSame(message, nested);
+        assertNull(message.getLogRecord());
+        EcsLogMessage reused = EcsLogMessage.reusable(second);
+        assertSame(message, reused);
+        assertSame(second, reused.getLogRecord());
+        reused.release();
+    }
+
+    @Test
+    void shouldCopyAReusableMessageWithoutRenderingIt() {
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+        String json = logRecord.toJson();
+        EcsLogMessage message = EcsLogMessage.reusable(logRecord);
+        var event = new MutableLogEvent();
+
+        event.setMessage(message);
+        assertFalse(message.isRendered());
+        Message memento = message.memento();
+        message.release();
+        logRecord.setConsumer("changed");
+
+        assertEquals(json + "\n", layout.toSerializable(event));
+        assertEquals(json, memento.getFormattedMessage());
+    }
+
+    private static LogEvent event(Message message) {
+        return Log4jLogEvent.newBuilder()
+                .setLevel(Level.INFO)
+                .setMessage(message)
+                .build();
+    }
+
+    private static final class CapturingDestination implements ByteBufferDestination {
+        private final ByteBuffer buffer = ByteBuffer.allocate(64);
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(ByteBuffer buf) {
+            buf.flip();
+            out.write(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+            buf.clear();
+            return buf;
+        }
+
+        @Override
+        public void writeBytes(ByteBuffer data) {
+            drain(buffer);
+            while (data.hasRemaining()) {
+                out.write(data.get());
+            }
+        }
+
+        @Override
+        public void writeBytes(byte[] data, int offset, int length) {
+            drain(buffer);
+            out.write(data, offset, length);
+        }
+
+        private String content() {
+            drain(buffer);
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package co.com.bancolombia.ecs.infra.overload;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.helpers.LoggerEcsTestHelper;
+import co.com.bancolombia.ecs.infra.async.AsyncLogDispatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OverloadControllerTest {
+
+    private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long SLOW_WRITE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final AtomicLong now = new AtomicLong();
+    private final OverloadController controller = new OverloadController(OverloadController.Settings.builder()
+            .latencyThresholdMicros(1_000)
+            .queueThreshold(0.8)
+            .recoveryRatio(0.5)
+            .evaluationIntervalMillis(100)
+            .build(), now::get);
+
+    @Test
+    void shouldKeepRecordsWithoutPressure() {
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+
+        assertTrue(controller.admit(logRecord, null));
+        evaluate();
+
+        assertEquals(ShedLevel.NONE, controller.getLevel());
+        assertNotNull(logRecord.getAdditionalInfo().getResponseBody());
+        assertNotNull(logRecord.getAdditionalInfo().getRequestBody());
+    }
+
+    @Test
+    void shouldShedStepByStepWhileWritesAreSlow() {
+        slowWrites();
+        evaluate();
+        assertEquals(ShedLevel.RESPONSE_BODY, controller.getLevel());
+        LogRecord<String, String> first = LoggerEcsTestHelper.generateTestLogRecord();
+        assertTrue(controller.admit(first, null));
+        assertNull(first.getAdditionalInfo().getResponseBody());
+        assertNotNull(first.getAdditionalInfo().getRequestBody());
+
+        slowWrites();
+        evaluate();
+        assertEquals(ShedLevel.REQUEST_BODY, controller.getLevel());
+        LogRecord<String, String> second = LoggerEcsTestHelper.generateTestLogRecord();
+        assertTrue(controller.admit(second, null));
+        assertNull(second.getAdditionalInfo().getResponseBody());
+        assertNull(second.getAdditionalInfo().getRequestBody());
+
+        slowWrites();
+        evaluate();
+        assertEquals(ShedLevel.INFO_RECORDS, controller.getLevel());
+        assertFalse(controller.admit(LoggerEcsTestHelper.generateTestLogRecord(), null));
+
+        assertEquals(2, controller.getShedResponseBodies());
+        assertEquals(1, controller.getShedRequestBodies());
+        assertEquals(1, controller.getShedRecords());
+        assertEquals(3, controller.getEscalations());
+    }
+
+    @Test
+    void shouldAlwaysKeepErrorRecords() {
+        for (int i = 0; i < 3; i++) {
+            slowWrites();
+            evaluate();
+        }
+        LogRecord<String, String> error = LoggerEcsTestHelper.generateTestLogRecord();
+        error.setLevel(LogRecord.Level.ERROR);
+        LogRecord<String, String> fatal = LoggerEcsTestHelper.generateTestLogRecord();
+        fatal.setLevel(LogRecord.Level.FATAL);
+
+        assertEquals(ShedLevel.INFO_RECORDS, controller.getLevel());
+        assertTrue(controller.admit(error, null));
+        assertTrue(controller.admit(fatal, null));
+        assertNotNull(error.getAdditionalInfo().getResponseBody());
+        assertNotNull(fatal.getAdditionalInfo().getRequestBody());
+    }
+
+    @Test
+    void shouldRecoverWhenPressureDrops() {
+        for (int i = 0; i < 3; i++) {
+            slowWrites();
+            evaluate();
+        }
+
+        for (int i = 0; i < 20 && controller.getLevel() != ShedLevel.NONE; i++) {
+            for (int j = 0; j < 8; j++) {
+                controller.recordLatency(TimeUnit.MICROSECONDS.toNanos(10));
+            }
+            evaluate();
+        }
+
+        assertEquals(ShedLevel.NONE, controller.getLevel());
+        assertEquals(3, controller.getRecoveries());
+        assertTrue(controller.admit(LoggerEcsTestHelper.generateTestLogRecord(), null));
+    }
+
+    @Test
+    void shouldRecoverWhenNothingIsWritten() {
+        slowWrites();
+        evaluate();
+
+        for (int i = 0; i < 20 && controller.getLevel() != ShedLevel.NONE; i++) {
+            evaluate();
+        }
+
+        assertEquals(ShedLevel.NONE, controller.getLevel());
+    }
+
+    @Test
+    void shouldShedWhenAsyncQueueFillsUp() {
+        AsyncLogDispatcher dispatcher = mock(AsyncLogDispatcher.class);
+        when(dispatcher.getQueueCapacity()).thenReturn(100);
+        when(dispatcher.getQueueSize()).thenReturn(90);
+
+        now.addAndGet(INTERVAL_NANOS);
+        controller.admit(LoggerEcsTestHelper.generateTestLogRecord(), dispatcher);
+
+        assertEquals(ShedLevel.RESPONSE_BODY, controller.getLevel());
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        var invalid = OverloadController.Settings.builder()
+                .latencyThresholdMicros(1_000)
+                .queueThreshold(1.5)
+                .recoveryRatio(0.5)
+                .evaluationIntervalMillis(100)
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> new OverloadController(invalid));
+    }
+
+    private void slowWrites() {
+        for (int i = 0; i < 32; i++) {
+            controller.recordLatency(SLOW_WRITE_NANOS);
+        }
+    }
+
+    private void evaluate() {
+        now.addAndGet(INTERVAL_NANOS);
+        LogRecord<String, String> warning = LoggerEcsTestHelper.generateTestLogRecord();
+        warning.setLevel(LogRecord.Level.WARNING);
+        warning.setAdditionalInfo(null);
+        controller.admit(warning, null);
+    }
+}
@@ -0,0 +1,247 @@
+package co.com.bancolombia.ecs.infra.sink;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.helpers.LoggerEcsTestHelper;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ElasticBulkSinkTest {
+
+    private static final int ONE_MB = 1024 * 1024;
+    private static final String ACKNOWLEDGED = "{\"errors\":false,\"items\":[]}";
+
+    private HttpServer server;
+    private final Queue<Response> responses = new ConcurrentLinkedQueue<>();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldPostGzipBulkRequests() {
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+        var sink = new ElasticBulkSink(settings(url()).authorization("ApiKey secret").build(), stdout);
+
+        sink.write(EcsLogMessage.of(logRecord));
+        sink.write(EcsLogMessage.ofJson("{\"filtered\":\"data\"}"));
+        sink.close();
+
+        assertEquals(1, requests.size());
+        Request request = requests.getFirst();
+        assertEquals("/logs-test/_bulk", request.path());
+        assertEquals("gzip", request.contentEncoding());
+        assertEquals("application/x-ndjson", request.contentType());
+        assertEquals("ApiKey secret", request.authorization());
+        assertEquals("{\"create\":{}}\n" + logRecord.toJson() + "\n{\"create\":{}}\n{\"filtered\":\"data\"}\n",
+                request.body());
+        assertEquals(2, sink.getIndexedRecords());
+        assertEquals(0, sink.getFallbackRecords());
+    }
+
+    @Test
+    void shouldRetryTooManyRequests() {
+        responses.add(new Response(429, "{}"));
+        responses.add(new Response(503, "{}"));
+        var sink = new ElasticBulkSink(settings(url()).gzip(false).build(), stdout);
+
+        sink.write(EcsLogMessage.ofJson("{\"n\":1}"));
+        sink.close();
+
+        assertEquals(3, requests.size());
+        assertEquals(requests.get(0).body(), requests.get(2).body());
+        assertEquals(2, sink.getFailedRequests());
+        assertEquals(1, sink.getIndexedRecords());
+        assertEquals("", stdout.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldRetryOnlyRejectedDocuments() {
+        responses.add(new Response(200, "{\"errors\":true,\"items\":[" +
+                "{\"create\":{\"status\":201}}," +
+                "{\"create\":{\"status\":429}}," +
+                "{\"create\":{\"status\":400}}]}"));
+        var sink = new ElasticBulkSink(settings(url()).gzip(false).build(), stdout);
+
+        sink.write(EcsLogMessage.ofJson("{\"n\":1}"));
+        sink.write(EcsLogMessage.ofJson("{\"n\":2}"));
+        sink.write(EcsLogMessage.ofJson("{\"n\":3}"));
+        sink.close();
+
+        assertEquals(2, requests.size());
+        assertEquals("{\"create\":{}}\n{\"n\":2}\n", requests.get(1).body());
+        assertEquals(2, sink.getIndexedRecords());
+        assertEquals("{\"n\":3}\n", stdout.toString(StandardCharsets.UTF_8));
+        assertEquals(1, sink.getFallbackRecords());
+    }
+
+    @Test
+    void shouldFallBackToStdoutWhenCircuitIsOpen() throws IOException {
+        var sink = new ElasticBulkSink(settings("http://localhost:" + freePort())
+                .maxRetries(0)
+                .failureThreshold(1)
+                .openMillis(60_000)
+                .build(), stdout);
+
+        sink.write(EcsLogMessage.ofJson("{\"n\":1}"));
+        waitFor(() -> sink.getCircuitState() == CircuitBreaker.State.OPEN);
+        sink.write(EcsLogMessage.ofJson("{\"n\":2}"));
+        sink.close();
+
+        assertEquals(CircuitBreaker.State.OPEN, sink.getCircuitState());
+        assertEquals(1, sink.getFailedRequests());
+        assertEquals("{\"n\":1}\n{\"n\":2}\n", stdout.toString(StandardCharsets.UTF_8));
+        assertEquals(2, sink.getFallbackRecords());
+        assertEquals(0, sink.getIndexedRecords());
+    }
+
+    @Test
+    void shouldWriteRefusedBatchesToStdout() {
+        responses.add(new Response(401, "{}"));
+        var sink = new ElasticBulkSink(settings(url()).build(), stdout);
+
+        sink.write(EcsLogMessage.ofJson("{\"n\":1}"));
+        sink.close();
+
+        assertEquals(1, requests.size());
+        assertEquals("{\"n\":1}\n", stdout.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldWriteEachFallbackBatchAtOnce() {
+        responses.add(new Response(401, "{}"));
+        var fallback = new CountingOutputStream();
+        var sink = new ElasticBulkSink(settings(url()).build(), fallback);
+
+        sink.write(EcsLogMessage.ofJson("{\"n\":1}"));
+        sink.write(EcsLogMessage.ofJson("{\"n\":2}"));
+        sink.close();
+
+        assertEquals(1, requests.size());
+        assertEquals(1, fallback.writes);
+        assertEquals("{\"n\":1}\n{\"n\":2}\n", fallback.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldDropRecordsWhenBufferIsFull() {
+        var sink = new ElasticBulkSink(settings(url()).bufferBytes(20).lingerMillis(60_000).build(), stdout);
+
+        for (int i = 0; i < 5; i++) {
+            sink.write(EcsLogMessage.ofJson("{\"n\":" + i + "}"));
+        }
+
+        assertEquals(3, sink.getDroppedRecords());
+        assertEquals(16, sink.getPendingBytes());
+        sink.close();
+        assertEquals(2, sink.getIndexedRecords());
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        var invalid = settings(url()).maxConcurrency(0).build();
+        assertThrows(IllegalArgumentException.class, () -> new ElasticBulkSink(invalid, stdout));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            InputStream body = exchange.getRequestBody();
+            if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                body = new GZIPInputStream(body);
+            }
+            requests.add(new Request(exchange.getRequestURI().getPath(),
+                    exchange.getRequestHeaders().getFirst("Content-Encoding"),
+                    exchange.getRequestHeaders().getFirst("Content-Type"),
+                    exchange.getRequestHeaders().getFirst("Authorization"),
+                    new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+            Response response = responses.poll();
+            if (response == null) {
+                response = new Response(200, ACKNOWLEDGED);
+            }
+            byte[] content = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(response.status(), content.length);
+            exchange.getResponseBody().write(content);
+        }
+    }
+
+    private String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    private static ElasticBulkSink.Settings.SettingsBuilder settings(String url) {
+        return ElasticBulkSink.Settings.builder()
+                .url(url)
+                .index("logs-test")
+                .gzip(true)
+                .bufferBytes(ONE_MB)
+                .batchBytes(ONE_MB)
+                .lingerMillis(20)
+                .maxConcurrency(2)
+                .maxRetries(3)
+                .initialBackoffMillis(10)
+                .maxBackoffMillis(50)
+                .failureThreshold(5)
+                .openMillis(1000)
+                .requestTimeoutMillis(5000);
+    }
+
+    private static void waitFor(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Request(String path, String contentEncoding, String contentType, String authorization,
+                           String body) {
+    }
+
+    private record Response(int status, String body) {
+    }
+
+    private static final class CountingOutputStream extends ByteArrayOutputStream {
+        private int writes;
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            writes++;
+            super.write(bytes, offset, length);
+        }
+    }
+}
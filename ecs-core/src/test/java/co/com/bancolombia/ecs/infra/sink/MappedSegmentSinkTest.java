@@ -0,0 +1,145 @@
+package co.com.bancolombia.ecs.infra.sink;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.helpers.LoggerEcsTestHelper;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedSegmentSinkTest {
+
+    private static final long ONE_HOUR_MS = 3_600_000;
+
+    @TempDir
+    Path directory;
+
+    private final List<Path> sealed = new CopyOnWriteArrayList<>();
+
+    @Test
+    void shouldWriteRecordsAsNdjsonAndSealOnClose() throws IOException {
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+        var sink = new MappedSegmentSink(directory, "ecs", 1024 * 1024, ONE_HOUR_MS, sealed::add);
+
+        sink.write(EcsLogMessage.of(logRecord));
+        sink.write(EcsLogMessage.ofJson("{\"filtered\":\"data\"}"));
+        sink.close();
+
+        assertEquals(List.of(directory.resolve("ecs-00000000000000000001.ndjson")), sealed);
+        assertEquals(logRecord.toJson() + "\n{\"filtered\":\"data\"}\n", Files.readString(sealed.getFirst()));
+        assertEquals(List.of(sealed.getFirst()), files());
+    }
+
+    @Test
+    void shouldRollWhenRecordDoesNotFit() throws IOException {
+        var sink = new MappedSegmentSink(directory, "ecs", 16, ONE_HOUR_MS, sealed::add);
+
+        write(sink, "{\"n\":1}");
+        write(sink, "{\"n\":2}");
+        write(sink, "{\"n\":3}");
+        sink.close();
+
+        assertEquals(2, sealed.size());
+        assertEquals("{\"n\":1}\n{\"n\":2}\n", Files.readString(sealed.get(0)));
+        assertEquals("{\"n\":3}\n", Files.readString(sealed.get(1)));
+        assertEquals(2, sink.getSealedCount());
+    }
+
+    @Test
+    void shouldRollOnceRollIntervalHasPassed() throws Exception {
+        var sink = new MappedSegmentSink(directory, "ecs", 1024, 20, sealed::add);
+
+        write(sink, "{\"n\":1}");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sealed.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        sink.close();
+
+        assertEquals("{\"n\":1}\n", Files.readString(sealed.getFirst()));
+        assertEquals(1, sealed.size());
+    }
+
+    @Test
+    void shouldOpenNewSegmentAfterFailedRoll() throws IOException {
+        var sink = new MappedSegmentSink(directory, "ecs", 16, ONE_HOUR_MS, sealed::add);
+        // A non-empty directory where the first segment is renamed to makes sealing it fail
+        Path blocked = directory.resolve("ecs-00000000000000000001.ndjson");
+        Files.createDirectories(blocked);
+        Files.writeString(blocked.resolve("file"), "x");
+
+        write(sink, "{\"n\":1}");
+        write(sink, "{\"n\":2}");
+        write(sink, "{\"n\":3}");
+        write(sink, "{\"n\":4}");
+        sink.close();
+
+        assertEquals(1, sink.getDroppedCount());
+        assertEquals(List.of(directory.resolve("ecs-00000000000000000002.ndjson")), sealed);
+        assertEquals("{\"n\":4}\n", Files.readString(sealed.getFirst()));
+        assertEquals("{\"n\":1}\n{\"n\":2}\n",
+                Files.readString(directory.resolve("ecs-00000000000000000001.ndjson.active")));
+    }
+
+    @Test
+    void shouldDropRecordLargerThanSegment() throws IOException {
+        var sink = new MappedSegmentSink(directory, "ecs", 8, ONE_HOUR_MS, sealed::add);
+
+        write(sink, "0123456789");
+        sink.close();
+
+        assertEquals(1, sink.getDroppedCount());
+        assertTrue(sealed.isEmpty());
+        assertTrue(files().isEmpty());
+    }
+
+    @Test
+    void shouldRecoverCompleteRecordsOfUnsealedSegment() throws IOException {
+        Path crashed = directory.resolve("ecs-00000000000000000007.ndjson.active");
+        byte[] content = "{\"n\":1}\n{\"n\":2}\n{\"n\":".getBytes(StandardCharsets.UTF_8);
+        try (FileChannel file = FileChannel.open(crashed, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.wrap(content));
+            file.write(ByteBuffer.allocate(64));
+        }
+
+        var sink = new MappedSegmentSink(directory, "ecs", 1024, ONE_HOUR_MS, sealed::add);
+        write(sink, "{\"n\":3}");
+        sink.close();
+
+        assertEquals(List.of(directory.resolve("ecs-00000000000000000007.ndjson"),
+                directory.resolve("ecs-00000000000000000008.ndjson")), sealed);
+        assertEquals("{\"n\":1}\n{\"n\":2}\n", Files.readString(sealed.get(0)));
+        assertEquals("{\"n\":3}\n", Files.readString(sealed.get(1)));
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MappedSegmentSink(directory, "ecs", 1024, 0, sealed::add));
+    }
+
+    private static void write(MappedSegmentSink sink, String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        sink.write(bytes, 0, bytes.length);
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
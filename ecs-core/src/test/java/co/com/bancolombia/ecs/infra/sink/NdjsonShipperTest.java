@@ -0,0 +1,150 @@
+package co.com.bancolombia.ecs.infra.sink;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.helpers.LoggerEcsTestHelper;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NdjsonShipperTest {
+
+    private static final int ONE_MB = 1024 * 1024;
+
+    @Test
+    void shouldShipRecordsOverTcp() throws IOException {
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+        try (ServerSocket collector = new ServerSocket(0)) {
+            var shipper = new NdjsonShipper(settings(ShipperProtocol.TCP, collector.getLocalPort(),
+                    ShipperCompression.NONE, ONE_MB).build());
+
+            shipper.write(EcsLogMessage.of(logRecord));
+            shipper.write(EcsLogMessage.ofJson("{\"filtered\":\"data\"}"));
+
+            try (Socket connection = collector.accept();
+                 var lines = new BufferedReader(new InputStreamReader(connection.getInputStream(),
+                         StandardCharsets.UTF_8))) {
+                assertEquals(logRecord.toJson(), lines.readLine());
+                assertEquals("{\"filtered\":\"data\"}", lines.readLine());
+                shipper.close();
+            }
+            assertEquals(2, shipper.getShippedRecords());
+        }
+    }
+
+    @Test
+    void shouldShipGzipBatchesOverTcp() throws IOException {
+        try (ServerSocket collector = new ServerSocket(0)) {
+            var shipper = new NdjsonShipper(settings(ShipperProtocol.TCP, collector.getLocalPort(),
+                    ShipperCompression.GZIP, 16).build());
+
+            for (int i = 0; i < 5; i++) {
+                shipper.write(EcsLogMessage.ofJson("{\"n\":" + i + "}"));
+            }
+            shipper.close();
+
+            try (Socket connection = collector.accept();
+                 var gzip = new GZIPInputStream(connection.getInputStream())) {
+                assertEquals("{\"n\":0}\n{\"n\":1}\n{\"n\":2}\n{\"n\":3}\n{\"n\":4}\n",
+                        new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            assertEquals(5, shipper.getShippedRecords());
+        }
+    }
+
+    @Test
+    void shouldShipOneDatagramPerBatchOverUdp() throws IOException {
+        try (DatagramSocket collector = new DatagramSocket(0)) {
+            collector.setSoTimeout(5000);
+            var shipper = new NdjsonShipper(settings(ShipperProtocol.UDP, collector.getLocalPort(),
+                    ShipperCompression.NONE, ONE_MB).build());
+
+            shipper.write(EcsLogMessage.ofJson("{\"n\":1}"));
+            shipper.write(EcsLogMessage.ofJson("{\"n\":2}"));
+
+            var packet = new DatagramPacket(new byte[NdjsonShipper.MAX_DATAGRAM_BYTES],
+                    NdjsonShipper.MAX_DATAGRAM_BYTES);
+            collector.receive(packet);
+            shipper.close();
+            assertEquals("{\"n\":1}\n{\"n\":2}\n",
+                    new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void shouldReconnectOnceCollectorIsAvailable() throws Exception {
+        int port = freePort();
+        var shipper = new NdjsonShipper(settings(ShipperProtocol.TCP, port, ShipperCompression.NONE, ONE_MB)
+                .maxBackoffMillis(100)
+                .build());
+        shipper.write(EcsLogMessage.ofJson("{\"retry\":true}"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (shipper.getFailedSends() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        try (ServerSocket collector = new ServerSocket(port);
+             Socket connection = collector.accept();
+             var lines = new BufferedReader(new InputStreamReader(connection.getInputStream(),
+                     StandardCharsets.UTF_8))) {
+            assertEquals("{\"retry\":true}", lines.readLine());
+        }
+        shipper.close();
+        assertTrue(shipper.getFailedSends() > 0);
+        assertEquals(1, shipper.getShippedRecords());
+    }
+
+    @Test
+    void shouldDropRecordsWhenBufferIsFull() throws IOException {
+        var shipper = new NdjsonShipper(settings(ShipperProtocol.TCP, freePort(), ShipperCompression.NONE, ONE_MB)
+                .bufferBytes(20)
+                .lingerMillis(60_000)
+                .build());
+
+        for (int i = 0; i < 5; i++) {
+            shipper.write(EcsLogMessage.ofJson("{\"n\":" + i + "}"));
+        }
+
+        assertEquals(3, shipper.getDroppedRecords());
+        assertEquals(16, shipper.getPendingBytes());
+        shipper.close();
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        var invalid = settings(ShipperProtocol.TCP, 1, ShipperCompression.NONE, 0).build();
+        assertThrows(IllegalArgumentException.class, () -> new NdjsonShipper(invalid));
+    }
+
+    private static NdjsonShipper.Settings.SettingsBuilder settings(ShipperProtocol protocol, int port,
+                                                                  ShipperCompression compression,
+                                                                  int batchBytes) {
+        return NdjsonShipper.Settings.builder()
+                .protocol(protocol)
+                .host("localhost")
+                .port(port)
+                .compression(compression)
+                .bufferBytes(ONE_MB)
+                .batchBytes(batchBytes)
+                .lingerMillis(20)
+                .maxBackoffMillis(1000);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package co.com.bancolombia.ecs.infra.sink;
+
+import co.com.bancolombia.ecs.domain.model.LogRecord;
+import co.com.bancolombia.ecs.helpers.LoggerEcsTestHelper;
+import co.com.bancolombia.ecs.helpers.ProtobufTestReader;
+import co.com.bancolombia.ecs.infra.layout.EcsLogMessage;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OtlpLogExporterTest {
+
+    private HttpServer collector;
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private final CountDownLatch received = new CountDownLatch(1);
+    private volatile CountDownLatch hold;
+
+    @BeforeEach
+    void startCollector() throws IOException {
+        collector = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        collector.createContext("/v1/logs", this::handle);
+        collector.start();
+    }
+
+    @AfterEach
+    void stopCollector() {
+        collector.stop(0);
+    }
+
+    @Test
+    void shouldExportBatchesAsProtobuf() {
+        var exporter = new OtlpLogExporter(settings().gzip(true).build());
+
+        LogRecord<String, String> masked = new LogRecord<>();
+        masked.setMessageId("rendered-id");
+        masked.setLevel(LogRecord.Level.ERROR);
+        masked.setError(LogRecord.ErrorLog.<String, String>builder().type("Timeout").message("No answer").build());
+
+        exporter.write(EcsLogMessage.of(LoggerEcsTestHelper.generateTestLogRecord()));
+        exporter.write(EcsLogMessage.ofMasked(masked, "{\"message-id\":\"rendered-id\"}"));
+        exporter.close();
+
+        assertEquals(1, requests.size());
+        Request request = requests.getFirst();
+        assertEquals("application/x-protobuf", request.contentType());
+        assertEquals("secret", request.apiKey());
+        ProtobufTestReader resourceLogs = new ProtobufTestReader(request.body()).message(1);
+        assertEquals("orders", resourceLogs.message(1).keyValues(1).get("service.name").string(1));
+        List<ProtobufTestReader> logRecords = resourceLogs.message(2).messages(2);
+        assertEquals(2, logRecords.size());
+        assertEquals("test-message-id", logRecords.get(0).keyValues(6).get("message.id").string(1));
+        assertEquals(17, logRecords.get(1).number(2));
+        assertEquals("No answer", logRecords.get(1).message(5).string(1));
+        assertEquals("rendered-id", logRecords.get(1).keyValues(6).get("message.id").string(1));
+        assertEquals(2, exporter.getExportedRecords());
+        assertEquals(1, exporter.getExportCount());
+        assertTrue(exporter.getMaxExportLatencyNanos() > 0);
+    }
+
+    @Test
+    void shouldEncodeRecordWhenItIsWritten() {
+        var exporter = new OtlpLogExporter(settings().build());
+        LogRecord<String, String> logRecord = LoggerEcsTestHelper.generateTestLogRecord();
+
+        exporter.write(EcsLogMessage.of(logRecord));
+        logRecord.setMessageId("changed-id");
+        exporter.close();
+
+        ProtobufTestReader exported = new ProtobufTestReader(requests.getFirst().body())
+                .message(1).message(2).messages(2).getFirst();
+        assertEquals("test-message-id", exported.keyValues(6).get("message.id").string(1));
+    }
+
+    @Test
+    void shouldSplitRecordsInBatches() {
+        var exporter = new OtlpLogExporter(settings().maxBatchSize(2).build());
+
+        for (int i = 0; i < 5; i++) {
+            exporter.write(EcsLogMessage.of(LoggerEcsTestHelper.generateTestLogRecord()));
+        }
+        exporter.close();
+
+        assertEquals(List.of(2, 2, 1), requests.stream()
+                .map(request -> new ProtobufTestReader(request.body()).message(1).message(2).all(2).size())
+                .toList());
+        assertEquals(5, exporter.getExportedRecords());
+    }
+
+    @Test
+    void shouldRetryUnavailableCollector() {
+        statuses.add(503);
+        statuses.add(429);
+        var exporter = new OtlpLogExporter(settings().build());
+
+        exporter.write(EcsLogMessage.of(LoggerEcsTestHelper.generateTestLogRecord()));
+        exporter.close();
+
+        assertEquals(3, requests.size());
+        assertEquals(2, exporter.getFailedExports());
+        assertEquals(1, exporter.getExportedRecords());
+    }
+
+    @Test
+    void shouldDropBatchRejectedByCollector() {
+        statuses.add(400);
+        var exporter = new OtlpLogExporter(settings().build());
+
+        exporter.write(EcsLogMessage.of(LoggerEcsTestHelper.generateTestLogRecord()));
+        exporter.close();
+
+        assertEquals(1, requests.size());
+        assertEquals(1, exporter.getDroppedRecords());
+        assertEquals(0, exporter.getExportedRecords());
+    }
+
+    @Test
+    void shouldDropRecordsWhenQueueIsFull() throws InterruptedException {
+        hold = new CountDownLatch(1);
+        var exporter = new OtlpLogExporter(settings().maxQueueSize(2).maxBatchSize(1).build());
+        exporter.write(EcsLogMessage.of(LoggerEcsTestHelper.generateTestLogRecord()));
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 4; i++) {
+            exporter.write(EcsLogMessage.of(LoggerEcsTestHelper.generateTestLogRecord()));
+        }
+
+        assertEquals(2, exporter.getDroppedRecords());
+        assertEquals(2, exporter.getQueueSize());
+        hold.countDown();
+        exporter.close();
+        assertEquals(3, exporter.getExportedRecords());
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        var invalid = settings().maxBatchSize(0).build();
+        assertThrows(IllegalArgumentException.class, () -> new OtlpLogExporter(invalid));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            record(exchange);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void record(HttpExchange exchange) throws IOException, InterruptedException {
+        try (exchange) {
+            InputStream body = exchange.getRequestBody();
+            if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                body = new GZIPInputStream(body);
+            }
+            requests.add(new Request(exchange.getRequestHeaders().getFirst("Content-Type"),
+                    exchange.getRequestHeaders().getFirst("X-Api-Key"), body.readAllBytes()));
+            received.countDown();
+            if (hold != null && !hold.await(5, TimeUnit.SECONDS)) {
+                throw new IOException("The test did not release the collector");
+            }
+            Integer status = statuses.poll();
+            exchange.sendResponseHeaders(status != null ? status : 200, -1);
+        }
+    }
+
+    private OtlpLogExporter.Settings.SettingsBuilder settings() {
+        return OtlpLogExporter.Settings.builder()
+                .endpoint("http://localhost:" + collector.getAddress().getPort() + "/v1/logs")
+                .headers(Map.of("X-Api-Key", "secret"))
+                .resourceAttributes(Map.of("service.name", "orders"))
+                .maxQueueSize(100)
+                .maxBatchSize(100)
+                .scheduleDelayMillis(20)
+                .exportTimeoutMillis(5000)
+                .maxRetries(3);
+    }
+
+    private record Request(String contentType, String apiKey, byte[] body) {
+    }
+}
@@ -1,21 +1,34 @@
 package co.com.bancolombia.ecs.application;
 
 import co.com.bancolombia.ecs.application.filter.ImperativeLogsHandler;
+import co.com.bancolombia.ecs.infra.PostResponseLogExecutor;
 import co.com.bancolombia.ecs.infra.config.EcsPropertiesConfig;
+import co.com.bancolombia.ecs.infra.config.LogDrainProperties;
+import co.com.bancolombia.ecs.infra.config.PostResponseLogProperties;
 import co.com.bancolombia.ecs.infra.config.PrintOnErrorProperties;
 import co.com.bancolombia.ecs.infra.config.managementid.application.MessageIdMngUseCase;
 import co.com.bancolombia.ecs.infra.config.sensitive.SensitiveRequestProperties;
 import co.com.bancolombia.ecs.infra.config.sensitive.SensitiveResponseProperties;
 import co.com.bancolombia.ecs.infra.config.service.ServiceProperties;
+import co.com.bancolombia.ecs.infra.drain.LogDrainLifecycle;
 import jakarta.servlet.Filter;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 
+import java.util.List;
+
 @AutoConfiguration
 public class ImperativeLogsConfiguration {
 
+    @Bean(destroyMethod = "close")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public PostResponseLogExecutor postResponseLogExecutor(PostResponseLogProperties postResponseProperties) {
+        return new PostResponseLogExecutor(postResponseProperties.getMode(),
+                postResponseProperties.getThreads(), postResponseProperties.getMaxPending());
+    }
+
     @Bean
     @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
     @ConditionalOnClass(Filter.class)
@@ -23,8 +36,17 @@ public class ImperativeLogsConfiguration {
                                                        SensitiveRequestProperties requestProps,
                                                        SensitiveResponseProperties responseProps,
                                                        PrintOnErrorProperties printOnErrorProperties,
-                                                       MessageIdMngUseCase messageIdMngUseCase) {
+                                                       MessageIdMngUseCase messageIdMngUseCase,
+                                                       PostResponseLogExecutor postResponseLogExecutor) {
         var config = new EcsPropertiesConfig(serviceProps, requestProps, responseProps, printOnErrorProperties);
-        return new ImperativeLogsHandler(config, messageIdMngUseCase);
+        return new ImperativeLogsHandler(config, messageIdMngUseCase, postResponseLogExecutor);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public LogDrainLifecycle logDrainLifecycle(LogDrainProperties drainProperties,
+                                               PostResponseLogExecutor postResponseLogExecutor) {
+        return new LogDrainLifecycle(drainProperties.isEnabled(), drainProperties.getTimeoutMs(),
+                List.of(postResponseLogExecutor));
     }
 }
@@ -4,9 +4,11 @@ import co.com.bancolombia.ecs.domain.model.LogRecord;
 import co.com.bancolombia.ecs.infra.shared.common.domain.ContextECS;
 import co.com.bancolombia.ecs.infra.config.managementid.application.MessageIdMngUseCase;
 import co.com.bancolombia.ecs.domain.model.ExceptionLevel;
+import co.com.bancolombia.ecs.helpers.BodyLimitsHelper;
 import co.com.bancolombia.ecs.helpers.DataSanitizer;
 import co.com.bancolombia.ecs.helpers.HandlerHelper;
 import co.com.bancolombia.ecs.infra.EcsImperativeLogger;
+import co.com.bancolombia.ecs.infra.PostResponseLogExecutor;
 import co.com.bancolombia.ecs.infra.config.EcsPropertiesConfig;
 import co.com.bancolombia.ecs.model.request.LogRequest;
 import jakarta.servlet.FilterChain;
@@ -19,6 +21,7 @@ import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.util.ContentCachingRequestWrapper;
 import org.springframework.web.util.ContentCachingResponseWrapper;
 
@@ -40,15 +43,23 @@ public class ImperativeLogsHandler extends OncePerRequestFilter {
     private final boolean printReqRespOnErrorOnlyActive;
     private final ExceptionLevel printReqRespLevel;
     private final MessageIdMngUseCase messageIdMngUseCase;
+    private final PostResponseLogExecutor logExecutor;
 
     public ImperativeLogsHandler(EcsPropertiesConfig ecsPropertiesConfig,
                                  MessageIdMngUseCase messageIdMngUseCase) {
+        this(ecsPropertiesConfig, messageIdMngUseCase, PostResponseLogExecutor.inline());
+    }
+
+    public ImperativeLogsHandler(EcsPropertiesConfig ecsPropertiesConfig,
+                                 MessageIdMngUseCase messageIdMngUseCase,
+                                 PostResponseLogExecutor logExecutor) {
         this.ecsPropertiesConfig = ecsPropertiesConfig;
         this.showRequestLogs = ecsPropertiesConfig.getShowRequestLogs();
         this.showResponseLogs = ecsPropertiesConfig.getShowResponseLogs();
         this.printReqRespOnErrorOnlyActive = Boolean.TRUE.equals(ecsPropertiesConfig.getPrintReqRespOnErrorOnly());
         this.printReqRespLevel = ecsPropertiesConfig.getPrintReqRespLevels();
         this.messageIdMngUseCase = messageIdMngUseCase;
+        this.logExecutor = logExecutor;
     }
 
     @Override
@@ -74,15 +85,47 @@ public class ImperativeLogsHandler extends OncePerRequestFilter {
 
         var wrappedRequest = new ContentCachingRequestWrapper(request, MAX_PAYLOAD_SIZE);
         var wrappedResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
         try {
             chain.doFilter(wrappedRequest, wrappedResponse);
+            completed = true;
         } finally {
-            handleRequestOrError(wrappedRequest, wrappedResponse);
-            wrappedResponse.copyBodyToResponse();
+            var exchange = capture(wrappedRequest, wrappedResponse);
+            if (logExecutor.isInline()) {
+                handleRequestOrError(exchange);
+                wrappedResponse.copyBodyToResponse();
+            } else {
+                sendThenLog(exchange, wrappedResponse, completed, resolvedMessageId);
+            }
             ContextECS.clear();
         }
     }
 
+    /**
+     * Copies each body only when it is logged: the request body for an error or when request logs
+     * are shown, the response body when response logs are shown and the request did not fail.
+     */
+    private CapturedExchange capture(ContentCachingRequestWrapper request, ContentCachingResponseWrapper response) {
+        boolean error = HandlerHelper.isErrorStatusCode(response.getStatus());
+        boolean logsRequest = !error && !printReqRespOnErrorOnlyActive;
+        return CapturedExchange.of(request, response,
+                error || logsRequest && Boolean.TRUE.equals(showRequestLogs),
+                logsRequest && Boolean.TRUE.equals(showResponseLogs));
+    }
+
+    private void sendThenLog(CapturedExchange exchange, ContentCachingResponseWrapper wrappedResponse,
+                             boolean completed, String messageId) throws IOException {
+        try {
+            wrappedResponse.copyBodyToResponse();
+            // An exception still has to reach the error handling, which needs an uncommitted response
+            if (completed) {
+                wrappedResponse.getResponse().flushBuffer();
+            }
+        } finally {
+            logExecutor.execute(messageId, () -> handleRequestOrError(exchange));
+        }
+    }
+
     private String resolveMessageId(HttpServletRequest request) {
         Map<String, List<String>> rawHeadersMap = Collections.list(request.getHeaderNames()).stream()
                 .filter(name -> request.getHeader(name) != null)
@@ -100,44 +143,43 @@ public class ImperativeLogsHandler extends OncePerRequestFilter {
         }
     }
 
-    private void handleRequestOrError(ContentCachingRequestWrapper wrappedRequest,
-                                      ContentCachingResponseWrapper wrappedResponse) {
-        int status = wrappedResponse.getStatus();
+    private void handleRequestOrError(CapturedExchange exchange) {
+        int status = exchange.status();
         if (HandlerHelper.isErrorStatusCode(status)) {
-            Throwable ex = (Throwable) wrappedRequest.getAttribute(HANDLED_EXCEPTION_PROPERTY);
-            logError(ex != null ? ex : buildStatusException(status), wrappedRequest);
+            Throwable ex = exchange.handledException();
+            logError(ex != null ? ex : buildStatusException(status), exchange);
         } else {
-            logRequest(wrappedRequest, wrappedResponse);
+            logRequest(exchange);
         }
     }
 
-    private void logRequest(ContentCachingRequestWrapper request, ContentCachingResponseWrapper response) {
+    private void logRequest(CapturedExchange exchange) {
         if (printReqRespOnErrorOnlyActive) {
             return;
         }
 
         var logRequest = new LogRequest();
-        setRequestParameters(request, logRequest);
+        setRequestParameters(exchange, logRequest);
 
         if (Boolean.TRUE.equals(showRequestLogs)) {
-            sensitiveRequestBody(request, logRequest);
+            sensitiveRequestBody(exchange, logRequest);
         }
 
         if (Boolean.TRUE.equals(showResponseLogs)) {
-            sensitiveResponseBody(response, logRequest);
+            sensitiveResponseBody(exchange, logRequest);
         }
 
         EcsImperativeLogger.build(logRequest, ecsPropertiesConfig.getServiceName());
     }
 
-    private void logError(Throwable error, ContentCachingRequestWrapper request) {
+    private void logError(Throwable error, CapturedExchange exchange) {
         if (printReqRespOnErrorOnlyActive && HandlerHelper.errorDoesntMatchLevel(error, printReqRespLevel)) {
             return;
         }
 
         var logRequest = new LogRequest();
-        setRequestParameters(request, logRequest);
-        sensitiveRequestBody(request, logRequest);
+        setRequestParameters(exchange, logRequest);
+        sensitiveRequestBody(exchange, logRequest);
 
         // Response
         var status = HandlerHelper.resolveHttpStatus(error);
@@ -148,43 +190,34 @@ public class ImperativeLogsHandler extends OncePerRequestFilter {
         EcsImperativeLogger.build(logRequest, ecsPropertiesConfig.getServiceName());
     }
 
-    private void sensitiveResponseBody(ContentCachingResponseWrapper response, LogRequest logRequest) {
-        int status = response.getStatus();
+    private void sensitiveResponseBody(CapturedExchange exchange, LogRequest logRequest) {
+        int status = exchange.status();
         logRequest.setResponseCode(String.valueOf(status));
         logRequest.setResponseResult(HttpStatus.valueOf(status).getReasonPhrase());
 
-        var body = new String(response.getContentAsByteArray());
-        String sanitizedResponse = DataSanitizer.sanitize(
+        var body = new String(exchange.responseBody());
+        logRequest.setRawResponseBody(DataSanitizer.sanitizeToRaw(
             body,
-            ecsPropertiesConfig.getSensitiveResponseFields(),
-            ecsPropertiesConfig.getSensitiveResponsePatterns(),
-            ecsPropertiesConfig.getSensitiveResponseReplacement());
-        logRequest.setResponseBody(HandlerHelper.parseToMap(sanitizedResponse));
+            exchange.responseContentType(),
+            ecsPropertiesConfig.getResponseSanitizationPlan(),
+            BodyLimitsHelper.forResponse(logRequest.getUrl(), logRequest.getRoute())));
     }
 
-    private void sensitiveRequestBody(ContentCachingRequestWrapper request, LogRequest logRequest) {
-        var body = new String(request.getContentAsByteArray());
-        String sanitizedRequest = DataSanitizer.sanitize(
+    private void sensitiveRequestBody(CapturedExchange exchange, LogRequest logRequest) {
+        var body = new String(exchange.requestBody());
+        logRequest.setRawRequestBody(DataSanitizer.sanitizeToRaw(
             body,
-            ecsPropertiesConfig.getSensitiveRequestFields(),
-            ecsPropertiesConfig.getSensitiveRequestPatterns(),
-            ecsPropertiesConfig.getSensitiveRequestReplacement());
-        logRequest.setRequestBody(HandlerHelper.parseToMap(sanitizedRequest));
+            exchange.requestContentType(),
+            ecsPropertiesConfig.getRequestSanitizationPlan(),
+            BodyLimitsHelper.forRequest(logRequest.getUrl(), logRequest.getRoute())));
     }
 
-    private void setRequestParameters(ContentCachingRequestWrapper request, LogRequest logRequest) {
-        logRequest.setMethod(request.getMethod());
-        logRequest.setUrl(request.getRequestURI());
-        Set<Map.Entry<String, List<String>>> requestHeaders = Collections.list(request.getHeaderNames()).stream()
-            .flatMap(name -> {
-                String headerValue = request.getHeader(name);
-                return headerValue == null
-                    ? Stream.empty()
-                    : Stream.of(Map.entry(name, List.of(headerValue.toLowerCase())));
-            })
-            .collect(Collectors.toSet());
-
-        Map<String, String> headers = DataSanitizer.sanitizeHeaders(requestHeaders,
+    private void setRequestParameters(CapturedExchange exchange, LogRequest logRequest) {
+        logRequest.setMethod(exchange.method());
+        logRequest.setUrl(exchange.uri());
+        logRequest.setRoute(exchange.route());
+
+        Map<String, String> headers = DataSanitizer.sanitizeHeaders(exchange.headers(),
             ecsPropertiesConfig.getAllowRequestHeaders());
         HandlerHelper.setConsumer(logRequest, headers);
         logRequest.setMessageId(headers.get(LogRecord.MESSAGE_ID));
@@ -196,4 +229,35 @@ public class ImperativeLogsHandler extends OncePerRequestFilter {
         HttpStatus resolvedStatus = status != null ? status:HttpStatus.INTERNAL_SERVER_ERROR;
         return new ResponseStatusException(resolvedStatus, resolvedStatus.getReasonPhrase());
     }
+
+    /**
+     * What the log needs from the request and the response, copied before the response is sent
+     * because the container may recycle both objects once the filter returns. A body that is not
+     * logged is not copied and is {@code null}.
+     */
+    private record CapturedExchange(String method, String uri, String route,
+                                    Set<Map.Entry<String, List<String>>> headers,
+                                    String requestContentType, byte[] requestBody,
+                                    String responseContentType, byte[] responseBody,
+                                    int status, Throwable handledException) {
+
+        static CapturedExchange of(ContentCachingRequestWrapper request, ContentCachingResponseWrapper response,
+                                   boolean withRequestBody, boolean withResponseBody) {
+            Set<Map.Entry<String, List<String>>> requestHeaders = Collections.list(request.getHeaderNames()).stream()
+                .flatMap(name -> {
+                    String headerValue = request.getHeader(name);
+                    return headerValue == null
+                        ? Stream.empty()
+                        : Stream.of(Map.entry(name, List.of(headerValue.toLowerCase())));
+                })
+                .collect(Collectors.toSet());
+            // The pattern of the handler that served the request, absent when no handler matched
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return new CapturedExchange(request.getMethod(), request.getRequestURI(),
+                    route != null ? route.toString() : null, requestHeaders,
+                    request.getContentType(), withRequestBody ? request.getContentAsByteArray() : null,
+                    response.getContentType(), withResponseBody ? response.getContentAsByteArray() : null,
+                    response.getStatus(), (Throwable) request.getAttribute(HANDLED_EXCEPTION_PROPERTY));
+        }
+    }
 }
@@ -9,6 +9,9 @@ import co.com.bancolombia.ecs.model.request.LogRequest;
 
 public final class EcsImperativeLogger {
 
+    // The middlewares keep no per-request state, so one chain is shared by every request.
+    private static final AbstractMiddlewareEcsLog CHAIN = build();
+
     private EcsImperativeLogger() {
     }
 
@@ -22,11 +25,11 @@ public final class EcsImperativeLogger {
 
     public static Throwable build(Throwable throwable,
                                   String service) {
-        build().handler(throwable, service);
+        CHAIN.handler(throwable, service);
         return throwable;
     }
 
     public static void build(LogRequest request, String service) {
-        build().handler(request, service);
+        CHAIN.handler(request, service);
     }
 }
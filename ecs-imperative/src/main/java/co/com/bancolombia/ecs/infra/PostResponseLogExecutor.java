@@ -0,0 +1,183 @@
+package co.com.bancolombia.ecs.infra;
+
+import co.com.bancolombia.ecs.infra.drain.DrainStage;
+import co.com.bancolombia.ecs.infra.drain.LogBuffer;
+import co.com.bancolombia.ecs.infra.shared.common.domain.ContextECS;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds request logs after the response has been sent to the client, so sanitizing and printing
+ * no longer delay the first byte. At most {@code maxPending} logs wait or run at once; beyond that
+ * the request thread writes the log itself, which slows the caller down instead of losing the log.
+ */
+@Log4j2
+public final class PostResponseLogExecutor implements LogBuffer {
+
+    private static final String THREAD_NAME_PREFIX = "ecs-imperative-log-";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final PostResponseMode mode;
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final Semaphore pending;
+    private final AtomicLong callerRunsCount = new AtomicLong();
+
+    /**
+     * @param mode       Where the logs are built.
+     * @param threads    Pool size for {@link PostResponseMode#PLATFORM}; zero or less uses one per available processor.
+     * @param maxPending Maximum number of logs waiting or running at once.
+     */
+    public PostResponseLogExecutor(PostResponseMode mode, int threads, int maxPending) {
+        if (mode != PostResponseMode.INLINE && maxPending < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid post-response configuration: max-pending [%d] must be greater than zero", maxPending));
+        }
+        this.mode = mode;
+        this.maxPending = Math.max(maxPending, 0);
+        this.pending = new Semaphore(this.maxPending);
+        this.executor = switch (mode) {
+            case INLINE -> null;
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name(THREAD_NAME_PREFIX, 0).factory());
+            case PLATFORM -> platformPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                    maxPending);
+        };
+    }
+
+    /**
+     * @return An executor that builds the logs on the request thread, before the response is sent.
+     */
+    public static PostResponseLogExecutor inline() {
+        return new PostResponseLogExecutor(PostResponseMode.INLINE, 0, 0);
+    }
+
+    public boolean isInline() {
+        return executor == null;
+    }
+
+    public PostResponseMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Runs the log step with the message id of the request restored on the thread that runs it.
+     *
+     * @param messageId The message id of the request, may be {@code null}.
+     * @param work      The log step; it must only use data captured from the request.
+     */
+    public void execute(String messageId, Runnable work) {
+        Runnable task = () -> run(messageId, work);
+        if (executor == null) {
+            task.run();
+        } else if (pending.tryAcquire()) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        pending.release();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                // Already closed, the request thread writes its own log
+                pending.release();
+                task.run();
+            }
+        } else {
+            callerRunsCount.incrementAndGet();
+            task.run();
+        }
+    }
+
+    private static void run(String messageId, Runnable work) {
+        String previous = ContextECS.getMessageId();
+        if (messageId != null) {
+            ContextECS.setMessageId(messageId);
+        }
+        try {
+            work.run();
+        } catch (RuntimeException ex) {
+            log.warn("The request could not be logged: {}", ex.toString());
+        } finally {
+            if (previous != null) {
+                ContextECS.setMessageId(previous);
+            } else {
+                ContextECS.clear();
+            }
+        }
+    }
+
+    private static ThreadPoolExecutor platformPool(int threads, int maxPending) {
+        var threadNumber = new AtomicInteger();
+        // The semaphore keeps the queue from filling up, so tasks are only rejected once the pool is closed
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxPending),
+                task -> {
+                    Thread thread = new Thread(task, THREAD_NAME_PREFIX + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * @return Logs waiting or being built off the request thread.
+     */
+    public int getPendingCount() {
+        return maxPending - pending.availablePermits();
+    }
+
+    /**
+     * @return Logs built on the request thread because {@code maxPending} was reached.
+     */
+    public long getCallerRunsCount() {
+        return callerRunsCount.get();
+    }
+
+    @Override
+    public DrainStage getDrainStage() {
+        return DrainStage.REQUESTS;
+    }
+
+    @Override
+    public long getBufferedRecords() {
+        return getPendingCount();
+    }
+
+    /**
+     * @return Always zero: logs that cannot be queued are written by the request thread.
+     */
+    @Override
+    public long getDroppedRecords() {
+        return 0;
+    }
+
+    /**
+     * Stops taking logs and waits for the pending ones to be written.
+     */
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Post-response log executor stopped with {} logs still pending", getPendingCount());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package co.com.bancolombia.ecs.infra;
+
+/**
+ * Where the request log is built once the response has been sent.
+ */
+public enum PostResponseMode {
+    /**
+     * On the request thread, before the response body is copied to the client.
+     */
+    INLINE,
+    /**
+     * On a new virtual thread per request, after the response has been flushed.
+     */
+    VIRTUAL,
+    /**
+     * On a fixed pool of platform threads, after the response has been flushed.
+     */
+    PLATFORM
+}
@@ -0,0 +1,18 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import co.com.bancolombia.ecs.infra.PostResponseMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "adapter.ecs.logs.imperative.post-response")
+public class PostResponseLogProperties {
+    private PostResponseMode mode = PostResponseMode.INLINE;
+    // Only used by the PLATFORM mode; zero uses one thread per available processor
+    private int threads = 0;
+    private int maxPending = 8192;
+}
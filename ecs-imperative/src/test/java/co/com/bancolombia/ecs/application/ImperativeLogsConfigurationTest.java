@@ -1,15 +1,23 @@
 package co.com.bancolombia.ecs.application;
 
 import co.com.bancolombia.ecs.application.filter.ImperativeLogsHandler;
+import co.com.bancolombia.ecs.infra.PostResponseLogExecutor;
+import co.com.bancolombia.ecs.infra.PostResponseMode;
+import co.com.bancolombia.ecs.infra.config.LogDrainProperties;
+import co.com.bancolombia.ecs.infra.config.PostResponseLogProperties;
 import co.com.bancolombia.ecs.infra.config.PrintOnErrorProperties;
 import co.com.bancolombia.ecs.infra.config.managementid.application.MessageIdMngUseCase;
 import co.com.bancolombia.ecs.infra.config.managementid.domain.MessageIdRequestProperties;
 import co.com.bancolombia.ecs.infra.config.sensitive.SensitiveRequestProperties;
 import co.com.bancolombia.ecs.infra.config.sensitive.SensitiveResponseProperties;
 import co.com.bancolombia.ecs.infra.config.service.ServiceProperties;
+import co.com.bancolombia.ecs.infra.drain.LogDrainLifecycle;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ImperativeLogsConfigurationTest {
 
@@ -30,8 +38,33 @@ class ImperativeLogsConfigurationTest {
 
         ImperativeLogsConfiguration configuration = new ImperativeLogsConfiguration();
         ImperativeLogsHandler handler = configuration.imperativeLogsHandler(
-                serviceProperties, requestProperties, responseProperties, printOnErrorProperties, messageIdMngUseCase);
+                serviceProperties, requestProperties, responseProperties, printOnErrorProperties, messageIdMngUseCase,
+                PostResponseLogExecutor.inline());
 
         assertNotNull(handler);
     }
+
+    @Test
+    void shouldCreatePostResponseLogExecutorBean() {
+        PostResponseLogProperties postResponseProperties = new PostResponseLogProperties();
+        postResponseProperties.setMode(PostResponseMode.VIRTUAL);
+
+        ImperativeLogsConfiguration configuration = new ImperativeLogsConfiguration();
+        try (PostResponseLogExecutor executor = configuration.postResponseLogExecutor(postResponseProperties)) {
+            assertEquals(PostResponseMode.VIRTUAL, executor.getMode());
+            assertFalse(executor.isInline());
+        }
+    }
+
+    @Test
+    void shouldCreateLogDrainLifecycleBean() {
+        LogDrainProperties drainProperties = new LogDrainProperties();
+
+        ImperativeLogsConfiguration configuration = new ImperativeLogsConfiguration();
+        LogDrainLifecycle lifecycle = configuration.logDrainLifecycle(drainProperties,
+                PostResponseLogExecutor.inline());
+
+        assertTrue(lifecycle.isAutoStartup());
+        assertEquals(LogDrainLifecycle.PHASE, lifecycle.getPhase());
+    }
 }
@@ -2,6 +2,8 @@ package co.com.bancolombia.ecs.application;
 
 import co.com.bancolombia.ecs.application.filter.ImperativeLogsHandler;
 import co.com.bancolombia.ecs.domain.model.ExceptionLevel;
+import co.com.bancolombia.ecs.infra.PostResponseLogExecutor;
+import co.com.bancolombia.ecs.infra.PostResponseMode;
 import co.com.bancolombia.ecs.infra.config.EcsPropertiesConfig;
 import co.com.bancolombia.ecs.infra.config.PrintOnErrorProperties;
 import co.com.bancolombia.ecs.infra.config.managementid.application.MessageIdMngUseCase;
@@ -46,6 +48,7 @@ import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
@@ -400,6 +403,27 @@ class ImperativeLogsHandlerTest {
         assertDoesNotThrow(() -> imperativeLogsHandler.doFilter(mockRequest, mockResponse, parsingChain));
     }
 
+    @Test
+    void testShouldSendResponseBeforePostResponseLog() throws IOException, ServletException {
+        mocksPropertiesConfig(true, true);
+        mockRequest.setRequestURI("/api/test");
+        mockRequest.setMethod("POST");
+        mockRequest.setContent("{\"data\":\"test\"}".getBytes());
+
+        FilterChain writingChain = (request, response) -> {
+            response.setContentType("application/json");
+            response.getWriter().write("{\"result\":\"success\"}");
+        };
+
+        try (PostResponseLogExecutor executor = new PostResponseLogExecutor(PostResponseMode.VIRTUAL, 0, 4)) {
+            imperativeLogsHandler = new ImperativeLogsHandler(ecsPropertiesConfig, messageIdMngUseCase, executor);
+            imperativeLogsHandler.doFilter(mockRequest, mockResponse, writingChain);
+
+            assertTrue(mockResponse.isCommitted());
+            assertEquals("{\"result\":\"success\"}", mockResponse.getContentAsString());
+        }
+    }
+
 
     private void testFilter() throws IOException, ServletException {
         mockRequest.setRequestURI("/api/test");
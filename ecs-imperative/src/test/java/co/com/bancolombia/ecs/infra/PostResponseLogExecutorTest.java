@@ -0,0 +1,115 @@
+package co.com.bancolombia.ecs.infra;
+
+import co.com.bancolombia.ecs.infra.shared.common.domain.ContextECS;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostResponseLogExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PostResponseLogExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor != null) {
+            executor.close();
+        }
+        ContextECS.clear();
+    }
+
+    @Test
+    void shouldRunOnVirtualThreadWithMessageId() throws InterruptedException {
+        executor = new PostResponseLogExecutor(PostResponseMode.VIRTUAL, 0, 4);
+        List<Object> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute("message-1", () -> {
+            seen.add(Thread.currentThread().isVirtual());
+            seen.add(ContextECS.getMessageId());
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(true, "message-1"), seen);
+    }
+
+    @Test
+    void shouldRunOnPlatformPool() throws InterruptedException {
+        executor = new PostResponseLogExecutor(PostResponseMode.PLATFORM, 1, 4);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute(null, () -> {
+            threads.add(Thread.currentThread().getName());
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(threads.getFirst().startsWith("ecs-imperative-log-"));
+    }
+
+    @Test
+    void shouldRunOnCallerWhenMaxPendingIsReached() throws InterruptedException {
+        executor = new PostResponseLogExecutor(PostResponseMode.PLATFORM, 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(null, () -> {
+            started.countDown();
+            awaitRelease();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        executor.execute("message-2", () -> threads.add(Thread.currentThread().getName()));
+
+        assertEquals(List.of(Thread.currentThread().getName()), threads);
+        assertEquals(1, executor.getPendingCount());
+        assertEquals(1, executor.getCallerRunsCount());
+    }
+
+    @Test
+    void shouldRestoreCallerMessageIdInline() {
+        ContextECS.setMessageId("caller");
+        List<String> seen = new CopyOnWriteArrayList<>();
+
+        PostResponseLogExecutor.inline().execute("message-3", () -> seen.add(ContextECS.getMessageId()));
+
+        assertEquals(List.of("message-3"), seen);
+        assertEquals("caller", ContextECS.getMessageId());
+    }
+
+    @Test
+    void shouldRunOnCallerOnceClosed() {
+        executor = new PostResponseLogExecutor(PostResponseMode.VIRTUAL, 0, 4);
+        executor.close();
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        executor.execute(null, () -> threads.add(Thread.currentThread().getName()));
+
+        assertEquals(List.of(Thread.currentThread().getName()), threads);
+        assertEquals(0, executor.getPendingCount());
+    }
+
+    @Test
+    void shouldRejectInvalidMaxPending() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PostResponseLogExecutor(PostResponseMode.VIRTUAL, 0, 0));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
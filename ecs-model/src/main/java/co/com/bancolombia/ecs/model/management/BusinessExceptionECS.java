@@ -1,5 +1,6 @@
 package co.com.bancolombia.ecs.model.management;
 
+import co.com.bancolombia.ecs.model.messageid.MessageIdGenerators;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -7,7 +8,6 @@ import lombok.Setter;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @Setter
 @Getter
@@ -86,9 +86,20 @@ public class BusinessExceptionECS extends RuntimeException {
     }
 
     @Builder
-    @Getter
     public static class MetaInfo implements Serializable {
-        @Builder.Default
-        private final String messageId = UUID.randomUUID().toString();
+        private String messageId;
+
+        /**
+         * Returns the message id of the exception, generating it on first access when none was given.
+         * Exceptions whose request already carries a message id never pay for a new one.
+         *
+         * @return The message id.
+         */
+        public String getMessageId() {
+            if (messageId == null) {
+                messageId = MessageIdGenerators.nextId();
+            }
+            return messageId;
+        }
     }
 }
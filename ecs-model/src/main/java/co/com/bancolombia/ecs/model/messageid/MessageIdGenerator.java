@@ -0,0 +1,13 @@
+package co.com.bancolombia.ecs.model.messageid;
+
+/**
+ * Generates the {@code message-id} used to correlate the logs of a request.
+ * Implementations must be thread-safe. A custom generator can be registered through
+ * {@code META-INF/services/co.com.bancolombia.ecs.model.messageid.MessageIdGenerator}
+ * or with {@link MessageIdGenerators#setGenerator(MessageIdGenerator)}.
+ */
+@FunctionalInterface
+public interface MessageIdGenerator {
+
+    String generate();
+}
@@ -0,0 +1,42 @@
+package co.com.bancolombia.ecs.model.messageid;
+
+import java.util.ServiceLoader;
+
+/**
+ * Holds the {@link MessageIdGenerator} used by the library.
+ * The first implementation found through {@link ServiceLoader} is used; when there is none,
+ * ids are generated by {@link UuidV7MessageIdGenerator}.
+ */
+public final class MessageIdGenerators {
+
+    private static volatile MessageIdGenerator generator = loadDefault();
+
+    private MessageIdGenerators() {
+    }
+
+    /**
+     * @return A new message id from the active generator.
+     */
+    public static String nextId() {
+        return generator.generate();
+    }
+
+    public static MessageIdGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Replaces the active generator.
+     *
+     * @param messageIdGenerator The generator to use, or {@code null} to restore the default one.
+     */
+    public static void setGenerator(MessageIdGenerator messageIdGenerator) {
+        generator = messageIdGenerator != null ? messageIdGenerator : loadDefault();
+    }
+
+    private static MessageIdGenerator loadDefault() {
+        return ServiceLoader.load(MessageIdGenerator.class)
+                .findFirst()
+                .orElseGet(UuidV7MessageIdGenerator::new);
+    }
+}
@@ -0,0 +1,15 @@
+package co.com.bancolombia.ecs.model.messageid;
+
+import java.util.UUID;
+
+/**
+ * Legacy generator: random UUID version 4 from {@link UUID#randomUUID()}, backed by a shared
+ * {@code SecureRandom}. Use it only when the ids must not reveal the creation time.
+ */
+public class RandomUuidMessageIdGenerator implements MessageIdGenerator {
+
+    @Override
+    public String generate() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,30 @@
+package co.com.bancolombia.ecs.model.messageid;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Default generator: time-ordered UUID version 7 (RFC 9562).
+ * The first 48 bits hold the Unix time in milliseconds and the remaining bits come from
+ * {@link ThreadLocalRandom}, so threads never contend on a shared random source.
+ */
+public class UuidV7MessageIdGenerator implements MessageIdGenerator {
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long RAND_A_MASK = 0x0FFFL;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+    private static final int TIMESTAMP_SHIFT = 16;
+
+    @Override
+    public String generate() {
+        return next(System.currentTimeMillis()).toString();
+    }
+
+    static UUID next(long epochMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (epochMillis << TIMESTAMP_SHIFT) | VERSION_7 | (random.nextLong() & RAND_A_MASK);
+        long leastSigBits = (random.nextLong() & VARIANT_MASK) | VARIANT_RFC_4122;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -1,6 +1,5 @@
 package co.com.bancolombia.ecs.model.request;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -9,17 +8,36 @@ import java.util.Map;
 
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 public class LogRequest {
     private String messageId;
     private String consumer;
     private String method;
     private String url;
+    // Route template of the handler, such as /clients/{id}; used to group requests, not logged
+    private String route;
     private Throwable error;
     private Map<String, String> headers;
     private Map<String, String> requestBody;
     private Map<String, String> responseBody;
+    // Sanitized bodies embedded as they are; used when the map of the same body is not set
+    private RawJsonBody rawRequestBody;
+    private RawJsonBody rawResponseBody;
     private String responseResult;
     private String responseCode;
+
+    public LogRequest(String messageId, String consumer, String method, String url, Throwable error,
+                      Map<String, String> headers, Map<String, String> requestBody,
+                      Map<String, String> responseBody, String responseResult, String responseCode) {
+        this.messageId = messageId;
+        this.consumer = consumer;
+        this.method = method;
+        this.url = url;
+        this.error = error;
+        this.headers = headers;
+        this.requestBody = requestBody;
+        this.responseBody = responseBody;
+        this.responseResult = responseResult;
+        this.responseCode = responseCode;
+    }
 }
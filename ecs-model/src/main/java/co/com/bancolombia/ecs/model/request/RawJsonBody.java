@@ -0,0 +1,62 @@
+package co.com.bancolombia.ecs.model.request;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A request or response body that was already sanitized, kept as the UTF-8 bytes that end up in the log.
+ * A JSON body is embedded verbatim in the record, so it is not parsed into a map and serialized again;
+ * any other content is written as the text of a {@code raw} field.
+ * The bytes are not copied, callers must not modify them once the body is built.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RawJsonBody {
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+    private final String contentType;
+    private final boolean json;
+
+    /**
+     * @param bytes       A complete, valid JSON document encoded as UTF-8.
+     * @param contentType The content type of the original body, may be {@code null}.
+     * @return A body that is embedded as it is.
+     */
+    public static RawJsonBody ofJson(byte[] bytes, String contentType) {
+        return ofJson(bytes, 0, bytes.length, contentType);
+    }
+
+    /**
+     * @param bytes       Buffer holding a complete, valid JSON document encoded as UTF-8.
+     * @param offset      Start of the document in the buffer.
+     * @param length      Length in bytes of the document.
+     * @param contentType The content type of the original body, may be {@code null}.
+     * @return A body that is embedded as it is.
+     */
+    public static RawJsonBody ofJson(byte[] bytes, int offset, int length, String contentType) {
+        return new RawJsonBody(bytes, offset, length, contentType, true);
+    }
+
+    /**
+     * @param text        A body that is not a JSON object.
+     * @param contentType The content type of the original body, may be {@code null}.
+     * @return A body that is written as an escaped string.
+     */
+    public static RawJsonBody ofText(String text, String contentType) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return new RawJsonBody(bytes, 0, bytes.length, contentType, false);
+    }
+
+    public String asString() {
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return asString();
+    }
+}
@@ -0,0 +1,71 @@
+package co.com.bancolombia.ecs.model.messageid;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageIdGeneratorsTest {
+
+    @AfterEach
+    void tearDown() {
+        MessageIdGenerators.setGenerator(null);
+    }
+
+    @Test
+    void shouldUseUuidV7ByDefault() {
+        assertInstanceOf(UuidV7MessageIdGenerator.class, MessageIdGenerators.getGenerator());
+
+        UUID uuid = UUID.fromString(MessageIdGenerators.nextId());
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void shouldEncodeTimestampInFirstBits() {
+        long epochMillis = 1_738_335_845_123L;
+
+        UUID uuid = UuidV7MessageIdGenerator.next(epochMillis);
+
+        assertEquals(epochMillis, uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void shouldSortByCreationTime() {
+        String older = UuidV7MessageIdGenerator.next(1_000L).toString();
+        String newer = UuidV7MessageIdGenerator.next(2_000L).toString();
+
+        assertTrue(older.compareTo(newer) < 0);
+    }
+
+    @Test
+    void shouldGenerateUniqueIds() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(MessageIdGenerators.nextId());
+        }
+
+        assertEquals(10_000, ids.size());
+    }
+
+    @Test
+    void shouldUseRegisteredGenerator() {
+        MessageIdGenerators.setGenerator(() -> "custom-id");
+
+        assertEquals("custom-id", MessageIdGenerators.nextId());
+    }
+
+    @Test
+    void shouldGenerateRandomUuidInLegacyMode() {
+        MessageIdGenerators.setGenerator(new RandomUuidMessageIdGenerator());
+
+        assertEquals(4, UUID.fromString(MessageIdGenerators.nextId()).version());
+    }
+}
@@ -0,0 +1,33 @@
+package co.com.bancolombia.ecs.model.request;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RawJsonBodyTest {
+
+    @Test
+    void shouldKeepJsonSliceWithoutCopying() {
+        byte[] buffer = "xx{\"key\":\"valor ñ\"}yy".getBytes(StandardCharsets.UTF_8);
+
+        RawJsonBody body = RawJsonBody.ofJson(buffer, 2, buffer.length - 4, "application/json");
+
+        assertTrue(body.isJson());
+        assertEquals("{\"key\":\"valor ñ\"}", body.asString());
+        assertEquals("application/json", body.getContentType());
+        assertEquals(buffer, body.getBytes());
+    }
+
+    @Test
+    void shouldKeepTextAsUtf8() {
+        RawJsonBody body = RawJsonBody.ofText("texto plano ñ", null);
+
+        assertFalse(body.isJson());
+        assertEquals("texto plano ñ", body.asString());
+        assertEquals("texto plano ñ".getBytes(StandardCharsets.UTF_8).length, body.getLength());
+    }
+}
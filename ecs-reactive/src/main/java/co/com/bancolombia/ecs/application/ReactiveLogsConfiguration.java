@@ -2,21 +2,33 @@ package co.com.bancolombia.ecs.application;
 
 import co.com.bancolombia.ecs.application.filter.ReactiveLogsHandler;
 import co.com.bancolombia.ecs.application.handler.EcsErrorContextHandler;
+import co.com.bancolombia.ecs.infra.ReactiveLogScheduler;
 import co.com.bancolombia.ecs.infra.config.EcsPropertiesConfig;
+import co.com.bancolombia.ecs.infra.config.LogDrainProperties;
 import co.com.bancolombia.ecs.infra.config.PrintOnErrorProperties;
+import co.com.bancolombia.ecs.infra.config.ReactiveLogSchedulerProperties;
 import co.com.bancolombia.ecs.infra.config.managementid.application.MessageIdMngUseCase;
 import co.com.bancolombia.ecs.infra.config.sensitive.SensitiveRequestProperties;
 import co.com.bancolombia.ecs.infra.config.sensitive.SensitiveResponseProperties;
 import co.com.bancolombia.ecs.infra.config.service.ServiceProperties;
+import co.com.bancolombia.ecs.infra.drain.LogDrainLifecycle;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.web.server.WebFilter;
 
+import java.util.List;
+
 @AutoConfiguration
 public class ReactiveLogsConfiguration {
 
+    @Bean(destroyMethod = "close")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactiveLogScheduler reactiveLogScheduler(ReactiveLogSchedulerProperties schedulerProperties) {
+        return new ReactiveLogScheduler(schedulerProperties.getThreads(), schedulerProperties.getQueueSize());
+    }
+
     @Bean
     @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
     @ConditionalOnClass(WebFilter.class)
@@ -24,10 +36,19 @@ public class ReactiveLogsConfiguration {
                                                    SensitiveRequestProperties requestProps,
                                                    SensitiveResponseProperties responseProps,
                                                    PrintOnErrorProperties printOnErrorProperties,
-                                                   MessageIdMngUseCase messageIdMngUseCase) {
+                                                   MessageIdMngUseCase messageIdMngUseCase,
+                                                   ReactiveLogScheduler reactiveLogScheduler) {
         var config = new EcsPropertiesConfig(
                 serviceProps, requestProps, responseProps, printOnErrorProperties);
-        return new ReactiveLogsHandler(config, messageIdMngUseCase);
+        return new ReactiveLogsHandler(config, messageIdMngUseCase, reactiveLogScheduler);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public LogDrainLifecycle logDrainLifecycle(LogDrainProperties drainProperties,
+                                               ReactiveLogScheduler reactiveLogScheduler) {
+        return new LogDrainLifecycle(drainProperties.isEnabled(), drainProperties.getTimeoutMs(),
+                List.of(reactiveLogScheduler));
     }
 
     @Bean
@@ -4,21 +4,26 @@ import co.com.bancolombia.ecs.domain.model.LogRecord;
 import co.com.bancolombia.ecs.infra.shared.common.domain.ContextECS;
 import co.com.bancolombia.ecs.infra.config.managementid.application.MessageIdMngUseCase;
 import co.com.bancolombia.ecs.domain.model.ExceptionLevel;
+import co.com.bancolombia.ecs.helpers.BodyLimitsHelper;
 import co.com.bancolombia.ecs.helpers.DataSanitizer;
 import co.com.bancolombia.ecs.helpers.HandlerHelper;
 import co.com.bancolombia.ecs.infra.EcsReactiveLogger;
+import co.com.bancolombia.ecs.infra.ReactiveLogScheduler;
 import co.com.bancolombia.ecs.infra.config.EcsPropertiesConfig;
 import co.com.bancolombia.ecs.infra.config.RequestLoggingDecorator;
 import co.com.bancolombia.ecs.infra.config.ResponseLoggingDecorator;
 import co.com.bancolombia.ecs.model.request.LogRequest;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import reactor.util.annotation.NonNull;
 import reactor.util.context.Context;
 
@@ -35,15 +40,23 @@ public class ReactiveLogsHandler implements WebFilter {
     private final boolean printReqRespOnErrorOnlyActive;
     private final ExceptionLevel printReqRespLevel;
     private final MessageIdMngUseCase messageIdMngUseCase;
+    private final ReactiveLogScheduler logScheduler;
 
     public ReactiveLogsHandler(EcsPropertiesConfig ecsPropertiesConfig,
                                MessageIdMngUseCase messageIdMngUseCase) {
+        this(ecsPropertiesConfig, messageIdMngUseCase, ReactiveLogScheduler.inline());
+    }
+
+    public ReactiveLogsHandler(EcsPropertiesConfig ecsPropertiesConfig,
+                               MessageIdMngUseCase messageIdMngUseCase,
+                               ReactiveLogScheduler logScheduler) {
         this.ecsPropertiesConfig = ecsPropertiesConfig;
         this.showRequestLogs = ecsPropertiesConfig.getShowRequestLogs();
         this.showResponseLogs = ecsPropertiesConfig.getShowResponseLogs();
         this.printReqRespOnErrorOnlyActive = Boolean.TRUE.equals(ecsPropertiesConfig.getPrintReqRespOnErrorOnly());
         this.printReqRespLevel = ecsPropertiesConfig.getPrintReqRespLevels();
         this.messageIdMngUseCase = messageIdMngUseCase;
+        this.logScheduler = logScheduler;
     }
 
     @Override
@@ -56,12 +69,12 @@ public class ReactiveLogsHandler implements WebFilter {
             exchange.getAttributes().put(ContextECS.KEY_MESSAGE_ID, messageId);
         }
 
-        return buildFilterChain(exchange, chain)
+        return buildFilterChain(exchange, chain, messageId)
                 .contextWrite(ctx -> writeMessageIdToContext(ctx, messageId));
     }
 
 
-    private Mono<Void> buildFilterChain(ServerWebExchange exchange, WebFilterChain chain) {
+    private Mono<Void> buildFilterChain(ServerWebExchange exchange, WebFilterChain chain, String messageId) {
         if (!printReqRespOnErrorOnlyActive
                 && Boolean.FALSE.equals(showRequestLogs)
                 && Boolean.FALSE.equals(showResponseLogs)) {
@@ -88,12 +101,49 @@ public class ReactiveLogsHandler implements WebFilter {
             .response(decoratedResponse)
             .build();
 
+        // The exchange is captured when the response completes, then logged in a single hop to the log scheduler
         return chain.filter(mutatedExchange)
-                .then(Mono.defer(() -> logRequestOrError(decoratedRequest, decoratedResponse)
-                        .subscribeOn(Schedulers.boundedElastic())))
-                .onErrorResume(error -> logError(error, decoratedRequest)
-                        .subscribeOn(Schedulers.boundedElastic())
-                        .then(Mono.error(error)));
+                .doOnSuccess(ignored -> logCompleted(exchange, decoratedRequest, decoratedResponse, messageId))
+                .doOnError(error -> logFailed(error, exchange, decoratedRequest, messageId));
+    }
+
+    private void logCompleted(ServerWebExchange exchange, RequestLoggingDecorator request,
+                              ResponseLoggingDecorator response, String messageId) {
+        var status = resolveHttpStatus(response);
+        if (status != null && HandlerHelper.isErrorStatusCode(status.value())) {
+            logFailed(HandlerHelper.buildStatusException(status), exchange, request, messageId);
+        } else if (!printReqRespOnErrorOnlyActive) {
+            var captured = capture(exchange, request, response, Boolean.TRUE.equals(showRequestLogs),
+                    Boolean.TRUE.equals(showResponseLogs));
+            logScheduler.dispatch(messageId, Mono.defer(() -> logRequest(captured)));
+        }
+    }
+
+    private void logFailed(Throwable error, ServerWebExchange exchange, RequestLoggingDecorator request,
+                           String messageId) {
+        if (printReqRespOnErrorOnlyActive && HandlerHelper.errorDoesntMatchLevel(error, printReqRespLevel)) {
+            return;
+        }
+        var captured = capture(exchange, request, null, true, false);
+        logScheduler.dispatch(messageId, Mono.defer(() -> logError(error, captured)));
+    }
+
+    private CapturedExchange capture(ServerWebExchange exchange, RequestLoggingDecorator request,
+                                     ResponseLoggingDecorator response, boolean withRequestBody,
+                                     boolean withResponseBody) {
+        Set<Map.Entry<String, List<String>>> headers = new HashSet<>();
+        request.getHeaders().forEach((key, values) -> headers.add(Map.entry(key, values)));
+        return CapturedExchange.of(request, response, route(exchange),
+                DataSanitizer.sanitizeHeaders(headers, ecsPropertiesConfig.getAllowRequestHeaders()),
+                withRequestBody, withResponseBody);
+    }
+
+    /**
+     * @return The pattern of the handler that served the request, or {@code null} when no handler matched.
+     */
+    private static String route(ServerWebExchange exchange) {
+        Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : null;
     }
 
     private Set<Map.Entry<String, List<String>>> extractRequestHeaders(ServerWebExchange exchange) {
@@ -112,113 +162,93 @@ public class ReactiveLogsHandler implements WebFilter {
         }
     }
 
-    private Mono<Void> logRequestOrError(RequestLoggingDecorator request, ResponseLoggingDecorator response) {
-        var status = resolveHttpStatus(response);
-        if (status != null && HandlerHelper.isErrorStatusCode(status.value())) {
-            return logError(HandlerHelper.buildStatusException(status), request);
-        }
-        return logRequest(request, response);
-    }
-
-    private Mono<Void> logRequest(RequestLoggingDecorator request, ResponseLoggingDecorator response) {
-        if (printReqRespOnErrorOnlyActive) {
-            return Mono.empty();
-        }
-
+    private Mono<Void> logRequest(CapturedExchange exchange) {
         var logRequest = new LogRequest();
-        setRequestParameters(request, logRequest);
+        setRequestParameters(exchange, logRequest);
         applyContextMessageId(logRequest);
 
-        Mono<Void> requestBodyMono = getRequestBodyMono(request, logRequest);
-        Mono<Void> responseBodyMono = getResponseBodyMono(response, logRequest);
-
-        return Mono.when(requestBodyMono, responseBodyMono)
-                .then(Mono.defer(() -> EcsReactiveLogger.build(logRequest, ecsPropertiesConfig.getServiceName()))
-                        .subscribeOn(Schedulers.boundedElastic()));
-    }
-
-    private Mono<Void> getResponseBodyMono(ResponseLoggingDecorator response, LogRequest logRequest) {
-        return Boolean.TRUE.equals(showResponseLogs)
-            ? readBody(response).flatMap(body -> Mono.fromCallable(() -> {
-            HttpStatus status = (HttpStatus) response.getStatusCode();
+        if (Boolean.TRUE.equals(showRequestLogs)) {
+            setRequestBody(exchange, logRequest);
+        }
+        if (Boolean.TRUE.equals(showResponseLogs) && exchange.responseBody() != null) {
+            HttpStatus status = exchange.status();
             if (status != null) {
                 logRequest.setResponseCode(String.valueOf(status.value()));
                 logRequest.setResponseResult(status.getReasonPhrase());
             }
-            String sanitized = DataSanitizer.sanitize(
-                body, ecsPropertiesConfig.getSensitiveResponseFields(),
-                ecsPropertiesConfig.getSensitiveResponsePatterns(),
-                ecsPropertiesConfig.getSensitiveResponseReplacement());
-            logRequest.setResponseBody(HandlerHelper.parseToMap(sanitized));
-            return null;
-        }).subscribeOn(Schedulers.boundedElastic())).then()
-            : Mono.empty();
-    }
-
-    private Mono<String> readBody(ResponseLoggingDecorator response) {
-        return Mono.justOrEmpty(response.getBodyAsString());
-    }
-
-    private Mono<Void> getRequestBodyMono(RequestLoggingDecorator request, LogRequest logRequest) {
-        return Boolean.TRUE.equals(showRequestLogs)
-            ? readBody(request).flatMap(body -> Mono.fromCallable(() -> {
-            String sanitized = DataSanitizer.sanitize(
-                body, ecsPropertiesConfig.getSensitiveRequestFields(),
-                ecsPropertiesConfig.getSensitiveRequestPatterns(),
-                ecsPropertiesConfig.getSensitiveRequestReplacement());
-            logRequest.setRequestBody(HandlerHelper.parseToMap(sanitized));
-            return null;
-        }).subscribeOn(Schedulers.boundedElastic())).then()
-            : Mono.empty();
-    }
-
-    private Mono<Void> logError(Throwable error, RequestLoggingDecorator request) {
-        if (printReqRespOnErrorOnlyActive && HandlerHelper.errorDoesntMatchLevel(error, printReqRespLevel)) {
-            return Mono.empty();
+            logRequest.setRawResponseBody(DataSanitizer.sanitizeToRaw(
+                    exchange.responseBody(), exchange.responseContentType(),
+                    ecsPropertiesConfig.getResponseSanitizationPlan(),
+                    BodyLimitsHelper.forResponse(logRequest.getUrl(), logRequest.getRoute())));
         }
 
+        return EcsReactiveLogger.build(logRequest, ecsPropertiesConfig.getServiceName());
+    }
+
+    private Mono<Void> logError(Throwable error, CapturedExchange exchange) {
         var logRequest = new LogRequest();
-        setRequestParameters(request, logRequest);
+        setRequestParameters(exchange, logRequest);
         applyContextMessageId(logRequest);
 
         var status = HandlerHelper.resolveHttpStatus(error);
         logRequest.setResponseCode(String.valueOf(status.value()));
         logRequest.setResponseResult(status.getReasonPhrase());
         logRequest.setError(error);
+        setRequestBody(exchange, logRequest);
 
-        return readBody(request)
-                .flatMap(body -> Mono.fromCallable(() -> {
-                    String sanitized = DataSanitizer.sanitize(
-                            body, ecsPropertiesConfig.getSensitiveRequestFields(),
-                            ecsPropertiesConfig.getSensitiveRequestPatterns(),
-                            ecsPropertiesConfig.getSensitiveRequestReplacement());
-                    logRequest.setRequestBody(HandlerHelper.parseToMap(sanitized));
-                    return null;
-                }).subscribeOn(Schedulers.boundedElastic()))
-                .then(Mono.defer(() -> EcsReactiveLogger.build(logRequest, ecsPropertiesConfig.getServiceName()))
-                        .subscribeOn(Schedulers.boundedElastic()));
+        return EcsReactiveLogger.build(logRequest, ecsPropertiesConfig.getServiceName());
     }
 
-    private Mono<String> readBody(RequestLoggingDecorator request) {
-        return Mono.justOrEmpty(request.getBodyAsString());
+    private void setRequestBody(CapturedExchange exchange, LogRequest logRequest) {
+        if (exchange.requestBody() != null) {
+            logRequest.setRawRequestBody(DataSanitizer.sanitizeToRaw(
+                    exchange.requestBody(), exchange.requestContentType(),
+                    ecsPropertiesConfig.getRequestSanitizationPlan(),
+                    BodyLimitsHelper.forRequest(logRequest.getUrl(), logRequest.getRoute())));
+        }
     }
 
-    private void setRequestParameters(RequestLoggingDecorator decoratedRequest, LogRequest requestInfo) {
-        requestInfo.setMethod(decoratedRequest.getMethod().name());
-        requestInfo.setUrl(decoratedRequest.getURI().getPath());
+    private void setRequestParameters(CapturedExchange exchange, LogRequest requestInfo) {
+        requestInfo.setMethod(exchange.method());
+        requestInfo.setUrl(exchange.path());
+        requestInfo.setRoute(exchange.route());
 
-        Set<Map.Entry<String, List<String>>> headers = new HashSet<>();
-        decoratedRequest.getHeaders().forEach((key, values) -> headers.add(Map.entry(key, values)));
+        Map<String, String> headers = exchange.headers();
+        HandlerHelper.setConsumer(requestInfo, headers);
+        requestInfo.setMessageId(headers.get(LogRecord.MESSAGE_ID));
+        requestInfo.setHeaders(headers);
+    }
 
-        Map<String, String> sanitizeHeaders = DataSanitizer.sanitizeHeaders(headers,
-                ecsPropertiesConfig.getAllowRequestHeaders());
-        HandlerHelper.setConsumer(requestInfo, sanitizeHeaders);
-        requestInfo.setMessageId(sanitizeHeaders.get(LogRecord.MESSAGE_ID));
-        requestInfo.setHeaders(sanitizeHeaders);
+    private static String contentType(HttpHeaders headers) {
+        MediaType contentType = headers != null ? headers.getContentType() : null;
+        return contentType != null ? contentType.toString() : null;
     }
 
     private HttpStatus resolveHttpStatus(ResponseLoggingDecorator response) {
         var statusCode = response.getStatusCode();
         return statusCode != null ? HandlerHelper.resolveStatusCode(statusCode.value()) : null;
     }
+
+    /**
+     * What the log needs from the request and the response, copied on the thread that completes the
+     * exchange: servlet-backed servers recycle the request and response headers once the response is
+     * complete, so the log scheduler never reads the live exchange. A body that is not logged is not
+     * copied and is {@code null}.
+     */
+    private record CapturedExchange(String method, String path, String route, Map<String, String> headers,
+                                    String requestContentType, String requestBody, HttpStatus status,
+                                    String responseContentType, String responseBody) {
+
+        static CapturedExchange of(RequestLoggingDecorator request, ResponseLoggingDecorator response,
+                                   String route, Map<String, String> sanitizedHeaders,
+                                   boolean withRequestBody, boolean withResponseBody) {
+            HttpStatusCode statusCode = response != null ? response.getStatusCode() : null;
+            return new CapturedExchange(request.getMethod().name(), request.getURI().getPath(), route,
+                    sanitizedHeaders, contentType(request.getHeaders()),
+                    withRequestBody ? request.getBodyAsString() : null,
+                    statusCode != null ? HandlerHelper.resolveStatusCode(statusCode.value()) : null,
+                    response != null ? contentType(response.getHeaders()) : null,
+                    withResponseBody && response != null ? response.getBodyAsString() : null);
+        }
+    }
 }
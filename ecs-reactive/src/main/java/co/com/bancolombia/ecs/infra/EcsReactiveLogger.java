@@ -11,6 +11,9 @@ import reactor.core.publisher.Mono;
 
 public final class EcsReactiveLogger {
 
+    // The middlewares keep no per-request state, so one chain is shared by every request.
+    private static final AbstractMiddlewareEcsLog CHAIN = build();
+
     private EcsReactiveLogger() {
     }
 
@@ -24,12 +27,12 @@ public final class EcsReactiveLogger {
 
     public static Mono<Throwable> build(Throwable throwable,
                                         String service) {
-        build().handler(throwable, service);
+        CHAIN.handler(throwable, service);
         return Mono.just(throwable);
     }
 
     public static Mono<Void> build(LogRequest request, String service) {
-        build().handler(request, service);
+        CHAIN.handler(request, service);
         return Mono.empty();
     }
 }
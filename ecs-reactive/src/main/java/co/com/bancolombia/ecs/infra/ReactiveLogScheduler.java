@@ -0,0 +1,168 @@
+package co.com.bancolombia.ecs.infra;
+
+import co.com.bancolombia.ecs.infra.drain.DrainStage;
+import co.com.bancolombia.ecs.infra.drain.LogBuffer;
+import co.com.bancolombia.ecs.infra.shared.common.domain.ContextECS;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the log step of a request once its response is complete, off the event loop.
+ * Work is handed to a fixed pool of daemon threads sized to the CPUs through a bounded queue, so
+ * each request makes a single thread hop and the response never waits for its log. When the
+ * queue is full the log is discarded and counted instead of holding up the caller.
+ */
+@Log4j2
+public final class ReactiveLogScheduler implements LogBuffer {
+
+    private static final String THREAD_NAME_PREFIX = "ecs-reactive-log-";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final Executor executor;
+    private final ThreadPoolExecutor pool;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private ReactiveLogScheduler(Executor executor, ThreadPoolExecutor pool) {
+        this.executor = executor;
+        this.pool = pool;
+    }
+
+    /**
+     * @param threads   Number of worker threads; zero or less uses one per available processor.
+     * @param queueSize Maximum number of logs waiting for a worker.
+     */
+    public ReactiveLogScheduler(int threads, int queueSize) {
+        if (queueSize < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid reactive scheduler configuration: queue-size [%d] must be greater than zero", queueSize));
+        }
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        var threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                task -> {
+                    Thread thread = new Thread(task, THREAD_NAME_PREFIX + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executorPool) -> rejectedCount.incrementAndGet());
+        this.executor = pool;
+    }
+
+    /**
+     * A scheduler that runs the work on the calling thread, before the caller continues.
+     *
+     * @return The inline scheduler.
+     */
+    public static ReactiveLogScheduler inline() {
+        return new ReactiveLogScheduler(Runnable::run, null);
+    }
+
+    /**
+     * Subscribes to the log step on a worker thread. The message id of the request is restored
+     * on that thread so the records logged by the step carry it.
+     *
+     * @param messageId The message id of the request, may be {@code null}.
+     * @param work      The log step; it must not switch threads itself.
+     */
+    public void dispatch(String messageId, Mono<Void> work) {
+        executor.execute(() -> run(messageId, work));
+    }
+
+    private static void run(String messageId, Mono<Void> work) {
+        String previous = ContextECS.getMessageId();
+        if (messageId != null) {
+            ContextECS.setMessageId(messageId);
+        }
+        try {
+            work.contextWrite(ctx -> messageId != null ? ctx.put(ContextECS.KEY_MESSAGE_ID, messageId) : ctx)
+                    .subscribe(null, error -> log.warn("The request could not be logged: {}", error.toString()));
+        } finally {
+            if (previous != null) {
+                ContextECS.setMessageId(previous);
+            } else {
+                ContextECS.clear();
+            }
+        }
+    }
+
+    /**
+     * @return Logs waiting for a worker.
+     */
+    public int getQueueSize() {
+        return pool != null ? pool.getQueue().size() : 0;
+    }
+
+    /**
+     * @return Room left in the queue.
+     */
+    public int getRemainingCapacity() {
+        return pool != null ? pool.getQueue().remainingCapacity() : 0;
+    }
+
+    /**
+     * @return Workers currently writing a log.
+     */
+    public int getActiveCount() {
+        return pool != null ? pool.getActiveCount() : 0;
+    }
+
+    /**
+     * @return Logs written since the scheduler started, approximately.
+     */
+    public long getCompletedCount() {
+        return pool != null ? pool.getCompletedTaskCount() : 0;
+    }
+
+    /**
+     * @return Logs discarded because the queue was full.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public DrainStage getDrainStage() {
+        return DrainStage.REQUESTS;
+    }
+
+    /**
+     * @return Logs queued or being written.
+     */
+    @Override
+    public long getBufferedRecords() {
+        return pool != null ? pool.getQueue().size() + pool.getActiveCount() : 0;
+    }
+
+    @Override
+    public long getDroppedRecords() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Stops taking work and waits for the queued logs to be written.
+     */
+    @Override
+    public void close() {
+        if (pool == null) {
+            return;
+        }
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Reactive log scheduler stopped with {} logs still queued", pool.getQueue().size());
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package co.com.bancolombia.ecs.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "adapter.ecs.logs.reactive.scheduler")
+public class ReactiveLogSchedulerProperties {
+    // Zero uses one thread per available processor
+    private int threads = 0;
+    private int queueSize = 8192;
+}
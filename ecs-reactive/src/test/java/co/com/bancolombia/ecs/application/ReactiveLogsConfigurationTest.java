@@ -1,14 +1,20 @@
 package co.com.bancolombia.ecs.application;
 
 import co.com.bancolombia.ecs.application.filter.ReactiveLogsHandler;
+import co.com.bancolombia.ecs.infra.ReactiveLogScheduler;
+import co.com.bancolombia.ecs.infra.config.LogDrainProperties;
 import co.com.bancolombia.ecs.infra.config.PrintOnErrorProperties;
+import co.com.bancolombia.ecs.infra.config.ReactiveLogSchedulerProperties;
 import co.com.bancolombia.ecs.infra.config.managementid.application.MessageIdMngUseCase;
 import co.com.bancolombia.ecs.infra.config.managementid.domain.MessageIdRequestProperties;
 import co.com.bancolombia.ecs.infra.config.sensitive.SensitiveRequestProperties;
 import co.com.bancolombia.ecs.infra.config.sensitive.SensitiveResponseProperties;
 import co.com.bancolombia.ecs.infra.config.service.ServiceProperties;
+import co.com.bancolombia.ecs.infra.drain.LogDrainLifecycle;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 class ReactiveLogsConfigurationTest {
@@ -30,8 +36,33 @@ class ReactiveLogsConfigurationTest {
 
         ReactiveLogsConfiguration configuration = new ReactiveLogsConfiguration();
         ReactiveLogsHandler handler = configuration.reactiveLogsHandler(
-                serviceProperties, requestProperties, responseProperties, printOnErrorProperties, messageIdMngUseCase);
+                serviceProperties, requestProperties, responseProperties, printOnErrorProperties, messageIdMngUseCase,
+                ReactiveLogScheduler.inline());
 
         assertNotNull(handler);
     }
+
+    @Test
+    void shouldCreateReactiveLogSchedulerBean() {
+        ReactiveLogSchedulerProperties schedulerProperties = new ReactiveLogSchedulerProperties();
+        schedulerProperties.setThreads(2);
+        schedulerProperties.setQueueSize(16);
+
+        ReactiveLogsConfiguration configuration = new ReactiveLogsConfiguration();
+        try (ReactiveLogScheduler scheduler = configuration.reactiveLogScheduler(schedulerProperties)) {
+            assertEquals(16, scheduler.getRemainingCapacity());
+        }
+    }
+
+    @Test
+    void shouldCreateLogDrainLifecycleBean() {
+        LogDrainProperties drainProperties = new LogDrainProperties();
+        drainProperties.setEnabled(false);
+
+        ReactiveLogsConfiguration configuration = new ReactiveLogsConfiguration();
+        LogDrainLifecycle lifecycle = configuration.logDrainLifecycle(drainProperties, ReactiveLogScheduler.inline());
+
+        assertFalse(lifecycle.isAutoStartup());
+        assertEquals(LogDrainLifecycle.PHASE, lifecycle.getPhase());
+    }
 }
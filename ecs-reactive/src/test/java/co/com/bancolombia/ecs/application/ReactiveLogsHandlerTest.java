@@ -2,6 +2,7 @@ package co.com.bancolombia.ecs.application;
 
 import co.com.bancolombia.ecs.application.filter.ReactiveLogsHandler;
 import co.com.bancolombia.ecs.domain.model.ExceptionLevel;
+import co.com.bancolombia.ecs.infra.ReactiveLogScheduler;
 import co.com.bancolombia.ecs.infra.config.EcsPropertiesConfig;
 import co.com.bancolombia.ecs.infra.config.PrintOnErrorProperties;
 import co.com.bancolombia.ecs.infra.config.managementid.application.MessageIdMngUseCase;
@@ -13,6 +14,7 @@ import co.com.bancolombia.ecs.model.management.ErrorManagement;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -36,8 +38,10 @@ import reactor.test.StepVerifier;
 import java.net.URI;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -459,6 +463,47 @@ class ReactiveLogsHandlerTest {
             .verifyComplete();
     }
 
+    @Test
+    void shouldLogTheExchangeAsItWasWhenTheResponseCompleted(CapturedOutput output) {
+        mocksPropertiesConfig();
+        ReactiveLogScheduler scheduler = mock(ReactiveLogScheduler.class);
+        webHandler = new ReactiveLogsHandler(ecsPropertiesConfig, messageIdMngUseCase, scheduler);
+        mockExchange();
+        when(exchange.getRequest()).thenReturn(request);
+        when(exchange.getResponse()).thenReturn(response);
+        when(request.getURI()).thenReturn(URI.create("/api/data"));
+        when(request.getMethod()).thenReturn(HttpMethod.GET);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("message-id", "completed-request");
+        when(request.getHeaders()).thenReturn(headers);
+        mockBodyFactory();
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        WebFilterChain mockChain = mock(WebFilterChain.class);
+        when(mockChain.filter(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(webHandler.filter(exchange, mockChain))
+            .verifyComplete();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Mono<Void>> work = ArgumentCaptor.forClass(Mono.class);
+        verify(scheduler).dispatch(any(), work.capture());
+        // The server recycles the request and the response once the exchange is complete
+        HttpHeaders recycled = new HttpHeaders();
+        recycled.add("message-id", "another-request");
+        lenient().when(request.getURI()).thenReturn(URI.create("/recycled"));
+        lenient().when(request.getHeaders()).thenReturn(recycled);
+        lenient().when(response.getStatusCode()).thenReturn(HttpStatus.NOT_FOUND);
+
+        StepVerifier.create(work.getValue())
+            .verifyComplete();
+
+        assertTrue(output.getOut().contains("\"uri\":\"/api/data\""));
+        assertTrue(output.getOut().contains("\"message-id\":\"completed-request\""));
+        assertTrue(output.getOut().contains("\"responseCode\":\"200\""));
+        assertFalse(output.getOut().contains("another-request"));
+        assertFalse(output.getOut().contains("/recycled"));
+    }
+
     // ── Tests Regla 1: resolveMessageId con flag true/false/null ─────────────
 
     @Test
@@ -0,0 +1,104 @@
+package co.com.bancolombia.ecs.infra;
+
+import co.com.bancolombia.ecs.infra.shared.common.domain.ContextECS;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactiveLogSchedulerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ReactiveLogScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (scheduler != null) {
+            scheduler.close();
+        }
+        ContextECS.clear();
+    }
+
+    @Test
+    void shouldRunWorkOnLogThreadWithMessageId() throws InterruptedException {
+        scheduler = new ReactiveLogScheduler(1, 4);
+        List<String> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        scheduler.dispatch("message-1", Mono.fromRunnable(() -> {
+            seen.add(Thread.currentThread().getName());
+            seen.add(ContextECS.getMessageId());
+            done.countDown();
+        }));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(seen.get(0).startsWith("ecs-reactive-log-"));
+        assertEquals("message-1", seen.get(1));
+    }
+
+    @Test
+    void shouldCountRejectedWorkWhenQueueIsFull() throws InterruptedException {
+        scheduler = new ReactiveLogScheduler(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.dispatch(null, Mono.fromRunnable(() -> {
+            started.countDown();
+            awaitRelease();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        scheduler.dispatch(null, Mono.empty());
+        scheduler.dispatch(null, Mono.empty());
+
+        assertEquals(1, scheduler.getQueueSize());
+        assertEquals(0, scheduler.getRemainingCapacity());
+        assertEquals(1, scheduler.getActiveCount());
+        assertEquals(1, scheduler.getRejectedCount());
+        release.countDown();
+        scheduler.close();
+        assertEquals(2, scheduler.getCompletedCount());
+    }
+
+    @Test
+    void shouldRunInlineAndRestoreCallerMessageId() {
+        ContextECS.setMessageId("caller");
+        List<String> seen = new CopyOnWriteArrayList<>();
+
+        ReactiveLogScheduler.inline().dispatch("message-2",
+                Mono.fromRunnable(() -> seen.add(ContextECS.getMessageId())));
+
+        assertEquals(List.of("message-2"), seen);
+        assertEquals("caller", ContextECS.getMessageId());
+    }
+
+    @Test
+    void shouldNotPropagateWorkErrors() {
+        ContextECS.clear();
+
+        ReactiveLogScheduler.inline().dispatch(null, Mono.error(new IllegalStateException("boom")));
+
+        assertNull(ContextECS.getMessageId());
+    }
+
+    @Test
+    void shouldRejectInvalidQueueSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ReactiveLogScheduler(1, 0));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}